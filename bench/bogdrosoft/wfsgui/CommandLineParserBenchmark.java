@@ -0,0 +1,53 @@
+/*
+ * CommandLineParserBenchmark.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * CommandLineParserBenchmark - a benchmark of parsing the command line.
+ * @author Bogdan Drozdowski
+ */
+@Fork(1)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommandLineParserBenchmark
+{
+	private static final String[] ARGS = {"-f", "--all-zeros",	// NOI18N
+		"-n", "3", "--method", "gutmann", "--nounrm",	// NOI18N
+		"-j", "2", "--jobs-per-disk", "1",	// NOI18N
+		"/dev/sda1", "/dev/sda2", "/dev/sdb1"};	// NOI18N
+
+	/**
+	 * Parses a typical command line.
+	 * @return a parsed value, so that the work isn't optimized out.
+	 */
+	@Benchmark
+	public int parse ()
+	{
+		return CommandLineParser.parse (ARGS).getJobs ();
+	}
+}
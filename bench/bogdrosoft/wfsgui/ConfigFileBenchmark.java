@@ -0,0 +1,109 @@
+/*
+ * ConfigFileBenchmark.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * ConfigFileBenchmark - benchmarks of reading and writing the configuration file.
+ * @author Bogdan Drozdowski
+ */
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfigFileBenchmark
+{
+	private File file;
+	private ConfigFile cfg;
+
+	/**
+	 * Creates a configuration file with typical contents.
+	 * @throws Exception on error.
+	 */
+	@Setup(Level.Trial)
+	public void setUp () throws Exception
+	{
+		file = File.createTempFile ("wfsgui-bench", ".cfg");	// NOI18N
+		cfg = new ConfigFile (file);
+		List<String> fs = new ArrayList<String> ();
+		for ( int i = 1; i <= 16; i++ )
+		{
+			fs.add ("/dev/sda" + i);	// NOI18N
+		}
+		cfg.setFSList (fs);
+		cfg.setWfsPath ("/usr/local/bin/wipefreespace");	// NOI18N
+		cfg.setIterations (3);
+		cfg.setIsMethodSelected (true);
+		cfg.setMethodName ("gutmann");	// NOI18N
+		cfg.setJobs (2);
+		cfg.write ();
+	}
+
+	/**
+	 * Deletes the configuration file.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown ()
+	{
+		if ( ! file.delete () )
+		{
+			file.deleteOnExit ();
+		}
+	}
+
+	/**
+	 * Reads the configuration file.
+	 * @return the configuration, so that the work isn't optimized out.
+	 * @throws Exception on error.
+	 */
+	@Benchmark
+	public ConfigFile read () throws Exception
+	{
+		cfg.read ();
+		return cfg;
+	}
+
+	/**
+	 * Writes the configuration file.
+	 * @return the configuration, so that the work isn't optimized out.
+	 * @throws Exception on error.
+	 */
+	@Benchmark
+	public ConfigFile write () throws Exception
+	{
+		cfg.write ();
+		return cfg;
+	}
+}
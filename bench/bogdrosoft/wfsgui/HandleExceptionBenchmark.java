@@ -0,0 +1,107 @@
+/*
+ * HandleExceptionBenchmark.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * HandleExceptionBenchmark - benchmarks of displaying the exceptions,
+ * with the output discarded, from one and from many threads.
+ * @author Bogdan Drozdowski
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HandleExceptionBenchmark
+{
+	private final Exception exception = new java.io.IOException ("Broken pipe");	// NOI18N
+	private PrintStream oldOut;
+	private PrintStream oldErr;
+
+	/**
+	 * Redirects the standard outputs to nowhere.
+	 */
+	@Setup(Level.Trial)
+	public void setUp ()
+	{
+		oldOut = System.out;
+		oldErr = System.err;
+		PrintStream nowhere = new PrintStream (new OutputStream ()
+		{
+			@Override
+			public void write (int b)
+			{
+				// discard
+			}
+
+			@Override
+			public void write (byte[] b, int off, int len)
+			{
+				// discard
+			}
+		});
+		System.setOut (nowhere);
+		System.setErr (nowhere);
+	}
+
+	/**
+	 * Restores the standard outputs.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown ()
+	{
+		System.setOut (oldOut);
+		System.setErr (oldErr);
+	}
+
+	/**
+	 * Displays an exception.
+	 */
+	@Benchmark
+	public void handleException ()
+	{
+		Utils.handleException (exception, "ProgressUpdater.call->read");	// NOI18N
+	}
+
+	/**
+	 * Displays an exception from many threads at the same time.
+	 */
+	@Benchmark
+	@Threads(4)
+	public void handleExceptionContended ()
+	{
+		Utils.handleException (exception, "ProgressUpdater.call->read");	// NOI18N
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * OutputParserBenchmark.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * OutputParserBenchmark - benchmarks of parsing the output of the
+ * "wipefreespace" program, the way the ProgressUpdater and the batch mode
+ * do it: WfsOutputParser reporting to a ProgressEventDispatcher.
+ * @author Bogdan Drozdowski
+ */
+@Fork(1)
+public class OutputParserBenchmark
+{
+	// the size of the buffers the readers use:
+	private static final int CHUNK = 4096;
+	private static final int MB = 1024 * 1024;
+
+	/**
+	 * A listener which only counts the events.
+	 */
+	public static class CountingListener extends ProgressAdapter
+	{
+		/** The number of events received. */
+		public long events;
+
+		@Override
+		public void stageProgress (int jobId, String fsName, int stagePercent,
+			int fsPercent, int totalPercent)
+		{
+			events++;
+		}
+
+		@Override
+		public void fsStarted (int jobId, String fsName)
+		{
+			events++;
+		}
+	}
+
+	private static WfsOutputParser createParser (CountingListener l)
+	{
+		ProgressEventDispatcher events = new ProgressEventDispatcher ();
+		events.addListener (l);
+		WfsOutputParser parser = new WfsOutputParser
+			(SyntheticTranscript.FILESYSTEMS, SyntheticTranscript.STAGES);
+		parser.setProgressListener (events, 0);
+		return parser;
+	}
+
+	/**
+	 * The state for parsing the output one read at a time.
+	 */
+	@State(Scope.Thread)
+	public static class ChunkState
+	{
+		char[] transcript;
+		int position;
+		WfsOutputParser parser;
+		CountingListener listener;
+
+		/**
+		 * Prepares the transcript.
+		 */
+		@Setup(Level.Trial)
+		public void setUp ()
+		{
+			transcript = SyntheticTranscript.toArray (MB);
+			listener = new CountingListener ();
+			parser = createParser (listener);
+			position = 0;
+		}
+	}
+
+	/**
+	 * The state for parsing whole transcripts.
+	 */
+	@State(Scope.Thread)
+	public static class TranscriptState
+	{
+		/** The size of the transcript, in megabytes. */
+		@Param({"1", "64", "1024"})
+		public int transcriptMB;
+	}
+
+	/**
+	 * Parses one read (4096 characters) of the output.
+	 * @param s The state.
+	 * @return the number of events, so that the work isn't optimized out.
+	 */
+	@Benchmark
+	@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public long parseChunk (ChunkState s)
+	{
+		if ( s.position + CHUNK > s.transcript.length )
+		{
+			s.position = 0;
+		}
+		s.parser.consume (s.transcript, s.position, CHUNK);
+		s.position += CHUNK;
+		return s.listener.events;
+	}
+
+	/**
+	 * Parses a whole transcript, read like from the program's output.
+	 * @param s The state.
+	 * @return the number of events, so that the work isn't optimized out.
+	 * @throws IOException never.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	public long parseTranscript (TranscriptState s) throws IOException
+	{
+		CountingListener listener = new CountingListener ();
+		WfsOutputParser parser = createParser (listener);
+		SyntheticTranscript reader = new SyntheticTranscript ((long) s.transcriptMB * MB);
+		char[] buffer = new char[CHUNK];
+		int wasRead;
+		while ( (wasRead = reader.read (buffer, 0, CHUNK)) >= 0 )
+		{
+			parser.consume (buffer, 0, wasRead);
+		}
+		parser.endOfInput ();
+		return listener.events;
+	}
+}
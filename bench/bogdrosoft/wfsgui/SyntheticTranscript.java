@@ -0,0 +1,124 @@
+/*
+ * SyntheticTranscript.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.Reader;
+
+/**
+ * A Reader which returns a synthetic verbose output of the "wipefreespace"
+ * program of the given size, for the benchmarks. The output is generated
+ * while being read, so even the huge transcripts don't use much memory.
+ * @author Bogdan Drozdowski
+ */
+public class SyntheticTranscript extends Reader
+{
+	/** The number of stages of each filesystem in the transcript. */
+	public static final int STAGES = 3;
+	/** The number of different filesystems in one cycle of the transcript. */
+	public static final int FILESYSTEMS = 1000;
+
+	private static final char[] PATTERN = createPattern ();
+
+	private final long size;
+	private long position;
+
+	/**
+	 * Creates a new instance of SyntheticTranscript.
+	 * @param sizeParam The number of characters to return.
+	 */
+	public SyntheticTranscript (long sizeParam)
+	{
+		size = sizeParam;
+	}
+
+	private static char[] createPattern ()
+	{
+		StringBuilder sb = new StringBuilder (FILESYSTEMS * 400);
+		final char[] stageChars = {'*', '-', '='};
+		for ( int fs = 0; fs < FILESYSTEMS; fs++ )
+		{
+			String name = "/dev/sd" + (char) ('a' + fs % 26) + (fs / 26 + 1);	// NOI18N
+			sb.append ("wipefreespace:").append (name)	// NOI18N
+				.append (": Wiping free space\n");	// NOI18N
+			for ( int stage = 0; stage < STAGES; stage++ )
+			{
+				if ( stage == 1 )
+				{
+					// the program also prints other messages
+					sb.append ("wipefreespace:").append (name)	// NOI18N
+						.append (": Wiping undelete data\n");	// NOI18N
+				}
+				for ( int i = 0; i < 100; i++ )
+				{
+					sb.append (stageChars[stage]);
+				}
+				sb.append ('\n');
+			}
+		}
+		char[] ret = new char[sb.length ()];
+		sb.getChars (0, ret.length, ret, 0);
+		return ret;
+	}
+
+	/**
+	 * Creates a synthetic transcript in memory.
+	 * @param length The number of characters.
+	 * @return the transcript.
+	 */
+	public static char[] toArray (int length)
+	{
+		char[] ret = new char[length];
+		new SyntheticTranscript (length).read (ret, 0, length);
+		return ret;
+	}
+
+	@Override
+	public int read (char[] buf, int off, int len)
+	{
+		if ( position >= size )
+		{
+			return -1;
+		}
+		int toRead = (int) Math.min (len, size - position);
+		int done = 0;
+		while ( done < toRead )
+		{
+			int patternPos = (int) ((position + done) % PATTERN.length);
+			int n = Math.min (toRead - done, PATTERN.length - patternPos);
+			System.arraycopy (PATTERN, patternPos, buf, off + done, n);
+			done += n;
+		}
+		position += toRead;
+		return toRead;
+	}
+
+	@Override
+	public void close ()
+	{
+		position = size;
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "SyntheticTranscript(" + size + ")";	// NOI18N
+	}
+}
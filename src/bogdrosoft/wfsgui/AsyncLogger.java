@@ -0,0 +1,466 @@
+/*
+ * AsyncLogger.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.PrintStream;
+import java.util.Calendar;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A class that displays the exceptions on a separate thread, so that the
+ * threads reporting them don't wait for each other or for the output.
+ * The exceptions are put in a lock-free queue and written in batches,
+ * with one flush of the output for each batch. When too many exceptions
+ * are waiting, the new ones are dropped and only their number is shown.
+ * Repeated exceptions can be summarized by an ExceptionDeduplicator;
+ * the summaries are shown only on the error output.
+ * flush () should be called before the program exits, because the
+ * writing thread is a daemon thread.
+ * @author Bogdan Drozdowski
+ */
+public class AsyncLogger
+{
+	/** The default maximum number of exceptions waiting to be written. */
+	public static final int DEFAULT_MAX_QUEUED = 10000;
+
+	/** The logger used by Utils.handleException (). */
+	public static final AsyncLogger INSTANCE = new AsyncLogger (null, null,
+		DEFAULT_MAX_QUEUED, new ExceptionDeduplicator
+			(ExceptionDeduplicator.DEFAULT_INTERVAL_MILLIS,
+			ExceptionDeduplicator.DEFAULT_MAX_ENTRIES));
+
+	private static final String MSG_START = ", Message='";			// NOI18N
+	private static final String DATA_START = ", Data='";			// NOI18N
+	private static final String EXCEPTION_AT_STR = "\tat\t";		// NOI18N
+	private static final String UNKNOWN_CLASS = "<Unknown class>";		// NOI18N
+	private static final String UNKNOWN_METHOD = "<Unknown method>";	// NOI18N
+	private static final String UNKNOWN_FILE = "<Unknown file>";		// NOI18N
+	private static final boolean DEBUG_EXCEPTIONS = true;
+	// the most causes shown, in case they form a loop:
+	private static final int MAX_CAUSES = 16;
+	// the most exceptions written with one flush:
+	private static final int MAX_BATCH = 256;
+	private static final long MILLIS_PER_SECOND = 1000;
+	// how often to check for the summaries of repeated exceptions:
+	private static final long SUMMARY_CHECK_NANOS = 1000L * 1000 * 1000;
+
+	private final PrintStream out;
+	private final PrintStream err;
+	private final int maxQueued;
+	private final ConcurrentLinkedQueue<Entry> queue =
+		new ConcurrentLinkedQueue<Entry> ();
+	private final AtomicInteger queued = new AtomicInteger (0);
+	private final AtomicLong accepted = new AtomicLong (0);
+	private final AtomicLong dropped = new AtomicLong (0);
+	private final AtomicBoolean started = new AtomicBoolean (false);
+	private final AtomicInteger flushing = new AtomicInteger (0);
+	private final Object flushLock = new Object ();
+	private volatile long written;
+	// changed only by the writing thread:
+	private volatile long droppedShown;
+	private volatile boolean summariesPending;
+	private volatile Thread writer;
+
+	// used only by the writing thread:
+	private final ExceptionDeduplicator dedup;
+	private long cachedSecond = -1;
+	private String cachedTime = Utils.EMPTY_STR;
+
+	/**
+	 * Creates a new instance of AsyncLogger.
+	 * @param outParam The stream for the exceptions shown on the standard
+	 *	output, null for System.out at the time of writing.
+	 * @param errParam The stream for all the exceptions, null for
+	 *	System.err at the time of writing.
+	 * @param maxQueuedParam The maximum number of exceptions waiting to be written.
+	 */
+	AsyncLogger (PrintStream outParam, PrintStream errParam, int maxQueuedParam)
+	{
+		this (outParam, errParam, maxQueuedParam, null);
+	}
+
+	/**
+	 * Creates a new instance of AsyncLogger.
+	 * @param outParam The stream for the exceptions shown on the standard
+	 *	output, null for System.out at the time of writing.
+	 * @param errParam The stream for all the exceptions, null for
+	 *	System.err at the time of writing.
+	 * @param maxQueuedParam The maximum number of exceptions waiting to be written.
+	 * @param dedupParam The summarizer of repeated exceptions, used only
+	 *	by the writing thread, null to show all the exceptions in full.
+	 */
+	AsyncLogger (PrintStream outParam, PrintStream errParam, int maxQueuedParam,
+		ExceptionDeduplicator dedupParam)
+	{
+		out = outParam;
+		err = errParam;
+		maxQueued = Math.max (1, maxQueuedParam);
+		dedup = dedupParam;
+	}
+
+	/**
+	 * Puts the given exception in the queue of exceptions to display.
+	 * Doesn't wait for the exception to be displayed.
+	 * @param ex The exception to display.
+	 * @param data Any additional data to display.
+	 * @param onStdout Whether to display the exception on the standard
+	 *	output, too.
+	 */
+	public void log (Throwable ex, Object data, boolean onStdout)
+	{
+		if ( ex == null )
+		{
+			return;
+		}
+		if ( queued.incrementAndGet () > maxQueued )
+		{
+			queued.decrementAndGet ();
+			dropped.incrementAndGet ();
+			return;
+		}
+		String dataStr = null;
+		if ( data != null )
+		{
+			try
+			{
+				// now, because the object may change later
+				dataStr = data.toString ();
+			}
+			catch (Throwable e)
+			{
+				// ignore here to avoid recurrency
+			}
+		}
+		accepted.incrementAndGet ();
+		queue.offer (new Entry (System.currentTimeMillis (), ex, dataStr, onStdout));
+		startWriter ();
+		LockSupport.unpark (writer);
+	}
+
+	/**
+	 * Waits until all the exceptions queued so far are displayed, or
+	 * counted as dropped, and the repeated ones are summarized.
+	 * @param timeoutMillis The maximum time to wait, in milliseconds.
+	 * @return true if all the exceptions have been displayed.
+	 */
+	public boolean flush (long timeoutMillis)
+	{
+		long target = accepted.get ();
+		long droppedTarget = dropped.get ();
+		long deadline = System.currentTimeMillis () + timeoutMillis;
+		flushing.incrementAndGet ();
+		try
+		{
+			synchronized (flushLock)
+			{
+				while ( written < target || droppedShown < droppedTarget
+					|| summariesPending )
+				{
+					long left = deadline - System.currentTimeMillis ();
+					if ( left <= 0 )
+					{
+						return false;
+					}
+					LockSupport.unpark (writer);
+					try
+					{
+						flushLock.wait (left);
+					}
+					catch (InterruptedException ex)
+					{
+						Thread.currentThread ().interrupt ();
+						return false;
+					}
+				}
+			}
+		}
+		finally
+		{
+			flushing.decrementAndGet ();
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the number of exceptions dropped because too many were waiting.
+	 * @return the number of exceptions dropped.
+	 */
+	public long getDropped ()
+	{
+		return dropped.get ();
+	}
+
+	private void startWriter ()
+	{
+		if ( started.get () || ! started.compareAndSet (false, true) )
+		{
+			return;
+		}
+		Thread t = new DaemonThreadFactory ("wfsgui-logger").newThread	// NOI18N
+			(new Writer ());
+		writer = t;
+		t.start ();
+	}
+
+	private void writeQueued ()
+	{
+		StringBuilder toErr = new StringBuilder ();
+		StringBuilder toOut = new StringBuilder ();
+		int n = 0;
+		Entry e;
+		while ( n < MAX_BATCH && (e = queue.poll ()) != null )
+		{
+			queued.decrementAndGet ();
+			n++;
+			if ( dedup != null && ! dedup.accept (e.exception, e.data, e.time) )
+			{
+				// only counted
+				continue;
+			}
+			int start = toErr.length ();
+			try
+			{
+				format (toErr, getTime (e.time), e.exception, e.data);
+			}
+			catch (Throwable ex)
+			{
+				// ignore here to avoid recurrency
+			}
+			if ( e.onStdout )
+			{
+				toOut.append (toErr, start, toErr.length ());
+			}
+		}
+		long nowDropped = dropped.get ();
+		if ( nowDropped != droppedShown )
+		{
+			String msg = getTime (System.currentTimeMillis ())
+				+ (nowDropped - droppedShown)
+				+ " more exceptions not shown" + Utils.LF;	// NOI18N
+			toErr.append (msg);
+			droppedShown = nowDropped;
+		}
+		if ( dedup != null && dedup.hasPending () )
+		{
+			long now = System.currentTimeMillis ();
+			for ( String summary : dedup.getSummaries (now, flushing.get () > 0) )
+			{
+				toErr.append (getTime (now)).append (summary).append (Utils.LF);
+			}
+			summariesPending = dedup.hasPending ();
+		}
+		print ((out != null)? out : System.out, toOut);
+		print ((err != null)? err : System.err, toErr);
+		synchronized (flushLock)
+		{
+			written += n;
+			flushLock.notifyAll ();
+		}
+	}
+
+	private static void print (PrintStream stream, StringBuilder sb)
+	{
+		if ( stream == null || sb.length () == 0 )
+		{
+			return;
+		}
+		// one write and one flush for the whole batch
+		stream.print (sb);
+		stream.flush ();
+	}
+
+	/**
+	 * Gets the time to show with the exceptions. It's made only once
+	 * in a second.
+	 */
+	private String getTime (long millis)
+	{
+		long second = millis / MILLIS_PER_SECOND;
+		if ( second == cachedSecond )
+		{
+			return cachedTime;
+		}
+		Calendar c = Calendar.getInstance ();
+		c.setTimeInMillis (millis);
+		StringBuilder sb = new StringBuilder (21);
+		sb.append (c.get (Calendar.YEAR)).append (Utils.DASH);
+		append2 (sb, Utils.convertCalendarMonthToReal (c.get (Calendar.MONTH)));
+		sb.append (Utils.DASH);
+		append2 (sb, c.get (Calendar.DAY_OF_MONTH));
+		sb.append (Utils.SPACE);
+		append2 (sb, c.get (Calendar.HOUR_OF_DAY));
+		sb.append (Utils.COLON);
+		append2 (sb, c.get (Calendar.MINUTE));
+		sb.append (Utils.COLON);
+		append2 (sb, c.get (Calendar.SECOND));
+		sb.append (Utils.COLON).append (Utils.SPACE);
+		cachedTime = sb.toString ();
+		cachedSecond = second;
+		return cachedTime;
+	}
+
+	private static void append2 (StringBuilder sb, int value)
+	{
+		if ( value < 10 )
+		{
+			sb.append (Utils.ZERO);
+		}
+		sb.append (value);
+	}
+
+	/**
+	 * Formats the exception the same way as Utils.handleException () always did:
+	 * the time, the exception, its message, the data and the stack trace,
+	 * followed by the causes.
+	 * @param sb The buffer to append to.
+	 * @param time The time to show.
+	 * @param ex The exception to show.
+	 * @param data The additional data to show or null.
+	 */
+	static void format (StringBuilder sb, String time, Throwable ex, String data)
+	{
+		for ( int i = 0; ex != null && i < MAX_CAUSES; i++ )
+		{
+			sb.append (time).append (ex);
+			String msg = ex.getMessage ();
+			if ( msg != null )
+			{
+				sb.append (MSG_START).append (msg).append (Utils.APOSTROPHE);
+			}
+			if ( data != null )
+			{
+				sb.append (DATA_START).append (data).append (Utils.APOSTROPHE);
+			}
+			sb.append (Utils.LF);
+			StackTraceElement[] ste = ex.getStackTrace ();
+			if ( ste != null )
+			{
+				for ( StackTraceElement el : ste )
+				{
+					if ( el != null )
+					{
+						formatStackElement (sb, el);
+					}
+				}
+			}
+			// the causes are shown without the data
+			ex = ex.getCause ();
+			data = null;
+		}
+	}
+
+	private static void formatStackElement (StringBuilder sb, StackTraceElement el)
+	{
+		String clazz = el.getClassName ();
+		String file = el.getFileName ();
+		String function = el.getMethodName ();
+		if ( clazz != null && ! DEBUG_EXCEPTIONS
+			&& ! clazz.startsWith ("bogdro") )	// NOI18N
+		{
+			// let's display only our files
+			return;
+		}
+		sb.append (EXCEPTION_AT_STR);
+		sb.append ((clazz != null)? clazz : UNKNOWN_CLASS);
+		sb.append (Utils.DOT).append ((function != null)? function : UNKNOWN_METHOD);
+		sb.append (Utils.SPACE).append (Utils.L_PAREN);
+		sb.append ((file != null)? file : UNKNOWN_FILE);
+		sb.append (Utils.COLON).append (el.getLineNumber ()).append (Utils.R_PAREN);
+		sb.append (Utils.LF);
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "AsyncLogger(" + queued.get () + Utils.COMMA + dropped.get () + ")";	// NOI18N
+	}
+
+	/**
+	 * An exception waiting to be displayed.
+	 */
+	private static class Entry
+	{
+		private final long time;
+		private final Throwable exception;
+		private final String data;
+		private final boolean onStdout;
+
+		private Entry (long t, Throwable ex, String d, boolean o)
+		{
+			time = t;
+			exception = ex;
+			data = d;
+			onStdout = o;
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "AsyncLogger.Entry(" + exception + ")";	// NOI18N
+		}
+	}
+
+	/**
+	 * Writes the queued exceptions, waiting when there are none.
+	 */
+	private class Writer implements Runnable
+	{
+		@Override
+		public void run ()
+		{
+			while ( true )
+			{
+				if ( queue.isEmpty () && dropped.get () == droppedShown )
+				{
+					if ( ! summariesPending )
+					{
+						// woken up by log () and flush ()
+						LockSupport.park (this);
+						continue;
+					}
+					if ( flushing.get () == 0 )
+					{
+						// wake up for the next summaries, too
+						LockSupport.parkNanos (this, SUMMARY_CHECK_NANOS);
+					}
+				}
+				try
+				{
+					writeQueued ();
+				}
+				catch (Throwable ex)
+				{
+					// ignore here to avoid recurrency
+				}
+			}
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "AsyncLogger.Writer";	// NOI18N
+		}
+	}
+}
@@ -0,0 +1,591 @@
+/*
+ * BatchRunner.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The headless (batch) mode of the program. Runs the wiping with the
+ * options from the command line and the configuration file and reports
+ * the progress on the given stream, one event per line, with the fields
+ * separated by tabs:
+ * <pre>
+ * start	job=0	fs=/dev/sda1	name=home
+ * fs_start	job=0	fs=/dev/sda1
+ * progress	job=0	fs=/dev/sda1	stage=45	fs_pct=15	total=7
+ * fs_done	job=0	fs=/dev/sda1
+ * error	job=0	msg=the line the program printed on its error output
+ * exit	job=0	code=0
+ * done	code=0
+ * </pre>
+ * The "progress" lines also get the speed and the time left, when
+ * they're known (see CliProgressReporter).
+ * The "name" field is given only for the jobs from the named sections
+ * of the configuration file, which are run together with the filesystems
+ * given on the command line.
+ * With --merge-errors or --error-file, the "error" lines aren't
+ * reported, because the program's error output isn't read separately.
+ * The progress events are printed by a CliProgressReporter. More
+ * listeners can be added with addProgressListener ().
+ * Doesn't use AWT or Swing.
+ * @author Bogdan Drozdowski
+ */
+public class BatchRunner implements WipeScheduler.Listener
+{
+	/** The exit code when all filesystems have been wiped. */
+	public static final int EXIT_OK = 0;
+	/** The exit code when no filesystems have been given. */
+	public static final int EXIT_NO_FILESYSTEMS = 64;
+	/** The exit code on an internal error. */
+	public static final int EXIT_ERROR = 70;
+	/** The exit code when the "wipefreespace" program can't be started. */
+	public static final int EXIT_CANNOT_START = 127;
+
+	private static final int BUFFER_SIZE = 4096;
+	// how long to wait for the rest of the output after the programs exit:
+	private static final long READ_TIMEOUT_SEC = 10;
+	private static final char TAB = '\t';
+
+	private final PrintStream out;
+	private final CountDownLatch allDone = new CountDownLatch (1);
+	private final ProgressEventDispatcher events = new ProgressEventDispatcher ();
+	private WfsLauncher launcher = new WfsLauncher ();
+	private final List<Future<?>> readers = new ArrayList<Future<?>> ();
+	// the jobs whose exit isn't reported yet, by the job's number:
+	private final Map<Integer, PendingExit> exits =
+		new HashMap<Integer, PendingExit> ();
+	private int exitCode = EXIT_OK;
+
+	/**
+	 * Creates a new instance of BatchRunner.
+	 * @param outParam The stream to report the progress on.
+	 */
+	public BatchRunner (PrintStream outParam)
+	{
+		if ( outParam == null )
+		{
+			throw new IllegalArgumentException ("BatchRunner:outParam = null");	// NOI18N
+		}
+		out = outParam;
+	}
+
+	/**
+	 * Registers an additional listener of the progress events.
+	 * Should be called before run ().
+	 * @param l The listener to add.
+	 */
+	public void addProgressListener (ProgressListener l)
+	{
+		events.addListener (l);
+	}
+
+	/**
+	 * Sets the launcher which starts the "wipefreespace" programs.
+	 * Should be called before run ().
+	 * @param l The launcher to use.
+	 */
+	public void setLauncher (WfsLauncher l)
+	{
+		if ( l == null )
+		{
+			throw new IllegalArgumentException ("BatchRunner.setLauncher:l = null");	// NOI18N
+		}
+		launcher = l;
+	}
+
+	/**
+	 * Tells if the given command line requests the batch mode.
+	 * @param args The command line.
+	 * @return true if the batch mode has been requested.
+	 */
+	public static boolean isBatchRequested (String[] args)
+	{
+		if ( args == null )
+		{
+			return false;
+		}
+		for ( String arg : args )
+		{
+			if ( "--batch".equals (arg.toLowerCase (Locale.ENGLISH)) )	// NOI18N
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Runs the wiping in the batch mode, reporting on the standard output.
+	 * @param opts The options from the command line.
+	 * @return the exit code for the program.
+	 */
+	public static int start (WipeOptions opts)
+	{
+		if ( opts == null )
+		{
+			throw new IllegalArgumentException ("BatchRunner.start:opts = null");	// NOI18N
+		}
+		// keep the standard output machine-readable:
+		Utils.setExceptionsOnStdout (false);
+		try
+		{
+			int maxJobs = opts.getJobs ();
+			List<WipeJob> jobs = new ArrayList<WipeJob> ();
+			List<String> fsList = opts.getFsList ();
+			if ( fsList != null && ! fsList.isEmpty () )
+			{
+				jobs.addAll (WipeJob.createJobs (opts.getCommand (), fsList,
+					opts.getNumberOfStages (), maxJobs > 1));
+			}
+			jobs.addAll (WipeJob.createJobs (opts.getConfigSections (),
+				jobs.size (), maxJobs > 1));
+			BatchRunner runner = new BatchRunner (System.out);
+			runner.setLauncher (WfsLauncher.fromOptions (opts));
+			return runner.run (jobs, maxJobs, opts.getJobsPerDisk ());
+		}
+		catch (Throwable ex)
+		{
+			Utils.handleException (ex, "BatchRunner.start");	// NOI18N
+			return EXIT_ERROR;
+		}
+	}
+
+	/**
+	 * Runs the wiping and waits for it to finish.
+	 * @param options The program to run and its options, without the filesystems.
+	 * @param fsList The filesystems to wipe.
+	 * @param nStages The number of wiping stages (number of things to wipe on each filesystem).
+	 * @param maxJobs The maximum number of jobs run at the same time.
+	 * @param maxJobsPerDisk The maximum number of jobs using the same
+	 *	disk run at the same time, 0 meaning no limit.
+	 * @return the exit code for the program: EXIT_OK, the exit code of
+	 *	the first failed job or one of the EXIT_* values.
+	 */
+	public int run (List<String> options, List<String> fsList,
+		int nStages, int maxJobs, int maxJobsPerDisk)
+	{
+		if ( fsList == null || fsList.isEmpty () )
+		{
+			return run (new ArrayList<WipeJob> (), maxJobs, maxJobsPerDisk);
+		}
+		return run (WipeJob.createJobs (options, fsList, nStages, maxJobs > 1),
+			maxJobs, maxJobsPerDisk);
+	}
+
+	/**
+	 * Runs the given jobs and waits for them to finish.
+	 * @param jobs The jobs to run, numbered consecutively from 0.
+	 * @param maxJobs The maximum number of jobs run at the same time.
+	 * @param maxJobsPerDisk The maximum number of jobs using the same
+	 *	disk run at the same time, 0 meaning no limit.
+	 * @return the exit code for the program: EXIT_OK, the exit code of
+	 *	the first failed job or one of the EXIT_* values.
+	 */
+	public int run (List<WipeJob> jobs, int maxJobs, int maxJobsPerDisk)
+	{
+		if ( jobs == null || jobs.isEmpty () )
+		{
+			report ("done" + TAB + "code=" + EXIT_NO_FILESYSTEMS);	// NOI18N
+			return EXIT_NO_FILESYSTEMS;
+		}
+		ProgressAggregator aggregator = new ProgressAggregator (jobs);
+		CliProgressReporter reporter = new CliProgressReporter (out,
+			aggregator, new ProgressRateEstimator (aggregator));
+		events.addListener (reporter);
+		ProgressListener stats = WipeStats.getInstance ().newRunListener (aggregator);
+		events.addListener (stats);
+		ReaderExecutor.setMaxProcesses (maxJobs);
+		final WipeScheduler scheduler = new WipeScheduler (maxJobs,
+			maxJobsPerDisk,
+			(maxJobsPerDisk > 0)? new DeviceResolver () : null, this);
+		scheduler.setLauncher (launcher);
+		// don't leave the programs running when we get killed:
+		Thread killer = new Thread (new Runnable ()
+		{
+			@Override
+			public void run ()
+			{
+				scheduler.cancel ();
+			}
+
+			@Override
+			public String toString ()
+			{
+				return "BatchRunner.shutdownHook";	// NOI18N
+			}
+		}, "wfsgui-batch-shutdown");	// NOI18N
+		Runtime.getRuntime ().addShutdownHook (killer);
+		try
+		{
+			scheduler.start (jobs);
+			allDone.await ();
+			// let the readers report the rest of the output
+			waitForReaders ();
+			reportPendingExits ();
+		}
+		catch (IOException ex)
+		{
+			Utils.handleException (ex, "BatchRunner.run->start");	// NOI18N
+			setExitCode (EXIT_CANNOT_START);
+		}
+		catch (InterruptedException ex)
+		{
+			Utils.handleException (ex, "BatchRunner.run->wait");	// NOI18N
+			scheduler.cancel ();
+			setExitCode (EXIT_ERROR);
+			Thread.currentThread ().interrupt ();
+		}
+		finally
+		{
+			try
+			{
+				Runtime.getRuntime ().removeShutdownHook (killer);
+			}
+			catch (IllegalStateException ex)
+			{
+				// already shutting down
+			}
+			events.removeListener (reporter);
+			events.removeListener (stats);
+		}
+		int code = getExitCode ();
+		report ("done" + TAB + "code=" + code);	// NOI18N
+		return code;
+	}
+
+	@Override
+	public void jobStarted (WipeJob job, Process process)
+	{
+		StringBuilder fs = new StringBuilder ();
+		for ( String f : job.getFilesystems () )
+		{
+			if ( fs.length () > 0 )
+			{
+				fs.append (Utils.COMMA);
+			}
+			fs.append (f);
+		}
+		if ( job.getName () != null )
+		{
+			report ("start" + TAB + "job=" + job.getId () + TAB + "fs=" + fs	// NOI18N
+				+ TAB + "name=" + job.getName ());	// NOI18N
+		}
+		else
+		{
+			report ("start" + TAB + "job=" + job.getId () + TAB + "fs=" + fs);	// NOI18N
+		}
+		boolean readErrors = launcher.hasErrorStream ();
+		synchronized (exits)
+		{
+			// before the readers start, because they may end at once
+			exits.put (Integer.valueOf (job.getId ()),
+				new PendingExit ((readErrors)? 2 : 1));
+		}
+		addReader (new OutputReader (job, process.getInputStream ()));
+		if ( readErrors )
+		{
+			addReader (new ErrorReader (job, process.getErrorStream ()));
+		}
+	}
+
+	@Override
+	public void jobFinished (WipeJob job, int code)
+	{
+		// reported when the job's readers are done too, so that the rest of
+		// the job's output comes before its exit - without waiting here
+		partDone (job.getId (), true, code);
+		if ( code == WipeScheduler.EXIT_NOT_STARTED )
+		{
+			setExitCode (EXIT_CANNOT_START);
+		}
+		else if ( code != 0 )
+		{
+			setExitCode (code);
+		}
+	}
+
+	@Override
+	public void allJobsFinished ()
+	{
+		allDone.countDown ();
+	}
+
+	private void addReader (Runnable reader)
+	{
+		Future<?> f = ReaderExecutor.submit (reader);
+		synchronized (readers)
+		{
+			readers.add (f);
+		}
+	}
+
+	/**
+	 * Marks a part of a job as done: its process or one of its readers.
+	 * The job's exit is reported after all the parts are done.
+	 * @param jobId The number of the job.
+	 * @param exited true if the job's process has exited, false if
+	 *	a reader has finished.
+	 * @param code The process' exit code, if exited.
+	 */
+	private void partDone (int jobId, boolean exited, int code)
+	{
+		boolean report;
+		int exitCode = code;
+		synchronized (exits)
+		{
+			PendingExit p = exits.get (Integer.valueOf (jobId));
+			if ( p == null )
+			{
+				// a job which hasn't been started, or reported already
+				report = exited;
+			}
+			else
+			{
+				if ( exited )
+				{
+					p.exited = true;
+					p.code = code;
+				}
+				p.parts--;
+				report = p.parts <= 0;
+				if ( report )
+				{
+					exits.remove (Integer.valueOf (jobId));
+				}
+				exitCode = p.code;
+			}
+		}
+		if ( report )
+		{
+			events.processExited (jobId, exitCode);
+		}
+	}
+
+	/**
+	 * Reports the exits of the jobs whose readers haven't finished in time.
+	 */
+	private void reportPendingExits ()
+	{
+		Map<Integer, PendingExit> left;
+		synchronized (exits)
+		{
+			left = new HashMap<Integer, PendingExit> (exits);
+			exits.clear ();
+		}
+		for ( Map.Entry<Integer, PendingExit> e : left.entrySet () )
+		{
+			if ( e.getValue ().exited )
+			{
+				events.processExited (e.getKey ().intValue (), e.getValue ().code);
+			}
+		}
+	}
+
+	private void waitForReaders () throws InterruptedException
+	{
+		List<Future<?>> toWait;
+		synchronized (readers)
+		{
+			toWait = new ArrayList<Future<?>> (readers);
+			readers.clear ();
+		}
+		long deadline = System.nanoTime ()
+			+ TimeUnit.SECONDS.toNanos (READ_TIMEOUT_SEC);
+		for ( Future<?> f : toWait )
+		{
+			try
+			{
+				f.get (Math.max (0, deadline - System.nanoTime ()),
+					TimeUnit.NANOSECONDS);
+			}
+			catch (ExecutionException ex)
+			{
+				Utils.handleException (ex, "BatchRunner.waitForReaders");	// NOI18N
+			}
+			catch (TimeoutException ex)
+			{
+				// the rest of the output is lost
+				Utils.handleException (ex, "BatchRunner.waitForReaders");	// NOI18N
+				return;
+			}
+		}
+	}
+
+	private synchronized void setExitCode (int code)
+	{
+		// the first failure is reported
+		if ( exitCode == EXIT_OK )
+		{
+			exitCode = code;
+		}
+	}
+
+	private synchronized int getExitCode ()
+	{
+		return exitCode;
+	}
+
+	private void report (String line)
+	{
+		// one call, so that the lines from different threads don't mix
+		out.println (line);
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "BatchRunner";	// NOI18N
+	}
+
+	/**
+	 * Reads the program's standard output and reports the progress.
+	 */
+	private class OutputReader implements Runnable
+	{
+		private final WipeJob job;
+		private final InputStream stream;
+
+		private OutputReader (WipeJob j, InputStream s)
+		{
+			job = j;
+			stream = s;
+		}
+
+		@Override
+		public void run ()
+		{
+			WfsOutputParser parser = new WfsOutputParser
+				(job.getFilesystems ().size (), job.getNumberOfStages ());
+			parser.setProgressListener (events, job.getId ());
+			parser.setCharCounter (WipeStats.getInstance ().getOutputCharsCounter ());
+			// don't force a specific encoding, because the program
+			// might have been translated
+			Reader reader = new InputStreamReader (stream);
+			char[] buffer = new char[BUFFER_SIZE];
+			try
+			{
+				int wasRead;
+				while ( (wasRead = reader.read (buffer)) >= 0 )
+				{
+					// the parser reports only the changes
+					parser.consume (buffer, 0, wasRead);
+				}
+				parser.endOfInput ();
+			}
+			catch (IOException ex)
+			{
+				Utils.handleException (ex, "BatchRunner.OutputReader");	// NOI18N
+			}
+			finally
+			{
+				partDone (job.getId (), false, 0);
+			}
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "BatchRunner.OutputReader(" + job + ")";	// NOI18N
+		}
+	}
+
+	/**
+	 * Reads the program's error output and reports it.
+	 */
+	private class ErrorReader implements Runnable
+	{
+		private final WipeJob job;
+		private final InputStream stream;
+
+		private ErrorReader (WipeJob j, InputStream s)
+		{
+			job = j;
+			stream = s;
+		}
+
+		@Override
+		public void run ()
+		{
+			ErrorLineParser parser = new ErrorLineParser (events, job.getId ());
+			Reader reader = new InputStreamReader (stream);
+			char[] buffer = new char[BUFFER_SIZE];
+			try
+			{
+				int wasRead;
+				while ( (wasRead = reader.read (buffer)) >= 0 )
+				{
+					parser.consume (buffer, 0, wasRead);
+				}
+				parser.endOfInput ();
+			}
+			catch (IOException ex)
+			{
+				Utils.handleException (ex, "BatchRunner.ErrorReader");	// NOI18N
+			}
+			finally
+			{
+				partDone (job.getId (), false, 0);
+			}
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "BatchRunner.ErrorReader(" + job + ")";	// NOI18N
+		}
+	}
+
+	/**
+	 * A started job whose exit isn't reported yet.
+	 */
+	private static class PendingExit
+	{
+		// the readers left, plus the process:
+		private int parts;
+		private boolean exited;
+		private int code;
+
+		private PendingExit (int readerCount)
+		{
+			parts = readerCount + 1;
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "BatchRunner.PendingExit(" + parts + Utils.COMMA + code + ")";	// NOI18N
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * CliProgressReporter.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.PrintStream;
+
+/**
+ * A ProgressListener which prints the progress events on the given stream,
+ * one event per line, with the fields separated by tabs:
+ * <pre>
+ * fs_start	job=0	fs=/dev/sda1
+ * progress	job=0	fs=/dev/sda1	stage=45	fs_pct=15	total=7
+ * fs_done	job=0	fs=/dev/sda1
+ * error	job=0	msg=the line the program printed on its error output
+ * exit	job=0	code=0
+ * </pre>
+ * The "total" field is the progress of the whole run, if a
+ * ProgressAggregator is given, or of the job otherwise.
+ * If a ProgressRateEstimator is given, the "progress" lines also get
+ * the speed of wiping the filesystem in bytes per second ("rate"), the
+ * estimated seconds left for the filesystem ("eta") and for the whole
+ * run ("total_eta"), each only when it's known:
+ * <pre>
+ * progress	job=0	fs=/mnt/data	stage=45	fs_pct=15	total=7	rate=52428800	eta=340	total_eta=1815
+ * </pre>
+ * Doesn't use AWT or Swing.
+ * @author Bogdan Drozdowski
+ */
+public class CliProgressReporter implements ProgressListener
+{
+	private static final char TAB = '\t';
+
+	private final PrintStream out;
+	private final ProgressAggregator aggregator;
+	private final ProgressRateEstimator estimator;
+
+	/**
+	 * Creates a new instance of CliProgressReporter.
+	 * @param outParam The stream to print the events on.
+	 * @param aggregatorParam The aggregator of the progress of all the
+	 *	jobs, or null to print the progress of the single jobs.
+	 */
+	public CliProgressReporter (PrintStream outParam, ProgressAggregator aggregatorParam)
+	{
+		this (outParam, aggregatorParam, null);
+	}
+
+	/**
+	 * Creates a new instance of CliProgressReporter.
+	 * @param outParam The stream to print the events on.
+	 * @param aggregatorParam The aggregator of the progress of all the
+	 *	jobs, or null to print the progress of the single jobs.
+	 * @param estimatorParam The estimator of the speed and the time left
+	 *	or null to not print them. It gets the events from this reporter,
+	 *	so it shouldn't be registered as a listener by itself.
+	 */
+	public CliProgressReporter (PrintStream outParam, ProgressAggregator aggregatorParam,
+		ProgressRateEstimator estimatorParam)
+	{
+		if ( outParam == null )
+		{
+			throw new IllegalArgumentException ("CliProgressReporter:outParam = null");	// NOI18N
+		}
+		out = outParam;
+		aggregator = aggregatorParam;
+		estimator = estimatorParam;
+	}
+
+	@Override
+	public void fsStarted (int jobId, String fsName)
+	{
+		if ( estimator != null )
+		{
+			estimator.fsStarted (jobId, fsName);
+		}
+		report ("fs_start" + TAB + "job=" + jobId + TAB + "fs=" + fsName);	// NOI18N
+	}
+
+	@Override
+	public void stageProgress (int jobId, String fsName, int stagePercent,
+		int fsPercent, int totalPercent)
+	{
+		int total = totalPercent;
+		if ( aggregator != null )
+		{
+			total = aggregator.update (jobId, totalPercent);
+		}
+		StringBuilder line = new StringBuilder (128);
+		line.append ("progress").append (TAB).append ("job=").append (jobId)	// NOI18N
+			.append (TAB).append ("fs=").append (fsName)	// NOI18N
+			.append (TAB).append ("stage=").append (stagePercent)	// NOI18N
+			.append (TAB).append ("fs_pct=").append (fsPercent)	// NOI18N
+			.append (TAB).append ("total=").append (total);	// NOI18N
+		if ( estimator != null )
+		{
+			estimator.stageProgress (jobId, fsName, stagePercent,
+				fsPercent, totalPercent);
+			appendEstimate (line, estimator.getFsEstimate (jobId),
+				estimator.getTotalEstimate ());
+		}
+		report (line.toString ());
+	}
+
+	private static void appendEstimate (StringBuilder line,
+		ProgressRateEstimator.Estimate fs, ProgressRateEstimator.Estimate run)
+	{
+		if ( fs.getBytesPerSecond () >= 0 )
+		{
+			line.append (TAB).append ("rate=").append (fs.getBytesPerSecond ());	// NOI18N
+		}
+		if ( fs.getSecondsLeft () >= 0 )
+		{
+			line.append (TAB).append ("eta=").append (fs.getSecondsLeft ());	// NOI18N
+		}
+		if ( run.getSecondsLeft () >= 0 )
+		{
+			line.append (TAB).append ("total_eta=").append (run.getSecondsLeft ());	// NOI18N
+		}
+	}
+
+	@Override
+	public void fsFinished (int jobId, String fsName)
+	{
+		report ("fs_done" + TAB + "job=" + jobId + TAB + "fs=" + fsName);	// NOI18N
+	}
+
+	@Override
+	public void errorLine (int jobId, CharSequence line)
+	{
+		report ("error" + TAB + "job=" + jobId + TAB + "msg=" + line);	// NOI18N
+	}
+
+	@Override
+	public void processExited (int jobId, int exitCode)
+	{
+		if ( estimator != null )
+		{
+			estimator.processExited (jobId, exitCode);
+		}
+		if ( aggregator != null )
+		{
+			// count the job as done in the total progress
+			aggregator.update (jobId, 100);
+		}
+		report ("exit" + TAB + "job=" + jobId + TAB + "code=" + exitCode);	// NOI18N
+	}
+
+	private void report (String line)
+	{
+		// one call, so that the lines from different threads don't mix
+		out.println (line);
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "CliProgressReporter";	// NOI18N
+	}
+}
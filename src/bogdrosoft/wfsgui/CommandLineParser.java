@@ -22,7 +22,6 @@ package bogdrosoft.wfsgui;
 
 import bogdrosoft.wfsgui.gui.WfsMainWindow;
 import java.io.File;
-import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
@@ -44,12 +43,20 @@ public class CommandLineParser
 		CMDLINE_BUNDLE.getString("superblock_offset") +
 		"\n-B|--blocksize <size>\t- " +	// NOI18N
 		CMDLINE_BUNDLE.getString("block_size") +
+		"\n--batch\t\t\t- " +	// NOI18N
+		CMDLINE_BUNDLE.getString("batch_mode") +
 		"\n--conf <file>\t\t- " +	// NOI18N
 		CMDLINE_BUNDLE.getString("config_from_file") +
+		"\n--error-file <file>\t- " +	// NOI18N
+		CMDLINE_BUNDLE.getString("error_file") +
 		"\n-f|--force\t\t- " +	// NOI18N
 		CMDLINE_BUNDLE.getString("continue_if_errors") +
 		"\n--help, -h, -?, /?\t- "+	// NOI18N
 		CMDLINE_BUNDLE.getString("print_help") +
+		"\n-j|--jobs <n>\t\t- " +	// NOI18N
+		CMDLINE_BUNDLE.getString("number_of_jobs") +
+		"\n--jobs-per-disk <n>\t- " +	// NOI18N
+		CMDLINE_BUNDLE.getString("number_of_jobs_per_disk") +
 		"\n--lang LL_CC_VV\t\t- "+	// NOI18N
 		CMDLINE_BUNDLE.getString("select_language") +
 		":\n\t\t\t  " +	// NOI18N
@@ -62,8 +69,12 @@ public class CommandLineParser
 		CMDLINE_BUNDLE.getString("add_wiping_with_zeros") +
 		"\n--licence, --license\t- "+	// NOI18N
 		CMDLINE_BUNDLE.getString("display_license") +
+		"\n--merge-errors\t\t- " +	// NOI18N
+		CMDLINE_BUNDLE.getString("merge_errors") +
 		"\n--method <name>\t\t- " +	// NOI18N
 		CMDLINE_BUNDLE.getString("help_wiping_method") +
+		"\n--minimal-env\t\t- " +	// NOI18N
+		CMDLINE_BUNDLE.getString("minimal_env") +
 		"\n-n|--iterations <n>\t- " +	// NOI18N
 		CMDLINE_BUNDLE.getString("number_of_iterations") +
 		"\n--nopart\t\t- " +	// NOI18N
@@ -81,288 +92,23 @@ public class CommandLineParser
 		"\n--use-ioctl\t\t- " +	// NOI18N
 		CMDLINE_BUNDLE.getString("disable_cache") +
 		"\n--version, -V\t\t- "+	// NOI18N
-		CMDLINE_BUNDLE.getString("display_version")
+		CMDLINE_BUNDLE.getString("display_version") +
+		"\n--watch-config\t\t- " +	// NOI18N
+		CMDLINE_BUNDLE.getString("watch_config") +
+		"\n<filesystem> ...\t- " +	// NOI18N
+		CMDLINE_BUNDLE.getString("filesystems_to_wipe")
 		;
 	private static final String VER_WORD = CMDLINE_BUNDLE.getString("Version");
 
-	private static boolean isMax = false;
-	private static boolean onlyZeros = false;
-	private static boolean superOff = false;
-	private static String superOffValue;
-	private static boolean blkSize = false;
-	private static String blkSizeValue;
-	private static boolean force = false;
-	private static boolean lastZero = false;
-	private static boolean method = false;
-	private static String methodName;
-	private static boolean iter = false;
-	private static String iterationsValue;
-	private static boolean nopart = false;
-	private static boolean nounrm = false;
-	private static boolean nowfs = false;
-	private static boolean ioctl = false;
-	private static boolean noWipeZeroBlocks = false;
-	private static boolean useDedicated = false;
-	private static boolean isOrder = false;
-	private static String wipingOrder;
-	private static int x = 0;
-	private static int y = 0;
-	private static int width;
-	private static int height;
-	private static int fontSize;
-	private static List<String> fsList;
-	private static String wfsPath;
-
 	// non-instantiable
 	private CommandLineParser () {}
 
 	/**
-	 * Gets the current "is maximized" property value.
-	 * @return the current "is maximized" property value.
-	 */
-	public static synchronized boolean isMax ()
-	{
-		return isMax;
-	}
-
-	/**
-	 * Gets the current "onlyZeros" property value.
-	 * @return the current "onlyZeros" property value.
-	 */
-	public static synchronized boolean isOnlyZeros ()
-	{
-		return onlyZeros;
-	}
-
-	/**
-	 * Gets the current "is superOff selected" property value.
-	 * @return the current "is superOff selected" property value.
-	 */
-	public static synchronized boolean isSuperOff ()
-	{
-		return superOff;
-	}
-
-	/**
-	 * Gets the current "superblock offset" property value.
-	 * @return the current "superblock offset" property value.
-	 */
-	public static synchronized String getSuperOffValue ()
-	{
-		return superOffValue;
-	}
-
-	/**
-	 * Gets the current "is blkSize selected" property value.
-	 * @return the current "is blkSize selected" property value.
-	 */
-	public static synchronized boolean isBlkSize ()
-	{
-		return blkSize;
-	}
-
-	/**
-	 * Gets the current "blocksize" property value.
-	 * @return the current "blocksize" property value.
-	 */
-	public static synchronized String getBlkSizeValue ()
-	{
-		return blkSizeValue;
-	}
-
-	/**
-	 * Gets the current "is force" property value.
-	 * @return the current "is force" property value.
-	 */
-	public static synchronized boolean isForce ()
-	{
-		return force;
-	}
-
-	/**
-	 * Gets the current "is lastZero" property value.
-	 * @return the current "is lastZero" property value.
-	 */
-	public static synchronized boolean islastZero ()
-	{
-		return lastZero;
-	}
-
-	/**
-	 * Gets the current "is method selected" property value.
-	 * @return the current "is method selected" property value.
-	 */
-	public static synchronized boolean isMethod ()
-	{
-		return method;
-	}
-
-	/**
-	 * Gets the current "methodName" property value.
-	 * @return the current "methodName" property value.
-	 */
-	public static synchronized String getMethodName ()
-	{
-		return methodName;
-	}
-
-	/**
-	 * Gets the current "is iter selected" property value.
-	 * @return the current "is iter selected" property value.
-	 */
-	public static synchronized boolean isIter ()
-	{
-		return iter;
-	}
-
-	/**
-	 * Gets the current "iterationsValue" property value.
-	 * @return the current "iterationsValue" property value.
-	 */
-	public static synchronized String getIterationsValue ()
-	{
-		return iterationsValue;
-	}
-
-	/**
-	 * Gets the current "is nopart" property value.
-	 * @return the current "is nopart" property value.
-	 */
-	public static synchronized boolean isNopart ()
-	{
-		return nopart;
-	}
-
-	/**
-	 * Gets the current "is nounrm" property value.
-	 * @return the current "is nounrm" property value.
-	 */
-	public static synchronized boolean isNounrm ()
-	{
-		return nounrm;
-	}
-
-	/**
-	 * Gets the current "is nowfs" property value.
-	 * @return the current "is nowfs" property value.
-	 */
-	public static synchronized boolean isNowfs ()
-	{
-		return nowfs;
-	}
-
-	/**
-	 * Gets the current "is ioctl" property value.
-	 * @return the current "is ioctl" property value.
-	 */
-	public static synchronized boolean isIoctl ()
-	{
-		return ioctl;
-	}
-
-	/**
-	 * Gets the current "is noWipeZeroBlocks" property value.
-	 * @return the current "is noWipeZeroBlocks" property value.
-	 */
-	public static synchronized boolean isNoWipeZeroBlocks ()
-	{
-		return noWipeZeroBlocks;
-	}
-
-	/**
-	 * Gets the current "is useDedicated" property value.
-	 * @return the current "is useDedicated" property value.
-	 */
-	public static synchronized boolean isUseDedicated ()
-	{
-		return useDedicated;
-	}
-
-	/**
-	 * Gets the current "is wiping order selected" property value.
-	 * @return the current "is wiping order selected" property value.
-	 */
-	public static synchronized boolean isOrder ()
-	{
-		return isOrder;
-	}
-
-	/**
-	 * Gets the current "wipingOrder" property value.
-	 * @return the current "wipingOrder" property value.
-	 */
-	public static synchronized String getWipingOrder ()
-	{
-		return wipingOrder;
-	}
-
-	/**
-	 * Gets the current X coordinate.
-	 * @return the current X coordinate.
-	 */
-	public static synchronized int getX ()
-	{
-		return x;
-	}
-
-	/**
-	 * Gets the current Y coordinate.
-	 * @return the current Y coordinate.
-	 */
-	public static synchronized int getY ()
-	{
-		return y;
-	}
-
-	/**
-	 * Gets the current width.
-	 * @return the current width.
-	 */
-	public static synchronized int getWidth ()
-	{
-		return width;
-	}
-
-	/**
-	 * Gets the current height.
-	 * @return the current height.
-	 */
-	public static synchronized int getHeight ()
-	{
-		return height;
-	}
-
-	/**
-	 * Gets the current fontSize.
-	 * @return the current fontSize.
-	 */
-	public static synchronized int getFontSize ()
-	{
-		return fontSize;
-	}
-
-	/**
-	 * Gets the current filesystem list.
-	 * @return the current filesystem list.
-	 */
-	public static synchronized List<String> getFsList ()
-	{
-		return fsList;
-	}
-	/**
-	 * Gets the current "wfsPath" property value.
-	 * @return the current "wfsPath" property value.
-	 */
-	public static synchronized String getWfsPath ()
-	{
-		return wfsPath;
-	}
-
-	/**
-	 * Reads the configuration from the given file and sets fields.
+	 * Reads the configuration from the given file and sets the options.
 	 * @param f The file to read the config from.
+	 * @param b The options to set.
 	 */
-	private static synchronized void readConfig (File f)
+	private static void readConfig (File f, WipeOptions.Builder b)
 	{
 		if ( f == null )
 		{
@@ -375,36 +121,39 @@ public class CommandLineParser
 
 		try
 		{
-			ConfigFile cfg = new ConfigFile (f);
-			cfg.read ();
-
-			isMax = cfg.getIsMax ();
-			x = cfg.getX ();
-			y = cfg.getY ();
-			onlyZeros = cfg.getAllZeros();
-			superOffValue = String.valueOf(cfg.getSuperOffset());
-			blkSizeValue = String.valueOf(cfg.getBlockSize());
-			force = cfg.getForce();
-			lastZero = cfg.getLastZero();
-			methodName = cfg.getMethodName();
-			iterationsValue = String.valueOf(cfg.getIterations());
-			nopart = cfg.getNoWipePart();
-			nounrm = cfg.getNoWipeUndel();
-			nowfs = cfg.getNoWipeFreeSpace();
-			ioctl = cfg.getIoctl();
-			noWipeZeroBlocks = cfg.getIsNoWipeZeroBlocks();
-			useDedicated = cfg.getIsUseDedicated();
-			superOff = cfg.getSuperOffset() >= 0;
-			blkSize = cfg.getBlockSize() > 0;
-			method = cfg.getMethodName() != null;
-			iter = cfg.getIterations() > 0;
-			fsList = cfg.getFSList();
-			width = cfg.getWidth();
-			height = cfg.getHeight();
-			fontSize = cfg.getFontSizeValue();
-			wfsPath = cfg.getWfsPath();
-			isOrder = cfg.getIsOrder();
-			wipingOrder = cfg.getWipingOrder();
+			// unchanged files aren't parsed again
+			ConfigFile cfg = ConfigFileCache.INSTANCE.read (f);
+
+			b.setMax (cfg.getIsMax ());
+			b.setX (cfg.getX ());
+			b.setY (cfg.getY ());
+			b.setOnlyZeros (cfg.getAllZeros());
+			b.setSuperOffValue (String.valueOf(cfg.getSuperOffset()));
+			b.setBlkSizeValue (String.valueOf(cfg.getBlockSize()));
+			b.setForce (cfg.getForce());
+			b.setLastZero (cfg.getLastZero());
+			b.setMethodName (cfg.getMethodName());
+			b.setIterationsValue (String.valueOf(cfg.getIterations()));
+			b.setNopart (cfg.getNoWipePart());
+			b.setNounrm (cfg.getNoWipeUndel());
+			b.setNowfs (cfg.getNoWipeFreeSpace());
+			b.setIoctl (cfg.getIoctl());
+			b.setNoWipeZeroBlocks (cfg.getIsNoWipeZeroBlocks());
+			b.setUseDedicated (cfg.getIsUseDedicated());
+			b.setSuperOff (cfg.getSuperOffset() >= 0);
+			b.setBlkSize (cfg.getBlockSize() > 0);
+			b.setMethod (cfg.getMethodName() != null);
+			b.setIter (cfg.getIterations() > 0);
+			b.setFsList (cfg.getFSList());
+			b.setWidth (cfg.getWidth());
+			b.setHeight (cfg.getHeight());
+			b.setFontSize (cfg.getFontSizeValue());
+			b.setWfsPath (cfg.getWfsPath());
+			b.setOrder (cfg.getIsOrder());
+			b.setWipingOrder (cfg.getWipingOrder());
+			b.setJobs (cfg.getJobs());
+			b.setJobsPerDisk (cfg.getJobsPerDisk());
+			b.setConfigSections (cfg.getSections());
 		}
 		catch (Exception ex)
 		{
@@ -414,15 +163,19 @@ public class CommandLineParser
 
 	/**
 	 * Parses the given command line and performs actions based on it.
+	 * The options start with the default values each time.
 	 * @param args The command line to parse.
+	 * @return the options from the command line.
 	 */
-	public static synchronized void parse (String[] args)
+	public static WipeOptions parse (String[] args)
 	{
 		if ( args == null )
 		{
-			return;
+			return WipeOptions.DEFAULT;
 		}
 
+		WipeOptions.Builder b = new WipeOptions.Builder ();
+
 		for ( int i = 0; i < args.length; i++ )
 		{
 			String currentArg = args[i].toLowerCase(Locale.ENGLISH);
@@ -466,39 +219,87 @@ public class CommandLineParser
 			}
 			if ( "--all-zeros".equals(currentArg) )	// NOI18N
 			{
-				onlyZeros = true;
+				b.setOnlyZeros (true);
 			}
 			else if ( "--superblock".equals(currentArg)	// NOI18N
 				|| "-b".equals(args[i]) )	// NOI18N
 			{
-				superOff = true;
+				b.setSuperOff (true);
 				if ( i+1 < args.length )
 				{
-					superOffValue = args[i+1];
+					b.setSuperOffValue (args[i+1]);
 				}
 				i++;
 			}
 			else if ( "-B".equals(args[i])	// NOI18N
 				|| "--blocksize".equals(currentArg) )	// NOI18N
 			{
-				blkSize = true;
+				b.setBlkSize (true);
 				if ( i+1 < args.length )
 				{
-					blkSizeValue = args[i+1];
+					b.setBlkSizeValue (args[i+1]);
 				}
 				i++;
 			}
+			else if ( "--batch".equals(currentArg) )	// NOI18N
+			{
+				b.setBatch (true);
+			}
 			else if ( "--conf".equals(currentArg) )	// NOI18N
 			{
 				if ( i < args.length-1 )
 				{
-					readConfig (new File (args[i+1]));
+					File configFile = new File (args[i+1]);
+					b.setConfigFile (configFile);
+					readConfig (configFile, b);
+				}
+				i++;
+			}
+			else if ( "--error-file".equals(currentArg) )	// NOI18N
+			{
+				if ( i < args.length-1 )
+				{
+					b.setErrorFile (new File (args[i+1]));
 				}
+				i++;
 			}
 			else if ( "-f".equals(args[i])	// NOI18N
 				|| "--force".equals(currentArg) )	// NOI18N
 			{
-				force = true;
+				b.setForce (true);
+			}
+			else if ( "-j".equals(args[i])	// NOI18N
+				|| "--jobs".equals(currentArg) )	// NOI18N
+			{
+				if ( i+1 < args.length )
+				{
+					try
+					{
+						b.setJobs (Math.max (1, Integer.parseInt (args[i+1])));
+					}
+					catch (NumberFormatException ex)
+					{
+						Utils.handleException (ex,
+							"cmdline.jobs(" + args[i+1] + ")");	// NOI18N
+					}
+				}
+				i++;
+			}
+			else if ( "--jobs-per-disk".equals(currentArg) )	// NOI18N
+			{
+				if ( i+1 < args.length )
+				{
+					try
+					{
+						b.setJobsPerDisk (Math.max (0, Integer.parseInt (args[i+1])));
+					}
+					catch (NumberFormatException ex)
+					{
+						Utils.handleException (ex,
+							"cmdline.jobs-per-disk(" + args[i+1] + ")");	// NOI18N
+					}
+				}
+				i++;
 			}
 			else if ( "--lang".equals(currentArg) )	// NOI18N
 			{
@@ -540,60 +341,78 @@ public class CommandLineParser
 			}
 			else if ( "--last-zero".equals(currentArg) )	// NOI18N
 			{
-				lastZero = true;
+				b.setLastZero (true);
+			}
+			else if ( "--merge-errors".equals(currentArg) )	// NOI18N
+			{
+				b.setMergeErrors (true);
 			}
 			else if ( "--method".equals(currentArg) )	// NOI18N
 			{
-				method = true;
+				b.setMethod (true);
 				if ( i+1 < args.length )
 				{
-					methodName = args[i+1];
+					b.setMethodName (args[i+1]);
 				}
 				i++;
 			}
+			else if ( "--minimal-env".equals(currentArg) )	// NOI18N
+			{
+				b.setMinimalEnv (true);
+			}
 			else if ( "-n".equals(args[i])	// NOI18N
 				|| "--iterations".equals(currentArg) )	// NOI18N
 			{
-				iter = true;
+				b.setIter (true);
 				if ( i+1 < args.length )
 				{
-					iterationsValue = args[i+1];
+					b.setIterationsValue (args[i+1]);
 				}
 				i++;
 			}
 			else if ( "--nopart".equals(currentArg) )	// NOI18N
 			{
-				nopart = true;
+				b.setNopart (true);
 			}
 			else if ( "--nounrm".equals(currentArg) )	// NOI18N
 			{
-				nounrm = true;
+				b.setNounrm (true);
 			}
 			else if ( "--nowfs".equals(currentArg) )	// NOI18N
 			{
-				nowfs = true;
+				b.setNowfs (true);
 			}
 			else if ( "--no-wipe-zero-blocks".equals(currentArg) )	// NOI18N
 			{
-				noWipeZeroBlocks = true;
+				b.setNoWipeZeroBlocks (true);
 			}
 			else if ( "--order".equals(currentArg) )	// NOI18N
 			{
-				isOrder = true;
+				b.setOrder (true);
 				if ( i+1 < args.length )
 				{
-					wipingOrder = args[i+1];
+					b.setWipingOrder (args[i+1]);
 				}
 				i++;
 			}
 			else if ( "--use-dedicated".equals(currentArg) )	// NOI18N
 			{
-				useDedicated = true;
+				b.setUseDedicated (true);
 			}
 			else if ( "--use-ioctl".equals(currentArg) )	// NOI18N
 			{
-				ioctl = true;
+				b.setIoctl (true);
+			}
+			else if ( "--watch-config".equals(currentArg) )	// NOI18N
+			{
+				b.setWatchConfig (true);
+			}
+			else if ( ! args[i].startsWith ("-") )	// NOI18N
+			{
+				// a filesystem to wipe
+				b.addFilesystem (args[i]);
 			}
 		}	// for i
+		return b.build ();
 	}
 }
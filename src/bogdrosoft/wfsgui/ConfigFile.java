@@ -20,76 +20,116 @@
 
 package bogdrosoft.wfsgui;
 
-import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Random;
 
 /**
  * A class for reading and writing WipeFreeSpaceGUI2 configuration files.
+ * After the main options, the file can contain named sections, each
+ * describing a separate wiping job with its own options and filesystems:
+ * <pre>
+ * [home]
+ * iterations = 3
+ * filesystems = /dev/sdb1
+ * </pre>
+ * A section starts with the main wiping options and changes only the
+ * ones given in it, except for the filesystems, which aren't copied.
+ * The window's parameters and the numbers of jobs are used only from
+ * the main part.
  * @author Bogdan Drozdowski
  */
 public class ConfigFile
 {
-	// patterns for matching:
-	private static final Pattern ALL_ZERO_PATTERN = Pattern.compile
-		("all_zero\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern SUPERBLOCK_PATTERN = Pattern.compile
-		("superblock_offset\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);	// NOI18N
-	private static final Pattern BLOCKSIZE_PATTERN = Pattern.compile
-		("blocksize\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern FORCE_WIPE_PATTERN = Pattern.compile
-		("force\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern ITERATIONS_PATTERN = Pattern.compile
-		("iterations\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);	// NOI18N
-	private static final Pattern LAST_ZERO_PATTERN = Pattern.compile
-		("last_zero\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern NOPART_PATTERN = Pattern.compile
-		("no_part\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern NOUNRM_PATTERN = Pattern.compile
-		("no_undel\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern NOWFS_PATTERN = Pattern.compile
-		("no_free\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern IOCTL_PATTERN = Pattern.compile
-		("no_cache\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern FS_LIST_PATTERN = Pattern.compile
-		("filesystems\\s*=\\s*(.*+)", Pattern.CASE_INSENSITIVE);	// NOI18N
-	private static final Pattern X_PATTERN = Pattern.compile
-		("x\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);			// NOI18N
-	private static final Pattern Y_PATTERN = Pattern.compile
-		("y\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);			// NOI18N
-	private static final Pattern WIDTH_PATTERN = Pattern.compile
-		("width\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern HEIGHT_PATTERN = Pattern.compile
-		("height\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern IS_MAX_PATTERN = Pattern.compile
-		("ismax\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern FONT_SIZE_PATTERN = Pattern.compile
-		("font_size\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern PATH_TO_WFS_PATTERN = Pattern.compile
-		("wfs_path\\s*=\\s*(.*+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern IS_METHOD_CHOSEN_PATTERN = Pattern.compile
-		("is_method\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern METHOD_NAME_PATTERN = Pattern.compile
-		("method\\s*=\\s*(.*+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern NO_WIPE_ZERO_PATTERN = Pattern.compile
-		("no_wipe_zero_blocks\\s*=\\s*(.*)", Pattern.CASE_INSENSITIVE);	// NOI18N
-	private static final Pattern USE_DEDICATED_PATTERN = Pattern.compile
-		("use_dedicated\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);	// NOI18N
-	private static final Pattern IS_WIPING_ORDER_CHOSEN_PATTERN = Pattern.compile
-		("is_order\\s*=\\s*(\\d+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-	private static final Pattern WIPING_ORDER_PATTERN = Pattern.compile
-		("order\\s*=\\s*(.*+)", Pattern.CASE_INSENSITIVE);		// NOI18N
-
-	private static final Pattern COMMENT_PATTERN = Pattern.compile
-		("^\\s*#.*");		// NOI18N
+	// the keys, in the order of the KEY_* numbers:
+	private static final String[] KEYS =
+	{
+		"all_zero",		// NOI18N
+		"superblock_offset",	// NOI18N
+		"blocksize",		// NOI18N
+		"force",		// NOI18N
+		"iterations",		// NOI18N
+		"last_zero",		// NOI18N
+		"no_part",		// NOI18N
+		"no_undel",		// NOI18N
+		"no_free",		// NOI18N
+		"no_cache",		// NOI18N
+		"filesystems",		// NOI18N
+		"x",			// NOI18N
+		"y",			// NOI18N
+		"width",		// NOI18N
+		"height",		// NOI18N
+		"ismax",		// NOI18N
+		"font_size",		// NOI18N
+		"wfs_path",		// NOI18N
+		"is_method",		// NOI18N
+		"method",		// NOI18N
+		"no_wipe_zero_blocks",	// NOI18N
+		"use_dedicated",	// NOI18N
+		"is_order",		// NOI18N
+		"order",		// NOI18N
+		"jobs",			// NOI18N
+		"jobs_per_disk"		// NOI18N
+	};
+	private static final int KEY_ALL_ZERO = 0;
+	private static final int KEY_SUPERBLOCK = 1;
+	private static final int KEY_BLOCKSIZE = 2;
+	private static final int KEY_FORCE = 3;
+	private static final int KEY_ITERATIONS = 4;
+	private static final int KEY_LAST_ZERO = 5;
+	private static final int KEY_NOPART = 6;
+	private static final int KEY_NOUNRM = 7;
+	private static final int KEY_NOWFS = 8;
+	private static final int KEY_IOCTL = 9;
+	private static final int KEY_FS_LIST = 10;
+	private static final int KEY_X = 11;
+	private static final int KEY_Y = 12;
+	private static final int KEY_WIDTH = 13;
+	private static final int KEY_HEIGHT = 14;
+	private static final int KEY_IS_MAX = 15;
+	private static final int KEY_FONT_SIZE = 16;
+	private static final int KEY_WFS_PATH = 17;
+	private static final int KEY_IS_METHOD = 18;
+	private static final int KEY_METHOD = 19;
+	private static final int KEY_NO_WIPE_ZERO = 20;
+	private static final int KEY_USE_DEDICATED = 21;
+	private static final int KEY_IS_ORDER = 22;
+	private static final int KEY_ORDER = 23;
+	private static final int KEY_JOBS = 24;
+	private static final int KEY_JOBS_PER_DISK = 25;
+
+	// the kinds of values:
+	private static final int VALUE_DIGITS = 0;	// only digits, else the line is ignored
+	private static final int VALUE_TEXT = 1;	// anything
+	private static final int VALUE_INT_TEXT = 2;	// anything, parsed as a number
+
+	// the hash table of the keys, with open addressing (KEY_* + 1, 0 = empty):
+	private static final int KEY_TABLE_SIZE = 64;	// a power of 2
+	private static final int[] KEY_TABLE = createKeyTable ();
+
+	private static final int NUMBER_ERROR = -1;
+	private static final String LINE_SEPARATOR = System.getProperty ("line.separator");	// NOI18N
+	private static final String TEMP_SUFFIX = ".tmp";	// NOI18N
+	private static final int MAX_TEMP_TRIES = 100;
+	private static final Random TEMP_NAMES = new Random ();
 
 	private File cfgFile;
+	// null for the main part of the file:
+	private String sectionName;
+	private List<ConfigFile> sections;
 	// wipefreespace parameters:
 	private boolean allzeros;
 	private int superOffset = -1;
@@ -109,6 +149,8 @@ public class ConfigFile
 	private boolean useDedicated = false;
 	private boolean selectOrder;
 	private String wipingOrder;
+	private int jobs = 1;
+	private int jobsPerDisk = 1;
 	// main window's parameters:
 	private int x;
 	private int y;
@@ -130,6 +172,64 @@ public class ConfigFile
 		cfgFile = f;
 	}
 
+	/**
+	 * Creates a new instance of ConfigFile with the same parameters as
+	 * the given one.
+	 * @param f The file to read/write parameters from/to.
+	 * @param other The ConfigFile to copy the parameters from.
+	 */
+	ConfigFile (File f, ConfigFile other)
+	{
+		this (f);
+		if ( other == null )
+		{
+			throw new IllegalArgumentException ("ConfigFile:other==null");	// NOI18N
+		}
+		copyWipingOptions (other);
+		if ( other.fsList != null )
+		{
+			fsList = new ArrayList<String> (other.fsList);
+		}
+		jobs = other.jobs;
+		jobsPerDisk = other.jobsPerDisk;
+		x = other.x;
+		y = other.y;
+		width = other.width;
+		height = other.height;
+		isMax = other.isMax;
+		fontSize = other.fontSize;
+		sectionName = other.sectionName;
+		if ( other.sections != null )
+		{
+			sections = new ArrayList<ConfigFile> (other.sections.size ());
+			for ( ConfigFile section : other.sections )
+			{
+				sections.add (new ConfigFile (f, section));
+			}
+		}
+	}
+
+	private void copyWipingOptions (ConfigFile other)
+	{
+		allzeros = other.allzeros;
+		superOffset = other.superOffset;
+		blockSize = other.blockSize;
+		force = other.force;
+		iterations = other.iterations;
+		lastZero = other.lastZero;
+		nopart = other.nopart;
+		nounrm = other.nounrm;
+		nowfs = other.nowfs;
+		ioctl = other.ioctl;
+		wfsPath = other.wfsPath;
+		selectMethod = other.selectMethod;
+		methodName = other.methodName;
+		noWipeZeroBlocks = other.noWipeZeroBlocks;
+		useDedicated = other.useDedicated;
+		selectOrder = other.selectOrder;
+		wipingOrder = other.wipingOrder;
+	}
+
 	/**
 	 * Read the parameters from the given file and stores them inside private
 	 * fields.
@@ -148,187 +248,47 @@ public class ConfigFile
 		nowfs = false;
 		ioctl = false;
 		fsList = new ArrayList<String> (10);
+		jobs = 1;
+		jobsPerDisk = 1;
 		x = 0;
 		y = 0;
 		width = 800;
 		height = 600;
 		isMax = false;
 		fontSize = 12;
+		sections = null;
 
-		BufferedReader br = null;
+		char[] data = null;
+		int length = 0;
+		Reader r = null;
 		try
 		{
 			// don't force a specific encoding
-			br = new BufferedReader (new FileReader (cfgFile));
-			String line;
-			do
+			r = new FileReader (cfgFile);
+			data = new char[(int) Math.min (cfgFile.length () + 1, Integer.MAX_VALUE - 8)];
+			while ( true )
 			{
+				if ( length == data.length )
+				{
+					char[] newData = new char[data.length * 2 + 1];
+					System.arraycopy (data, 0, newData, 0, length);
+					data = newData;
+				}
+				int wasRead;
 				try
 				{
-					line = br.readLine ();
+					wasRead = r.read (data, length, data.length - length);
 				}
 				catch (IOException ex)
 				{
 					break;
 				}
-				if ( line == null )
+				if ( wasRead < 0 )
 				{
 					break;
 				}
-				if ( line.length () == 0 )
-				{
-					continue;
-				}
-
-				if ( COMMENT_PATTERN.matcher(line).matches() )
-				{
-					continue;
-				}
-
-				Matcher allzeroM = ALL_ZERO_PATTERN.matcher (line);
-				Matcher superM = SUPERBLOCK_PATTERN.matcher (line);
-				Matcher bsizeM = BLOCKSIZE_PATTERN.matcher (line);
-				Matcher forceM = FORCE_WIPE_PATTERN.matcher (line);
-				Matcher iterM = ITERATIONS_PATTERN.matcher (line);
-				Matcher lastzeroM = LAST_ZERO_PATTERN.matcher (line);
-				Matcher nopartM = NOPART_PATTERN.matcher (line);
-				Matcher nounrmM = NOUNRM_PATTERN.matcher (line);
-				Matcher nowfsM = NOWFS_PATTERN.matcher (line);
-				Matcher ioctlM = IOCTL_PATTERN.matcher (line);
-				Matcher fsListM = FS_LIST_PATTERN.matcher (line);
-				Matcher xM = X_PATTERN.matcher (line);
-				Matcher yM = Y_PATTERN.matcher (line);
-				Matcher widthM = WIDTH_PATTERN.matcher (line);
-				Matcher heightM = HEIGHT_PATTERN.matcher (line);
-				Matcher isMaxM = IS_MAX_PATTERN.matcher (line);
-				Matcher fontSizeM = FONT_SIZE_PATTERN.matcher (line);
-				Matcher wfsPathM = PATH_TO_WFS_PATTERN.matcher (line);
-				Matcher isMethodM = IS_METHOD_CHOSEN_PATTERN.matcher (line);
-				Matcher methodNameM = METHOD_NAME_PATTERN.matcher (line);
-				Matcher noWipeZeroM = NO_WIPE_ZERO_PATTERN.matcher (line);
-				Matcher useDedicatedM = USE_DEDICATED_PATTERN.matcher (line);
-				Matcher isOrderM = IS_WIPING_ORDER_CHOSEN_PATTERN.matcher(line);
-				Matcher orderM = WIPING_ORDER_PATTERN.matcher(line);
-
-				if ( allzeroM.matches () )
-				{
-					allzeros = readIntUsingMatcher (allzeroM, 1, "all_zero") != 0;	// NOI18N
-				}
-				else if ( superM.matches () )
-				{
-					superOffset = readIntUsingMatcher (superM, 1, "super_off");	// NOI18N
-				}
-				else if ( bsizeM.matches () )
-				{
-					blockSize = readIntUsingMatcher (bsizeM, 1, "block_size");	// NOI18N
-				}
-				else if ( forceM.matches () )
-				{
-					force = readIntUsingMatcher (forceM, 1, "force") != 0;	// NOI18N
-				}
-				else if ( iterM.matches () )
-				{
-					iterations = readIntUsingMatcher (iterM, 1, "interations");	// NOI18N
-				}
-				else if ( lastzeroM.matches () )
-				{
-					lastZero = readIntUsingMatcher (lastzeroM, 1, "last_zero") != 0;	// NOI18N
-				}
-				else if ( nopartM.matches () )
-				{
-					nopart = readIntUsingMatcher (nopartM, 1, "no_part") != 0;	// NOI18N
-				}
-				else if ( nounrmM.matches () )
-				{
-					nounrm = readIntUsingMatcher (nounrmM, 1, "no_unrm") != 0;	// NOI18N
-				}
-				else if ( nowfsM.matches () )
-				{
-					nowfs = readIntUsingMatcher (nowfsM, 1, "no_wfs") != 0;	// NOI18N
-				}
-				else if ( ioctlM.matches () )
-				{
-					ioctl = readIntUsingMatcher (ioctlM, 1, "ioctl") != 0;	// NOI18N
-				}
-				else if ( fsListM.matches () )
-				{
-					try
-					{
-						String[] fs = fsListM.group (1).split (Utils.ZERO_BYTE);	// NOI18N
-						if ( fs != null )
-						{
-							for ( int i=0; i < fs.length; i++ )
-							{
-								if ( fs[i] == null )
-								{
-									continue;
-								}
-								if ( fs[i].length () == 0 )
-								{
-									continue;
-								}
-								fsList.add (fs[i]);
-							}
-						}
-					}
-					catch (Exception ex)
-					{
-						Utils.handleException (ex, "ConfigFile.read.parseInt (fs_list)");	// NOI18N
-					}
-				}
-				else if ( xM.matches () )
-				{
-					x = readIntUsingMatcher (xM, 1, "x");	// NOI18N
-				}
-				else if ( yM.matches () )
-				{
-					y = readIntUsingMatcher (yM, 1, "y");	// NOI18N
-				}
-				else if ( widthM.matches () )
-				{
-					width = readIntUsingMatcher (widthM, 1, "width");	// NOI18N
-				}
-				else if ( heightM.matches () )
-				{
-					height = readIntUsingMatcher (heightM, 1, "height");	// NOI18N
-				}
-				else if ( isMaxM.matches () )
-				{
-					isMax = readIntUsingMatcher (isMaxM, 1, "is_max") != 0;	// NOI18N
-				}
-				else if ( fontSizeM.matches () )
-				{
-					fontSize = readIntUsingMatcher (fontSizeM, 1, "font_size");	// NOI18N
-				}
-				else if ( wfsPathM.matches () )
-				{
-					wfsPath = wfsPathM.group (1);
-				}
-				else if ( isMethodM.matches () )
-				{
-					selectMethod = readIntUsingMatcher (isMethodM, 1, "is_method") != 0;	// NOI18N
-				}
-				else if ( methodNameM.matches () )
-				{
-					methodName = methodNameM.group (1);
-				}
-				else if ( noWipeZeroM.matches () )
-				{
-					noWipeZeroBlocks = readIntUsingMatcher (noWipeZeroM, 1, "no_wipe_zero_blocks") != 0;	// NOI18N
-				}
-				else if ( useDedicatedM.matches () )
-				{
-					useDedicated = readIntUsingMatcher (useDedicatedM, 1, "use_dedicated") != 0;	// NOI18N
-				}
-				else if ( isOrderM.matches () )
-				{
-					selectOrder = readIntUsingMatcher (isOrderM, 1, "is_order") != 0;	// NOI18N
-				}
-				else if ( orderM.matches () )
-				{
-					wipingOrder = orderM.group (1);
-				}
-			} while (true);
+				length += wasRead;
+			}
 		}
 		catch (IOException ex)
 		{
@@ -336,11 +296,11 @@ public class ConfigFile
 		}
 		finally
 		{
-			if (br != null)
+			if (r != null)
 			{
 				try
 				{
-					br.close();
+					r.close();
 				}
 				catch (IOException ex2)
 				{
@@ -348,6 +308,10 @@ public class ConfigFile
 				}
 			}
 		}
+		if ( data != null )
+		{
+			parse (data, length);
+		}
 
 		// verify here
 		if ( x < 0 )
@@ -370,51 +334,70 @@ public class ConfigFile
 		{
 			fontSize = 16;
 		}
+		if ( jobs < 1 )
+		{
+			jobs = 1;
+		}
+		if ( jobsPerDisk < 0 )
+		{
+			jobsPerDisk = 1;
+		}
 	}
 
 	/**
-	 * Writes the parameters to the given file.
+	 * Writes the parameters to the given file. The new contents are
+	 * written to a temporary file in the same directory, which then
+	 * replaces the old file, so a partially written file is never seen.
 	 * @throws Exception on file error.
 	 */
 	public void write () throws Exception
 	{
-		PrintWriter pw = null;
-		try
+		StringBuilder fsString = new StringBuilder (100);
+		if ( fsList != null )
 		{
-			// don't force a specific encoding
-			pw = new PrintWriter (cfgFile);
-			StringBuilder fsString = new StringBuilder (100);
-			if ( fsList != null )
+			for ( int i=0; i < fsList.size (); i++ )
 			{
-				for ( int i=0; i < fsList.size (); i++ )
-				{
-					fsString.append (fsList.get (i)).append(Utils.ZERO_BYTE);
-				}
+				fsString.append (fsList.get (i)).append(Utils.ZERO_BYTE);
+			}
+		}
+		StringBuilder sb = new StringBuilder (1024);
+		addLine (sb, "all_zero = ", ((allzeros)? 1 : 0));	// NOI18N
+		addLine (sb, "superblock_offset = ", superOffset);	// NOI18N
+		addLine (sb, "blocksize = ", blockSize);		// NOI18N
+		addLine (sb, "force = ", ((force)? 1 : 0));		// NOI18N
+		addLine (sb, "iterations = ", iterations);		// NOI18N
+		addLine (sb, "last_zero = ", ((lastZero)? 1 : 0));	// NOI18N
+		addLine (sb, "no_part = ", ((nopart)? 1 : 0));		// NOI18N
+		addLine (sb, "no_undel = ", ((nounrm)? 1 : 0));		// NOI18N
+		addLine (sb, "no_free = ", ((nowfs)? 1 : 0));		// NOI18N
+		addLine (sb, "no_cache = ", ((ioctl)? 1 : 0));		// NOI18N
+		addLine (sb, "x = ", x);				// NOI18N
+		addLine (sb, "y = ", y);				// NOI18N
+		addLine (sb, "width = ", width);			// NOI18N
+		addLine (sb, "height = ", height);			// NOI18N
+		addLine (sb, "ismax = ", ((isMax)? 1 : 0));		// NOI18N
+		addLine (sb, "filesystems = ", fsString);		// NOI18N
+		addLine (sb, "font_size = ", fontSize);			// NOI18N
+		addLine (sb, "wfs_path = ", wfsPath);			// NOI18N
+		addLine (sb, "is_method = ", ((selectMethod)? 1 : 0));	// NOI18N
+		addLine (sb, "method = ", methodName);			// NOI18N
+		addLine (sb, "no_wipe_zero_blocks = ", ((noWipeZeroBlocks)? 1 : 0));	// NOI18N
+		addLine (sb, "use_dedicated = ", ((useDedicated)? 1 : 0));	// NOI18N
+		addLine (sb, "is_order = ", ((selectOrder)? 1 : 0));	// NOI18N
+		addLine (sb, "order = ", wipingOrder);			// NOI18N
+		addLine (sb, "jobs = ", jobs);				// NOI18N
+		addLine (sb, "jobs_per_disk = ", jobsPerDisk);		// NOI18N
+		if ( sections != null )
+		{
+			for ( ConfigFile section : sections )
+			{
+				section.addSection (sb);
 			}
-			pw.println ("all_zero = " + ((allzeros)? 1 : 0));	// NOI18N
-			pw.println ("superblock_offset = " + superOffset);			// NOI18N
-			pw.println ("blocksize = " + blockSize);				// NOI18N
-			pw.println ("force = " + ((force)? 1 : 0));		// NOI18N
-			pw.println ("iterations = " + iterations);				// NOI18N
-			pw.println ("last_zero = " + ((lastZero)? 1 : 0));	// NOI18N
-			pw.println ("no_part = " + ((nopart)? 1 : 0));		// NOI18N
-			pw.println ("no_undel = " + ((nounrm)? 1 : 0));		// NOI18N
-			pw.println ("no_free = " + ((nowfs)? 1 : 0));		// NOI18N
-			pw.println ("no_cache = " + ((ioctl)? 1 : 0));		// NOI18N
-			pw.println ("x = " + x);						// NOI18N
-			pw.println ("y = " + y);						// NOI18N
-			pw.println ("width = " + width);					// NOI18N
-			pw.println ("height = " + height);					// NOI18N
-			pw.println ("ismax = " + ((isMax)? 1 : 0));		// NOI18N
-			pw.println ("filesystems = " + fsString.toString());			// NOI18N
-			pw.println ("font_size = " + fontSize);					// NOI18N
-			pw.println ("wfs_path = " + wfsPath);					// NOI18N
-			pw.println ("is_method = " + ((selectMethod)? 1 : 0));	// NOI18N
-			pw.println ("method = " + methodName);					// NOI18N
-			pw.println ("no_wipe_zero_blocks = " + ((noWipeZeroBlocks)? 1 : 0));	// NOI18N
-			pw.println ("use_dedicated = " + ((useDedicated)? 1 : 0));		// NOI18N
-			pw.println ("is_order = " + ((selectOrder)? 1 : 0));	// NOI18N
-			pw.println ("order = " + wipingOrder);					// NOI18N
+		}
+		try
+		{
+			// don't force a specific encoding
+			writeAtomically (sb.toString ().getBytes ());
 		}
 		catch (IOException ex)
 		{
@@ -422,20 +405,255 @@ public class ConfigFile
 		}
 		finally
 		{
-			if (pw != null)
+			// even the same size and time don't mean the same contents
+			ConfigFileCache.INSTANCE.invalidate (cfgFile);
+		}
+	}
+
+	/**
+	 * Adds this section's header and wiping options to the given contents.
+	 * @param sb The contents of the file.
+	 */
+	private void addSection (StringBuilder sb)
+	{
+		StringBuilder fsString = new StringBuilder (100);
+		if ( fsList != null )
+		{
+			for ( int i=0; i < fsList.size (); i++ )
 			{
-				try
-				{
-					pw.close();
-				}
-				catch (Exception e)
+				fsString.append (fsList.get (i)).append(Utils.ZERO_BYTE);
+			}
+		}
+		sb.append (LINE_SEPARATOR).append ('[').append (sectionName)
+			.append (']').append (LINE_SEPARATOR);
+		addLine (sb, "all_zero = ", ((allzeros)? 1 : 0));	// NOI18N
+		addLine (sb, "superblock_offset = ", superOffset);	// NOI18N
+		addLine (sb, "blocksize = ", blockSize);		// NOI18N
+		addLine (sb, "force = ", ((force)? 1 : 0));		// NOI18N
+		addLine (sb, "iterations = ", iterations);		// NOI18N
+		addLine (sb, "last_zero = ", ((lastZero)? 1 : 0));	// NOI18N
+		addLine (sb, "no_part = ", ((nopart)? 1 : 0));		// NOI18N
+		addLine (sb, "no_undel = ", ((nounrm)? 1 : 0));		// NOI18N
+		addLine (sb, "no_free = ", ((nowfs)? 1 : 0));		// NOI18N
+		addLine (sb, "no_cache = ", ((ioctl)? 1 : 0));		// NOI18N
+		addLine (sb, "filesystems = ", fsString);		// NOI18N
+		addLine (sb, "wfs_path = ", wfsPath);			// NOI18N
+		addLine (sb, "is_method = ", ((selectMethod)? 1 : 0));	// NOI18N
+		addLine (sb, "method = ", methodName);			// NOI18N
+		addLine (sb, "no_wipe_zero_blocks = ", ((noWipeZeroBlocks)? 1 : 0));	// NOI18N
+		addLine (sb, "use_dedicated = ", ((useDedicated)? 1 : 0));	// NOI18N
+		addLine (sb, "is_order = ", ((selectOrder)? 1 : 0));	// NOI18N
+		addLine (sb, "order = ", wipingOrder);			// NOI18N
+	}
+
+	private static void addLine (StringBuilder sb, String key, Object value)
+	{
+		sb.append (key).append (value).append (LINE_SEPARATOR);
+	}
+
+	private static void addLine (StringBuilder sb, String key, int value)
+	{
+		sb.append (key).append (value).append (LINE_SEPARATOR);
+	}
+
+	/**
+	 * Writes the given data to a temporary file, flushes it to the disk
+	 * and renames it to the configuration file.
+	 * @param data The data to write.
+	 * @throws IOException on file error.
+	 */
+	private void writeAtomically (byte[] data) throws IOException
+	{
+		Path target = cfgFile.toPath ().toAbsolutePath ();
+		if ( Files.isSymbolicLink (target) )
+		{
+			// replace the file, not the link
+			target = target.toRealPath ();
+		}
+		Path dir = target.getParent ();
+		Path tmp = createTempFile (dir, target.getFileName ().toString ());
+		boolean moved = false;
+		try
+		{
+			copyPermissions (target, tmp);
+			FileOutputStream fos = new FileOutputStream (tmp.toFile ());
+			try
+			{
+				fos.write (data);
+				fos.getFD ().sync ();
+			}
+			finally
+			{
+				fos.close ();
+			}
+			try
+			{
+				Files.move (tmp, target, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException ex)
+			{
+				Files.move (tmp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			moved = true;
+			syncDirectory (dir);
+		}
+		finally
+		{
+			if ( ! moved )
+			{
+				Files.deleteIfExists (tmp);
+			}
+		}
+	}
+
+	/**
+	 * Creates a new, empty temporary file. Doesn't use
+	 * Files.createTempFile (), which makes the file readable only by
+	 * the user. The file gets the default permissions (from the umask),
+	 * like a file written directly, which is what a new configuration
+	 * file keeps.
+	 */
+	private static Path createTempFile (Path dir, String prefix) throws IOException
+	{
+		for ( int i = 0; ; i++ )
+		{
+			Path tmp = dir.resolve (prefix + Utils.DOT
+				+ Long.toHexString (TEMP_NAMES.nextLong () & Long.MAX_VALUE)
+				+ TEMP_SUFFIX);
+			try
+			{
+				return Files.createFile (tmp);
+			}
+			catch (FileAlreadyExistsException ex)
+			{
+				if ( i >= MAX_TEMP_TRIES )
 				{
-					Utils.handleException(e, "ConfigFile.write->exception");
+					throw ex;
 				}
 			}
 		}
 	}
 
+	private static void copyPermissions (Path from, Path to)
+	{
+		// a replaced file keeps its permissions
+		try
+		{
+			if ( Files.exists (from) )
+			{
+				Files.setPosixFilePermissions (to,
+					Files.getPosixFilePermissions (from));
+			}
+		}
+		catch (UnsupportedOperationException ex)
+		{
+			// not a POSIX system - nothing to do
+		}
+		catch (IOException ex)
+		{
+			Utils.handleException (ex, "ConfigFile.write->permissions");	// NOI18N
+		}
+	}
+
+	private static void syncDirectory (Path dir)
+	{
+		// makes the rename persistent, works only on some systems
+		try
+		{
+			FileChannel fc = FileChannel.open (dir, StandardOpenOption.READ);
+			try
+			{
+				fc.force (true);
+			}
+			finally
+			{
+				fc.close ();
+			}
+		}
+		catch (IOException ex)
+		{
+			// not supported - ignore
+		}
+	}
+
+	// ================ sections:
+
+	/**
+	 * Adds a new named section (a separate wiping job) at the end of the
+	 * file. The section starts with this file's wiping options and no
+	 * filesystems.
+	 * @param name The name of the section.
+	 * @return the new section, for setting its options.
+	 */
+	public ConfigFile addSection (String name)
+	{
+		if ( name == null || name.trim ().isEmpty ()
+			|| name.indexOf (']') >= 0 || name.indexOf ('\n') >= 0
+			|| name.indexOf ('\r') >= 0 )
+		{
+			throw new IllegalArgumentException ("ConfigFile.addSection:name = " + name);	// NOI18N
+		}
+		if ( sectionName != null )
+		{
+			throw new IllegalStateException ("ConfigFile.addSection: sections can't be nested");	// NOI18N
+		}
+		ConfigFile section = new ConfigFile (cfgFile);
+		section.copyWipingOptions (this);
+		section.sectionName = name.trim ();
+		section.fsList = new ArrayList<String> (10);
+		if ( sections == null )
+		{
+			sections = new ArrayList<ConfigFile> (4);
+		}
+		sections.add (section);
+		return section;
+	}
+
+	/**
+	 * Replaces the named sections of this file with copies of the given ones.
+	 * @param v the new sections, null or empty for none.
+	 */
+	public void setSections (List<ConfigFile> v)
+	{
+		if ( v == null || v.isEmpty () )
+		{
+			sections = null;
+			return;
+		}
+		sections = new ArrayList<ConfigFile> (v.size ());
+		for ( ConfigFile section : v )
+		{
+			if ( section.sectionName == null )
+			{
+				throw new IllegalArgumentException ("ConfigFile.setSections: not a section");	// NOI18N
+			}
+			sections.add (new ConfigFile (cfgFile, section));
+		}
+	}
+
+	/**
+	 * Gets the named sections of this file, in the order of the file.
+	 * @return the named sections, an empty list if there are none.
+	 */
+	public List<ConfigFile> getSections ()
+	{
+		if ( sections == null )
+		{
+			return Collections.emptyList ();
+		}
+		return Collections.unmodifiableList (sections);
+	}
+
+	/**
+	 * Gets the name of this section.
+	 * @return the name of this section or null for the main part of the file.
+	 */
+	public String getName ()
+	{
+		return sectionName;
+	}
+
 	// ================ setters:
 
 	/**
@@ -654,6 +872,25 @@ public class ConfigFile
 		wipingOrder = v;
 	}
 
+	/**
+	 * Sets the maximum number of wiping jobs run at the same time.
+	 * @param v the new value.
+	 */
+	public void setJobs (int v)
+	{
+		jobs = v;
+	}
+
+	/**
+	 * Sets the maximum number of wiping jobs using the same disk run
+	 * at the same time, 0 meaning no limit.
+	 * @param v the new value.
+	 */
+	public void setJobsPerDisk (int v)
+	{
+		jobsPerDisk = v;
+	}
+
 	// ================ getters:
 
 	/**
@@ -872,16 +1109,396 @@ public class ConfigFile
 		return wipingOrder;
 	}
 
-	private int readIntUsingMatcher(Matcher m, int group, String field)
+	/**
+	 * Gets the maximum number of wiping jobs run at the same time.
+	 * @return the variable's value.
+	 */
+	public int getJobs ()
 	{
-		try
+		return jobs;
+	}
+
+	/**
+	 * Gets the maximum number of wiping jobs using the same disk run
+	 * at the same time, 0 meaning no limit.
+	 * @return the variable's value.
+	 */
+	public int getJobsPerDisk ()
+	{
+		return jobsPerDisk;
+	}
+
+	/**
+	 * Parses the contents of the file, line by line.
+	 * @param data The contents of the file.
+	 * @param length The number of characters in the file.
+	 */
+	private void parse (char[] data, int length)
+	{
+		ConfigFile current = this;
+		int lineStart = 0;
+		while ( lineStart < length )
+		{
+			// lines end with LF, CR or CR+LF, like for BufferedReader
+			int lineEnd = lineStart;
+			while ( lineEnd < length && data[lineEnd] != '\n'
+				&& data[lineEnd] != '\r' )
+			{
+				lineEnd++;
+			}
+			if ( lineStart < lineEnd && data[lineStart] == '[' )
+			{
+				ConfigFile section = parseSectionHeader (data, lineStart, lineEnd);
+				if ( section != null )
+				{
+					current = section;
+				}
+			}
+			else
+			{
+				current.parseLine (data, lineStart, lineEnd);
+			}
+			if ( lineEnd + 1 < length && data[lineEnd] == '\r'
+				&& data[lineEnd + 1] == '\n' )
+			{
+				lineEnd++;
+			}
+			lineStart = lineEnd + 1;
+		}
+	}
+
+	/**
+	 * Parses a "[name]" line and adds the section.
+	 * @param data The contents of the file.
+	 * @param start The index of the first character of the line.
+	 * @param end The index after the last character of the line.
+	 * @return the new section or null if the line is invalid.
+	 */
+	private ConfigFile parseSectionHeader (char[] data, int start, int end)
+	{
+		int last = end - 1;
+		while ( last > start && isSpace (data[last]) )
+		{
+			last--;
+		}
+		if ( data[last] != ']' )
+		{
+			return null;
+		}
+		int nameStart = skipSpaces (data, start + 1, last);
+		int nameEnd = last;
+		while ( nameEnd > nameStart && isSpace (data[nameEnd - 1]) )
+		{
+			nameEnd--;
+		}
+		for ( int i = nameStart; i < nameEnd; i++ )
+		{
+			if ( data[i] == ']' )
+			{
+				return null;
+			}
+		}
+		if ( nameStart == nameEnd )
+		{
+			return null;
+		}
+		return addSection (new String (data, nameStart, nameEnd - nameStart));
+	}
+
+	/**
+	 * Parses one "key = value" line. The key has to start at the
+	 * beginning of the line, the case of its letters doesn't matter.
+	 * Lines with unknown keys, comments and invalid lines are ignored.
+	 * @param data The contents of the file.
+	 * @param start The index of the first character of the line.
+	 * @param end The index after the last character of the line.
+	 */
+	private void parseLine (char[] data, int start, int end)
+	{
+		int keyEnd = start;
+		while ( keyEnd < end && data[keyEnd] != '=' && ! isSpace (data[keyEnd]) )
+		{
+			keyEnd++;
+		}
+		if ( keyEnd == start || keyEnd == end )
 		{
-			return Integer.parseInt (m.group (group));
+			// empty lines and comments, too
+			return;
 		}
-		catch (NumberFormatException ex)
+		int key = findKey (data, start, keyEnd);
+		if ( key < 0 )
 		{
-			Utils.handleException (ex, "ConfigFile.read.parseInt (" + field + ")");	// NOI18N
-			return -1;
+			return;
+		}
+		int valueStart = skipSpaces (data, keyEnd, end);
+		if ( valueStart == end || data[valueStart] != '=' )
+		{
+			return;
+		}
+		valueStart = skipSpaces (data, valueStart + 1, end);
+		int kind = getValueKind (key);
+		int number = 0;
+		if ( kind == VALUE_DIGITS )
+		{
+			if ( valueStart == end || ! isAllDigits (data, valueStart, end) )
+			{
+				return;
+			}
+			number = parseNumber (data, valueStart, end, key);
+		}
+		else if ( kind == VALUE_INT_TEXT )
+		{
+			number = parseNumber (data, valueStart, end, key);
+		}
+		switch (key)
+		{
+			case KEY_ALL_ZERO:
+				allzeros = number != 0;
+				break;
+			case KEY_SUPERBLOCK:
+				superOffset = number;
+				break;
+			case KEY_BLOCKSIZE:
+				blockSize = number;
+				break;
+			case KEY_FORCE:
+				force = number != 0;
+				break;
+			case KEY_ITERATIONS:
+				iterations = number;
+				break;
+			case KEY_LAST_ZERO:
+				lastZero = number != 0;
+				break;
+			case KEY_NOPART:
+				nopart = number != 0;
+				break;
+			case KEY_NOUNRM:
+				nounrm = number != 0;
+				break;
+			case KEY_NOWFS:
+				nowfs = number != 0;
+				break;
+			case KEY_IOCTL:
+				ioctl = number != 0;
+				break;
+			case KEY_FS_LIST:
+				readFSList (data, valueStart, end);
+				break;
+			case KEY_X:
+				x = number;
+				break;
+			case KEY_Y:
+				y = number;
+				break;
+			case KEY_WIDTH:
+				width = number;
+				break;
+			case KEY_HEIGHT:
+				height = number;
+				break;
+			case KEY_IS_MAX:
+				isMax = number != 0;
+				break;
+			case KEY_FONT_SIZE:
+				fontSize = number;
+				break;
+			case KEY_WFS_PATH:
+				wfsPath = new String (data, valueStart, end - valueStart);
+				break;
+			case KEY_IS_METHOD:
+				selectMethod = number != 0;
+				break;
+			case KEY_METHOD:
+				methodName = new String (data, valueStart, end - valueStart);
+				break;
+			case KEY_NO_WIPE_ZERO:
+				noWipeZeroBlocks = number != 0;
+				break;
+			case KEY_USE_DEDICATED:
+				useDedicated = number != 0;
+				break;
+			case KEY_IS_ORDER:
+				selectOrder = number != 0;
+				break;
+			case KEY_ORDER:
+				wipingOrder = new String (data, valueStart, end - valueStart);
+				break;
+			case KEY_JOBS:
+				jobs = number;
+				break;
+			case KEY_JOBS_PER_DISK:
+				jobsPerDisk = number;
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void readFSList (char[] data, int start, int end)
+	{
+		// the names are separated by zero bytes
+		int nameStart = start;
+		for ( int i = start; i <= end; i++ )
+		{
+			if ( i == end || data[i] == '\0' )
+			{
+				if ( i > nameStart )
+				{
+					fsList.add (new String (data, nameStart, i - nameStart));
+				}
+				nameStart = i + 1;
+			}
+		}
+	}
+
+	private static int getValueKind (int key)
+	{
+		switch (key)
+		{
+			case KEY_FS_LIST:
+			case KEY_WFS_PATH:
+			case KEY_METHOD:
+			case KEY_ORDER:
+				return VALUE_TEXT;
+			case KEY_NO_WIPE_ZERO:
+				return VALUE_INT_TEXT;
+			default:
+				return VALUE_DIGITS;
+		}
+	}
+
+	private static int[] createKeyTable ()
+	{
+		int[] table = new int[KEY_TABLE_SIZE];
+		for ( int k = 0; k < KEYS.length; k++ )
+		{
+			String key = KEYS[k];
+			int i = hashKey (key.toCharArray (), 0, key.length ()) & (KEY_TABLE_SIZE - 1);
+			while ( table[i] != 0 )
+			{
+				i = (i + 1) & (KEY_TABLE_SIZE - 1);
+			}
+			table[i] = k + 1;
+		}
+		return table;
+	}
+
+	private static int hashKey (char[] data, int start, int end)
+	{
+		int h = 0;
+		for ( int i = start; i < end; i++ )
+		{
+			h = 31 * h + toLowerAscii (data[i]);
+		}
+		// spread the higher bits to the lower ones
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Finds the given key.
+	 * @return the key's KEY_* number or -1 if not found.
+	 */
+	private static int findKey (char[] data, int start, int end)
+	{
+		int i = hashKey (data, start, end) & (KEY_TABLE_SIZE - 1);
+		while ( KEY_TABLE[i] != 0 )
+		{
+			int key = KEY_TABLE[i] - 1;
+			if ( keyEquals (KEYS[key], data, start, end) )
+			{
+				return key;
+			}
+			i = (i + 1) & (KEY_TABLE_SIZE - 1);
+		}
+		return -1;
+	}
+
+	private static boolean keyEquals (String key, char[] data, int start, int end)
+	{
+		if ( key.length () != end - start )
+		{
+			return false;
+		}
+		for ( int i = 0; i < key.length (); i++ )
+		{
+			if ( key.charAt (i) != toLowerAscii (data[start + i]) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char toLowerAscii (char c)
+	{
+		if ( c >= 'A' && c <= 'Z' )
+		{
+			return (char) (c + ('a' - 'A'));
+		}
+		return c;
+	}
+
+	private static boolean isSpace (char c)
+	{
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B'
+			|| c == '\f' || c == '\r';
+	}
+
+	private static int skipSpaces (char[] data, int start, int end)
+	{
+		int i = start;
+		while ( i < end && isSpace (data[i]) )
+		{
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isAllDigits (char[] data, int start, int end)
+	{
+		for ( int i = start; i < end; i++ )
+		{
+			if ( data[i] < '0' || data[i] > '9' )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parses a number, like Integer.parseInt (), but without creating
+	 * a String, unless the number is invalid.
+	 * @return the number or NUMBER_ERROR if it's invalid.
+	 */
+	private static int parseNumber (char[] data, int start, int end, int key)
+	{
+		long value = 0;
+		boolean valid = start < end;
+		for ( int i = start; i < end && valid; i++ )
+		{
+			char c = data[i];
+			valid = c >= '0' && c <= '9';
+			value = value * 10 + (c - '0');
+			if ( value > Integer.MAX_VALUE )
+			{
+				valid = false;
+			}
+		}
+		if ( ! valid )
+		{
+			// let Integer.parseInt () produce the right exception
+			try
+			{
+				return Integer.parseInt (new String (data, start, end - start));
+			}
+			catch (NumberFormatException ex)
+			{
+				Utils.handleException (ex, "ConfigFile.read.parseInt (" + KEYS[key] + ")");	// NOI18N
+				return NUMBER_ERROR;
+			}
 		}
+		return (int) value;
 	}
 }
@@ -0,0 +1,198 @@
+/*
+ * ConfigFileCache.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of the parsed configuration files, so that loading the same
+ * file again costs only reading its attributes. An entry is used only if
+ * the file's size, modification time and identity (like the inode number)
+ * haven't changed. The least recently used entries are removed when
+ * the cache is full. Each call returns a separate copy of the configuration.
+ * @author Bogdan Drozdowski
+ */
+public class ConfigFileCache
+{
+	/** The default maximum number of cached files. */
+	public static final int DEFAULT_MAX_ENTRIES = 32;
+
+	/** The cache used by the whole program. */
+	public static final ConfigFileCache INSTANCE =
+		new ConfigFileCache (DEFAULT_MAX_ENTRIES);
+
+	private final Map<String, CachedConfig> entries;
+
+	/**
+	 * Creates a new instance of ConfigFileCache.
+	 * @param maxEntries The maximum number of cached files.
+	 */
+	public ConfigFileCache (final int maxEntries)
+	{
+		if ( maxEntries <= 0 )
+		{
+			throw new IllegalArgumentException ("ConfigFileCache:maxEntries <= 0");	// NOI18N
+		}
+		entries = new LinkedHashMap<String, CachedConfig> (16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry (Map.Entry<String, CachedConfig> eldest)
+			{
+				return size () > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Reads the given configuration file or gets it from the cache,
+	 * if it hasn't changed.
+	 * @param f The file to read.
+	 * @return a new ConfigFile with the parameters from the file.
+	 * @throws Exception on file error.
+	 */
+	public ConfigFile read (File f) throws Exception
+	{
+		if ( f == null )
+		{
+			throw new IllegalArgumentException ("ConfigFileCache.read:f = null");	// NOI18N
+		}
+		String key = f.getCanonicalPath ();
+		BasicFileAttributes attrs = Files.readAttributes (f.toPath (),
+			BasicFileAttributes.class);
+		CachedConfig e;
+		synchronized (entries)
+		{
+			e = entries.get (key);
+		}
+		if ( e != null && e.matches (attrs) )
+		{
+			return new ConfigFile (f, e.config);
+		}
+		// the attributes are read before the contents, so a change made
+		// during reading is noticed next time
+		ConfigFile cfg = new ConfigFile (f);
+		cfg.read ();
+		synchronized (entries)
+		{
+			entries.put (key, new CachedConfig (new ConfigFile (f, cfg), attrs));
+		}
+		return cfg;
+	}
+
+	/**
+	 * Removes the given file from the cache.
+	 * @param f The file to remove.
+	 */
+	public void invalidate (File f)
+	{
+		if ( f == null )
+		{
+			return;
+		}
+		String key;
+		try
+		{
+			key = f.getCanonicalPath ();
+		}
+		catch (IOException ex)
+		{
+			key = f.getAbsolutePath ();
+		}
+		synchronized (entries)
+		{
+			entries.remove (key);
+		}
+	}
+
+	/**
+	 * Removes all the files from the cache.
+	 */
+	public void clear ()
+	{
+		synchronized (entries)
+		{
+			entries.clear ();
+		}
+	}
+
+	/**
+	 * Gets the number of cached files.
+	 * @return the number of cached files.
+	 */
+	public int size ()
+	{
+		synchronized (entries)
+		{
+			return entries.size ();
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "ConfigFileCache(" + size () + ")";	// NOI18N
+	}
+
+	/**
+	 * A parsed file with the attributes it had when it was read.
+	 */
+	private static class CachedConfig
+	{
+		private final ConfigFile config;
+		private final long size;
+		private final long modified;
+		private final Object fileKey;
+
+		private CachedConfig (ConfigFile c, BasicFileAttributes attrs)
+		{
+			config = c;
+			size = attrs.size ();
+			modified = attrs.lastModifiedTime ().toMillis ();
+			fileKey = attrs.fileKey ();
+		}
+
+		private boolean matches (BasicFileAttributes attrs)
+		{
+			if ( attrs.size () != size
+				|| attrs.lastModifiedTime ().toMillis () != modified )
+			{
+				return false;
+			}
+			// the key is null where not supported
+			Object key = attrs.fileKey ();
+			return (key == null)? fileKey == null : key.equals (fileKey);
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "ConfigFileCache.CachedConfig(" + size + Utils.COMMA	// NOI18N
+				+ modified + Utils.COMMA + fileKey + ")";	// NOI18N
+		}
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * ConfigFileWatcher.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A class that watches a configuration file and reads it again when it
+ * changes. Bursts of changes (like an editor writing the file in parts or
+ * replacing it) are reported once, after no change has been seen for the
+ * given time. The watching thread is blocked in the system's notification
+ * mechanism while nothing changes, so it doesn't use the processor.
+ * @author Bogdan Drozdowski
+ */
+public class ConfigFileWatcher
+{
+	/** The default time without changes after which the file is read, in milliseconds. */
+	public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+	/**
+	 * The interface for receiving the configuration read after a change.
+	 */
+	public interface Listener
+	{
+		/**
+		 * Called on the watching thread when the file has changed.
+		 * @param cfg The new configuration.
+		 */
+		void configChanged (ConfigFile cfg);
+	}
+
+	private final File file;
+	private final long debounceMillis;
+	private final Listener listener;
+	private WatchService watcher;
+	private Thread thread;
+
+	/**
+	 * Creates a new instance of ConfigFileWatcher.
+	 * @param f The file to watch.
+	 * @param debounceMillisParam The time without changes after which
+	 *	the file is read, in milliseconds.
+	 * @param l The listener to notify about the changes.
+	 */
+	public ConfigFileWatcher (File f, long debounceMillisParam, Listener l)
+	{
+		if ( f == null )
+		{
+			throw new IllegalArgumentException ("ConfigFileWatcher:f = null");	// NOI18N
+		}
+		if ( l == null )
+		{
+			throw new IllegalArgumentException ("ConfigFileWatcher:l = null");	// NOI18N
+		}
+		file = f;
+		debounceMillis = Math.max (0, debounceMillisParam);
+		listener = l;
+	}
+
+	/**
+	 * Starts watching the file.
+	 * @throws IOException if the file's directory can't be watched.
+	 */
+	public synchronized void start () throws IOException
+	{
+		if ( watcher != null )
+		{
+			throw new IllegalStateException ("ConfigFileWatcher.start: already running");	// NOI18N
+		}
+		// the changes are made to the target of a link
+		Path path = file.toPath ().toRealPath ();
+		Path dir = path.getParent ();
+		WatchService ws = FileSystems.getDefault ().newWatchService ();
+		try
+		{
+			// a file replaced by renaming is "created"
+			dir.register (ws, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+		}
+		catch (IOException ex)
+		{
+			ws.close ();
+			throw ex;
+		}
+		watcher = ws;
+		thread = new DaemonThreadFactory ("wfsgui-config-watcher")	// NOI18N
+			.newThread (new Watch (ws, path.getFileName ()));
+		thread.start ();
+	}
+
+	/**
+	 * Stops watching the file.
+	 */
+	public synchronized void stop ()
+	{
+		if ( watcher == null )
+		{
+			return;
+		}
+		try
+		{
+			// wakes the watching thread up
+			watcher.close ();
+		}
+		catch (IOException ex)
+		{
+			Utils.handleException (ex, "ConfigFileWatcher.stop");	// NOI18N
+		}
+		watcher = null;
+		thread = null;
+	}
+
+	/**
+	 * Tells if the file is being watched.
+	 * @return true if the file is being watched.
+	 */
+	public synchronized boolean isRunning ()
+	{
+		return thread != null && thread.isAlive ();
+	}
+
+	/**
+	 * Gets the watched file.
+	 * @return the watched file.
+	 */
+	public File getFile ()
+	{
+		return file;
+	}
+
+	private void reload ()
+	{
+		try
+		{
+			// the file may have changed within the cache's time resolution
+			ConfigFileCache.INSTANCE.invalidate (file);
+			listener.configChanged (ConfigFileCache.INSTANCE.read (file));
+		}
+		catch (Exception ex)
+		{
+			// the file may be in the middle of being replaced
+			Utils.handleException (ex, "ConfigFileWatcher.reload(" + file + ")");	// NOI18N
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "ConfigFileWatcher(" + file + ")";	// NOI18N
+	}
+
+	/**
+	 * Waits for the changes and reads the file after them.
+	 */
+	private class Watch implements Runnable
+	{
+		private final WatchService ws;
+		private final Path name;
+
+		private Watch (WatchService w, Path n)
+		{
+			ws = w;
+			name = n;
+		}
+
+		@Override
+		public void run ()
+		{
+			try
+			{
+				while ( true )
+				{
+					WatchKey key = ws.take ();
+					boolean changed = isFileChanged (key);
+					if ( ! key.reset () )
+					{
+						// the directory is no longer available
+						break;
+					}
+					if ( ! changed )
+					{
+						continue;
+					}
+					// wait until the file's changes stop - the changes
+					// of other files in the directory (like a log being
+					// written) don't put the reading off
+					long deadline = System.nanoTime ()
+						+ TimeUnit.MILLISECONDS.toNanos (debounceMillis);
+					long left;
+					while ( (left = deadline - System.nanoTime ()) > 0
+						&& (key = ws.poll (left, TimeUnit.NANOSECONDS)) != null )
+					{
+						if ( isFileChanged (key) )
+						{
+							deadline = System.nanoTime ()
+								+ TimeUnit.MILLISECONDS.toNanos (debounceMillis);
+						}
+						if ( ! key.reset () )
+						{
+							break;
+						}
+					}
+					reload ();
+				}
+			}
+			catch (ClosedWatchServiceException ex)
+			{
+				// stopped
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread ().interrupt ();
+			}
+		}
+
+		private boolean isFileChanged (WatchKey key)
+		{
+			boolean changed = false;
+			for ( WatchEvent<?> ev : key.pollEvents () )
+			{
+				if ( ev.kind () == StandardWatchEventKinds.OVERFLOW
+					|| name.equals (ev.context ()) )
+				{
+					changed = true;
+				}
+			}
+			return changed;
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "ConfigFileWatcher.Watch(" + file + ")";	// NOI18N
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * DaemonThreadFactory.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A ThreadFactory that creates named daemon threads, which don't prevent
+ * the program from exiting.
+ * @author Bogdan Drozdowski
+ */
+public class DaemonThreadFactory implements ThreadFactory
+{
+	private final String namePrefix;
+	private final AtomicInteger threadNumber = new AtomicInteger (1);
+
+	/**
+	 * Creates a new instance of DaemonThreadFactory.
+	 * @param name The prefix of the names of the created threads.
+	 */
+	public DaemonThreadFactory (String name)
+	{
+		if ( name == null )
+		{
+			throw new IllegalArgumentException ("DaemonThreadFactory:name = null");	// NOI18N
+		}
+		namePrefix = name;
+	}
+
+	@Override
+	public Thread newThread (Runnable r)
+	{
+		Thread t = new Thread (r, namePrefix + Utils.DASH
+			+ threadNumber.getAndIncrement ());
+		t.setDaemon (true);
+		t.setUncaughtExceptionHandler (Utils.HANDLER);
+		return t;
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "DaemonThreadFactory(" + namePrefix + ")";	// NOI18N
+	}
+}
@@ -0,0 +1,311 @@
+/*
+ * DeviceResolver.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A class that finds the physical disk a filesystem is on, so that
+ * filesystems on the same disk aren't wiped at the same time.
+ * Uses /sys/class/block and /proc/self/mountinfo. The results are cached
+ * for the lifetime of the object. Filesystems which can't be resolved
+ * are treated as being on separate disks.
+ * @author Bogdan Drozdowski
+ */
+public class DeviceResolver
+{
+	private static final String SLASH = "/";	// NOI18N
+	// the maximum depth of stacked devices (like LVM on RAID):
+	private static final int MAX_DEPTH = 8;
+
+	private final File sysRoot;
+	private final File mountInfo;
+	private final String devPrefix;
+	private final ConcurrentMap<String, String> cache =
+		new ConcurrentHashMap<String, String> ();
+	private volatile List<String[]> mounts;
+
+	/**
+	 * Creates a new instance of DeviceResolver for the running system.
+	 */
+	public DeviceResolver ()
+	{
+		this (new File ("/sys"), new File ("/proc/self/mountinfo"),	// NOI18N
+			new File ("/dev"));	// NOI18N
+	}
+
+	/**
+	 * Creates a new instance of DeviceResolver.
+	 * @param sysRootParam The root of the sysfs filesystem.
+	 * @param mountInfoParam The file with the mountinfo table.
+	 * @param devRootParam The directory with the device files.
+	 */
+	public DeviceResolver (File sysRootParam, File mountInfoParam, File devRootParam)
+	{
+		if ( sysRootParam == null )
+		{
+			throw new IllegalArgumentException ("DeviceResolver:sysRootParam = null");	// NOI18N
+		}
+		if ( mountInfoParam == null )
+		{
+			throw new IllegalArgumentException ("DeviceResolver:mountInfoParam = null");	// NOI18N
+		}
+		if ( devRootParam == null )
+		{
+			throw new IllegalArgumentException ("DeviceResolver:devRootParam = null");	// NOI18N
+		}
+		sysRoot = sysRootParam;
+		mountInfo = mountInfoParam;
+		String dev = devRootParam.getAbsolutePath ();
+		devPrefix = dev.endsWith (SLASH) ? dev : dev + SLASH;
+	}
+
+	/**
+	 * Gets the name of the disk the given filesystem is on.
+	 * @param fs The filesystem - a device file or a directory.
+	 * @return the name of the disk (like "sda") or the given filesystem,
+	 *	if the disk can't be found.
+	 */
+	public String getDevice (String fs)
+	{
+		if ( fs == null )
+		{
+			return Utils.EMPTY_STR;
+		}
+		String device = cache.get (fs);
+		if ( device == null )
+		{
+			device = resolve (fs);
+			cache.putIfAbsent (fs, device);
+		}
+		return device;
+	}
+
+	/**
+	 * Forgets all the resolved filesystems and the mount table.
+	 */
+	public void clearCache ()
+	{
+		cache.clear ();
+		mounts = null;
+	}
+
+	private String resolve (String fs)
+	{
+		try
+		{
+			String name = null;
+			File f = new File (fs);
+			if ( fs.startsWith (devPrefix) )
+			{
+				// resolves /dev/disk/by-* and /dev/mapper/* links
+				name = f.getCanonicalFile ().getName ();
+			}
+			else
+			{
+				String[] mount = findMount (f.getCanonicalPath ());
+				if ( mount != null )
+				{
+					name = nameFromMajorMinor (mount[0]);
+					if ( name == null && mount[2].startsWith (devPrefix) )
+					{
+						name = new File (mount[2]).getCanonicalFile ().getName ();
+					}
+				}
+			}
+			if ( name == null || name.isEmpty () )
+			{
+				return fs;
+			}
+			return diskOf (name, 0);
+		}
+		catch (IOException ex)
+		{
+			Utils.handleException (ex, "DeviceResolver.resolve(" + fs + ")");	// NOI18N
+			return fs;
+		}
+	}
+
+	private String nameFromMajorMinor (String majorMinor) throws IOException
+	{
+		File link = new File (sysRoot, "dev/block/" + majorMinor);	// NOI18N
+		if ( ! link.exists () )
+		{
+			return null;
+		}
+		return link.getCanonicalFile ().getName ();
+	}
+
+	private String diskOf (String name, int depth) throws IOException
+	{
+		File dir = new File (sysRoot, "class/block/" + name);	// NOI18N
+		if ( ! dir.exists () || depth > MAX_DEPTH )
+		{
+			return name;
+		}
+		File real = dir.getCanonicalFile ();
+		if ( new File (real, "partition").exists () )	// NOI18N
+		{
+			// the parent directory is the whole disk
+			return real.getParentFile ().getName ();
+		}
+		// a device-mapper or RAID device on one disk is that disk
+		String[] slaves = new File (real, "slaves").list ();	// NOI18N
+		if ( slaves != null && slaves.length == 1 )
+		{
+			return diskOf (slaves[0], depth + 1);
+		}
+		return real.getName ();
+	}
+
+	/**
+	 * Finds the mount which contains the given path.
+	 * @param path The canonical path.
+	 * @return the "major:minor", the mount point and the source
+	 *	of the mount or null, if not found.
+	 */
+	private String[] findMount (String path) throws IOException
+	{
+		String[] best = null;
+		for ( String[] m : getMounts () )
+		{
+			String mp = m[1];
+			if ( path.equals (mp)
+				|| (path.startsWith (mp)
+					&& (mp.endsWith (SLASH)
+						|| path.charAt (mp.length ()) == '/')) )
+			{
+				// the last mount wins, if it's over another one
+				if ( best == null || mp.length () >= best[1].length () )
+				{
+					best = m;
+				}
+			}
+		}
+		return best;
+	}
+
+	private List<String[]> getMounts () throws IOException
+	{
+		List<String[]> m = mounts;
+		if ( m != null )
+		{
+			return m;
+		}
+		m = new ArrayList<String[]> ();
+		if ( mountInfo.canRead () )
+		{
+			BufferedReader br = new BufferedReader (new FileReader (mountInfo));
+			try
+			{
+				String line;
+				while ( (line = br.readLine ()) != null )
+				{
+					String[] entry = parseMountInfoLine (line);
+					if ( entry != null )
+					{
+						m.add (entry);
+					}
+				}
+			}
+			finally
+			{
+				br.close ();
+			}
+		}
+		mounts = m;
+		return m;
+	}
+
+	/**
+	 * Parses a line of the mountinfo file, like
+	 * "36 35 98:0 /mnt1 /mnt/parent rw,noatime master:1 - ext3 /dev/root rw".
+	 * @param line The line to parse.
+	 * @return the "major:minor", the mount point and the source
+	 *	of the mount or null, if the line is invalid.
+	 */
+	static String[] parseMountInfoLine (String line)
+	{
+		String[] fields = line.trim ().split ("\\s+");	// NOI18N
+		if ( fields.length < 5 )
+		{
+			return null;
+		}
+		String source = Utils.EMPTY_STR;
+		for ( int i = 5; i < fields.length - 2; i++ )
+		{
+			if ( "-".equals (fields[i]) )	// NOI18N
+			{
+				source = unescape (fields[i + 2]);
+				break;
+			}
+		}
+		return new String[] {fields[2], unescape (fields[4]), source};
+	}
+
+	/**
+	 * Decodes the octal escapes (like "\040" for a space) used in mountinfo.
+	 */
+	private static String unescape (String s)
+	{
+		if ( s.indexOf ('\\') < 0 )
+		{
+			return s;
+		}
+		StringBuilder sb = new StringBuilder (s.length ());
+		for ( int i = 0; i < s.length (); i++ )
+		{
+			char c = s.charAt (i);
+			if ( c == '\\' && i + 3 < s.length ()
+				&& isOctal (s.charAt (i + 1))
+				&& isOctal (s.charAt (i + 2))
+				&& isOctal (s.charAt (i + 3)) )
+			{
+				sb.append ((char) Integer.parseInt (s.substring (i + 1, i + 4), 8));
+				i += 3;
+			}
+			else
+			{
+				sb.append (c);
+			}
+		}
+		return sb.toString ();
+	}
+
+	private static boolean isOctal (char c)
+	{
+		return c >= '0' && c <= '7';
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "DeviceResolver(" + sysRoot + Utils.COMMA + Utils.SPACE	// NOI18N
+			+ mountInfo + ")";	// NOI18N
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * ErrorLineParser.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+/**
+ * An incremental parser which splits the error output of the
+ * "wipefreespace" program into lines and reports each non-empty line
+ * to a ProgressListener. The line buffer is reused, so no objects are
+ * created for each line.
+ * An instance is not thread-safe and should be used by one thread only.
+ * @author Bogdan Drozdowski
+ */
+public class ErrorLineParser
+{
+	// longer lines are cut:
+	private static final int MAX_LINE_LENGTH = 4096;
+
+	private final ProgressListener listener;
+	private final int jobId;
+	private final StringBuilder line = new StringBuilder (128);
+
+	/**
+	 * Creates a new instance of ErrorLineParser.
+	 * @param listenerParam The listener to report the lines to.
+	 * @param jobIdParam The number of the job the output comes from.
+	 */
+	public ErrorLineParser (ProgressListener listenerParam, int jobIdParam)
+	{
+		if ( listenerParam == null )
+		{
+			throw new IllegalArgumentException ("ErrorLineParser:listenerParam = null");	// NOI18N
+		}
+		listener = listenerParam;
+		jobId = jobIdParam;
+	}
+
+	/**
+	 * Parses the given part of the program's error output.
+	 * @param data The buffer with the newly-read characters.
+	 * @param offset The index of the first character to parse.
+	 * @param length The number of characters to parse.
+	 */
+	public void consume (char[] data, int offset, int length)
+	{
+		if ( data == null )
+		{
+			return;
+		}
+		final int end = offset + length;
+		for ( int i = offset; i < end; i++ )
+		{
+			final char c = data[i];
+			if ( c == '\r' || c == '\n' )
+			{
+				endOfLine ();
+			}
+			else if ( line.length () < MAX_LINE_LENGTH )
+			{
+				line.append (c);
+			}
+		}
+	}
+
+	/**
+	 * Tells the parser that the output has ended, so that the last line
+	 * is reported even if it has no end-of-line character.
+	 */
+	public void endOfInput ()
+	{
+		endOfLine ();
+	}
+
+	private void endOfLine ()
+	{
+		if ( line.length () > 0 )
+		{
+			listener.errorLine (jobId, line);
+			line.setLength (0);
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "ErrorLineParser(" + jobId + ")";	// NOI18N
+	}
+}
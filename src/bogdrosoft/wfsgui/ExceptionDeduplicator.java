@@ -0,0 +1,227 @@
+/*
+ * ExceptionDeduplicator.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class that limits how often the same exception is displayed. Exceptions
+ * are the same when they have the same class, are thrown in the same place
+ * and come with the same data. The first one is displayed in full, the
+ * repeated ones are only counted and summarized once in the given time,
+ * like "java.io.IOException: Broken pipe, Data='ProgressUpdater.call':
+ * repeated 25 times". An exception which hasn't been repeated for that time
+ * is displayed in full again. Only the given number of the most recent
+ * exceptions is remembered.
+ * An instance is not thread-safe and should be used by one thread only,
+ * like the writing thread of AsyncLogger.
+ * @author Bogdan Drozdowski
+ */
+public class ExceptionDeduplicator
+{
+	/** The default time between the summaries, in milliseconds. */
+	public static final long DEFAULT_INTERVAL_MILLIS = 10000;
+	/** The default number of remembered exceptions. */
+	public static final int DEFAULT_MAX_ENTRIES = 256;
+
+	private static final char SEPARATOR = '|';
+
+	private final long intervalMillis;
+	private final Map<String, SeenException> entries;
+	// the summaries of the forgotten exceptions:
+	private final List<String> evicted = new ArrayList<String> ();
+	private int pending;
+
+	/**
+	 * Creates a new instance of ExceptionDeduplicator.
+	 * @param intervalMillisParam The time between the summaries, in milliseconds.
+	 * @param maxEntriesParam The number of remembered exceptions.
+	 */
+	public ExceptionDeduplicator (long intervalMillisParam, int maxEntriesParam)
+	{
+		intervalMillis = Math.max (0, intervalMillisParam);
+		final int maxEntries = Math.max (1, maxEntriesParam);
+		entries = new LinkedHashMap<String, SeenException> (16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry (Map.Entry<String, SeenException> eldest)
+			{
+				if ( size () <= maxEntries )
+				{
+					return false;
+				}
+				SeenException e = eldest.getValue ();
+				if ( e.count > 0 )
+				{
+					evicted.add (e.getSummary ());
+					pending--;
+				}
+				return true;
+			}
+
+			@Override
+			public String toString ()
+			{
+				return "ExceptionDeduplicator.entries";	// NOI18N
+			}
+		};
+	}
+
+	/**
+	 * Checks if the given exception should be displayed in full.
+	 * @param ex The exception.
+	 * @param data The additional data displayed with the exception or null.
+	 * @param now The current time, in milliseconds.
+	 * @return true if the exception should be displayed in full, false
+	 *	if it's only counted.
+	 */
+	public boolean accept (Throwable ex, String data, long now)
+	{
+		if ( ex == null )
+		{
+			return false;
+		}
+		String key = getKey (ex, data);
+		SeenException e = entries.get (key);
+		if ( e == null )
+		{
+			entries.put (key, new SeenException (ex, data, now));
+			return true;
+		}
+		if ( e.count == 0 && now - e.lastReport >= intervalMillis )
+		{
+			// quiet for a long time, so show it again
+			e.lastReport = now;
+			return true;
+		}
+		if ( e.count == 0 )
+		{
+			pending++;
+		}
+		e.count++;
+		return false;
+	}
+
+	/**
+	 * Tells if any repeated exceptions haven't been summarized yet.
+	 * @return true if any repeated exceptions haven't been summarized yet.
+	 */
+	public boolean hasPending ()
+	{
+		return pending > 0 || ! evicted.isEmpty ();
+	}
+
+	/**
+	 * Gets the summaries of the exceptions repeated since they were last
+	 * displayed or summarized and resets their counters.
+	 * @param now The current time, in milliseconds.
+	 * @param all true to get all the summaries, false to get only the
+	 *	ones for which the time between the summaries has passed.
+	 * @return the summaries, one line each, without the line ends.
+	 */
+	public List<String> getSummaries (long now, boolean all)
+	{
+		List<String> result = new ArrayList<String> (evicted);
+		evicted.clear ();
+		if ( pending == 0 )
+		{
+			return result;
+		}
+		Iterator<SeenException> it = entries.values ().iterator ();
+		while ( it.hasNext () )
+		{
+			SeenException e = it.next ();
+			if ( e.count > 0 && (all || now - e.lastReport >= intervalMillis) )
+			{
+				result.add (e.getSummary ());
+				e.count = 0;
+				e.lastReport = now;
+				pending--;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the key which is the same for the same exceptions.
+	 * @param ex The exception.
+	 * @param data The additional data displayed with the exception or null.
+	 * @return the key.
+	 */
+	static String getKey (Throwable ex, String data)
+	{
+		StringBuilder sb = new StringBuilder (128);
+		sb.append (ex.getClass ().getName ()).append (SEPARATOR);
+		StackTraceElement[] ste = ex.getStackTrace ();
+		if ( ste != null && ste.length > 0 && ste[0] != null )
+		{
+			// where the exception was thrown
+			sb.append (ste[0]);
+		}
+		sb.append (SEPARATOR);
+		if ( data != null )
+		{
+			sb.append (data);
+		}
+		return sb.toString ();
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "ExceptionDeduplicator(" + entries.size () + Utils.COMMA + pending + ")";	// NOI18N
+	}
+
+	/**
+	 * An exception displayed recently.
+	 */
+	private static class SeenException
+	{
+		private final String description;
+		private long lastReport;
+		private int count;
+
+		private SeenException (Throwable ex, String data, long now)
+		{
+			description = (data != null)?
+				ex + ", Data='" + data + Utils.APOSTROPHE	// NOI18N
+				: ex.toString ();
+			lastReport = now;
+		}
+
+		private String getSummary ()
+		{
+			return description + ": repeated " + count + " times";	// NOI18N
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "ExceptionDeduplicator.SeenException(" + description + ")";	// NOI18N
+		}
+	}
+}
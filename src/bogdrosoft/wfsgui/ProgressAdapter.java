@@ -0,0 +1,60 @@
+/*
+ * ProgressAdapter.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+/**
+ * A ProgressListener which does nothing, to be extended by the listeners
+ * interested only in some of the events.
+ * @author Bogdan Drozdowski
+ */
+public abstract class ProgressAdapter implements ProgressListener
+{
+	@Override
+	public void fsStarted (int jobId, String fsName)
+	{
+		// nothing by default
+	}
+
+	@Override
+	public void stageProgress (int jobId, String fsName, int stagePercent,
+		int fsPercent, int totalPercent)
+	{
+		// nothing by default
+	}
+
+	@Override
+	public void fsFinished (int jobId, String fsName)
+	{
+		// nothing by default
+	}
+
+	@Override
+	public void errorLine (int jobId, CharSequence line)
+	{
+		// nothing by default
+	}
+
+	@Override
+	public void processExited (int jobId, int exitCode)
+	{
+		// nothing by default
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * ProgressAggregator.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A class that combines the total progress of many jobs run at the same
+ * time into the progress of the whole run. Each job's weight is the
+ * number of filesystems it wipes. A job's progress never goes back, so
+ * that late events (like the last output parsed after the job has been
+ * counted as done) don't lower the total. Can be updated from many
+ * threads without locking.
+ * @author Bogdan Drozdowski
+ */
+public class ProgressAggregator
+{
+	private final int[] weights;
+	private final long totalWeight;
+	private final AtomicIntegerArray percents;
+	private final AtomicLong weightedSum = new AtomicLong (0);
+
+	/**
+	 * Creates a new instance of ProgressAggregator.
+	 * @param jobs The jobs to combine the progress of. A job's number is
+	 *	its index in the aggregator.
+	 */
+	public ProgressAggregator (List<WipeJob> jobs)
+	{
+		if ( jobs == null )
+		{
+			throw new IllegalArgumentException ("ProgressAggregator:jobs = null");	// NOI18N
+		}
+		int maxId = -1;
+		for ( WipeJob job : jobs )
+		{
+			maxId = Math.max (maxId, job.getId ());
+		}
+		weights = new int[maxId + 1];
+		long sum = 0;
+		for ( WipeJob job : jobs )
+		{
+			weights[job.getId ()] = job.getFilesystems ().size ();
+			sum += weights[job.getId ()];
+		}
+		totalWeight = Math.max (sum, 1);
+		percents = new AtomicIntegerArray (weights.length);
+	}
+
+	/**
+	 * Sets the total progress of the given job, if bigger than the
+	 * current one.
+	 * @param jobId The number of the job.
+	 * @param percent The total progress of the job, in percent.
+	 * @return the progress of the whole run, in percent.
+	 */
+	public int update (int jobId, int percent)
+	{
+		if ( jobId < 0 || jobId >= weights.length )
+		{
+			return getTotalPercent ();
+		}
+		percent = Math.max (0, Math.min (percent, 100));
+		int old;
+		do
+		{
+			old = percents.get (jobId);
+			if ( percent <= old )
+			{
+				return getTotalPercent ();
+			}
+		} while ( ! percents.compareAndSet (jobId, old, percent) );
+		return toPercent (weightedSum.addAndGet
+			((long) (percent - old) * weights[jobId]));
+	}
+
+	/**
+	 * Gets the progress of the whole run.
+	 * @return the progress of the whole run, in percent.
+	 */
+	public int getTotalPercent ()
+	{
+		return toPercent (weightedSum.get ());
+	}
+
+	private int toPercent (long sum)
+	{
+		return (int) Math.min (sum / totalWeight, 100);
+	}
+}
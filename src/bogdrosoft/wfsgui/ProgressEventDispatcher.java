@@ -0,0 +1,131 @@
+/*
+ * ProgressEventDispatcher.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+/**
+ * A ProgressListener which passes the events to all the registered
+ * listeners. Listeners can be added and removed at any time, from any
+ * thread. Passing an event doesn't lock anything and doesn't create
+ * any objects.
+ * @author Bogdan Drozdowski
+ */
+public class ProgressEventDispatcher implements ProgressListener
+{
+	private static final ProgressListener[] NO_LISTENERS = new ProgressListener[0];
+
+	// copied on each change, so that the events can be passed without locking
+	private volatile ProgressListener[] listeners = NO_LISTENERS;
+
+	/**
+	 * Registers the given listener.
+	 * @param l The listener to add.
+	 */
+	public synchronized void addListener (ProgressListener l)
+	{
+		if ( l == null )
+		{
+			throw new IllegalArgumentException ("ProgressEventDispatcher.addListener:l = null");	// NOI18N
+		}
+		ProgressListener[] old = listeners;
+		ProgressListener[] newListeners = new ProgressListener[old.length + 1];
+		System.arraycopy (old, 0, newListeners, 0, old.length);
+		newListeners[old.length] = l;
+		listeners = newListeners;
+	}
+
+	/**
+	 * Unregisters the given listener.
+	 * @param l The listener to remove.
+	 */
+	public synchronized void removeListener (ProgressListener l)
+	{
+		ProgressListener[] old = listeners;
+		for ( int i = 0; i < old.length; i++ )
+		{
+			if ( old[i] == l )
+			{
+				ProgressListener[] newListeners = new ProgressListener[old.length - 1];
+				System.arraycopy (old, 0, newListeners, 0, i);
+				System.arraycopy (old, i + 1, newListeners, i, old.length - i - 1);
+				listeners = newListeners;
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void fsStarted (int jobId, String fsName)
+	{
+		final ProgressListener[] ls = listeners;
+		for ( int i = 0; i < ls.length; i++ )
+		{
+			ls[i].fsStarted (jobId, fsName);
+		}
+	}
+
+	@Override
+	public void stageProgress (int jobId, String fsName, int stagePercent,
+		int fsPercent, int totalPercent)
+	{
+		final ProgressListener[] ls = listeners;
+		for ( int i = 0; i < ls.length; i++ )
+		{
+			ls[i].stageProgress (jobId, fsName, stagePercent,
+				fsPercent, totalPercent);
+		}
+	}
+
+	@Override
+	public void fsFinished (int jobId, String fsName)
+	{
+		final ProgressListener[] ls = listeners;
+		for ( int i = 0; i < ls.length; i++ )
+		{
+			ls[i].fsFinished (jobId, fsName);
+		}
+	}
+
+	@Override
+	public void errorLine (int jobId, CharSequence line)
+	{
+		final ProgressListener[] ls = listeners;
+		for ( int i = 0; i < ls.length; i++ )
+		{
+			ls[i].errorLine (jobId, line);
+		}
+	}
+
+	@Override
+	public void processExited (int jobId, int exitCode)
+	{
+		final ProgressListener[] ls = listeners;
+		for ( int i = 0; i < ls.length; i++ )
+		{
+			ls[i].processExited (jobId, exitCode);
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "ProgressEventDispatcher(" + listeners.length + ")";	// NOI18N
+	}
+}
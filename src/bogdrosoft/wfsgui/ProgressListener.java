@@ -0,0 +1,72 @@
+/*
+ * ProgressListener.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+/**
+ * The interface for receiving the progress events of the wiping jobs.
+ * The methods are called on the threads reading the programs' output,
+ * so they should return quickly. The parameters are not copied for each
+ * event, so a listener which wants to keep a CharSequence has to make
+ * a copy of it.
+ * @author Bogdan Drozdowski
+ */
+public interface ProgressListener
+{
+	/**
+	 * Called when the wiping of a filesystem has started.
+	 * @param jobId The number of the job.
+	 * @param fsName The name of the filesystem.
+	 */
+	void fsStarted (int jobId, String fsName);
+
+	/**
+	 * Called when the progress of wiping a filesystem has changed.
+	 * @param jobId The number of the job.
+	 * @param fsName The name of the filesystem.
+	 * @param stagePercent The progress of the current stage, in percent.
+	 * @param fsPercent The progress of wiping the filesystem, in percent.
+	 * @param totalPercent The total progress of the job, in percent.
+	 */
+	void stageProgress (int jobId, String fsName, int stagePercent,
+		int fsPercent, int totalPercent);
+
+	/**
+	 * Called when the wiping of a filesystem has finished.
+	 * @param jobId The number of the job.
+	 * @param fsName The name of the filesystem.
+	 */
+	void fsFinished (int jobId, String fsName);
+
+	/**
+	 * Called for each non-empty line of the program's error output.
+	 * @param jobId The number of the job.
+	 * @param line The line, without the end-of-line characters. Valid
+	 *	only during the call.
+	 */
+	void errorLine (int jobId, CharSequence line);
+
+	/**
+	 * Called when the job's process has exited.
+	 * @param jobId The number of the job.
+	 * @param exitCode The process' exit code or WipeScheduler.EXIT_NOT_STARTED.
+	 */
+	void processExited (int jobId, int exitCode);
+}
@@ -0,0 +1,503 @@
+/*
+ * ProgressRateEstimator.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A ProgressListener which estimates the speed of the wiping and the time
+ * left, for the current filesystem of each job and for the whole run.
+ * The speed is the change of the progress in time, smoothed with
+ * an exponential moving average, so that it doesn't jump between the
+ * stages. When the filesystem is given as a mounted directory, its free
+ * space (which is what gets wiped) is read from its FileStore and the
+ * speed is also given in bytes per second. This is only an approximation,
+ * because the stages don't take the same time.
+ * The speeds are calculated on the threads which report the progress,
+ * without creating any objects, and copied to the given Estimate objects
+ * when they're read (for example on the Event Dispatching Thread).
+ * The events of the jobs which have already exited are ignored.
+ * @author Bogdan Drozdowski
+ */
+public class ProgressRateEstimator extends ProgressAdapter
+{
+	/** The default weight of the newest speed sample in the average. */
+	public static final double DEFAULT_SMOOTHING = 0.3;
+	/** The default minimum time between the speed samples, in milliseconds. */
+	public static final long DEFAULT_SAMPLE_MILLIS = 1000;
+
+	private static final long KILO = 1024;
+	private static final String[] UNITS = {"B/s", "kB/s", "MB/s", "GB/s", "TB/s"};	// NOI18N
+
+	private final ProgressAggregator aggregator;
+	private final double smoothing;
+	private final long sampleMillis;
+	private final ConcurrentMap<Integer, Rate> jobs =
+		new ConcurrentHashMap<Integer, Rate> ();
+	private final Set<Integer> finished =
+		Collections.newSetFromMap (new ConcurrentHashMap<Integer, Boolean> ());
+	private final Rate total;
+
+	/**
+	 * Creates a new instance of ProgressRateEstimator with the default
+	 * smoothing and time between the samples.
+	 * @param aggregatorParam The aggregator of the progress of all the
+	 *	jobs, or null to estimate the time left of the single jobs.
+	 */
+	public ProgressRateEstimator (ProgressAggregator aggregatorParam)
+	{
+		this (aggregatorParam, DEFAULT_SMOOTHING, DEFAULT_SAMPLE_MILLIS);
+	}
+
+	/**
+	 * Creates a new instance of ProgressRateEstimator.
+	 * @param aggregatorParam The aggregator of the progress of all the
+	 *	jobs, or null to estimate the time left of the single jobs.
+	 * @param smoothingParam The weight of the newest speed sample in the
+	 *	average, between 0 (exclusive) and 1 (only the newest sample).
+	 * @param sampleMillisParam The minimum time between the speed
+	 *	samples, in milliseconds.
+	 */
+	public ProgressRateEstimator (ProgressAggregator aggregatorParam,
+		double smoothingParam, long sampleMillisParam)
+	{
+		if ( ! (smoothingParam > 0.0 && smoothingParam <= 1.0) )
+		{
+			throw new IllegalArgumentException ("ProgressRateEstimator:smoothingParam = "	// NOI18N
+				+ smoothingParam);
+		}
+		aggregator = aggregatorParam;
+		smoothing = smoothingParam;
+		sampleMillis = Math.max (1, sampleMillisParam);
+		total = new Rate (-1);
+	}
+
+	@Override
+	public void fsStarted (int jobId, String fsName)
+	{
+		if ( finished.contains (Integer.valueOf (jobId)) )
+		{
+			return;
+		}
+		// read before the wiping takes the free space
+		fsStarted (jobId, getFreeSpace (fsName), now ());
+	}
+
+	@Override
+	public void stageProgress (int jobId, String fsName, int stagePercent,
+		int fsPercent, int totalPercent)
+	{
+		update (jobId, fsPercent, totalPercent, now ());
+	}
+
+	@Override
+	public void processExited (int jobId, int exitCode)
+	{
+		Integer key = Integer.valueOf (jobId);
+		// first, so that the late events don't add the job again
+		finished.add (key);
+		jobs.remove (key);
+		if ( aggregator != null )
+		{
+			// count the job as done in the total progress
+			updateTotal (aggregator.update (jobId, 100), now ());
+		}
+	}
+
+	/**
+	 * Gets the estimate for the current filesystem of the given job.
+	 * @param jobId The number of the job.
+	 * @return a new estimate for the current filesystem of the given job.
+	 */
+	public Estimate getFsEstimate (int jobId)
+	{
+		return getFsEstimate (jobId, new Estimate ());
+	}
+
+	/**
+	 * Gets the estimate for the current filesystem of the given job
+	 * into the given object, so that no new objects are created.
+	 * @param jobId The number of the job.
+	 * @param result The object to put the estimate into.
+	 * @return the given object.
+	 */
+	public Estimate getFsEstimate (int jobId, Estimate result)
+	{
+		if ( result == null )
+		{
+			throw new IllegalArgumentException ("ProgressRateEstimator.getFsEstimate:result = null");	// NOI18N
+		}
+		Rate r = jobs.get (Integer.valueOf (jobId));
+		if ( r != null )
+		{
+			r.copyTo (result);
+		}
+		else
+		{
+			result.set (0.0, -1, -1);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the estimate for the whole run (or for the job reported last,
+	 * if no ProgressAggregator is used). The speed in bytes per second
+	 * is the sum of the speeds of the running jobs.
+	 * @return a new estimate for the whole run.
+	 */
+	public Estimate getTotalEstimate ()
+	{
+		return getTotalEstimate (new Estimate ());
+	}
+
+	/**
+	 * Gets the estimate for the whole run into the given object, so that
+	 * no new objects are created. See {@link #getTotalEstimate()}.
+	 * @param result The object to put the estimate into.
+	 * @return the given object.
+	 */
+	public Estimate getTotalEstimate (Estimate result)
+	{
+		if ( result == null )
+		{
+			throw new IllegalArgumentException ("ProgressRateEstimator.getTotalEstimate:result = null");	// NOI18N
+		}
+		long bytesPerSecond = -1;
+		for ( Rate r : jobs.values () )
+		{
+			long b = r.getBytesPerSecond ();
+			if ( b >= 0 )
+			{
+				bytesPerSecond = Math.max (bytesPerSecond, 0) + b;
+			}
+		}
+		total.copyTo (result);
+		result.set (result.percentPerSecond, bytesPerSecond,
+			result.secondsLeft);
+		return result;
+	}
+
+	void fsStarted (int jobId, long fsBytes, long now)
+	{
+		Integer key = Integer.valueOf (jobId);
+		if ( finished.contains (key) )
+		{
+			return;
+		}
+		Rate r = new Rate (fsBytes);
+		r.sample (0, now);
+		jobs.put (key, r);
+	}
+
+	void update (int jobId, int fsPercent, int totalPercent, long now)
+	{
+		Integer key = Integer.valueOf (jobId);
+		if ( finished.contains (key) )
+		{
+			// a late event, the job is already counted as done
+			return;
+		}
+		Rate r = jobs.get (key);
+		if ( r == null )
+		{
+			// no fs_start seen, the size is unknown
+			r = new Rate (-1);
+			Rate old = jobs.putIfAbsent (key, r);
+			if ( old != null )
+			{
+				r = old;
+			}
+		}
+		r.sample (fsPercent, now);
+		if ( finished.contains (key) )
+		{
+			// exited in the meantime
+			jobs.remove (key);
+			return;
+		}
+		updateTotal ((aggregator != null)?
+			aggregator.update (jobId, totalPercent) : totalPercent, now);
+	}
+
+	private void updateTotal (int totalPercent, long now)
+	{
+		total.sample (totalPercent, now);
+	}
+
+	/**
+	 * Gets the free space on the given filesystem.
+	 * @param fsName The name of the filesystem.
+	 * @return the free space in bytes or -1, if the filesystem isn't
+	 *	a mounted directory or its free space can't be read.
+	 */
+	static long getFreeSpace (String fsName)
+	{
+		if ( fsName == null )
+		{
+			return -1;
+		}
+		File f = new File (fsName);
+		if ( ! f.isDirectory () )
+		{
+			// a device - its free space is known only to the wiping program
+			return -1;
+		}
+		try
+		{
+			return Files.getFileStore (f.toPath ()).getUnallocatedSpace ();
+		}
+		catch (IOException ex)
+		{
+			return -1;
+		}
+		catch (SecurityException ex)
+		{
+			return -1;
+		}
+	}
+
+	/**
+	 * Formats the given speed, like "12.3 MB/s".
+	 * @param bytesPerSecond The speed in bytes per second.
+	 * @return the formatted speed.
+	 */
+	public static String formatRate (long bytesPerSecond)
+	{
+		double value = Math.max (0, bytesPerSecond);
+		int unit = 0;
+		while ( value >= KILO && unit < UNITS.length - 1 )
+		{
+			value /= KILO;
+			unit++;
+		}
+		long tenths = Math.round (value * 10.0);
+		return (tenths / 10) + Utils.DOT + (tenths % 10) + ' ' + UNITS[unit];
+	}
+
+	/**
+	 * Formats the given time, like "1:02:03".
+	 * @param seconds The time in seconds.
+	 * @return the formatted time.
+	 */
+	public static String formatTime (long seconds)
+	{
+		long s = Math.max (0, seconds);
+		StringBuilder sb = new StringBuilder (16);
+		sb.append (s / 3600).append (':');
+		appendTwoDigits (sb, (s / 60) % 60);
+		sb.append (':');
+		appendTwoDigits (sb, s % 60);
+		return sb.toString ();
+	}
+
+	private static void appendTwoDigits (StringBuilder sb, long value)
+	{
+		if ( value < 10 )
+		{
+			sb.append ('0');
+		}
+		sb.append (value);
+	}
+
+	/**
+	 * Gets the current time, for measuring the speed.
+	 * @return the current time, in milliseconds.
+	 */
+	long now ()
+	{
+		// not changed by setting the system clock
+		return System.nanoTime () / 1000000L;
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "ProgressRateEstimator(" + total + ")";	// NOI18N
+	}
+
+	/**
+	 * The speed of the wiping and the time left, at some moment.
+	 * The objects can be reused for reading the estimates many times.
+	 * They are not thread-safe.
+	 */
+	public static final class Estimate
+	{
+		private double percentPerSecond;
+		private long bytesPerSecond = -1;
+		private long secondsLeft = -1;
+
+		/**
+		 * Creates a new instance of Estimate, with nothing known yet.
+		 */
+		public Estimate ()
+		{
+			// nothing known
+		}
+
+		Estimate (double percentPerSecondParam, long bytesPerSecondParam,
+			long secondsLeftParam)
+		{
+			set (percentPerSecondParam, bytesPerSecondParam, secondsLeftParam);
+		}
+
+		void set (double percentPerSecondParam, long bytesPerSecondParam,
+			long secondsLeftParam)
+		{
+			percentPerSecond = percentPerSecondParam;
+			bytesPerSecond = bytesPerSecondParam;
+			secondsLeft = secondsLeftParam;
+		}
+
+		/**
+		 * Gets the speed, in percent per second.
+		 * @return the speed, in percent per second.
+		 */
+		public double getPercentPerSecond ()
+		{
+			return percentPerSecond;
+		}
+
+		/**
+		 * Gets the speed, in bytes per second.
+		 * @return the speed, in bytes per second, or -1 if not known.
+		 */
+		public long getBytesPerSecond ()
+		{
+			return bytesPerSecond;
+		}
+
+		/**
+		 * Gets the estimated time left.
+		 * @return the estimated time left, in seconds, or -1 if not known.
+		 */
+		public long getSecondsLeft ()
+		{
+			return secondsLeft;
+		}
+
+		/**
+		 * Gets the description for displaying, like "12.3 MB/s, 0:05:12".
+		 * @return the description or an empty string, if nothing is known.
+		 */
+		public String getDescription ()
+		{
+			StringBuilder sb = new StringBuilder (32);
+			if ( bytesPerSecond >= 0 )
+			{
+				sb.append (formatRate (bytesPerSecond));
+			}
+			if ( secondsLeft >= 0 )
+			{
+				if ( sb.length () > 0 )
+				{
+					sb.append (Utils.COMMA).append (' ');
+				}
+				sb.append (formatTime (secondsLeft));
+			}
+			return sb.toString ();
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "ProgressRateEstimator.Estimate(" + percentPerSecond	// NOI18N
+				+ Utils.COMMA + bytesPerSecond + Utils.COMMA + secondsLeft + ")";	// NOI18N
+		}
+	}
+
+	/**
+	 * The smoothed speed of the progress of one filesystem or of the whole run.
+	 */
+	private class Rate
+	{
+		private final long bytes;
+		private int lastPercent = -1;
+		private long lastTime;
+		// percent per millisecond, NaN before the first sample:
+		private double average = Double.NaN;
+		private long bytesPerSecond = -1;
+		private long secondsLeft = -1;
+
+		private Rate (long bytesParam)
+		{
+			bytes = bytesParam;
+		}
+
+		private synchronized void sample (int percent, long now)
+		{
+			if ( lastPercent < 0 || percent < lastPercent )
+			{
+				// the first value or the progress started again
+				lastPercent = percent;
+				lastTime = now;
+				return;
+			}
+			long elapsed = now - lastTime;
+			if ( elapsed < sampleMillis )
+			{
+				// too short to measure, wait for more progress
+				return;
+			}
+			double current = (double) (percent - lastPercent) / elapsed;
+			average = Double.isNaN (average)? current
+				: smoothing * current + (1.0 - smoothing) * average;
+			lastPercent = percent;
+			lastTime = now;
+			secondsLeft = -1;
+			if ( percent >= 100 )
+			{
+				secondsLeft = 0;
+			}
+			else if ( average > 0.0 )
+			{
+				secondsLeft = (long) Math.ceil ((100 - percent) / average / 1000.0);
+			}
+			if ( bytes >= 0 )
+			{
+				bytesPerSecond = (long) (average * 1000.0 * bytes / 100.0);
+			}
+		}
+
+		private synchronized long getBytesPerSecond ()
+		{
+			return bytesPerSecond;
+		}
+
+		private synchronized void copyTo (Estimate e)
+		{
+			e.set (Double.isNaN (average)? 0.0 : average * 1000.0,
+				bytesPerSecond, secondsLeft);
+		}
+
+		@Override
+		public synchronized String toString ()
+		{
+			return "ProgressRateEstimator.Rate(" + bytes	// NOI18N
+				+ Utils.COMMA + average + Utils.COMMA + secondsLeft + ")";	// NOI18N
+		}
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * ReaderExecutor.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executor shared by all the readers of the programs' output and
+ * error streams. A reader blocks until its program exits and a program
+ * whose stream isn't read can block on a full pipe, so a reader never
+ * waits for a free thread - a new thread is started, if all are busy.
+ * The number of threads kept when they're idle follows the number of
+ * programs run at the same time (set with setMaxProcesses ()), the
+ * other threads end when they're idle for some time. The threads are
+ * named daemon threads.
+ * When ThreadBackend uses virtual threads, each reader gets its own
+ * virtual thread instead and the limit isn't used.
+ * @author Bogdan Drozdowski
+ */
+public final class ReaderExecutor
+{
+	/** The number of streams read for each program (output and errors). */
+	public static final int READERS_PER_PROCESS = 2;
+
+	private static final long KEEP_ALIVE_SEC = 30;
+
+	private static final ThreadPoolExecutor POOL = new ThreadPoolExecutor
+		(READERS_PER_PROCESS, Integer.MAX_VALUE,
+		KEEP_ALIVE_SEC, TimeUnit.SECONDS,
+		new SynchronousQueue<Runnable> (),
+		new DaemonThreadFactory ("wfsgui-reader"));	// NOI18N
+
+	// a new virtual thread for each reader, null if not used:
+	private static final ThreadPoolExecutor VIRTUAL = ThreadBackend.isVirtual ()?
+		new ThreadPoolExecutor (0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS,
+			new SynchronousQueue<Runnable> (),
+			ThreadBackend.newThreadFactory ("wfsgui-reader"))	// NOI18N
+		: null;
+
+	// non-instantiable
+	private ReaderExecutor () {}
+
+	/**
+	 * Sets the number of threads kept when they're idle to the number
+	 * needed for the given number of programs run at the same time.
+	 * More programs can still be run, their readers get new threads.
+	 * @param maxProcesses The maximum number of programs run at the same time.
+	 */
+	public static synchronized void setMaxProcesses (int maxProcesses)
+	{
+		POOL.setCorePoolSize (Math.max (1, maxProcesses) * READERS_PER_PROCESS);
+	}
+
+	/**
+	 * Gets the number of platform threads kept when they're idle.
+	 * @return the number of platform threads kept when they're idle.
+	 */
+	public static int getCoreThreads ()
+	{
+		return POOL.getCorePoolSize ();
+	}
+
+	/**
+	 * Gets the number of platform threads reading the streams or idle.
+	 * @return the number of platform threads reading the streams or idle.
+	 */
+	public static int getThreadCount ()
+	{
+		return (VIRTUAL != null)? 0 : POOL.getPoolSize ();
+	}
+
+	/**
+	 * Gets the number of the streams being read now.
+	 * @return the number of the streams being read now.
+	 */
+	public static int getActiveCount ()
+	{
+		return (VIRTUAL != null)? VIRTUAL.getActiveCount () : POOL.getActiveCount ();
+	}
+
+	/**
+	 * Runs the given reader.
+	 * @param reader The reader to run.
+	 * @return the Future of the reader, for waiting for it.
+	 */
+	public static Future<?> submit (Runnable reader)
+	{
+		return getExecutor ().submit (reader);
+	}
+
+	/**
+	 * Runs the given reader.
+	 * @param <T> The type of the reader's result.
+	 * @param reader The reader to run.
+	 * @return the Future of the reader, for waiting for it.
+	 */
+	public static <T> Future<T> submit (Callable<T> reader)
+	{
+		return getExecutor ().submit (reader);
+	}
+
+	private static ExecutorService getExecutor ()
+	{
+		return (VIRTUAL != null)? VIRTUAL : POOL;
+	}
+}
@@ -0,0 +1,364 @@
+/*
+ * RotatingLogStream.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A buffered stream writing to a log file, which is rotated when it gets
+ * too big or too old. The rotated file gets the time of the rotation added
+ * to its name (like "wfsgui2.log.20250131-123456-789") and can be compressed
+ * with gzip on a background thread. Only the given number of the newest
+ * rotated files is kept. An existing, non-empty log file is rotated when
+ * the stream is opened, so each run starts with a new file.
+ * @author Bogdan Drozdowski
+ */
+public class RotatingLogStream extends OutputStream
+{
+	/** The extension added to the compressed files. */
+	public static final String GZIP_EXT = ".gz";	// NOI18N
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final long CLOSE_TIMEOUT_SEC = 10;
+
+	private final File file;
+	private final long maxSize;
+	private final long maxAgeMillis;
+	private final int maxBackups;
+	private final boolean compress;
+	// compresses and removes the old files, one at a time:
+	private final ExecutorService background = Executors.newSingleThreadExecutor
+		(new DaemonThreadFactory ("wfsgui-log-rotation"));	// NOI18N
+	private OutputStream current;
+	private long size;
+	private long openedAt;
+
+	/**
+	 * Creates a new instance of RotatingLogStream and opens the log file.
+	 * @param fileParam The log file.
+	 * @param maxSizeParam The size in bytes after which the file is
+	 *	rotated, 0 for no limit.
+	 * @param maxAgeMillisParam The time in milliseconds after which the
+	 *	file is rotated, 0 for no limit.
+	 * @param maxBackupsParam The number of rotated files to keep.
+	 * @param compressParam Whether to compress the rotated files.
+	 * @throws IOException if the log file can't be opened.
+	 */
+	public RotatingLogStream (File fileParam, long maxSizeParam,
+		long maxAgeMillisParam, int maxBackupsParam, boolean compressParam)
+		throws IOException
+	{
+		if ( fileParam == null )
+		{
+			throw new IllegalArgumentException ("RotatingLogStream:fileParam = null");	// NOI18N
+		}
+		file = fileParam.getAbsoluteFile ();
+		maxSize = Math.max (0, maxSizeParam);
+		maxAgeMillis = Math.max (0, maxAgeMillisParam);
+		maxBackups = Math.max (0, maxBackupsParam);
+		compress = compressParam;
+		if ( file.length () > 0 )
+		{
+			try
+			{
+				moveAway ();
+			}
+			catch (IOException ex)
+			{
+				// the old log is overwritten then
+				Utils.handleException (ex, "RotatingLogStream");	// NOI18N
+			}
+		}
+		open ();
+	}
+
+	/**
+	 * Gets the current log file.
+	 * @return the current log file.
+	 */
+	public File getFile ()
+	{
+		return file;
+	}
+
+	@Override
+	public synchronized void write (int b) throws IOException
+	{
+		ensureOpen ();
+		current.write (b);
+		size++;
+		rotateIfNeeded ();
+	}
+
+	@Override
+	public synchronized void write (byte[] b, int off, int len) throws IOException
+	{
+		ensureOpen ();
+		current.write (b, off, len);
+		size += len;
+		rotateIfNeeded ();
+	}
+
+	@Override
+	public synchronized void flush () throws IOException
+	{
+		if ( current != null )
+		{
+			current.flush ();
+		}
+	}
+
+	/**
+	 * Closes the log file and waits for the old files to be compressed.
+	 * @throws IOException if the log file can't be closed.
+	 */
+	@Override
+	public void close () throws IOException
+	{
+		synchronized (this)
+		{
+			if ( current == null )
+			{
+				return;
+			}
+			try
+			{
+				current.close ();
+			}
+			finally
+			{
+				current = null;
+			}
+		}
+		background.shutdown ();
+		try
+		{
+			background.awaitTermination (CLOSE_TIMEOUT_SEC, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread ().interrupt ();
+		}
+	}
+
+	/**
+	 * Rotates the log file now, if it isn't empty.
+	 * @throws IOException if the log file can't be rotated.
+	 */
+	public synchronized void rotate () throws IOException
+	{
+		ensureOpen ();
+		if ( size == 0 )
+		{
+			return;
+		}
+		current.close ();
+		current = null;
+		try
+		{
+			moveAway ();
+		}
+		finally
+		{
+			// if the file can't be renamed, it's emptied to keep its size limited
+			open ();
+		}
+	}
+
+	private void ensureOpen () throws IOException
+	{
+		if ( current == null )
+		{
+			throw new IOException ("RotatingLogStream: closed");	// NOI18N
+		}
+	}
+
+	private void rotateIfNeeded () throws IOException
+	{
+		if ( (maxSize > 0 && size >= maxSize)
+			|| (maxAgeMillis > 0
+				&& System.currentTimeMillis () - openedAt >= maxAgeMillis) )
+		{
+			rotate ();
+		}
+	}
+
+	private void open () throws IOException
+	{
+		current = new BufferedOutputStream (new FileOutputStream (file), BUFFER_SIZE);
+		size = 0;
+		openedAt = System.currentTimeMillis ();
+	}
+
+	/**
+	 * Renames the log file to a name with the current time and schedules
+	 * compressing it and removing the oldest files.
+	 */
+	private void moveAway () throws IOException
+	{
+		String base = file.getName () + Utils.DOT
+			+ new SimpleDateFormat ("yyyyMMdd-HHmmss-SSS").format (new Date ());	// NOI18N
+		File rotated = new File (file.getParentFile (), base);
+		for ( int i = 1; rotated.exists ()
+			|| new File (rotated.getPath () + GZIP_EXT).exists (); i++ )
+		{
+			rotated = new File (file.getParentFile (), base + Utils.DASH + i);
+		}
+		if ( ! file.renameTo (rotated) )
+		{
+			throw new IOException ("RotatingLogStream: cannot rename " + file	// NOI18N
+				+ " to " + rotated);	// NOI18N
+		}
+		background.execute (new Cleanup ((compress)? rotated : null));
+	}
+
+	/**
+	 * Gets the rotated files of the given log file, the oldest first.
+	 * @param log The log file.
+	 * @return the rotated files of the given log file.
+	 */
+	public static List<File> getRotatedFiles (File log)
+	{
+		List<File> result = new ArrayList<File> ();
+		File dir = log.getAbsoluteFile ().getParentFile ();
+		String prefix = log.getName () + Utils.DOT;
+		File[] files = (dir != null)? dir.listFiles () : null;
+		if ( files == null )
+		{
+			return result;
+		}
+		Arrays.sort (files);
+		for ( File f : files )
+		{
+			String name = f.getName ();
+			// only the names with the time, like "wfsgui2.log.20250131-123456-789"
+			if ( name.startsWith (prefix) && name.length () > prefix.length ()
+				&& Character.isDigit (name.charAt (prefix.length ())) )
+			{
+				result.add (f);
+			}
+		}
+		return result;
+	}
+
+	static void gzip (File from, File to) throws IOException
+	{
+		InputStream in = new FileInputStream (from);
+		try
+		{
+			OutputStream out = new GZIPOutputStream (new FileOutputStream (to));
+			try
+			{
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int n;
+				while ( (n = in.read (buffer)) >= 0 )
+				{
+					out.write (buffer, 0, n);
+				}
+			}
+			finally
+			{
+				out.close ();
+			}
+		}
+		finally
+		{
+			in.close ();
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "RotatingLogStream(" + file + ")";	// NOI18N
+	}
+
+	/**
+	 * Compresses a rotated file and removes the oldest ones.
+	 */
+	private class Cleanup implements Runnable
+	{
+		private final File toCompress;
+
+		private Cleanup (File f)
+		{
+			toCompress = f;
+		}
+
+		@Override
+		public void run ()
+		{
+			if ( toCompress != null )
+			{
+				File gz = new File (toCompress.getPath () + GZIP_EXT);
+				try
+				{
+					gzip (toCompress, gz);
+					if ( ! toCompress.delete () )
+					{
+						Utils.handleException (new IOException (toCompress.toString ()),
+							"RotatingLogStream.Cleanup: delete");	// NOI18N
+					}
+				}
+				catch (IOException ex)
+				{
+					Utils.handleException (ex, "RotatingLogStream.Cleanup: gzip");	// NOI18N
+					// keep the uncompressed file instead of a broken one
+					if ( gz.exists () && ! gz.delete () )
+					{
+						Utils.handleException (new IOException (gz.toString ()),
+							"RotatingLogStream.Cleanup: delete");	// NOI18N
+					}
+				}
+			}
+			List<File> rotated = getRotatedFiles (file);
+			for ( int i = 0; i < rotated.size () - maxBackups; i++ )
+			{
+				if ( ! rotated.get (i).delete () )
+				{
+					Utils.handleException (new IOException (rotated.get (i).toString ()),
+						"RotatingLogStream.Cleanup: delete old");	// NOI18N
+				}
+			}
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "RotatingLogStream.Cleanup(" + toCompress + ")";	// NOI18N
+		}
+	}
+}
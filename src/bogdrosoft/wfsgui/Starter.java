@@ -23,6 +23,7 @@ package bogdrosoft.wfsgui;
 import bogdrosoft.wfsgui.gui.UiUtils;
 import bogdrosoft.wfsgui.gui.WfsMainWindow;
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ResourceBundle;
 
@@ -37,6 +38,11 @@ public class Starter
 		.getString("WfsGui2_Start_Error");
 
 	private static String logFile = "wfsgui2.log";	// NOI18N
+	// the log file is rotated when it gets bigger or older than this:
+	private static final long MAX_LOG_SIZE = 10L * 1024 * 1024;
+	private static final long MAX_LOG_AGE_MILLIS = 7L * 24 * 60 * 60 * 1000;
+	// the number of rotated (and compressed) log files to keep:
+	private static final int MAX_LOG_BACKUPS = 5;
 
 	private Starter ()
 	{
@@ -55,14 +61,30 @@ public class Starter
 		// set default uncaught exception handler:
 		Thread.setDefaultUncaughtExceptionHandler (Utils.HANDLER);
 
+		// check this first, so that nothing loads AWT in batch mode
+		if ( BatchRunner.isBatchRequested (args) )
+		{
+			// the statistics for JMX clients only on request, to start fast
+			if ( Boolean.getBoolean (WipeStats.JMX_PROPERTY) )
+			{
+				WipeStats.register ();
+			}
+			closeProgram (BatchRunner.start (CommandLineParser.parse (args)));
+			return;
+		}
+
+		// the statistics for JMX clients, like JConsole:
+		WipeStats.register ();
+
 		try
 		{
-			WfsMainWindow.start (args);
+			WfsMainWindow.start (CommandLineParser.parse (args));
 		}
 		catch (Throwable ex)
 		{
 			Utils.handleException (ex, "*** " + START_ERROR + " ***"); // NOI18N
 			UiUtils.showErrorMessage(null, START_ERROR);
+			Utils.flushExceptions ();
 			// close the log file:
 			redirectStderrToFile (null);
 			// exit the program:
@@ -76,7 +98,8 @@ public class Starter
 	 */
 	public static void closeProgram (int retval)
 	{
-		// close logging
+		// close logging, after writing the rest of the exceptions
+		Utils.flushExceptions ();
 		if ( System.err != null )
 		{
 			System.err.close ();
@@ -110,9 +133,7 @@ public class Starter
 		}
 		try
 		{
-			// don't force any encodings, because the translated messages may
-			// be in another encoding
-			System.setErr (new PrintStream (new File (filename)));
+			openLog (new File (filename));
 		}
 		catch (Exception ex)
 		{
@@ -203,10 +224,7 @@ public class Starter
 				}
 				try
 				{
-					// don't force any encodings, because the translated messages may
-					// be in another encoding
-					System.setErr (new PrintStream (new File (
-						dirs[i] + dirSep + filename)));
+					openLog (new File (dirs[i] + dirSep + filename));
 					filename = dirs[i] + dirSep + filename;
 					break;
 				}
@@ -222,4 +240,12 @@ public class Starter
 		}
 		return filename;
 	}
+
+	private static void openLog (File f) throws IOException
+	{
+		// don't force any encodings, because the translated messages may
+		// be in another encoding
+		System.setErr (new PrintStream (new RotatingLogStream (f,
+			MAX_LOG_SIZE, MAX_LOG_AGE_MILLIS, MAX_LOG_BACKUPS, true)));
+	}
 }
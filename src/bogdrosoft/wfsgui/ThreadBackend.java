@@ -0,0 +1,115 @@
+/*
+ * ThreadBackend.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A class that creates the threads which wait for the programs: the
+ * readers of their streams and the monitors of their processes.
+ * On Java 21 and newer, these are virtual threads, which cost almost
+ * nothing while blocked. On older versions, or when the system property
+ * "bogdrosoft.wfsgui.virtualThreads" is "false", they are normal daemon
+ * threads. The program is still compiled for Java 1.7, so the virtual
+ * threads are created through reflection.
+ * @author Bogdan Drozdowski
+ */
+public final class ThreadBackend
+{
+	/** The system property which turns the virtual threads off, when "false". */
+	public static final String VIRTUAL_THREADS_PROPERTY =
+		"bogdrosoft.wfsgui.virtualThreads";	// NOI18N
+
+	private static final boolean VIRTUAL = ! "false".equalsIgnoreCase	// NOI18N
+		(System.getProperty (VIRTUAL_THREADS_PROPERTY))
+		&& createVirtualThreadFactory ("wfsgui-probe") != null;	// NOI18N
+
+	// non-instantiable
+	private ThreadBackend () {}
+
+	/**
+	 * Tells if virtual threads are used.
+	 * @return true if virtual threads are used.
+	 */
+	public static boolean isVirtual ()
+	{
+		return VIRTUAL;
+	}
+
+	/**
+	 * Creates a ThreadFactory for the threads waiting for the programs.
+	 * @param name The prefix of the names of the created threads.
+	 * @return a factory of virtual threads, if they are used, or
+	 *	a DaemonThreadFactory.
+	 */
+	public static ThreadFactory newThreadFactory (String name)
+	{
+		if ( name == null )
+		{
+			throw new IllegalArgumentException ("ThreadBackend.newThreadFactory:name = null");	// NOI18N
+		}
+		if ( VIRTUAL )
+		{
+			ThreadFactory f = createVirtualThreadFactory (name);
+			if ( f != null )
+			{
+				return f;
+			}
+		}
+		return new DaemonThreadFactory (name);
+	}
+
+	/**
+	 * Creates a factory of virtual threads, named like the ones
+	 * from DaemonThreadFactory. Does the same as
+	 * Thread.ofVirtual ().name (name + "-", 1).uncaughtExceptionHandler
+	 * (Utils.HANDLER).factory (), which can't be called directly.
+	 * @param name The prefix of the names of the created threads.
+	 * @return the factory or null, if virtual threads are not available.
+	 */
+	static ThreadFactory createVirtualThreadFactory (String name)
+	{
+		try
+		{
+			Method ofVirtual = Thread.class.getMethod ("ofVirtual");	// NOI18N
+			// the methods of the public interface, not of the hidden class:
+			Class<?> builderClass = Class.forName ("java.lang.Thread$Builder");	// NOI18N
+			Object builder = ofVirtual.invoke (null);
+			builder = builderClass.getMethod ("name", String.class, long.class)	// NOI18N
+				.invoke (builder, name + Utils.DASH, 1L);
+			builder = builderClass.getMethod ("uncaughtExceptionHandler",	// NOI18N
+				Thread.UncaughtExceptionHandler.class)
+				.invoke (builder, Utils.HANDLER);
+			return (ThreadFactory) builderClass.getMethod ("factory")	// NOI18N
+				.invoke (builder);
+		}
+		catch (ReflectiveOperationException ex)
+		{
+			// no virtual threads before Java 21 (or only as a preview)
+			return null;
+		}
+		catch (RuntimeException ex)
+		{
+			return null;
+		}
+	}
+}
@@ -65,14 +65,9 @@ public class Utils
 	/** A String with a single dash character. */
 	public static final String DASH = "-";		// NOI18N
 
-	private static final String MSG_START = ", Message='";			// NOI18N
-	private static final String DATA_START = ", Data='";			// NOI18N
-	private static final String EXCEPTION_AT_STR = "\tat\t";		// NOI18N
-	private static final String UNKNOWN_CLASS = "<Unknown class>";		// NOI18N
-	private static final String UNKNOWN_METHOD = "<Unknown method>";	// NOI18N
-	private static final String UNKNOWN_FILE = "<Unknown file>";		// NOI18N
-
-	private static final boolean DEBUG_EXCEPTIONS = true;
+	// how long to wait for the exceptions to be displayed:
+	private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+	private static volatile boolean exceptionsOnStdout = true;
 
 	private Utils ()
 	{
@@ -185,159 +180,36 @@ public class Utils
 		return -1;
 	}
 
-	private static void displayExceptionLine (String line, boolean newLine)
+	/**
+	 * Sets whether the exceptions are displayed on the standard output,
+	 * in addition to the standard error output.
+	 * @param v the new value.
+	 */
+	public static void setExceptionsOnStdout (boolean v)
 	{
-		if ( line == null || (System.out == null && System.err == null) )
-		{
-			return;
-		}
-		if ( System.out != null )
-		{
-			System.out.print (line);
-			if (newLine)
-			{
-				System.out.println ();
-			}
-			System.out.flush ();
-		}
-		if ( System.err != null )
-		{
-			System.err.print (line);
-			if (newLine)
-			{
-				System.err.println ();
-			}
-			System.err.flush ();
-		}
+		exceptionsOnStdout = v;
 	}
 
 	/**
 	 * Displays all the important information about exceptions.
+	 * The exception is displayed on another thread, so this doesn't wait.
 	 * @param ex The exception to display.
 	 * @param data Any additional data to display.
 	 */
-	public static synchronized void handleException (Throwable ex, Object data)
+	public static void handleException (Throwable ex, Object data)
 	{
-		if ( ex == null || (System.out == null && System.err == null) )
-		{
-			return;
-		}
-		try
-		{
-			Calendar c = Calendar.getInstance ();
-
-			int month  = convertCalendarMonthToReal (c.get (Calendar.MONTH));
-			int day    = c.get (Calendar.DAY_OF_MONTH);
-			int hour   = c.get (Calendar.HOUR_OF_DAY);
-			int minute = c.get (Calendar.MINUTE);
-			int second = c.get (Calendar.SECOND);
-
-			String time = c.get (Calendar.YEAR) + DASH
-				+ ((month  < 10)? ZERO : EMPTY_STR ) + month  + DASH
-				+ ((day    < 10)? ZERO : EMPTY_STR ) + day    + SPACE
-				+ ((hour   < 10)? ZERO : EMPTY_STR ) + hour   + COLON
-				+ ((minute < 10)? ZERO : EMPTY_STR ) + minute + COLON
-				+ ((second < 10)? ZERO : EMPTY_STR ) + second + COLON + SPACE;
-
-			displayExceptionLine (time + ex, false);
-		}
-		catch (Throwable e)
-		{
-			// ignore here to avoid recurrency
-		}
-
-		try
-		{
-			String msg = ex.getMessage ();
-			if ( msg != null )
-			{
-				displayExceptionLine (MSG_START + msg + APOSTROPHE, false);
-			}
-		}
-		catch (Throwable e)
-		{
-			// ignore here to avoid recurrency
-		}
-
-		try
-		{
-			if ( data != null )
-			{
-				displayExceptionLine (DATA_START + data.toString () + APOSTROPHE, false);
-			}
-		}
-		catch (Throwable e)
-		{
-			// ignore here to avoid recurrency
-		}
-
-		try
-		{
-			displayExceptionLine (EMPTY_STR, true);
-		}
-		catch (Throwable e)
-		{
-			// ignore here to avoid recurrency
-		}
-
-		StackTraceElement[] ste = ex.getStackTrace ();
-		if ( ste != null )
-		{
-			for ( int i = 0; i < ste.length; i++ )
-			{
-				if ( ste[i] != null )
-				{
-					try
-					{
-						String clazz = ste[i].getClassName ();
-						String file = ste[i].getFileName ();
-						String function = ste[i].getMethodName ();
-						int line = ste[i].getLineNumber ();
-						String toShow = EXCEPTION_AT_STR;
-						if ( clazz != null )
-						{
-							// let's display only our files
-							if ( ! DEBUG_EXCEPTIONS
-								&& ! clazz.startsWith
-								("bogdro") )	// NOI18N
-							{
-								continue;
-							}
-							toShow += clazz;
-						}
-						else
-						{
-							toShow += UNKNOWN_CLASS;
-						}
-						if ( function != null )
-						{
-							toShow += DOT + function;
-						}
-						else
-						{
-							toShow += DOT + UNKNOWN_METHOD;
-						}
-						if ( file != null )
-						{
-							toShow += SPACE + L_PAREN + file;
-						}
-						else
-						{
-							toShow += SPACE + L_PAREN + UNKNOWN_FILE;
-						}
-						toShow += COLON + String.valueOf (line) + R_PAREN;
+		AsyncLogger.INSTANCE.log (ex, data, exceptionsOnStdout);
+	}
 
-						displayExceptionLine (toShow, true);
-					}
-					catch (Throwable e)
-					{
-						// ignore here to avoid recurrency
-					}
-				}
-			}
-		}
-		handleException (ex.getCause(), null);
+	/**
+	 * Waits until the exceptions are displayed. Should be called before
+	 * the standard outputs are closed.
+	 */
+	public static void flushExceptions ()
+	{
+		AsyncLogger.INSTANCE.flush (FLUSH_TIMEOUT_MILLIS);
 	}
+
 	/**
 	 * This function joins 2 arrays of bytes together.
 	 * @param orig The first array.
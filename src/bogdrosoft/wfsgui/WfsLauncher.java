@@ -0,0 +1,185 @@
+/*
+ * WfsLauncher.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class that starts the "wipefreespace" program. The program's error
+ * output can be read separately (the default), merged into its output,
+ * so that only one stream has to be read, or written straight to a file.
+ * The program can be run with a minimal environment (like LC_ALL=C), so
+ * that its output doesn't depend on the user's settings, and in the given
+ * working directory.
+ * Should be set up before it's used; starting the programs can then be
+ * done from many threads.
+ * @author Bogdan Drozdowski
+ */
+public class WfsLauncher
+{
+	/** The PATH given to the program when the current one is unknown. */
+	public static final String DEFAULT_PATH =
+		"/usr/local/sbin:/usr/local/bin:/usr/sbin:/usr/bin:/sbin:/bin";	// NOI18N
+
+	private static final String PATH = "PATH";	// NOI18N
+	private static final String C_LOCALE = "C";	// NOI18N
+
+	private boolean mergeErrors;
+	private File errorFile;
+	private boolean minimalEnvironment;
+	private final Map<String, String> extraEnvironment =
+		new LinkedHashMap<String, String> ();
+
+	/**
+	 * Creates a new instance of WfsLauncher with the options
+	 * from the given options, like the ones from the command line.
+	 * @param opts The options.
+	 * @return a new WfsLauncher.
+	 */
+	public static WfsLauncher fromOptions (WipeOptions opts)
+	{
+		if ( opts == null )
+		{
+			throw new IllegalArgumentException ("WfsLauncher.fromOptions:opts = null");	// NOI18N
+		}
+		WfsLauncher l = new WfsLauncher ();
+		l.setMergeErrors (opts.isMergeErrors ());
+		l.setErrorFile (opts.getErrorFile ());
+		l.setMinimalEnvironment (opts.isMinimalEnv ());
+		return l;
+	}
+
+	/**
+	 * Starts the given program.
+	 * @param command The program to run and its parameters.
+	 * @return the program's process.
+	 * @throws IOException if the program can't be started.
+	 */
+	public Process start (List<String> command) throws IOException
+	{
+		return createProcessBuilder (command).start ();
+	}
+
+	/**
+	 * Creates the ProcessBuilder which starts the given program.
+	 * @param command The program to run and its parameters.
+	 * @return the ProcessBuilder.
+	 */
+	ProcessBuilder createProcessBuilder (List<String> command)
+	{
+		if ( command == null || command.isEmpty () )
+		{
+			throw new IllegalArgumentException ("WfsLauncher.start:command = null");	// NOI18N
+		}
+		ProcessBuilder pb = new ProcessBuilder (command);
+		if ( mergeErrors )
+		{
+			pb.redirectErrorStream (true);
+		}
+		else if ( errorFile != null )
+		{
+			// many programs can write to the file at the same time:
+			pb.redirectError (ProcessBuilder.Redirect.appendTo (errorFile));
+		}
+		Map<String, String> env = pb.environment ();
+		if ( minimalEnvironment )
+		{
+			String path = env.get (PATH);
+			env.clear ();
+			env.put (PATH, (path != null && ! path.isEmpty ())? path : DEFAULT_PATH);
+			// untranslated messages, parsed the same way every time:
+			env.put ("LC_ALL", C_LOCALE);	// NOI18N
+			env.put ("LANG", C_LOCALE);	// NOI18N
+		}
+		env.putAll (extraEnvironment);
+		return pb;
+	}
+
+	/**
+	 * Tells if the program's error output has to be read separately, with
+	 * Process.getErrorStream (). If not, it's either in the program's
+	 * output or in the error file.
+	 * @return true if the program's error output has to be read separately.
+	 */
+	public boolean hasErrorStream ()
+	{
+		return ! mergeErrors && errorFile == null;
+	}
+
+	/**
+	 * Sets the "merge the program's error output into its output" option.
+	 * Used instead of the error file, if both are set.
+	 * @param v the new value.
+	 */
+	public void setMergeErrors (boolean v)
+	{
+		mergeErrors = v;
+	}
+
+	/**
+	 * Sets the file the program's error output is appended to.
+	 * @param v the new value, null to read the error output.
+	 */
+	public void setErrorFile (File v)
+	{
+		errorFile = v;
+	}
+
+	/**
+	 * Sets the "run the program with a minimal environment" option.
+	 * The program gets only the PATH and LC_ALL=C then, with the
+	 * variables from setEnvironment () added.
+	 * @param v the new value.
+	 */
+	public void setMinimalEnvironment (boolean v)
+	{
+		minimalEnvironment = v;
+	}
+
+	/**
+	 * Sets an environment variable of the program.
+	 * @param name The name of the variable.
+	 * @param value The value of the variable.
+	 */
+	public void setEnvironment (String name, String value)
+	{
+		if ( name == null || name.isEmpty () )
+		{
+			throw new IllegalArgumentException ("WfsLauncher.setEnvironment:name = null");	// NOI18N
+		}
+		if ( value == null )
+		{
+			throw new IllegalArgumentException ("WfsLauncher.setEnvironment:value = null");	// NOI18N
+		}
+		extraEnvironment.put (name, value);
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "WfsLauncher(" + mergeErrors + Utils.COMMA + errorFile	// NOI18N
+			+ Utils.COMMA + minimalEnvironment + ")";	// NOI18N
+	}
+}
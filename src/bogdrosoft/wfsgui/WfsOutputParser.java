@@ -0,0 +1,394 @@
+/*
+ * WfsOutputParser.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stateful, incremental parser of the verbose output of the
+ * "wipefreespace" program. Only the newly-read parts of the output are
+ * given to it, so the cost of parsing depends only on the size of the new
+ * data, not on the size of all the output read so far.
+ * The changes can also be reported to a ProgressListener.
+ * An instance is not thread-safe and should be used by one thread only.
+ * @author Bogdan Drozdowski
+ */
+public class WfsOutputParser
+{
+	private static final String FS_PREFIX = "wipefreespace:";	// NOI18N
+	private static final char STAGE_1_CHAR = '*';	// NOI18N
+	private static final char STAGE_2_CHAR = '-';	// NOI18N
+	private static final char STAGE_3_CHAR = '=';	// NOI18N
+	private static final int MAX_STAGES = 3;
+	// the filesystem's name must fit in the line buffer:
+	private static final int MAX_LINE_LENGTH = 4096;
+	// values of nameEnd which are not positions in the line:
+	private static final int NAME_END_UNKNOWN = -1;
+	private static final int NAME_END_NONE = -2;
+
+	private final int totalFSnum;
+	private final int nStages;
+
+	// the current line (only the beginning of non-progress lines is kept)
+	private final StringBuilder line = new StringBuilder (128);
+	private int lineStage = -1;		// the stage of the current line
+	private int lineLength;			// characters in the current line
+	private int lineTrimmedLength;		// the length without trailing spaces
+	private int nameEnd = NAME_END_UNKNOWN;	// the colon after the FS name
+
+	private String currentFS = Utils.EMPTY_STR;
+	private int fsDone;
+	private final int[] stageProgress = new int[MAX_STAGES];
+	private final boolean[] hasStage = new boolean[MAX_STAGES];
+
+	private ProgressListener listener;
+	private int jobId;
+	private AtomicLong charCounter;
+	// the last progress reported to the listener:
+	private String reportedFS = Utils.EMPTY_STR;
+	private int reportedStage = -1;
+	private int reportedFSPercent = -1;
+	private int reportedTotal = -1;
+
+	/**
+	 * Creates a new instance of WfsOutputParser.
+	 * @param totalFS The total number of filesystems to wipe (needed for total progress).
+	 * @param numberOfStages The number of wiping stages (number of things to wipe on each filesystem).
+	 */
+	public WfsOutputParser (int totalFS, int numberOfStages)
+	{
+		if ( totalFS <= 0 )
+		{
+			totalFS = 1;
+		}
+		totalFSnum = totalFS;
+		if ( numberOfStages <= 0 )
+		{
+			numberOfStages = MAX_STAGES;
+		}
+		nStages = numberOfStages;
+	}
+
+	/**
+	 * Sets the listener to report the changes to. The progress is
+	 * reported at most once for each call to consume ().
+	 * @param listenerParam The listener, or null for none.
+	 * @param jobIdParam The number of the job the output comes from.
+	 */
+	public void setProgressListener (ProgressListener listenerParam, int jobIdParam)
+	{
+		listener = listenerParam;
+		jobId = jobIdParam;
+	}
+
+	/**
+	 * Sets the counter to add the number of the parsed characters to.
+	 * @param counter The counter, or null for none.
+	 */
+	public void setCharCounter (AtomicLong counter)
+	{
+		charCounter = counter;
+	}
+
+	private void count (int length)
+	{
+		if ( charCounter != null )
+		{
+			charCounter.addAndGet (length);
+		}
+	}
+
+	/**
+	 * Parses the given part of the program's output.
+	 * @param data The newly-read characters.
+	 */
+	public void consume (CharSequence data)
+	{
+		if ( data == null )
+		{
+			return;
+		}
+		final int len = data.length ();
+		count (len);
+		for ( int i = 0; i < len; i++ )
+		{
+			consume (data.charAt (i));
+		}
+		reportProgress ();
+	}
+
+	/**
+	 * Parses the given part of the program's output.
+	 * @param data The buffer with the newly-read characters.
+	 * @param offset The index of the first character to parse.
+	 * @param length The number of characters to parse.
+	 */
+	public void consume (char[] data, int offset, int length)
+	{
+		if ( data == null )
+		{
+			return;
+		}
+		count (length);
+		final int end = offset + length;
+		for ( int i = offset; i < end; i++ )
+		{
+			consume (data[i]);
+		}
+		reportProgress ();
+	}
+
+	/**
+	 * Tells the parser that the output has ended. The last filesystem
+	 * is then reported to the listener as finished.
+	 */
+	public void endOfInput ()
+	{
+		if ( listener != null && ! currentFS.isEmpty () )
+		{
+			listener.fsFinished (jobId, currentFS);
+		}
+	}
+
+	private void reportProgress ()
+	{
+		if ( listener == null || currentFS.isEmpty () )
+		{
+			return;
+		}
+		final int stage = getStagePercent ();
+		final int fsPercent = getFSPercent ();
+		final int total = getTotalPercent ();
+		// the names are the same objects until the filesystem changes
+		if ( stage != reportedStage || fsPercent != reportedFSPercent
+			|| total != reportedTotal || currentFS != reportedFS )
+		{
+			reportedFS = currentFS;
+			reportedStage = stage;
+			reportedFSPercent = fsPercent;
+			reportedTotal = total;
+			listener.stageProgress (jobId, currentFS, stage,
+				fsPercent, total);
+		}
+	}
+
+	private void consume (char c)
+	{
+		if ( c == '\r' || c == '\n' )
+		{
+			if ( lineStage < 0 && nameEnd >= 0
+				&& nameEnd == line.length () - 1 )
+			{
+				// the end of the line is the whitespace after the name
+				setCurrentFS ();
+			}
+			line.setLength (0);
+			lineStage = -1;
+			lineLength = 0;
+			lineTrimmedLength = 0;
+			nameEnd = NAME_END_UNKNOWN;
+			return;
+		}
+		if ( lineLength == 0 )
+		{
+			lineStage = getStage (c);
+		}
+		lineLength++;
+		if ( lineStage >= 0 )
+		{
+			// the length of the line is the progress
+			if ( ! Character.isWhitespace (c) )
+			{
+				lineTrimmedLength = lineLength;
+			}
+			if ( ! currentFS.isEmpty () )
+			{
+				stageProgress[lineStage] = lineTrimmedLength;
+				hasStage[lineStage] = true;
+			}
+			return;
+		}
+		if ( line.length () >= MAX_LINE_LENGTH )
+		{
+			return;
+		}
+		if ( Character.isWhitespace (c) && nameEnd >= 0
+			&& nameEnd == line.length () - 1 )
+		{
+			setCurrentFS ();
+		}
+		line.append (c);
+		if ( c == ':' && nameEnd == NAME_END_UNKNOWN
+			&& line.length () > FS_PREFIX.length ()
+			&& startsWithPrefix () )
+		{
+			if ( line.length () == FS_PREFIX.length () + 1 )
+			{
+				// empty names are not allowed
+				nameEnd = NAME_END_NONE;
+			}
+			else
+			{
+				nameEnd = line.length () - 1;
+			}
+		}
+	}
+
+	private boolean startsWithPrefix ()
+	{
+		for ( int i = 0; i < FS_PREFIX.length (); i++ )
+		{
+			if ( line.charAt (i) != FS_PREFIX.charAt (i) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void setCurrentFS ()
+	{
+		final int nameStart = FS_PREFIX.length ();
+		final int nameLength = nameEnd - nameStart;
+		if ( nameLength == currentFS.length () )
+		{
+			boolean same = true;
+			for ( int i = 0; i < nameLength; i++ )
+			{
+				if ( line.charAt (nameStart + i) != currentFS.charAt (i) )
+				{
+					same = false;
+					break;
+				}
+			}
+			if ( same )
+			{
+				// don't match the same line again
+				nameEnd = NAME_END_NONE;
+				return;
+			}
+		}
+		if ( ! currentFS.isEmpty () )
+		{
+			// new filesystem started
+			fsDone++;
+			if ( listener != null )
+			{
+				listener.fsFinished (jobId, currentFS);
+			}
+		}
+		currentFS = line.substring (nameStart, nameEnd);
+		if ( listener != null )
+		{
+			listener.fsStarted (jobId, currentFS);
+		}
+		for ( int i = 0; i < MAX_STAGES; i++ )
+		{
+			stageProgress[i] = 0;
+			hasStage[i] = false;
+		}
+		// don't match the same line again
+		nameEnd = NAME_END_NONE;
+	}
+
+	private static int getStage (char c)
+	{
+		if ( c == STAGE_1_CHAR )
+		{
+			return 0;
+		}
+		else if ( c == STAGE_2_CHAR )
+		{
+			return 1;
+		}
+		else if ( c == STAGE_3_CHAR )
+		{
+			return 2;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the name of the filesystem currently being wiped.
+	 * @return the name of the current filesystem or an empty String
+	 *	if no filesystem has been started yet.
+	 */
+	public String getCurrentFS ()
+	{
+		return currentFS;
+	}
+
+	/**
+	 * Gets the number of filesystems already finished.
+	 * @return the number of filesystems already finished.
+	 */
+	public int getFSDone ()
+	{
+		return fsDone;
+	}
+
+	/**
+	 * Gets the progress of the current stage on the current filesystem.
+	 * @return the progress of the current stage, in percent.
+	 */
+	public int getStagePercent ()
+	{
+		// stage progresses are in the range 0 - 100
+		for ( int i = 0; i < MAX_STAGES; i++ )
+		{
+			if ( hasStage[i] && stageProgress[i] < 100 )
+			{
+				return stageProgress[i];
+			}
+		}
+		for ( int i = 0; i < MAX_STAGES; i++ )
+		{
+			if ( hasStage[i] && stageProgress[i] == 100 )
+			{
+				return 100;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the progress of wiping the current filesystem.
+	 * @return the progress of wiping the current filesystem, in percent.
+	 */
+	public int getFSPercent ()
+	{
+		int sum = 0;
+		for ( int i = 0; i < MAX_STAGES; i++ )
+		{
+			sum += Math.min (stageProgress[i], 100);
+		}
+		return Math.min (sum / nStages, 100);
+	}
+
+	/**
+	 * Gets the total progress of wiping all the filesystems.
+	 * @return the total progress, in percent.
+	 */
+	public int getTotalPercent ()
+	{
+		return Math.min ((fsDone * 100 + getFSPercent ()) / totalFSnum, 100);
+	}
+}
@@ -0,0 +1,398 @@
+/*
+ * WipeCommandBuilder.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class that builds the command line of the "wipefreespace" program
+ * from the selected options, without the filesystems. Used by both the
+ * GUI and the batch mode.
+ * @author Bogdan Drozdowski
+ */
+public class WipeCommandBuilder
+{
+	/** The program run when no path to it is given. */
+	public static final String DEFAULT_PROGRAM = "wipefreespace";	// NOI18N
+
+	private String program;
+	private boolean allZeros;
+	private String superblockOffset;
+	private String blockSize;
+	private boolean force;
+	private boolean ioctl;
+	private String iterations;
+	private boolean lastZero;
+	private boolean noPart;
+	private boolean noUnrm;
+	private boolean noWfs;
+	private String method;
+	private boolean noWipeZeroBlocks;
+	private boolean useDedicated;
+	private String order;
+
+	/**
+	 * Creates a new instance of WipeCommandBuilder with the given options.
+	 * @param opts The options, like the ones from the command line.
+	 * @return a new WipeCommandBuilder.
+	 */
+	public static WipeCommandBuilder fromOptions (WipeOptions opts)
+	{
+		if ( opts == null )
+		{
+			throw new IllegalArgumentException ("WipeCommandBuilder.fromOptions:opts = null");	// NOI18N
+		}
+		WipeCommandBuilder b = new WipeCommandBuilder ();
+		b.setProgram (opts.getWfsPath ());
+		b.setAllZeros (opts.isOnlyZeros ());
+		if ( opts.isSuperOff () )
+		{
+			b.setSuperblockOffset (opts.getSuperOffValue ());
+		}
+		if ( opts.isBlkSize () )
+		{
+			b.setBlockSize (opts.getBlkSizeValue ());
+		}
+		b.setForce (opts.isForce ());
+		b.setIoctl (opts.isIoctl ());
+		if ( opts.isIter () )
+		{
+			b.setIterations (opts.getIterationsValue ());
+		}
+		b.setLastZero (opts.isLastZero ());
+		b.setNoPart (opts.isNopart ());
+		b.setNoUnrm (opts.isNounrm ());
+		b.setNoWfs (opts.isNowfs ());
+		if ( opts.isMethod () )
+		{
+			b.setMethod (opts.getMethodName ());
+		}
+		b.setNoWipeZeroBlocks (opts.isNoWipeZeroBlocks ());
+		b.setUseDedicated (opts.isUseDedicated ());
+		if ( opts.isOrder () )
+		{
+			b.setOrder (opts.getWipingOrder ());
+		}
+		return b;
+	}
+
+	/**
+	 * Creates a new instance of WipeCommandBuilder with the options
+	 * from the given configuration (or its section).
+	 * @param cfg The configuration to get the options from.
+	 * @return a new WipeCommandBuilder.
+	 */
+	public static WipeCommandBuilder fromConfig (ConfigFile cfg)
+	{
+		if ( cfg == null )
+		{
+			throw new IllegalArgumentException ("WipeCommandBuilder.fromConfig:cfg = null");	// NOI18N
+		}
+		WipeCommandBuilder b = new WipeCommandBuilder ();
+		b.setProgram (cfg.getWfsPath ());
+		b.setAllZeros (cfg.getAllZeros ());
+		if ( cfg.getSuperOffset () >= 0 )
+		{
+			b.setSuperblockOffset (String.valueOf (cfg.getSuperOffset ()));
+		}
+		if ( cfg.getBlockSize () > 0 )
+		{
+			b.setBlockSize (String.valueOf (cfg.getBlockSize ()));
+		}
+		b.setForce (cfg.getForce ());
+		b.setIoctl (cfg.getIoctl ());
+		if ( cfg.getIterations () > 0 )
+		{
+			b.setIterations (String.valueOf (cfg.getIterations ()));
+		}
+		b.setLastZero (cfg.getLastZero ());
+		b.setNoPart (cfg.getNoWipePart ());
+		b.setNoUnrm (cfg.getNoWipeUndel ());
+		b.setNoWfs (cfg.getNoWipeFreeSpace ());
+		if ( cfg.getIsMethod () && cfg.getMethodName () != null
+			&& ! cfg.getMethodName ().isEmpty () )
+		{
+			b.setMethod (cfg.getMethodName ());
+		}
+		b.setNoWipeZeroBlocks (cfg.getIsNoWipeZeroBlocks ());
+		b.setUseDedicated (cfg.getIsUseDedicated ());
+		if ( cfg.getIsOrder () && cfg.getWipingOrder () != null
+			&& ! cfg.getWipingOrder ().isEmpty () )
+		{
+			b.setOrder (cfg.getWipingOrder ());
+		}
+		return b;
+	}
+
+	/**
+	 * Builds the command line.
+	 * @return the program to run and its options, without the filesystems.
+	 */
+	public List<String> build ()
+	{
+		List<String> params = new ArrayList<String> (20); // 15 is the minimum.
+		if ( program != null && ! program.isEmpty () )
+		{
+			params.add (program);
+		}
+		else
+		{
+			params.add (DEFAULT_PROGRAM);
+		}
+		addNumber (params, "-B", blockSize);	// NOI18N
+		if ( force )
+		{
+			params.add ("--force");		// NOI18N
+		}
+		if ( ioctl )
+		{
+			params.add ("--use-ioctl");	// NOI18N
+		}
+		addNumber (params, "-n", iterations);	// NOI18N
+		if ( lastZero )
+		{
+			params.add ("--last-zero");	// NOI18N
+		}
+		if ( noPart )
+		{
+			params.add ("--nopart");	// NOI18N
+		}
+		if ( noUnrm )
+		{
+			params.add ("--nounrm");	// NOI18N
+		}
+		if ( noWfs )
+		{
+			params.add ("--nowfs");		// NOI18N
+		}
+		if ( allZeros )
+		{
+			params.add ("--all-zeros");	// NOI18N
+		}
+		addNumber (params, "-b", superblockOffset);	// NOI18N
+		if ( method != null )
+		{
+			params.add ("--method");	// NOI18N
+			params.add (method);
+		}
+		if ( noWipeZeroBlocks )
+		{
+			params.add ("--no-wipe-zero-blocks");	// NOI18N
+		}
+		if ( useDedicated )
+		{
+			params.add ("--use-dedicated");	// NOI18N
+		}
+		if ( order != null )
+		{
+			params.add ("--order");	// NOI18N
+			params.add (order);
+		}
+		params.add ("--verbose");	// always use verbose output	// NOI18N
+		return params;
+	}
+
+	private static void addNumber (List<String> params, String option, String value)
+	{
+		if ( value == null )
+		{
+			return;
+		}
+		try
+		{
+			// check if the value is an integer:
+			Integer.parseInt (value);
+			// if we got here, it is ok
+			params.add (option);
+			params.add (value);
+		}
+		catch (NumberFormatException ex)
+		{
+			Utils.handleException (ex,
+				"WipeCommandBuilder.build: " + option + Utils.SPACE + value);	// NOI18N
+		}
+	}
+
+	/**
+	 * Gets the number of wiping stages (number of things to wipe on
+	 * each filesystem) with the current options.
+	 * @return the number of wiping stages.
+	 */
+	public int getNumberOfStages ()
+	{
+		int nStages = 3;
+		if ( noPart )
+		{
+			nStages--;
+		}
+		if ( noUnrm )
+		{
+			nStages--;
+		}
+		if ( noWfs )
+		{
+			nStages--;
+		}
+		return nStages;
+	}
+
+	/**
+	 * Sets the path to the program to run.
+	 * @param v the new value, null or empty for the default.
+	 */
+	public void setProgram (String v)
+	{
+		program = v;
+	}
+
+	/**
+	 * Sets the "wipe only using zeros" option.
+	 * @param v the new value.
+	 */
+	public void setAllZeros (boolean v)
+	{
+		allZeros = v;
+	}
+
+	/**
+	 * Sets the superblock offset option.
+	 * @param v the new value, null for none.
+	 */
+	public void setSuperblockOffset (String v)
+	{
+		superblockOffset = v;
+	}
+
+	/**
+	 * Sets the block size option.
+	 * @param v the new value, null for none.
+	 */
+	public void setBlockSize (String v)
+	{
+		blockSize = v;
+	}
+
+	/**
+	 * Sets the "force" option.
+	 * @param v the new value.
+	 */
+	public void setForce (boolean v)
+	{
+		force = v;
+	}
+
+	/**
+	 * Sets the "use ioctl" option.
+	 * @param v the new value.
+	 */
+	public void setIoctl (boolean v)
+	{
+		ioctl = v;
+	}
+
+	/**
+	 * Sets the number of iterations option.
+	 * @param v the new value, null for none.
+	 */
+	public void setIterations (String v)
+	{
+		iterations = v;
+	}
+
+	/**
+	 * Sets the "last zero" option.
+	 * @param v the new value.
+	 */
+	public void setLastZero (boolean v)
+	{
+		lastZero = v;
+	}
+
+	/**
+	 * Sets the "don't wipe partially used blocks" option.
+	 * @param v the new value.
+	 */
+	public void setNoPart (boolean v)
+	{
+		noPart = v;
+	}
+
+	/**
+	 * Sets the "don't wipe undelete data" option.
+	 * @param v the new value.
+	 */
+	public void setNoUnrm (boolean v)
+	{
+		noUnrm = v;
+	}
+
+	/**
+	 * Sets the "don't wipe unused space" option.
+	 * @param v the new value.
+	 */
+	public void setNoWfs (boolean v)
+	{
+		noWfs = v;
+	}
+
+	/**
+	 * Sets the wiping method option.
+	 * @param v the new value, null for none.
+	 */
+	public void setMethod (String v)
+	{
+		method = v;
+	}
+
+	/**
+	 * Sets the "don't wipe all-zero blocks" option.
+	 * @param v the new value.
+	 */
+	public void setNoWipeZeroBlocks (boolean v)
+	{
+		noWipeZeroBlocks = v;
+	}
+
+	/**
+	 * Sets the "use the dedicated program" option.
+	 * @param v the new value.
+	 */
+	public void setUseDedicated (boolean v)
+	{
+		useDedicated = v;
+	}
+
+	/**
+	 * Sets the wiping order option.
+	 * @param v the new value, null for none.
+	 */
+	public void setOrder (String v)
+	{
+		order = v;
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "WipeCommandBuilder";	// NOI18N
+	}
+}
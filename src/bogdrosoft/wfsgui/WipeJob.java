@@ -0,0 +1,217 @@
+/*
+ * WipeJob.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single run of the "wipefreespace" program: the command to run and
+ * the filesystems it wipes.
+ * @author Bogdan Drozdowski
+ */
+public class WipeJob
+{
+	private final int id;
+	private final String name;
+	private final List<String> command;
+	private final List<String> filesystems;
+	private final int nStages;
+
+	/**
+	 * Creates a new instance of WipeJob.
+	 * @param jobId The number of the job, starting from 0.
+	 * @param options The program to run and its options, without the filesystems.
+	 * @param fsList The filesystems to wipe in this job.
+	 * @param numberOfStages The number of wiping stages (number of things to wipe on each filesystem).
+	 */
+	public WipeJob (int jobId, List<String> options, List<String> fsList,
+		int numberOfStages)
+	{
+		this (jobId, null, options, fsList, numberOfStages);
+	}
+
+	/**
+	 * Creates a new instance of WipeJob.
+	 * @param jobId The number of the job, starting from 0.
+	 * @param jobName The name of the job (like the configuration file's
+	 *	section), can be null.
+	 * @param options The program to run and its options, without the filesystems.
+	 * @param fsList The filesystems to wipe in this job.
+	 * @param numberOfStages The number of wiping stages (number of things to wipe on each filesystem).
+	 */
+	public WipeJob (int jobId, String jobName, List<String> options,
+		List<String> fsList, int numberOfStages)
+	{
+		if ( options == null || options.isEmpty () )
+		{
+			throw new IllegalArgumentException ("WipeJob:options = null");	// NOI18N
+		}
+		if ( fsList == null || fsList.isEmpty () )
+		{
+			throw new IllegalArgumentException ("WipeJob:fsList = null");	// NOI18N
+		}
+		id = jobId;
+		name = jobName;
+		filesystems = Collections.unmodifiableList (new ArrayList<String> (fsList));
+		List<String> cmd = new ArrayList<String> (options.size () + fsList.size ());
+		cmd.addAll (options);
+		cmd.addAll (fsList);
+		command = Collections.unmodifiableList (cmd);
+		nStages = numberOfStages;
+	}
+
+	/**
+	 * Creates the jobs for wiping the given filesystems.
+	 * @param options The program to run and its options, without the filesystems.
+	 * @param fsList The filesystems to wipe.
+	 * @param numberOfStages The number of wiping stages (number of things to wipe on each filesystem).
+	 * @param jobPerFS If true, a separate job is created for each
+	 *	filesystem. Otherwise, one job wipes all the filesystems.
+	 * @return the list of jobs.
+	 */
+	public static List<WipeJob> createJobs (List<String> options,
+		List<String> fsList, int numberOfStages, boolean jobPerFS)
+	{
+		return createJobs (0, null, options, fsList, numberOfStages, jobPerFS);
+	}
+
+	/**
+	 * Creates the jobs for wiping the given filesystems.
+	 * @param firstId The number of the first created job.
+	 * @param jobName The name of the jobs, can be null.
+	 * @param options The program to run and its options, without the filesystems.
+	 * @param fsList The filesystems to wipe.
+	 * @param numberOfStages The number of wiping stages (number of things to wipe on each filesystem).
+	 * @param jobPerFS If true, a separate job is created for each
+	 *	filesystem. Otherwise, one job wipes all the filesystems.
+	 * @return the list of jobs.
+	 */
+	public static List<WipeJob> createJobs (int firstId, String jobName,
+		List<String> options, List<String> fsList, int numberOfStages,
+		boolean jobPerFS)
+	{
+		List<WipeJob> jobs = new ArrayList<WipeJob> (fsList.size ());
+		if ( jobPerFS )
+		{
+			for ( int i = 0; i < fsList.size (); i++ )
+			{
+				jobs.add (new WipeJob (firstId + i, jobName, options,
+					Collections.singletonList (fsList.get (i)),
+					numberOfStages));
+			}
+		}
+		else
+		{
+			jobs.add (new WipeJob (firstId, jobName, options, fsList,
+				numberOfStages));
+		}
+		return jobs;
+	}
+
+	/**
+	 * Creates the jobs for wiping the filesystems of the given sections
+	 * of a configuration file, each section with its own options.
+	 * Sections without filesystems or with nothing to wipe are skipped.
+	 * @param sections The sections of the configuration file.
+	 * @param firstId The number of the first created job.
+	 * @param jobPerFS If true, a separate job is created for each
+	 *	filesystem. Otherwise, one job wipes all the filesystems of
+	 *	a section.
+	 * @return the list of jobs, numbered consecutively.
+	 */
+	public static List<WipeJob> createJobs (List<ConfigFile> sections,
+		int firstId, boolean jobPerFS)
+	{
+		List<WipeJob> jobs = new ArrayList<WipeJob> ();
+		if ( sections == null )
+		{
+			return jobs;
+		}
+		for ( ConfigFile section : sections )
+		{
+			List<String> fsList = section.getFSList ();
+			WipeCommandBuilder builder = WipeCommandBuilder.fromConfig (section);
+			if ( fsList == null || fsList.isEmpty ()
+				|| builder.getNumberOfStages () == 0 )
+			{
+				continue;
+			}
+			jobs.addAll (createJobs (firstId + jobs.size (), section.getName (),
+				builder.build (), fsList, builder.getNumberOfStages (),
+				jobPerFS));
+		}
+		return jobs;
+	}
+
+	/**
+	 * Gets the number of this job.
+	 * @return the number of this job, starting from 0.
+	 */
+	public int getId ()
+	{
+		return id;
+	}
+
+	/**
+	 * Gets the name of this job.
+	 * @return the name of this job or null.
+	 */
+	public String getName ()
+	{
+		return name;
+	}
+
+	/**
+	 * Gets the whole command line of this job.
+	 * @return the program to run, its options and the filesystems.
+	 */
+	public List<String> getCommand ()
+	{
+		return command;
+	}
+
+	/**
+	 * Gets the filesystems wiped in this job.
+	 * @return the filesystems wiped in this job.
+	 */
+	public List<String> getFilesystems ()
+	{
+		return filesystems;
+	}
+
+	/**
+	 * Gets the number of wiping stages.
+	 * @return the number of wiping stages on each filesystem.
+	 */
+	public int getNumberOfStages ()
+	{
+		return nStages;
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "WipeJob(" + id + ((name != null)? Utils.SPACE + name : Utils.EMPTY_STR)	// NOI18N
+			+ Utils.COLON + Utils.SPACE + filesystems + ")";	// NOI18N
+	}
+}
@@ -0,0 +1,891 @@
+/*
+ * WipeOptions.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable set of the program's options, like the ones given on the
+ * command line and in the configuration file. Can be shared between
+ * threads without locking. New instances are made with a Builder.
+ * The command line of the "wipefreespace" program is made only once for
+ * each set of options, on any thread.
+ * @author Bogdan Drozdowski
+ */
+public final class WipeOptions
+{
+	/** The options with all the default values. */
+	public static final WipeOptions DEFAULT = new Builder ().build ();
+
+	private final boolean max;
+	private final boolean onlyZeros;
+	private final boolean superOff;
+	private final String superOffValue;
+	private final boolean blkSize;
+	private final String blkSizeValue;
+	private final boolean force;
+	private final boolean lastZero;
+	private final boolean method;
+	private final String methodName;
+	private final boolean iter;
+	private final String iterationsValue;
+	private final boolean nopart;
+	private final boolean nounrm;
+	private final boolean nowfs;
+	private final boolean ioctl;
+	private final boolean noWipeZeroBlocks;
+	private final boolean useDedicated;
+	private final boolean order;
+	private final String wipingOrder;
+	private final int jobs;
+	private final int jobsPerDisk;
+	private final boolean batch;
+	private final boolean watchConfig;
+	private final boolean mergeErrors;
+	private final File errorFile;
+	private final boolean minimalEnv;
+	private final File configFile;
+	private final List<ConfigFile> configSections;
+	private final int x;
+	private final int y;
+	private final int width;
+	private final int height;
+	private final int fontSize;
+	private final List<String> fsList;
+	private final String wfsPath;
+	// made when first needed; a race only makes an equal copy:
+	private volatile List<String> command;
+
+	private WipeOptions (Builder b)
+	{
+		max = b.max;
+		onlyZeros = b.onlyZeros;
+		superOff = b.superOff;
+		superOffValue = b.superOffValue;
+		blkSize = b.blkSize;
+		blkSizeValue = b.blkSizeValue;
+		force = b.force;
+		lastZero = b.lastZero;
+		method = b.method;
+		methodName = b.methodName;
+		iter = b.iter;
+		iterationsValue = b.iterationsValue;
+		nopart = b.nopart;
+		nounrm = b.nounrm;
+		nowfs = b.nowfs;
+		ioctl = b.ioctl;
+		noWipeZeroBlocks = b.noWipeZeroBlocks;
+		useDedicated = b.useDedicated;
+		order = b.order;
+		wipingOrder = b.wipingOrder;
+		jobs = b.jobs;
+		jobsPerDisk = b.jobsPerDisk;
+		batch = b.batch;
+		watchConfig = b.watchConfig;
+		mergeErrors = b.mergeErrors;
+		errorFile = b.errorFile;
+		minimalEnv = b.minimalEnv;
+		configFile = b.configFile;
+		configSections = (b.configSections != null)?
+			Collections.unmodifiableList (new ArrayList<ConfigFile> (b.configSections))
+			: null;
+		x = b.x;
+		y = b.y;
+		width = b.width;
+		height = b.height;
+		fontSize = b.fontSize;
+		fsList = (b.fsList != null)?
+			Collections.unmodifiableList (new ArrayList<String> (b.fsList))
+			: null;
+		wfsPath = b.wfsPath;
+	}
+
+	/**
+	 * Gets the "is maximized" property.
+	 * @return the "is maximized" property.
+	 */
+	public boolean isMax ()
+	{
+		return max;
+	}
+
+	/**
+	 * Gets the "wipe only using zeros" option.
+	 * @return the "wipe only using zeros" option.
+	 */
+	public boolean isOnlyZeros ()
+	{
+		return onlyZeros;
+	}
+
+	/**
+	 * Gets the "is superblock offset selected" option.
+	 * @return the "is superblock offset selected" option.
+	 */
+	public boolean isSuperOff ()
+	{
+		return superOff;
+	}
+
+	/**
+	 * Gets the superblock offset.
+	 * @return the superblock offset or null.
+	 */
+	public String getSuperOffValue ()
+	{
+		return superOffValue;
+	}
+
+	/**
+	 * Gets the "is block size selected" option.
+	 * @return the "is block size selected" option.
+	 */
+	public boolean isBlkSize ()
+	{
+		return blkSize;
+	}
+
+	/**
+	 * Gets the block size.
+	 * @return the block size or null.
+	 */
+	public String getBlkSizeValue ()
+	{
+		return blkSizeValue;
+	}
+
+	/**
+	 * Gets the "force" option.
+	 * @return the "force" option.
+	 */
+	public boolean isForce ()
+	{
+		return force;
+	}
+
+	/**
+	 * Gets the "last zero" option.
+	 * @return the "last zero" option.
+	 */
+	public boolean isLastZero ()
+	{
+		return lastZero;
+	}
+
+	/**
+	 * Gets the "is wiping method selected" option.
+	 * @return the "is wiping method selected" option.
+	 */
+	public boolean isMethod ()
+	{
+		return method;
+	}
+
+	/**
+	 * Gets the wiping method's name.
+	 * @return the wiping method's name or null.
+	 */
+	public String getMethodName ()
+	{
+		return methodName;
+	}
+
+	/**
+	 * Gets the "is number of iterations selected" option.
+	 * @return the "is number of iterations selected" option.
+	 */
+	public boolean isIter ()
+	{
+		return iter;
+	}
+
+	/**
+	 * Gets the number of iterations.
+	 * @return the number of iterations or null.
+	 */
+	public String getIterationsValue ()
+	{
+		return iterationsValue;
+	}
+
+	/**
+	 * Gets the "don't wipe partially used blocks" option.
+	 * @return the "don't wipe partially used blocks" option.
+	 */
+	public boolean isNopart ()
+	{
+		return nopart;
+	}
+
+	/**
+	 * Gets the "don't wipe undelete data" option.
+	 * @return the "don't wipe undelete data" option.
+	 */
+	public boolean isNounrm ()
+	{
+		return nounrm;
+	}
+
+	/**
+	 * Gets the "don't wipe unused space" option.
+	 * @return the "don't wipe unused space" option.
+	 */
+	public boolean isNowfs ()
+	{
+		return nowfs;
+	}
+
+	/**
+	 * Gets the "use ioctl" option.
+	 * @return the "use ioctl" option.
+	 */
+	public boolean isIoctl ()
+	{
+		return ioctl;
+	}
+
+	/**
+	 * Gets the "don't wipe all-zero blocks" option.
+	 * @return the "don't wipe all-zero blocks" option.
+	 */
+	public boolean isNoWipeZeroBlocks ()
+	{
+		return noWipeZeroBlocks;
+	}
+
+	/**
+	 * Gets the "use the dedicated program" option.
+	 * @return the "use the dedicated program" option.
+	 */
+	public boolean isUseDedicated ()
+	{
+		return useDedicated;
+	}
+
+	/**
+	 * Gets the "is wiping order selected" option.
+	 * @return the "is wiping order selected" option.
+	 */
+	public boolean isOrder ()
+	{
+		return order;
+	}
+
+	/**
+	 * Gets the wiping order.
+	 * @return the wiping order or null.
+	 */
+	public String getWipingOrder ()
+	{
+		return wipingOrder;
+	}
+
+	/**
+	 * Gets the maximum number of wiping jobs run at the same time.
+	 * @return the maximum number of wiping jobs run at the same time.
+	 */
+	public int getJobs ()
+	{
+		return jobs;
+	}
+
+	/**
+	 * Gets the maximum number of wiping jobs using the same disk, 0 meaning no limit.
+	 * @return the maximum number of wiping jobs using the same disk, 0 meaning no limit.
+	 */
+	public int getJobsPerDisk ()
+	{
+		return jobsPerDisk;
+	}
+
+	/**
+	 * Gets the "batch mode" option.
+	 * @return the "batch mode" option.
+	 */
+	public boolean isBatch ()
+	{
+		return batch;
+	}
+
+	/**
+	 * Gets the "watch the configuration file" option.
+	 * @return the "watch the configuration file" option.
+	 */
+	public boolean isWatchConfig ()
+	{
+		return watchConfig;
+	}
+
+	/**
+	 * Gets the "merge the program's error output into its output" option.
+	 * @return the "merge the program's error output into its output" option.
+	 */
+	public boolean isMergeErrors ()
+	{
+		return mergeErrors;
+	}
+
+	/**
+	 * Gets the file the program's error output is written to.
+	 * @return the file the program's error output is written to or null.
+	 */
+	public File getErrorFile ()
+	{
+		return errorFile;
+	}
+
+	/**
+	 * Gets the "run the program with a minimal environment" option.
+	 * @return the "run the program with a minimal environment" option.
+	 */
+	public boolean isMinimalEnv ()
+	{
+		return minimalEnv;
+	}
+
+	/**
+	 * Gets the configuration file.
+	 * @return the configuration file or null.
+	 */
+	public File getConfigFile ()
+	{
+		return configFile;
+	}
+
+	/**
+	 * Gets the named sections (separate wiping jobs) of the configuration
+	 * file. The sections are shared, so they shouldn't be changed.
+	 * @return the sections of the configuration file or null.
+	 */
+	public List<ConfigFile> getConfigSections ()
+	{
+		return configSections;
+	}
+
+	/**
+	 * Gets the window's X coordinate.
+	 * @return the window's X coordinate.
+	 */
+	public int getX ()
+	{
+		return x;
+	}
+
+	/**
+	 * Gets the window's Y coordinate.
+	 * @return the window's Y coordinate.
+	 */
+	public int getY ()
+	{
+		return y;
+	}
+
+	/**
+	 * Gets the window's width.
+	 * @return the window's width.
+	 */
+	public int getWidth ()
+	{
+		return width;
+	}
+
+	/**
+	 * Gets the window's height.
+	 * @return the window's height.
+	 */
+	public int getHeight ()
+	{
+		return height;
+	}
+
+	/**
+	 * Gets the font size.
+	 * @return the font size.
+	 */
+	public int getFontSize ()
+	{
+		return fontSize;
+	}
+
+	/**
+	 * Gets the filesystems to wipe.
+	 * @return the filesystems to wipe or null, if none have been given.
+	 */
+	public List<String> getFsList ()
+	{
+		return fsList;
+	}
+
+	/**
+	 * Gets the path to the "wipefreespace" program.
+	 * @return the path to the "wipefreespace" program or null.
+	 */
+	public String getWfsPath ()
+	{
+		return wfsPath;
+	}
+
+	/**
+	 * Gets the command line of the "wipefreespace" program for these
+	 * options, without the filesystems. Invalid numbers are reported and
+	 * skipped the first time.
+	 * @return the program to run and its options, which can't be changed.
+	 */
+	public List<String> getCommand ()
+	{
+		List<String> c = command;
+		if ( c == null )
+		{
+			c = Collections.unmodifiableList
+				(WipeCommandBuilder.fromOptions (this).build ());
+			command = c;
+		}
+		return c;
+	}
+
+	/**
+	 * Gets the number of wiping stages (number of things to wipe on
+	 * each filesystem) with these options.
+	 * @return the number of wiping stages.
+	 */
+	public int getNumberOfStages ()
+	{
+		int nStages = 3;
+		if ( nopart )
+		{
+			nStages--;
+		}
+		if ( nounrm )
+		{
+			nStages--;
+		}
+		if ( nowfs )
+		{
+			nStages--;
+		}
+		return nStages;
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "WipeOptions(" + fsList + ")";	// NOI18N
+	}
+
+	/**
+	 * A class for creating WipeOptions. Starts with the default values.
+	 * Not thread-safe.
+	 */
+	public static class Builder
+	{
+		private boolean max;
+		private boolean onlyZeros;
+		private boolean superOff;
+		private String superOffValue;
+		private boolean blkSize;
+		private String blkSizeValue;
+		private boolean force;
+		private boolean lastZero;
+		private boolean method;
+		private String methodName;
+		private boolean iter;
+		private String iterationsValue;
+		private boolean nopart;
+		private boolean nounrm;
+		private boolean nowfs;
+		private boolean ioctl;
+		private boolean noWipeZeroBlocks;
+		private boolean useDedicated;
+		private boolean order;
+		private String wipingOrder;
+		private int jobs = 1;
+		private int jobsPerDisk = 1;
+		private boolean batch;
+		private boolean watchConfig;
+		private boolean mergeErrors;
+		private File errorFile;
+		private boolean minimalEnv;
+		private File configFile;
+		private List<ConfigFile> configSections;
+		private int x;
+		private int y;
+		private int width;
+		private int height;
+		private int fontSize;
+		private List<String> fsList;
+		private String wfsPath;
+
+		/**
+		 * Creates the options with the current values.
+		 * @return the new options.
+		 */
+		public WipeOptions build ()
+		{
+			return new WipeOptions (this);
+		}
+
+		/**
+		 * Adds a filesystem to wipe.
+		 * @param fs The filesystem to add.
+		 */
+		public void addFilesystem (String fs)
+		{
+			if ( fsList == null )
+			{
+				fsList = new ArrayList<String> (1);
+			}
+			fsList.add (fs);
+		}
+
+		/**
+		 * Sets the "is maximized" property.
+		 * @param v the new value.
+		 */
+		public void setMax (boolean v)
+		{
+			max = v;
+		}
+
+		/**
+		 * Sets the "wipe only using zeros" option.
+		 * @param v the new value.
+		 */
+		public void setOnlyZeros (boolean v)
+		{
+			onlyZeros = v;
+		}
+
+		/**
+		 * Sets the "is superblock offset selected" option.
+		 * @param v the new value.
+		 */
+		public void setSuperOff (boolean v)
+		{
+			superOff = v;
+		}
+
+		/**
+		 * Sets the superblock offset.
+		 * @param v the new value, null for none.
+		 */
+		public void setSuperOffValue (String v)
+		{
+			superOffValue = v;
+		}
+
+		/**
+		 * Sets the "is block size selected" option.
+		 * @param v the new value.
+		 */
+		public void setBlkSize (boolean v)
+		{
+			blkSize = v;
+		}
+
+		/**
+		 * Sets the block size.
+		 * @param v the new value, null for none.
+		 */
+		public void setBlkSizeValue (String v)
+		{
+			blkSizeValue = v;
+		}
+
+		/**
+		 * Sets the "force" option.
+		 * @param v the new value.
+		 */
+		public void setForce (boolean v)
+		{
+			force = v;
+		}
+
+		/**
+		 * Sets the "last zero" option.
+		 * @param v the new value.
+		 */
+		public void setLastZero (boolean v)
+		{
+			lastZero = v;
+		}
+
+		/**
+		 * Sets the "is wiping method selected" option.
+		 * @param v the new value.
+		 */
+		public void setMethod (boolean v)
+		{
+			method = v;
+		}
+
+		/**
+		 * Sets the wiping method's name.
+		 * @param v the new value, null for none.
+		 */
+		public void setMethodName (String v)
+		{
+			methodName = v;
+		}
+
+		/**
+		 * Sets the "is number of iterations selected" option.
+		 * @param v the new value.
+		 */
+		public void setIter (boolean v)
+		{
+			iter = v;
+		}
+
+		/**
+		 * Sets the number of iterations.
+		 * @param v the new value, null for none.
+		 */
+		public void setIterationsValue (String v)
+		{
+			iterationsValue = v;
+		}
+
+		/**
+		 * Sets the "don't wipe partially used blocks" option.
+		 * @param v the new value.
+		 */
+		public void setNopart (boolean v)
+		{
+			nopart = v;
+		}
+
+		/**
+		 * Sets the "don't wipe undelete data" option.
+		 * @param v the new value.
+		 */
+		public void setNounrm (boolean v)
+		{
+			nounrm = v;
+		}
+
+		/**
+		 * Sets the "don't wipe unused space" option.
+		 * @param v the new value.
+		 */
+		public void setNowfs (boolean v)
+		{
+			nowfs = v;
+		}
+
+		/**
+		 * Sets the "use ioctl" option.
+		 * @param v the new value.
+		 */
+		public void setIoctl (boolean v)
+		{
+			ioctl = v;
+		}
+
+		/**
+		 * Sets the "don't wipe all-zero blocks" option.
+		 * @param v the new value.
+		 */
+		public void setNoWipeZeroBlocks (boolean v)
+		{
+			noWipeZeroBlocks = v;
+		}
+
+		/**
+		 * Sets the "use the dedicated program" option.
+		 * @param v the new value.
+		 */
+		public void setUseDedicated (boolean v)
+		{
+			useDedicated = v;
+		}
+
+		/**
+		 * Sets the "is wiping order selected" option.
+		 * @param v the new value.
+		 */
+		public void setOrder (boolean v)
+		{
+			order = v;
+		}
+
+		/**
+		 * Sets the wiping order.
+		 * @param v the new value, null for none.
+		 */
+		public void setWipingOrder (String v)
+		{
+			wipingOrder = v;
+		}
+
+		/**
+		 * Sets the maximum number of wiping jobs run at the same time.
+		 * @param v the new value.
+		 */
+		public void setJobs (int v)
+		{
+			jobs = v;
+		}
+
+		/**
+		 * Sets the maximum number of wiping jobs using the same disk, 0 meaning no limit.
+		 * @param v the new value.
+		 */
+		public void setJobsPerDisk (int v)
+		{
+			jobsPerDisk = v;
+		}
+
+		/**
+		 * Sets the "batch mode" option.
+		 * @param v the new value.
+		 */
+		public void setBatch (boolean v)
+		{
+			batch = v;
+		}
+
+		/**
+		 * Sets the "watch the configuration file" option.
+		 * @param v the new value.
+		 */
+		public void setWatchConfig (boolean v)
+		{
+			watchConfig = v;
+		}
+
+		/**
+		 * Sets the "merge the program's error output into its output" option.
+		 * @param v the new value.
+		 */
+		public void setMergeErrors (boolean v)
+		{
+			mergeErrors = v;
+		}
+
+		/**
+		 * Sets the file the program's error output is written to.
+		 * @param v the new value, null for none.
+		 */
+		public void setErrorFile (File v)
+		{
+			errorFile = v;
+		}
+
+		/**
+		 * Sets the "run the program with a minimal environment" option.
+		 * @param v the new value.
+		 */
+		public void setMinimalEnv (boolean v)
+		{
+			minimalEnv = v;
+		}
+
+		/**
+		 * Sets the configuration file.
+		 * @param v the new value, null for none.
+		 */
+		public void setConfigFile (File v)
+		{
+			configFile = v;
+		}
+
+		/**
+		 * Sets the named sections (separate wiping jobs) of the configuration file.
+		 * @param v the new value, null for none.
+		 */
+		public void setConfigSections (List<ConfigFile> v)
+		{
+			configSections = v;
+		}
+
+		/**
+		 * Sets the window's X coordinate.
+		 * @param v the new value.
+		 */
+		public void setX (int v)
+		{
+			x = v;
+		}
+
+		/**
+		 * Sets the window's Y coordinate.
+		 * @param v the new value.
+		 */
+		public void setY (int v)
+		{
+			y = v;
+		}
+
+		/**
+		 * Sets the window's width.
+		 * @param v the new value.
+		 */
+		public void setWidth (int v)
+		{
+			width = v;
+		}
+
+		/**
+		 * Sets the window's height.
+		 * @param v the new value.
+		 */
+		public void setHeight (int v)
+		{
+			height = v;
+		}
+
+		/**
+		 * Sets the font size.
+		 * @param v the new value.
+		 */
+		public void setFontSize (int v)
+		{
+			fontSize = v;
+		}
+
+		/**
+		 * Sets the filesystems to wipe.
+		 * @param v the new value, null for none.
+		 */
+		public void setFsList (List<String> v)
+		{
+			fsList = (v != null)? new ArrayList<String> (v) : null;
+		}
+
+		/**
+		 * Sets the path to the "wipefreespace" program.
+		 * @param v the new value, null for none.
+		 */
+		public void setWfsPath (String v)
+		{
+			wfsPath = v;
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "WipeOptions.Builder";	// NOI18N
+		}
+	}
+}
@@ -0,0 +1,386 @@
+/*
+ * WipeScheduler.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A class that runs wiping jobs, at most the given number of them at the
+ * same time. A new job is started as soon as a running one finishes.
+ * Optionally, the number of jobs using the same disk can be limited, so
+ * that the partitions of one disk aren't wiped in parallel.
+ * @author Bogdan Drozdowski
+ */
+public class WipeScheduler
+{
+	/** The exit code reported for jobs which couldn't be started. */
+	public static final int EXIT_NOT_STARTED = -1;
+
+	/**
+	 * The interface for receiving notifications about the jobs.
+	 * The methods are called on the scheduler's threads, so they should
+	 * return quickly and shouldn't call the scheduler back.
+	 */
+	public interface Listener
+	{
+		/**
+		 * Called when a job's process has been started.
+		 * @param job The job.
+		 * @param process The job's process.
+		 */
+		void jobStarted (WipeJob job, Process process);
+
+		/**
+		 * Called when a job's process has finished.
+		 * @param job The job.
+		 * @param exitCode The process' exit code or EXIT_NOT_STARTED.
+		 */
+		void jobFinished (WipeJob job, int exitCode);
+
+		/**
+		 * Called when all the jobs have finished. Not called after cancel ().
+		 */
+		void allJobsFinished ();
+	}
+
+	private final int maxJobs;
+	private final int maxJobsPerDevice;
+	private final DeviceResolver resolver;
+	private final Listener listener;
+	private final LinkedList<WipeJob> waiting = new LinkedList<WipeJob> ();
+	private final Map<WipeJob, Process> running =
+		new IdentityHashMap<WipeJob, Process> ();
+	private final Map<WipeJob, Set<String>> jobDevices =
+		new IdentityHashMap<WipeJob, Set<String>> ();
+	private final Map<String, Integer> deviceUse =
+		new HashMap<String, Integer> ();
+	private ExecutorService monitors;
+	private boolean cancelled;
+	private WfsLauncher launcher = new WfsLauncher ();
+
+	/**
+	 * Creates a new instance of WipeScheduler.
+	 * @param maxJobsParam The maximum number of jobs run at the same time.
+	 * @param listenerParam The listener to notify about the jobs.
+	 */
+	public WipeScheduler (int maxJobsParam, Listener listenerParam)
+	{
+		this (maxJobsParam, 0, null, listenerParam);
+	}
+
+	/**
+	 * Creates a new instance of WipeScheduler.
+	 * @param maxJobsParam The maximum number of jobs run at the same time.
+	 * @param maxJobsPerDeviceParam The maximum number of jobs using the
+	 *	same disk run at the same time. 0 means no limit.
+	 * @param resolverParam The resolver of the disks used by the jobs.
+	 *	Can be null when maxJobsPerDeviceParam is 0.
+	 * @param listenerParam The listener to notify about the jobs.
+	 */
+	public WipeScheduler (int maxJobsParam, int maxJobsPerDeviceParam,
+		DeviceResolver resolverParam, Listener listenerParam)
+	{
+		if ( listenerParam == null )
+		{
+			throw new IllegalArgumentException ("WipeScheduler:listenerParam = null");	// NOI18N
+		}
+		if ( maxJobsPerDeviceParam > 0 && resolverParam == null )
+		{
+			throw new IllegalArgumentException ("WipeScheduler:resolverParam = null");	// NOI18N
+		}
+		maxJobs = Math.max (1, maxJobsParam);
+		maxJobsPerDevice = Math.max (0, maxJobsPerDeviceParam);
+		resolver = resolverParam;
+		listener = listenerParam;
+	}
+
+	/**
+	 * Starts running the given jobs.
+	 * @param jobs The jobs to run.
+	 * @throws IOException if the first job can't be started. No job is
+	 *	run then.
+	 */
+	public synchronized void start (List<WipeJob> jobs) throws IOException
+	{
+		if ( jobs == null || jobs.isEmpty () )
+		{
+			throw new IllegalArgumentException ("WipeScheduler.start:jobs = null");	// NOI18N
+		}
+		if ( isRunning () )
+		{
+			throw new IllegalStateException ("WipeScheduler.start: already running");	// NOI18N
+		}
+		cancelled = false;
+		waiting.addAll (jobs);
+		jobDevices.clear ();
+		deviceUse.clear ();
+		if ( maxJobsPerDevice > 0 )
+		{
+			for ( WipeJob job : jobs )
+			{
+				Set<String> devices = new LinkedHashSet<String> ();
+				for ( String fs : job.getFilesystems () )
+				{
+					devices.add (resolver.getDevice (fs));
+				}
+				jobDevices.put (job, devices);
+			}
+		}
+		// virtual threads on newer Java versions:
+		monitors = Executors.newCachedThreadPool
+			(ThreadBackend.newThreadFactory ("wfsgui-job-monitor"));	// NOI18N
+		// the first job can always be started
+		WipeJob first = waiting.removeFirst ();
+		try
+		{
+			launch (first);
+		}
+		catch (IOException ex)
+		{
+			waiting.clear ();
+			deviceUse.clear ();
+			monitors.shutdown ();
+			throw ex;
+		}
+		launchWaiting ();
+	}
+
+	/**
+	 * Sets the launcher which starts the jobs' processes.
+	 * Should be called before start ().
+	 * @param l The launcher to use.
+	 */
+	public synchronized void setLauncher (WfsLauncher l)
+	{
+		if ( l == null )
+		{
+			throw new IllegalArgumentException ("WipeScheduler.setLauncher:l = null");	// NOI18N
+		}
+		launcher = l;
+	}
+
+	/**
+	 * Gets the launcher which starts the jobs' processes.
+	 * @return the launcher which starts the jobs' processes.
+	 */
+	public synchronized WfsLauncher getLauncher ()
+	{
+		return launcher;
+	}
+
+	/**
+	 * Tells if any job is still running or waiting to be run.
+	 * @return true if any job is still running or waiting to be run.
+	 */
+	public synchronized boolean isRunning ()
+	{
+		return ! running.isEmpty () || ! waiting.isEmpty ();
+	}
+
+	/**
+	 * Gets the jobs currently running.
+	 * @return the jobs currently running.
+	 */
+	public synchronized List<WipeJob> getRunningJobs ()
+	{
+		return new ArrayList<WipeJob> (running.keySet ());
+	}
+
+	/**
+	 * Stops all the running jobs and drops the waiting ones.
+	 */
+	public synchronized void cancel ()
+	{
+		cancelled = true;
+		waiting.clear ();
+		for ( Process p : running.values () )
+		{
+			p.destroy ();
+		}
+		running.clear ();
+		deviceUse.clear ();
+		if ( monitors != null )
+		{
+			// the monitoring threads end when the processes end
+			monitors.shutdown ();
+		}
+	}
+
+	/**
+	 * Starts the given job's process.
+	 * @param job The job to start.
+	 * @return the job's process.
+	 * @throws IOException if the process can't be started.
+	 */
+	protected Process startProcess (WipeJob job) throws IOException
+	{
+		return getLauncher ().start (job.getCommand ());
+	}
+
+	private void launch (WipeJob job) throws IOException
+	{
+		Process p = startProcess (job);
+		running.put (job, p);
+		WipeStats.getInstance ().processStarted (job.getId (), p);
+		changeDeviceUse (job, 1);
+		listener.jobStarted (job, p);
+		monitors.execute (new JobMonitor (job, p));
+	}
+
+	private void launchWaiting ()
+	{
+		Iterator<WipeJob> it = waiting.iterator ();
+		while ( running.size () < maxJobs && it.hasNext () )
+		{
+			WipeJob job = it.next ();
+			if ( ! canStart (job) )
+			{
+				// try the next one, maybe on a different disk
+				continue;
+			}
+			it.remove ();
+			try
+			{
+				launch (job);
+			}
+			catch (IOException ex)
+			{
+				Utils.handleException (ex, "WipeScheduler.launch: " + job);	// NOI18N
+				listener.jobFinished (job, EXIT_NOT_STARTED);
+			}
+		}
+		// a job can always start when nothing is running, so this means
+		// that nothing is left
+		if ( running.isEmpty () )
+		{
+			monitors.shutdown ();
+			listener.allJobsFinished ();
+		}
+	}
+
+	private synchronized void jobDone (WipeJob job, int exitCode)
+	{
+		if ( cancelled || running.remove (job) == null )
+		{
+			return;
+		}
+		changeDeviceUse (job, -1);
+		listener.jobFinished (job, exitCode);
+		launchWaiting ();
+	}
+
+	private boolean canStart (WipeJob job)
+	{
+		Set<String> devices = jobDevices.get (job);
+		if ( devices == null || running.isEmpty () )
+		{
+			return true;
+		}
+		for ( String dev : devices )
+		{
+			Integer use = deviceUse.get (dev);
+			if ( use != null && use >= maxJobsPerDevice )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void changeDeviceUse (WipeJob job, int change)
+	{
+		Set<String> devices = jobDevices.get (job);
+		if ( devices == null )
+		{
+			return;
+		}
+		for ( String dev : devices )
+		{
+			Integer use = deviceUse.get (dev);
+			int newUse = ((use != null)? use : 0) + change;
+			if ( newUse > 0 )
+			{
+				deviceUse.put (dev, newUse);
+			}
+			else
+			{
+				deviceUse.remove (dev);
+			}
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "WipeScheduler(" + maxJobs + Utils.COMMA + maxJobsPerDevice + ")";	// NOI18N
+	}
+
+	/**
+	 * Waits for a job's process to finish.
+	 */
+	private class JobMonitor implements Runnable
+	{
+		private final WipeJob job;
+		private final Process process;
+
+		private JobMonitor (WipeJob j, Process p)
+		{
+			job = j;
+			process = p;
+		}
+
+		@Override
+		public void run ()
+		{
+			int exitCode;
+			try
+			{
+				exitCode = process.waitFor ();
+			}
+			catch (InterruptedException ex)
+			{
+				Utils.handleException (ex,
+					"WipeScheduler.JobMonitor: waitFor()");	// NOI18N
+				Thread.currentThread ().interrupt ();
+				exitCode = EXIT_NOT_STARTED;
+			}
+			WipeStats.getInstance ().processEnded (job.getId ());
+			jobDone (job, exitCode);
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "WipeScheduler.JobMonitor(" + job + ")";	// NOI18N
+		}
+	}
+}
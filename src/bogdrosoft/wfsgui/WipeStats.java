@@ -0,0 +1,459 @@
+/*
+ * WipeStats.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The statistics of the program, available through JMX (for example in
+ * JConsole) under the name "bogdrosoft.wfsgui:type=WipeStats": the
+ * current progress, the amount of the output parsed, the UI updates,
+ * the readers of the streams and the running programs.
+ * The counters are updated without locking, so that counting costs
+ * almost nothing on the threads reading the programs' output.
+ * The progress is updated by the listener from newRunListener (),
+ * registered for each run.
+ * The statistics are registered in the GUI mode. In the batch mode,
+ * they're registered only when the system property
+ * "bogdrosoft.wfsgui.jmx" is "true", so that the platform MBeanServer
+ * isn't started for nothing.
+ * @author Bogdan Drozdowski
+ */
+public final class WipeStats implements WipeStatsMBean
+{
+	/** The JMX name of the statistics. */
+	public static final String OBJECT_NAME = "bogdrosoft.wfsgui:type=WipeStats";	// NOI18N
+	/** The system property which turns the statistics on in the batch mode, when "true". */
+	public static final String JMX_PROPERTY = "bogdrosoft.wfsgui.jmx";	// NOI18N
+
+	private static final WipeStats INSTANCE = new WipeStats ();
+
+	// Process.pid () exists since Java 9, null before:
+	private static final Method PID_METHOD = getPidMethod ();
+
+	private final AtomicLong outputChars = new AtomicLong (0);
+	private final AtomicLong errorLines = new AtomicLong (0);
+	private final AtomicLong uiDispatched = new AtomicLong (0);
+	private final AtomicLong uiDropped = new AtomicLong (0);
+	private final ConcurrentMap<Integer, ProcessInfo> processes =
+		new ConcurrentHashMap<Integer, ProcessInfo> ();
+
+	private volatile String currentFs = Utils.EMPTY_STR;
+	private volatile int currentJob = -1;
+	private volatile int stagePercent;
+	private volatile int fsPercent;
+	private volatile int totalPercent;
+
+	WipeStats ()
+	{
+		// only the shared instance outside of tests
+	}
+
+	/**
+	 * Gets the shared instance of WipeStats.
+	 * @return the shared instance of WipeStats.
+	 */
+	public static WipeStats getInstance ()
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers the shared instance in the platform MBeanServer, if
+	 * not registered yet.
+	 * @return true if the statistics are registered.
+	 */
+	public static synchronized boolean register ()
+	{
+		try
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer ();
+			ObjectName name = new ObjectName (OBJECT_NAME);
+			if ( ! server.isRegistered (name) )
+			{
+				server.registerMBean (INSTANCE, name);
+			}
+			return true;
+		}
+		catch (JMException ex)
+		{
+			Utils.handleException (ex, "WipeStats.register");	// NOI18N
+		}
+		catch (SecurityException ex)
+		{
+			Utils.handleException (ex, "WipeStats.register");	// NOI18N
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the shared instance from the platform MBeanServer.
+	 */
+	public static synchronized void unregister ()
+	{
+		try
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer ();
+			ObjectName name = new ObjectName (OBJECT_NAME);
+			if ( server.isRegistered (name) )
+			{
+				server.unregisterMBean (name);
+			}
+		}
+		catch (JMException ex)
+		{
+			Utils.handleException (ex, "WipeStats.unregister");	// NOI18N
+		}
+		catch (SecurityException ex)
+		{
+			Utils.handleException (ex, "WipeStats.unregister");	// NOI18N
+		}
+	}
+
+	/**
+	 * Creates a listener which updates the progress in the statistics,
+	 * to be registered for a run.
+	 * @param aggregator The aggregator of the progress of all the jobs
+	 *	of the run, or null to show the progress of the single jobs.
+	 * @return the listener.
+	 */
+	public ProgressListener newRunListener (ProgressAggregator aggregator)
+	{
+		return new RunListener (aggregator);
+	}
+
+	/**
+	 * Counts the characters of the programs' output parsed.
+	 * @param count The number of characters parsed.
+	 */
+	public void addOutputChars (int count)
+	{
+		outputChars.addAndGet (count);
+	}
+
+	/**
+	 * Gets the counter of the characters of the programs' output parsed,
+	 * to be given to the parsers (see WfsOutputParser.setCharCounter ()).
+	 * @return the counter of the characters parsed.
+	 */
+	public AtomicLong getOutputCharsCounter ()
+	{
+		return outputChars;
+	}
+
+	/**
+	 * Counts a UI update.
+	 * @param merged true if the update was merged with the same update
+	 *	waiting to be run, false if it will be run separately.
+	 */
+	public void addUiUpdate (boolean merged)
+	{
+		uiDispatched.incrementAndGet ();
+		if ( merged )
+		{
+			uiDropped.incrementAndGet ();
+		}
+	}
+
+	/**
+	 * Remembers a started program.
+	 * @param jobId The number of the program's job.
+	 * @param process The program's process.
+	 */
+	public void processStarted (int jobId, Process process)
+	{
+		if ( process == null )
+		{
+			return;
+		}
+		processes.put (Integer.valueOf (jobId),
+			new ProcessInfo (getPid (process), System.currentTimeMillis ()));
+	}
+
+	/**
+	 * Forgets a program which has finished.
+	 * @param jobId The number of the program's job.
+	 */
+	public void processEnded (int jobId)
+	{
+		processes.remove (Integer.valueOf (jobId));
+	}
+
+	@Override
+	public String getCurrentFilesystem ()
+	{
+		return currentFs;
+	}
+
+	@Override
+	public int getCurrentJob ()
+	{
+		return currentJob;
+	}
+
+	@Override
+	public int getStagePercent ()
+	{
+		return stagePercent;
+	}
+
+	@Override
+	public int getFilesystemPercent ()
+	{
+		return fsPercent;
+	}
+
+	/**
+	 * Gets the progress of the whole run, from the ProgressAggregator
+	 * given to newRunListener ().
+	 * @return the progress of the whole run, in percent.
+	 */
+	@Override
+	public int getTotalPercent ()
+	{
+		return totalPercent;
+	}
+
+	@Override
+	public long getOutputCharsParsed ()
+	{
+		return outputChars.get ();
+	}
+
+	@Override
+	public long getErrorLines ()
+	{
+		return errorLines.get ();
+	}
+
+	@Override
+	public long getUiUpdatesDispatched ()
+	{
+		return uiDispatched.get ();
+	}
+
+	@Override
+	public long getUiUpdatesDropped ()
+	{
+		return uiDropped.get ();
+	}
+
+	@Override
+	public int getActiveReaders ()
+	{
+		return ReaderExecutor.getActiveCount ();
+	}
+
+	@Override
+	public int getReaderThreads ()
+	{
+		return ReaderExecutor.getThreadCount ();
+	}
+
+	@Override
+	public int getCoreReaderThreads ()
+	{
+		return ReaderExecutor.getCoreThreads ();
+	}
+
+	@Override
+	public boolean isVirtualThreads ()
+	{
+		return ThreadBackend.isVirtual ();
+	}
+
+	@Override
+	public int getRunningProcesses ()
+	{
+		return processes.size ();
+	}
+
+	@Override
+	public long getProcessId ()
+	{
+		ProcessInfo p = getLatestProcess ();
+		return (p != null)? p.pid : -1;
+	}
+
+	@Override
+	public long getProcessUptimeMillis ()
+	{
+		ProcessInfo p = getLatestProcess ();
+		return (p != null)? System.currentTimeMillis () - p.startTime : -1;
+	}
+
+	@Override
+	public void resetCounters ()
+	{
+		outputChars.set (0);
+		errorLines.set (0);
+		uiDispatched.set (0);
+		uiDropped.set (0);
+	}
+
+	private ProcessInfo getLatestProcess ()
+	{
+		ProcessInfo latest = null;
+		for ( ProcessInfo p : processes.values () )
+		{
+			if ( latest == null || p.startTime >= latest.startTime )
+			{
+				latest = p;
+			}
+		}
+		return latest;
+	}
+
+	/**
+	 * Gets the process ID of the given process.
+	 * @param process The process.
+	 * @return the process ID or -1, if not known.
+	 */
+	static long getPid (Process process)
+	{
+		if ( PID_METHOD == null || process == null )
+		{
+			return -1;
+		}
+		try
+		{
+			return ((Number) PID_METHOD.invoke (process)).longValue ();
+		}
+		catch (IllegalAccessException ex)
+		{
+			return -1;
+		}
+		catch (InvocationTargetException ex)
+		{
+			// UnsupportedOperationException, if the process has no ID
+			return -1;
+		}
+		catch (RuntimeException ex)
+		{
+			return -1;
+		}
+	}
+
+	private static Method getPidMethod ()
+	{
+		try
+		{
+			return Process.class.getMethod ("pid");	// NOI18N
+		}
+		catch (NoSuchMethodException ex)
+		{
+			return null;
+		}
+		catch (SecurityException ex)
+		{
+			return null;
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "WipeStats(" + currentFs + Utils.COMMA + totalPercent + ")";	// NOI18N
+	}
+
+	/**
+	 * A running program.
+	 */
+	private static class ProcessInfo
+	{
+		private final long pid;
+		private final long startTime;
+
+		private ProcessInfo (long pidParam, long startTimeParam)
+		{
+			pid = pidParam;
+			startTime = startTimeParam;
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "WipeStats.ProcessInfo(" + pid + ")";	// NOI18N
+		}
+	}
+
+	/**
+	 * Updates the progress in the statistics.
+	 */
+	private class RunListener extends ProgressAdapter
+	{
+		private final ProgressAggregator aggregator;
+
+		private RunListener (ProgressAggregator aggregatorParam)
+		{
+			aggregator = aggregatorParam;
+		}
+
+		@Override
+		public void fsStarted (int jobId, String fsName)
+		{
+			currentJob = jobId;
+			currentFs = (fsName != null)? fsName : Utils.EMPTY_STR;
+		}
+
+		@Override
+		public void stageProgress (int jobId, String fsName, int stage,
+			int fs, int total)
+		{
+			currentJob = jobId;
+			currentFs = (fsName != null)? fsName : Utils.EMPTY_STR;
+			stagePercent = stage;
+			fsPercent = fs;
+			totalPercent = (aggregator != null)?
+				aggregator.update (jobId, total) : total;
+		}
+
+		@Override
+		public void errorLine (int jobId, CharSequence line)
+		{
+			errorLines.incrementAndGet ();
+		}
+
+		@Override
+		public void processExited (int jobId, int exitCode)
+		{
+			if ( aggregator != null )
+			{
+				// count the job as done in the total progress
+				totalPercent = aggregator.update (jobId, 100);
+			}
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "WipeStats.RunListener";	// NOI18N
+		}
+	}
+}
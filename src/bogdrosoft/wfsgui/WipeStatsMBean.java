@@ -0,0 +1,131 @@
+/*
+ * WipeStatsMBean.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui;
+
+/**
+ * The management interface of WipeStats, for JMX clients like JConsole.
+ * @author Bogdan Drozdowski
+ */
+public interface WipeStatsMBean
+{
+	/**
+	 * Gets the name of the filesystem reported last.
+	 * @return the name of the filesystem reported last or an empty string.
+	 */
+	String getCurrentFilesystem ();
+
+	/**
+	 * Gets the number of the job reported last.
+	 * @return the number of the job reported last or -1.
+	 */
+	int getCurrentJob ();
+
+	/**
+	 * Gets the progress of the current stage reported last.
+	 * @return the progress of the current stage, in percent.
+	 */
+	int getStagePercent ();
+
+	/**
+	 * Gets the progress of the current filesystem reported last.
+	 * @return the progress of the current filesystem, in percent.
+	 */
+	int getFilesystemPercent ();
+
+	/**
+	 * Gets the progress of the whole run.
+	 * @return the progress of the whole run, in percent.
+	 */
+	int getTotalPercent ();
+
+	/**
+	 * Gets the number of characters of the programs' output parsed
+	 * for the progress. In the "C" locale, this is the number of bytes.
+	 * @return the number of characters parsed.
+	 */
+	long getOutputCharsParsed ();
+
+	/**
+	 * Gets the number of lines read from the programs' error output.
+	 * @return the number of lines read from the programs' error output.
+	 */
+	long getErrorLines ();
+
+	/**
+	 * Gets the number of UI updates dispatched to be run.
+	 * @return the number of UI updates dispatched to be run.
+	 */
+	long getUiUpdatesDispatched ();
+
+	/**
+	 * Gets the number of UI updates not run separately, because they
+	 * were merged with the same updates waiting to be run.
+	 * @return the number of UI updates merged with the pending ones.
+	 */
+	long getUiUpdatesDropped ();
+
+	/**
+	 * Gets the number of the streams being read now.
+	 * @return the number of the streams being read now.
+	 */
+	int getActiveReaders ();
+
+	/**
+	 * Gets the number of platform threads reading the streams or idle.
+	 * @return the number of platform threads reading the streams or idle.
+	 */
+	int getReaderThreads ();
+
+	/**
+	 * Gets the number of platform reader threads kept when they're idle.
+	 * @return the number of platform reader threads kept when they're idle.
+	 */
+	int getCoreReaderThreads ();
+
+	/**
+	 * Tells if the readers run on virtual threads.
+	 * @return true if the readers run on virtual threads.
+	 */
+	boolean isVirtualThreads ();
+
+	/**
+	 * Gets the number of the programs running now.
+	 * @return the number of the programs running now.
+	 */
+	int getRunningProcesses ();
+
+	/**
+	 * Gets the process ID of the program started last, if still running.
+	 * @return the process ID or -1, if not running or not known (before Java 9).
+	 */
+	long getProcessId ();
+
+	/**
+	 * Gets the time the program started last has been running.
+	 * @return the time in milliseconds or -1, if not running.
+	 */
+	long getProcessUptimeMillis ();
+
+	/**
+	 * Sets the counters back to zero.
+	 */
+	void resetCounters ();
+}
@@ -0,0 +1,369 @@
+/*
+ * OutputConsole.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui.gui;
+
+import bogdrosoft.wfsgui.Utils;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
+
+/**
+ * A console model for a text component, which displays the program's
+ * output. Only the last lines of the output are kept in the component,
+ * the new text is appended to its Document incrementally and the whole
+ * transcript can be streamed to a spool file.
+ * The text can be written from any thread, but it is moved to the
+ * component only by calling flush () on the EventDispatchThread.
+ * The text waiting for flush () is limited: when there's too much,
+ * the oldest written parts are dropped whole, so that a flood of output
+ * costs only the copying of the new text.
+ * @author Bogdan Drozdowski
+ */
+public class OutputConsole
+{
+	/** The default maximum number of lines kept in the text component. */
+	public static final int DEFAULT_MAX_LINES = 5000;
+
+	// no more characters are kept waiting for the EventDispatchThread:
+	private static final int MAX_PENDING_CHARS = 1024 * 1024;
+
+	private final JTextComponent textComp;
+	private final int maxLines;
+	// the written parts waiting for flush (), the oldest first:
+	private final Deque<char[]> pending = new ArrayDeque<char[]> ();
+	private int pendingChars;
+	private final Object spoolLock = new Object ();
+	private Writer spool;
+	private File spoolFile;
+	private Thread spoolRemover;
+
+	/**
+	 * Creates a new instance of OutputConsole.
+	 * @param textCompParam The component to display the text in.
+	 * @param maxLinesParam The maximum number of lines to keep in the component.
+	 */
+	public OutputConsole (JTextComponent textCompParam, int maxLinesParam)
+	{
+		if ( textCompParam == null )
+		{
+			throw new IllegalArgumentException ("OutputConsole:textCompParam = null");	// NOI18N
+		}
+		if ( maxLinesParam <= 0 )
+		{
+			maxLinesParam = DEFAULT_MAX_LINES;
+		}
+		textComp = textCompParam;
+		maxLines = maxLinesParam;
+	}
+
+	/**
+	 * Clears the console and starts a new spool file, if requested.
+	 * Should be called on the EventDispatchThread.
+	 * @param initialText The text to start the new contents with.
+	 * @param useSpool Whether to stream the whole transcript to a new
+	 *	spool file.
+	 */
+	public void reset (String initialText, boolean useSpool)
+	{
+		synchronized (spoolLock)
+		{
+			closeSpoolWriter ();
+			deleteSpoolFile ();
+		}
+		synchronized (pending)
+		{
+			pending.clear ();
+			pendingChars = 0;
+		}
+		textComp.setText (Utils.EMPTY_STR);
+		if ( useSpool )
+		{
+			synchronized (spoolLock)
+			{
+				try
+				{
+					spoolFile = createSpoolFile ();
+					addSpoolRemover ();
+					// don't force a specific encoding, because the program
+					// might have been translated
+					spool = new BufferedWriter (new OutputStreamWriter
+						(new FileOutputStream (spoolFile)));
+				}
+				catch (IOException ex)
+				{
+					Utils.handleException (ex, "OutputConsole.reset->spool");	// NOI18N
+					spool = null;
+					spoolFile = null;
+				}
+			}
+		}
+		if ( initialText != null )
+		{
+			write (initialText);
+			flush ();
+		}
+	}
+
+	/**
+	 * Writes the given text to the console. Can be called from any thread.
+	 * @param text The text to write.
+	 */
+	public void write (String text)
+	{
+		if ( text == null )
+		{
+			return;
+		}
+		write (text.toCharArray (), 0, text.length ());
+	}
+
+	/**
+	 * Writes the given characters to the console. Can be called from any thread.
+	 * @param buf The buffer with the characters to write.
+	 * @param offset The index of the first character to write.
+	 * @param length The number of characters to write.
+	 */
+	public void write (char[] buf, int offset, int length)
+	{
+		if ( buf == null || length <= 0 )
+		{
+			return;
+		}
+		synchronized (spoolLock)
+		{
+			if ( spool != null )
+			{
+				try
+				{
+					spool.write (buf, offset, length);
+				}
+				catch (IOException ex)
+				{
+					Utils.handleException (ex, "OutputConsole.write->spool");	// NOI18N
+					closeSpoolWriter ();
+				}
+			}
+		}
+		// the component can't show more anyway
+		int kept = Math.min (length, MAX_PENDING_CHARS);
+		char[] part = Arrays.copyOfRange (buf, offset + length - kept,
+			offset + length);
+		synchronized (pending)
+		{
+			while ( ! pending.isEmpty ()
+				&& pendingChars + kept > MAX_PENDING_CHARS )
+			{
+				pendingChars -= pending.removeFirst ().length;
+			}
+			pending.addLast (part);
+			pendingChars += kept;
+		}
+	}
+
+	/**
+	 * Moves the text written so far to the text component and removes the
+	 * oldest lines from it, if there are too many.
+	 * Should be called on the EventDispatchThread.
+	 */
+	public void flush ()
+	{
+		char[][] parts;
+		int length;
+		synchronized (pending)
+		{
+			if ( pending.isEmpty () )
+			{
+				return;
+			}
+			parts = pending.toArray (new char[pending.size ()][]);
+			length = pendingChars;
+			pending.clear ();
+			pendingChars = 0;
+		}
+		StringBuilder sb = new StringBuilder (length);
+		for ( char[] part : parts )
+		{
+			sb.append (part);
+		}
+		String text = sb.toString ();
+		Document doc = textComp.getDocument ();
+		if ( doc == null )
+		{
+			textComp.setText (textComp.getText () + text);
+			return;
+		}
+		try
+		{
+			doc.insertString (doc.getLength (), text, null);
+			Element root = doc.getDefaultRootElement ();
+			int excessLines = root.getElementCount () - maxLines;
+			if ( excessLines > 0 )
+			{
+				doc.remove (0, root.getElement (excessLines)
+					.getStartOffset ());
+			}
+		}
+		catch (BadLocationException ex)
+		{
+			Utils.handleException (ex, "OutputConsole.flush");	// NOI18N
+		}
+	}
+
+	private static File createSpoolFile () throws IOException
+	{
+		// the transcript names the wiped filesystems, so only the owner
+		// can read it
+		try
+		{
+			return Files.createTempFile ("wfsgui2-output-", ".log",	// NOI18N
+				PosixFilePermissions.asFileAttribute
+				(PosixFilePermissions.fromString ("rw-------"))).toFile ();	// NOI18N
+		}
+		catch (UnsupportedOperationException ex)
+		{
+			// not a POSIX system - the default permissions of
+			// the temporary files
+			return Files.createTempFile ("wfsgui2-output-", ".log").toFile ();	// NOI18N
+		}
+	}
+
+	/**
+	 * Gets the spool file with the whole transcript, after writing all
+	 * the buffered text to it.
+	 * @return the spool file or null, if there is none.
+	 */
+	public File getSpoolFile ()
+	{
+		synchronized (spoolLock)
+		{
+			if ( spool != null )
+			{
+				try
+				{
+					spool.flush ();
+				}
+				catch (IOException ex)
+				{
+					Utils.handleException (ex, "OutputConsole.getSpoolFile->flush");	// NOI18N
+				}
+			}
+			return spoolFile;
+		}
+	}
+
+	/**
+	 * Closes the current spool file. The file is kept until the console
+	 * is reset or the program exits.
+	 */
+	public void closeSpool ()
+	{
+		synchronized (spoolLock)
+		{
+			closeSpoolWriter ();
+		}
+	}
+
+	private void closeSpoolWriter ()
+	{
+		if ( spool != null )
+		{
+			try
+			{
+				spool.close ();
+			}
+			catch (IOException ex)
+			{
+				Utils.handleException (ex, "OutputConsole.closeSpool");	// NOI18N
+			}
+			spool = null;
+		}
+	}
+
+	private void deleteSpoolFile ()
+	{
+		if ( spoolFile != null )
+		{
+			if ( spoolFile.exists () && ! spoolFile.delete () )
+			{
+				Utils.handleException (new IOException (spoolFile.toString ()),
+					"OutputConsole.deleteSpoolFile");	// NOI18N
+			}
+			spoolFile = null;
+		}
+	}
+
+	/**
+	 * Makes sure that the current spool file is deleted when the program
+	 * exits. One shutdown hook per console removes the file used at the
+	 * time, instead of File.deleteOnExit () remembering every file.
+	 */
+	private void addSpoolRemover ()
+	{
+		if ( spoolRemover != null )
+		{
+			return;
+		}
+		spoolRemover = new Thread (new Runnable ()
+		{
+			@Override
+			public void run ()
+			{
+				synchronized (spoolLock)
+				{
+					closeSpoolWriter ();
+					deleteSpoolFile ();
+				}
+			}
+
+			@Override
+			public String toString ()
+			{
+				return "OutputConsole.spoolRemover";	// NOI18N
+			}
+		}, "wfsgui-spool-remover");	// NOI18N
+		try
+		{
+			Runtime.getRuntime ().addShutdownHook (spoolRemover);
+		}
+		catch (IllegalStateException ex)
+		{
+			// already shutting down
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "OutputConsole";	// NOI18N
+	}
+}
@@ -20,44 +20,55 @@
 
 package bogdrosoft.wfsgui.gui;
 
+import bogdrosoft.wfsgui.ErrorLineParser;
+import bogdrosoft.wfsgui.ProgressListener;
+import bogdrosoft.wfsgui.ReaderExecutor;
 import bogdrosoft.wfsgui.Utils;
+import bogdrosoft.wfsgui.WfsOutputParser;
+import bogdrosoft.wfsgui.WipeStats;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Future;
 import javax.swing.JLabel;
 import javax.swing.JProgressBar;
 import javax.swing.text.JTextComponent;
 
 /**
- * A class that launches a thread that updates the given text component,
- * progress bars and a label.
+ * A class that reads the program's output or error stream on a thread of
+ * the shared ReaderExecutor, appends it to the given console and reports
+ * the progress events to the given listener.
  * @author Bogdan Drozdowski
  */
 public class ProgressUpdater implements Callable<Void>
 {
-	private static final byte STAGE_1_CHAR = '*';	// NOI18N
-	private static final byte STAGE_2_CHAR = '-';	// NOI18N
-	private static final byte STAGE_3_CHAR = '=';	// NOI18N
+	private static final int BUFFER_SIZE = 4096;
 
-	private static final Pattern FS_PATTERN = Pattern.compile
-			("^wipefreespace:([^:]+):\\s+", Pattern.MULTILINE);	// NOI18N
+	private final Reader reader;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private final OutputConsole console;
+	// one of these is used, depending on the stream:
+	private final WfsOutputParser parser;
+	private final ErrorLineParser errorParser;
+	private final Runnable consoleFlush = new Runnable ()
+	{
+		@Override
+		public void run ()
+		{
+			console.flush ();
+		}
 
-	private final int totalFSnum;
-	private final int nStages;
-	private final InputStream output;
-	private final JTextComponent textComp;
-	private final JProgressBar stageBar;
-	private final JProgressBar fsBar;
-	private final JProgressBar totalBar;
-	private final JLabel currentFS;
-	private volatile String lastFS = Utils.EMPTY_STR;	// previous filesystem's name
+		@Override
+		public String toString ()
+		{
+			return "ProgressUpdater.consoleFlush";	// NOI18N
+		}
+	};
 
 	private volatile boolean isStopped = false;
-	private ExecutorService queue;
+	private Future<Void> task;
 
 	/**
 	 * Creates a new instance of ProgressUpdater.
@@ -77,221 +88,138 @@ public class ProgressUpdater implements Callable<Void>
 		final JProgressBar totalBarParam,
 		final JLabel currentFSParam,
 		int totalFS, int numberOfStages)
+	{
+		this (outputParam, createConsole (textCompParam),
+			stageBarParam, fsBarParam, totalBarParam,
+			currentFSParam, totalFS, numberOfStages);
+	}
+
+	/**
+	 * Creates a new instance of ProgressUpdater.
+	 * @param outputParam The InputStream to read, connected to the program's output/error stream.
+	 * @param consoleParam The console to append program's output/error to.
+	 * @param stageBarParam The progress bar describing the current stage.
+	 * @param fsBarParam The progress bar describing the current filesystem wiping progress.
+	 * @param totalBarParam The progress bar describing the total progress.
+	 * @param currentFSParam The label to put the current filesystem's name in.
+	 * @param totalFS The total number of filesystems to wipe (needed for total progress).
+	 * @param numberOfStages The number of wiping stages (number of things to wipe on each filesystem).
+	 */
+	public ProgressUpdater (final InputStream outputParam,
+		final OutputConsole consoleParam,
+		final JProgressBar stageBarParam,
+		final JProgressBar fsBarParam,
+		final JProgressBar totalBarParam,
+		final JLabel currentFSParam,
+		int totalFS, int numberOfStages)
+	{
+		this (outputParam, consoleParam,
+			new SwingProgressListener (stageBarParam, fsBarParam,
+				totalBarParam, currentFSParam, null),
+			0, totalFS, numberOfStages, false);
+	}
+
+	/**
+	 * Creates a new instance of ProgressUpdater.
+	 * @param outputParam The InputStream to read, connected to the program's output/error stream.
+	 * @param consoleParam The console to append program's output/error to.
+	 * @param listenerParam The listener to report the progress events to.
+	 * @param jobId The number of the job the stream comes from.
+	 * @param totalFS The total number of filesystems to wipe (needed for total progress).
+	 * @param numberOfStages The number of wiping stages (number of things to wipe on each filesystem).
+	 * @param isErrorStream true if the stream is the program's error
+	 *	stream, which is reported as error lines instead of progress.
+	 */
+	public ProgressUpdater (final InputStream outputParam,
+		final OutputConsole consoleParam,
+		final ProgressListener listenerParam,
+		int jobId, int totalFS, int numberOfStages,
+		boolean isErrorStream)
 	{
 		if ( outputParam == null )
 		{
 			throw new IllegalArgumentException ("ProgressUpdater:outputParam = null");	// NOI18N
 		}
-		if ( textCompParam == null )
+		if ( consoleParam == null )
 		{
-			throw new IllegalArgumentException ("ProgressUpdater:textCompParam = null");	// NOI18N
+			throw new IllegalArgumentException ("ProgressUpdater:consoleParam = null");	// NOI18N
+		}
+		if ( listenerParam == null )
+		{
+			throw new IllegalArgumentException ("ProgressUpdater:listenerParam = null");	// NOI18N
 		}
 
-		if ( totalFS <= 0 )
+		if ( isErrorStream )
 		{
-			totalFS = 1;
+			parser = null;
+			errorParser = new ErrorLineParser (listenerParam, jobId);
 		}
-		totalFSnum = totalFS;
-		if ( numberOfStages <= 0 )
+		else
 		{
-			numberOfStages = 3;
+			parser = new WfsOutputParser (totalFS, numberOfStages);
+			parser.setProgressListener (listenerParam, jobId);
+			parser.setCharCounter (WipeStats.getInstance ().getOutputCharsCounter ());
+			errorParser = null;
 		}
-		nStages = numberOfStages;
-		output = outputParam;
-		textComp = textCompParam;
-		stageBar = stageBarParam;
-		fsBar = fsBarParam;
-		totalBar = totalBarParam;
-		currentFS = currentFSParam;
+		// don't force a specific encoding, because the program
+		// might have been translated
+		reader = new InputStreamReader (outputParam);
+		console = consoleParam;
+	}
 
-		queue = Executors.newCachedThreadPool ();
+	private static OutputConsole createConsole (JTextComponent textCompParam)
+	{
+		if ( textCompParam == null )
+		{
+			throw new IllegalArgumentException ("ProgressUpdater:textCompParam = null");	// NOI18N
+		}
+		return new OutputConsole (textCompParam, OutputConsole.DEFAULT_MAX_LINES);
 	}
 
 	@Override
 	public Void call ()
 	{
-		lastFS = Utils.EMPTY_STR;
 		while ( ! isStopped )
 		{
+			int wasRead;
 			try
 			{
-				Thread.sleep (100);
+				// blocks until the program writes something or exits
+				wasRead = reader.read (buffer);
 			}
-			catch (InterruptedException intex)
+			catch (IOException ex)
 			{
-				Thread.currentThread().interrupt();
+				if ( ! isStopped )
+				{
+					Utils.handleException(ex, "ProgressUpdater.call->read");	// NOI18N
+				}
 				break;
 			}
-			if ( Thread.interrupted () || isStopped ) 
+			if ( wasRead < 0 || Thread.interrupted () || isStopped )
 			{
+				// end of stream - the program has finished
+				endOfInput ();
 				break;
 			}
-			// read & update
-			try
+			if ( wasRead == 0 )
 			{
-				if ( output.available () == 0 )
-				{
-					continue;
-				}
-			} catch (Exception ex) {continue;}
+				continue;
+			}
 			try
 			{
-				byte[] r = new byte[output.available ()];
-				int wasRead = output.read (r);
-				if ( wasRead <= 0 )
+				console.write (buffer, 0, wasRead);
+				// parse only the new part of the output, the parsers
+				// report the changes to the listener
+				if ( parser != null )
 				{
-					continue;
+					parser.consume (buffer, 0, wasRead);
 				}
-				r = Arrays.copyOf (r, wasRead);
-				// don't force a specific encoding, because the program
-				// might have been translated
-				final String read = new String (r, 0, wasRead);
-				UiUtils.changeGUI (new Runnable ()
+				else
 				{
-					@Override
-					public synchronized void run ()
-					{
-						textComp.setText (textComp.getText () + read);
-						String currText = textComp.getText ();
-						Matcher m = FS_PATTERN.matcher (currText);
-						String newFSname = lastFS;
-						// count the number of FS done already
-						String fs = Utils.EMPTY_STR;
-						int fsDone = 0;
-						while ( m.find () )
-						{
-							newFSname = m.group (1);
-							if ( ! newFSname.equals (fs) )
-							{
-								if ( ! fs.isEmpty() )
-								{
-									fsDone++;
-								}
-								fs = newFSname;
-							}
-						}
-						currentFS.setText (newFSname);
-						// the rest of the code is progress-related
-						if ( fsBar == null || stageBar == null
-							|| totalBar == null )
-						{
-							return;
-						}
-						if ( ! lastFS.equals(newFSname)
-							&& ! lastFS.equals(Utils.EMPTY_STR))
-						{
-							// new filesystem started. Substract the
-							// current filesystem progress and increase
-							// the total progress by 1 filesystem
-							stageBar.setValue(0);
-							fsBar.setValue(0);
-							totalBar.setValue
-								(((fsDone-1)
-								*(totalBar.getMaximum()
-								- totalBar.getMinimum()))
-								/totalFSnum);
-						}
-						lastFS = newFSname;
-						// === checking for new FS finished.
-						// now find the current progress
-						String[] lines = currText
-							.replaceAll ("[\r\n]+", "\r")	// NOI18N
-							.split ("\r");	// NOI18N
-						// find the first line of the current FS
-						int l = -1;
-						if ( lines != null )
-						{
-							for ( l = 0; l < lines.length; l++ )
-							{
-								if ( lines[l] == null )
-								{
-									continue;
-								}
-								if ( lines[l].startsWith
-									("wipefreespace:" + lastFS) )	// NOI18N
-								{
-									break;
-								}
-							}
-						}
-						if ( l >= 0 && lines != null )
-						{
-							// first line of the current FS found
-							int stage1progress = 0;
-							int stage2progress = 0;
-							int stage3progress = 0;
-							boolean hasStage1 = false;
-							boolean hasStage2 = false;
-							boolean hasStage3 = false;
-							// check for lines with stage characters
-							for ( int ln = l; ln < lines.length; ln++ )
-							{
-								// the length of the lines is the progress
-								if ( lines[ln].indexOf (STAGE_1_CHAR) == 0 )
-								{
-									stage1progress = lines[ln]
-										.trim ().length ();
-									hasStage1 = true;
-								}
-								else if ( lines[ln].indexOf (STAGE_2_CHAR) == 0 )
-								{
-									stage2progress = lines[ln]
-										.trim ().length ();
-									hasStage2 = true;
-								}
-								else if ( lines[ln].indexOf (STAGE_3_CHAR) == 0 )
-								{
-									stage3progress = lines[ln]
-										.trim ().length ();
-									hasStage3 = true;
-								}
-							}
-							// stage progresses are in the range 0 - 100
-							if ( stage1progress < 100 && hasStage1 )
-							{
-								stageBar.setValue (
-									(stage1progress*
-									(stageBar.getMaximum ()
-									- stageBar.getMinimum ()))/100);
-							}
-							else if ( stage2progress < 100 && hasStage2 )
-							{
-								stageBar.setValue (
-									(stage2progress*
-									(stageBar.getMaximum ()
-									- stageBar.getMinimum ()))/100);
-							}
-							else if ( stage3progress < 100 && hasStage3 )
-							{
-								stageBar.setValue (
-									(stage3progress*
-									(stageBar.getMaximum ()
-									- stageBar.getMinimum ()))/100);
-							}
-							else if ( (stage1progress == 100 && hasStage1)
-								|| (stage2progress == 100 && hasStage2)
-								|| (stage3progress == 100 && hasStage3) )
-							{
-								stageBar.setValue (
-									stageBar.getMaximum ());
-							}
-							fsBar.setValue (((stage1progress
-								+stage2progress
-								+stage3progress)*
-								(fsBar.getMaximum ()
-								- fsBar.getMinimum ()))/(nStages*100));
-							totalBar.setValue (fsDone
-								*(totalBar.getMaximum ()
-								- totalBar.getMinimum ())
-								/(totalFSnum * totalBar.getMaximum ())
-								+ fsBar.getValue ()*
-									(fsBar.getMaximum ()
-									- fsBar.getMinimum ())
-									/ (totalFSnum * fsBar.getMaximum())
-								);
-						}
-					}
-				});
+					errorParser.consume (buffer, 0, wasRead);
+				}
+				// the update is merged with the pending ones, if any
+				UiUtils.changeGUILater (consoleFlush);
 			}
 			catch (Exception ex)
 			{
@@ -301,23 +229,48 @@ public class ProgressUpdater implements Callable<Void>
 		return null;
 	}
 
+	private void endOfInput ()
+	{
+		try
+		{
+			if ( parser != null )
+			{
+				parser.endOfInput ();
+			}
+			else
+			{
+				errorParser.endOfInput ();
+			}
+		}
+		catch (Exception ex)
+		{
+			Utils.handleException(ex, "ProgressUpdater.endOfInput");	// NOI18N
+		}
+	}
+
 	/**
 	 * Starts this ProgressUpdater.
 	 */
 	public synchronized void startProcessing ()
 	{
-		while ( queue.submit (this) == null )
+		if ( task == null )
 		{
-			queue = Executors.newCachedThreadPool ();
+			task = ReaderExecutor.submit (this);
 		}
 	}
 
 	/**
-	 * Stops this ProgressUpdater.
+	 * Stops this ProgressUpdater. The thread reading the stream finishes
+	 * when the stream ends, which happens when the program exits or is
+	 * destroyed.
 	 */
 	public synchronized void stop ()
 	{
 		isStopped = true;
-		queue.shutdown ();
+		if ( task != null )
+		{
+			// drops the reader if it's still waiting for a thread
+			task.cancel (false);
+		}
 	}
 }
@@ -0,0 +1,256 @@
+/*
+ * SwingProgressListener.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui.gui;
+
+import bogdrosoft.wfsgui.ProgressAdapter;
+import bogdrosoft.wfsgui.ProgressAggregator;
+import bogdrosoft.wfsgui.ProgressRateEstimator;
+import bogdrosoft.wfsgui.Utils;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JLabel;
+import javax.swing.JProgressBar;
+
+/**
+ * A ProgressListener which displays the progress in the given progress
+ * bars and a label. The events only store the new state, the display
+ * is updated later on the Event Dispatching Thread, merged with the
+ * pending updates.
+ * When many jobs run at the same time, the stage and filesystem progress
+ * bars and the label show one job - the first one which reports its
+ * progress, until it exits. The total progress bar shows the progress
+ * of the whole run, from the given ProgressAggregator.
+ * If a ProgressRateEstimator is given, the filesystem and total progress
+ * bars also show the speed and the time left, like "15% (12.3 MB/s, 0:05:12)".
+ * These texts are made only when the display is updated, so the threads
+ * which report the progress don't create any objects.
+ * @author Bogdan Drozdowski
+ */
+public class SwingProgressListener extends ProgressAdapter
+{
+	private final JProgressBar stageBar;
+	private final JProgressBar fsBar;
+	private final JProgressBar totalBar;
+	private final JLabel currentFS;
+	private final ProgressAggregator aggregator;
+	private final ProgressRateEstimator estimator;
+
+	// the state not displayed yet, read by the UI update:
+	private volatile String currentFSName = Utils.EMPTY_STR;
+	private volatile int stagePercent;
+	private volatile int fsPercent;
+	private final AtomicInteger totalPercent = new AtomicInteger (0);
+	// the job shown in the stage and filesystem bars, -1 if none:
+	private final AtomicInteger shownJob = new AtomicInteger (-1);
+	// used only on the Event Dispatching Thread:
+	private final ProgressRateEstimator.Estimate fsEstimate =
+		new ProgressRateEstimator.Estimate ();
+	private final ProgressRateEstimator.Estimate totalEstimate =
+		new ProgressRateEstimator.Estimate ();
+	private final Runnable uiUpdate = new Runnable ()
+	{
+		@Override
+		public void run ()
+		{
+			updateUi ();
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "SwingProgressListener.uiUpdate";	// NOI18N
+		}
+	};
+
+	/**
+	 * Creates a new instance of SwingProgressListener.
+	 * @param stageBarParam The progress bar describing the current stage.
+	 * @param fsBarParam The progress bar describing the current filesystem wiping progress.
+	 * @param totalBarParam The progress bar describing the total progress.
+	 * @param currentFSParam The label to put the current filesystem's name in.
+	 * @param aggregatorParam The aggregator of the progress of all the
+	 *	jobs, or null to display the progress of the single jobs.
+	 */
+	public SwingProgressListener (JProgressBar stageBarParam,
+		JProgressBar fsBarParam, JProgressBar totalBarParam,
+		JLabel currentFSParam, ProgressAggregator aggregatorParam)
+	{
+		this (stageBarParam, fsBarParam, totalBarParam, currentFSParam,
+			aggregatorParam, null);
+	}
+
+	/**
+	 * Creates a new instance of SwingProgressListener.
+	 * @param stageBarParam The progress bar describing the current stage.
+	 * @param fsBarParam The progress bar describing the current filesystem wiping progress.
+	 * @param totalBarParam The progress bar describing the total progress.
+	 * @param currentFSParam The label to put the current filesystem's name in.
+	 * @param aggregatorParam The aggregator of the progress of all the
+	 *	jobs, or null to display the progress of the single jobs.
+	 * @param estimatorParam The estimator of the speed and the time left
+	 *	or null to not display them. It gets the events from this listener,
+	 *	so it shouldn't be registered as a listener by itself.
+	 */
+	public SwingProgressListener (JProgressBar stageBarParam,
+		JProgressBar fsBarParam, JProgressBar totalBarParam,
+		JLabel currentFSParam, ProgressAggregator aggregatorParam,
+		ProgressRateEstimator estimatorParam)
+	{
+		stageBar = stageBarParam;
+		fsBar = fsBarParam;
+		totalBar = totalBarParam;
+		currentFS = currentFSParam;
+		aggregator = aggregatorParam;
+		estimator = estimatorParam;
+	}
+
+	@Override
+	public void fsStarted (int jobId, String fsName)
+	{
+		if ( estimator != null )
+		{
+			estimator.fsStarted (jobId, fsName);
+		}
+		if ( ! isShown (jobId) )
+		{
+			return;
+		}
+		currentFSName = fsName;
+		UiUtils.changeGUILater (uiUpdate);
+	}
+
+	@Override
+	public void stageProgress (int jobId, String fsName, int stage,
+		int fs, int total)
+	{
+		if ( estimator != null )
+		{
+			estimator.stageProgress (jobId, fsName, stage, fs, total);
+		}
+		boolean shown = isShown (jobId);
+		if ( aggregator != null )
+		{
+			setTotal (aggregator.update (jobId, total));
+		}
+		else if ( shown )
+		{
+			totalPercent.set (total);
+		}
+		else
+		{
+			// another job's progress and nothing to combine it with
+			return;
+		}
+		if ( shown )
+		{
+			currentFSName = fsName;
+			stagePercent = stage;
+			fsPercent = fs;
+		}
+		// the update is merged with the pending ones, if any
+		UiUtils.changeGUILater (uiUpdate);
+	}
+
+	@Override
+	public void processExited (int jobId, int exitCode)
+	{
+		if ( estimator != null )
+		{
+			estimator.processExited (jobId, exitCode);
+		}
+		// the next job reporting its progress will be shown
+		shownJob.compareAndSet (jobId, -1);
+		if ( aggregator != null )
+		{
+			// count the job as done in the total progress
+			setTotal (aggregator.update (jobId, 100));
+			UiUtils.changeGUILater (uiUpdate);
+		}
+	}
+
+	private boolean isShown (int jobId)
+	{
+		return shownJob.compareAndSet (-1, jobId) || shownJob.get () == jobId;
+	}
+
+	private void setTotal (int percent)
+	{
+		// the aggregator's total never goes back, but the threads can
+		// get here in any order, so don't overwrite a newer value
+		int old;
+		do
+		{
+			old = totalPercent.get ();
+			if ( percent <= old )
+			{
+				return;
+			}
+		} while ( ! totalPercent.compareAndSet (old, percent) );
+	}
+
+	private static String getText (int percent, ProgressRateEstimator.Estimate e)
+	{
+		String desc = e.getDescription ();
+		if ( desc.isEmpty () )
+		{
+			// the default text of the progress bar
+			return null;
+		}
+		return percent + "% (" + desc + ")";	// NOI18N
+	}
+
+	private void updateUi ()
+	{
+		String newFSname = currentFSName;
+		if ( currentFS != null && ! newFSname.isEmpty () )
+		{
+			currentFS.setText (newFSname);
+		}
+		// the rest of the code is progress-related
+		if ( fsBar == null || stageBar == null
+			|| totalBar == null )
+		{
+			return;
+		}
+		setPercent (stageBar, stagePercent);
+		setPercent (fsBar, fsPercent);
+		int total = totalPercent.get ();
+		setPercent (totalBar, total);
+		if ( estimator != null )
+		{
+			fsBar.setString (getText (fsPercent,
+				estimator.getFsEstimate (shownJob.get (), fsEstimate)));
+			totalBar.setString (getText (total,
+				estimator.getTotalEstimate (totalEstimate)));
+		}
+	}
+
+	private static void setPercent (JProgressBar bar, int percent)
+	{
+		bar.setValue (bar.getMinimum ()
+			+ (percent * (bar.getMaximum () - bar.getMinimum ())) / 100);
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "SwingProgressListener";	// NOI18N
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * UiUpdateDispatcher.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bogdrosoft.wfsgui.gui;
+
+import bogdrosoft.wfsgui.DaemonThreadFactory;
+import bogdrosoft.wfsgui.Utils;
+import bogdrosoft.wfsgui.WipeStats;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+
+/**
+ * A class that runs UI updates from many producer threads on the
+ * EventDispatchThread, at most once per a given interval.
+ * The producers are never blocked. An update dispatched again before it
+ * was run is run only once, so the producers should keep their latest
+ * state themselves and the update should just display it.
+ * The updates are counted in WipeStats.
+ * @author Bogdan Drozdowski
+ */
+public class UiUpdateDispatcher
+{
+	/** The default interval between the UI updates, in milliseconds (about 30 per second). */
+	public static final long DEFAULT_INTERVAL = 33;
+
+	private static final ScheduledExecutorService TIMER =
+		Executors.newSingleThreadScheduledExecutor (
+			new DaemonThreadFactory ("wfsgui-ui-timer"));	// NOI18N
+
+	private final long intervalNanos;
+	private final Set<Runnable> pending = Collections.newSetFromMap
+		(new ConcurrentHashMap<Runnable, Boolean> ());
+	private final AtomicBoolean scheduled = new AtomicBoolean (false);
+	private volatile long lastFlush;
+
+	private final Runnable flushTask = new Runnable ()
+	{
+		@Override
+		public void run ()
+		{
+			flush ();
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "UiUpdateDispatcher.flushTask";	// NOI18N
+		}
+	};
+
+	private final Runnable delayedFlushTask = new Runnable ()
+	{
+		@Override
+		public void run ()
+		{
+			SwingUtilities.invokeLater (flushTask);
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "UiUpdateDispatcher.delayedFlushTask";	// NOI18N
+		}
+	};
+
+	/**
+	 * Creates a new instance of UiUpdateDispatcher.
+	 * @param intervalMillis The minimum interval between the UI updates, in milliseconds.
+	 */
+	public UiUpdateDispatcher (long intervalMillis)
+	{
+		if ( intervalMillis < 0 )
+		{
+			intervalMillis = 0;
+		}
+		intervalNanos = TimeUnit.MILLISECONDS.toNanos (intervalMillis);
+		lastFlush = System.nanoTime () - intervalNanos;
+	}
+
+	/**
+	 * Schedules the given update to be run on the EventDispatchThread
+	 * during the next UI update. Doesn't wait for it to be run.
+	 * @param update The code to run.
+	 */
+	public void dispatch (Runnable update)
+	{
+		if ( update == null )
+		{
+			return;
+		}
+		boolean added = pending.add (update);
+		WipeStats.getInstance ().addUiUpdate (! added);
+		if ( added )
+		{
+			schedule ();
+		}
+	}
+
+	private void schedule ()
+	{
+		if ( ! scheduled.compareAndSet (false, true) )
+		{
+			// an update is already scheduled and will run the new one
+			return;
+		}
+		long delay = lastFlush + intervalNanos - System.nanoTime ();
+		if ( delay <= 0 )
+		{
+			SwingUtilities.invokeLater (flushTask);
+		}
+		else
+		{
+			TIMER.schedule (delayedFlushTask, delay, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void flush ()
+	{
+		lastFlush = System.nanoTime ();
+		// updates dispatched from now on need a new flush
+		scheduled.set (false);
+		Iterator<Runnable> it = pending.iterator ();
+		while ( it.hasNext () )
+		{
+			Runnable r = it.next ();
+			it.remove ();
+			try
+			{
+				r.run ();
+			}
+			catch (Throwable ex)
+			{
+				Utils.handleException (ex, "UiUpdateDispatcher.flush->r.run");	// NOI18N
+			}
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "UiUpdateDispatcher";	// NOI18N
+	}
+}
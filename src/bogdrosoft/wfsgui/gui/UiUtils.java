@@ -53,6 +53,9 @@ public class UiUtils
 
 	private static final WfsProgramFileChooser WFS_FC = new WfsProgramFileChooser();
 
+	private static final UiUpdateDispatcher UI_DISPATCHER =
+		new UiUpdateDispatcher(UiUpdateDispatcher.DEFAULT_INTERVAL);
+
 	private UiUtils ()
 	{
 		// non-instantiable
@@ -120,6 +123,18 @@ public class UiUtils
 		}
 	}
 
+	/**
+	 * Method used to change the GUI often, from many threads - runs
+	 * r.run () on the EventDispatchThread during the next UI update and
+	 * doesn't wait for it. The same Runnable dispatched many times before
+	 * the update is run only once, at most about 30 times per second.
+	 * @param r The code to run.
+	 */
+	public static void changeGUILater(final Runnable r)
+	{
+		UI_DISPATCHER.dispatch(r);
+	}
+
 	/**
 	 * Set the given font size in all the components in the given
 	 * Component (recursively, if it's a Container).
@@ -19,12 +19,26 @@
  */
 package bogdrosoft.wfsgui.gui;
 
-import bogdrosoft.wfsgui.CommandLineParser;
 import bogdrosoft.wfsgui.ConfigFile;
+import bogdrosoft.wfsgui.ConfigFileCache;
+import bogdrosoft.wfsgui.ConfigFileWatcher;
+import bogdrosoft.wfsgui.DeviceResolver;
+import bogdrosoft.wfsgui.ProgressAggregator;
+import bogdrosoft.wfsgui.ProgressEventDispatcher;
+import bogdrosoft.wfsgui.ProgressRateEstimator;
+import bogdrosoft.wfsgui.ReaderExecutor;
 import bogdrosoft.wfsgui.Starter;
 import bogdrosoft.wfsgui.Utils;
+import bogdrosoft.wfsgui.WfsLauncher;
+import bogdrosoft.wfsgui.WipeJob;
+import bogdrosoft.wfsgui.WipeOptions;
+import bogdrosoft.wfsgui.WipeScheduler;
+import bogdrosoft.wfsgui.WipeStats;
 import java.awt.Color;
+import java.awt.Desktop;
 import java.awt.Frame;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -32,11 +46,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.Vector;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.swing.JFileChooser;
+import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
+import javax.swing.JPopupMenu;
+import javax.swing.JTextArea;
 import javax.swing.ListModel;
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 
 /**
@@ -60,6 +77,9 @@ public class WfsMainWindow extends javax.swing.JFrame
 	private static final String NOTHING_TO_WIPE = MAIN_BUNDLE.getString("NOTHING_TO_WIPE");
 	private static final String FILE_EXISTS_OVERWRITE = MAIN_BUNDLE.getString("exists_Overwrite");
 	private static final String FILE_NOT_WRITABLE = MAIN_BUNDLE.getString("Cant_write_to_file");
+	private static final String OPEN_FULL_OUTPUT = MAIN_BUNDLE.getString("open_full_output");
+	private static final String NO_FULL_OUTPUT = MAIN_BUNDLE.getString("no_full_output");
+	private static final String CANNOT_OPEN_FULL_OUTPUT = MAIN_BUNDLE.getString("cant_open_full_output");
 
 	/** Current version number as a String. */
 	public static final String WFSGUI_VERSION =
@@ -67,25 +87,57 @@ public class WfsMainWindow extends javax.swing.JFrame
 		.getString("VER");	// NOI18N
 
 	private static final Object WFS_SYNC = new Object();
-	private transient Process wfs = null;
-	private transient ProgressUpdater stdoutUpdater;
-	private transient ProgressUpdater stderrUpdater;
-	private transient SwingWorker<Void, Void> wfsMonitor = null;
+	private transient WipeScheduler scheduler = null;
+	// not guarded by WFS_SYNC, because the scheduler adds to it
+	private final transient List<ProgressUpdater> updaters =
+		new CopyOnWriteArrayList<ProgressUpdater> ();
+	private int maxJobs;
+	private int maxJobsPerDisk;
+	private final transient DeviceResolver deviceResolver = new DeviceResolver ();
+	private final transient OutputConsole outputConsole;
+	private final transient OutputConsole errorsConsole;
+	private final transient WipeOptions options;
 
 	private JFileChooser fsChooser;
 	private JFileChooser cfgFC;
 	private JFileChooser progFC;
+	// the last configuration applied from a file, for applying only the changes:
+	private transient ConfigFile loadedConfig;
+	private transient ConfigFileWatcher configWatcher;
+	// the named sections (separate jobs) of the last configuration file:
+	private transient List<ConfigFile> configSections;
 
 	/**
-	 * Creates new form WfsMainWindow.
+	 * Creates new form WfsMainWindow with the default options.
 	 */
 	WfsMainWindow()
 	{
+		this (WipeOptions.DEFAULT);
+	}
+
+	/**
+	 * Creates new form WfsMainWindow.
+	 * @param opts The options to show in the window.
+	 */
+	WfsMainWindow(WipeOptions opts)
+	{
+		if ( opts == null )
+		{
+			throw new IllegalArgumentException ("WfsMainWindow:opts = null");	// NOI18N
+		}
+		options = opts;
 		// set uncaught exception handler for GUI threads, just in case:
 		Utils.UncExHndlr.setHandlerForGuiThreads(this);
 
 		initComponents();
 
+		outputConsole = new OutputConsole (wfsOutputTextArea,
+			OutputConsole.DEFAULT_MAX_LINES);
+		errorsConsole = new OutputConsole (wfsErrorsTextArea,
+			OutputConsole.DEFAULT_MAX_LINES);
+		addFullOutputMenu (wfsOutputTextArea, outputConsole);
+		addFullOutputMenu (wfsErrorsTextArea, errorsConsole);
+
 		/* add the Esc key listener to the frame and all components. */
 		new EscKeyListener (this).install();
 
@@ -93,94 +145,111 @@ public class WfsMainWindow extends javax.swing.JFrame
 		optForceCheckBox.setForeground (GREEN_LABEL_COLOR);
 
 		// read the command line:
-		optAllZerosCheckBox.setSelected(CommandLineParser.isOnlyZeros());
-		optBlocksizeCheckBox.setSelected(CommandLineParser.isBlkSize());
-		if ( CommandLineParser.getBlkSizeValue() != null )
+		optAllZerosCheckBox.setSelected(opts.isOnlyZeros());
+		optBlocksizeCheckBox.setSelected(opts.isBlkSize());
+		if ( opts.getBlkSizeValue() != null )
 		{
-			blocksizeTextField.setText(CommandLineParser.getBlkSizeValue());
+			blocksizeTextField.setText(opts.getBlkSizeValue());
 		}
 		else
 		{
 			blocksizeTextField.setText("");
 		}
-		optForceCheckBox.setSelected(CommandLineParser.isForce());
-		optIoctlCheckBox.setSelected(CommandLineParser.isIoctl());
-		optIterCheckBox.setSelected(CommandLineParser.isIter());
-		if ( CommandLineParser.getIterationsValue() != null )
+		optForceCheckBox.setSelected(opts.isForce());
+		optIoctlCheckBox.setSelected(opts.isIoctl());
+		optIterCheckBox.setSelected(opts.isIter());
+		if ( opts.getIterationsValue() != null )
 		{
-			iterationsTextField.setText(CommandLineParser.getIterationsValue());
+			iterationsTextField.setText(opts.getIterationsValue());
 		}
 		else
 		{
 			iterationsTextField.setText("");
 		}
-		optLastZeroCheckBox.setSelected(CommandLineParser.islastZero());
-		optMethodCheckBox.setSelected(CommandLineParser.isMethod());
-		optNoPartCheckBox.setSelected(CommandLineParser.isNopart());
-		optNoUnrmCheckBox.setSelected(CommandLineParser.isNounrm());
-		optNoWfsCheckBox.setSelected(CommandLineParser.isNowfs());
-		optNoWipeZeroBlkCheckBox.setSelected(CommandLineParser.isNoWipeZeroBlocks());
-		optSuperblockCheckBox.setSelected(CommandLineParser.isSuperOff());
-		optUseDedicatedCheckBox.setSelected(CommandLineParser.isUseDedicated());
-		optOrderCheckBox.setSelected(CommandLineParser.isOrder());
-		if ( CommandLineParser.getWipingOrder() != null )
+		optLastZeroCheckBox.setSelected(opts.isLastZero());
+		optMethodCheckBox.setSelected(opts.isMethod());
+		optNoPartCheckBox.setSelected(opts.isNopart());
+		optNoUnrmCheckBox.setSelected(opts.isNounrm());
+		optNoWfsCheckBox.setSelected(opts.isNowfs());
+		optNoWipeZeroBlkCheckBox.setSelected(opts.isNoWipeZeroBlocks());
+		optSuperblockCheckBox.setSelected(opts.isSuperOff());
+		optUseDedicatedCheckBox.setSelected(opts.isUseDedicated());
+		optOrderCheckBox.setSelected(opts.isOrder());
+		if ( opts.getWipingOrder() != null )
 		{
-			wipingOrderComboBox.setSelectedItem (CommandLineParser.getWipingOrder());
+			wipingOrderComboBox.setSelectedItem (opts.getWipingOrder());
 		}
 		else
 		{
 			wipingOrderComboBox.setSelectedIndex(0);
 		}
-		if ( CommandLineParser.getSuperOffValue() != null)
+		if ( opts.getSuperOffValue() != null)
 		{
-			superblockTextField.setText(CommandLineParser.getSuperOffValue());
+			superblockTextField.setText(opts.getSuperOffValue());
 		}
 		else
 		{
 			superblockTextField.setText("");
 		}
-		if ( CommandLineParser.getMethodName() != null )
+		if ( opts.getMethodName() != null )
 		{
-			wipingMethodComboBox.setSelectedItem(CommandLineParser.getMethodName());
+			wipingMethodComboBox.setSelectedItem(opts.getMethodName());
 		}
 		else
 		{
 			wipingMethodComboBox.setSelectedIndex(0);
 		}
 		// filesystem list
-		List<String> fslist = CommandLineParser.getFsList();
+		List<String> fslist = opts.getFsList();
 		if ( fslist != null && !fslist.isEmpty() )
 		{
 			fsList.setListData(new Vector<String>(fslist));
 		}
-		if (CommandLineParser.getFontSize() > 0)
+		if (opts.getFontSize() > 0)
 		{
-			fontSizeSpinner.setValue (CommandLineParser.getFontSize());
+			fontSizeSpinner.setValue (opts.getFontSize());
 		}
 		else
 		{
 			fontSizeSpinner.setValue (fontSizeSpinner.getValue ());	// refresh the font in the window
 		}
-		pathToWfsTextField.setText(CommandLineParser.getWfsPath());
-		if ( CommandLineParser.isMax() )
+		pathToWfsTextField.setText(opts.getWfsPath());
+		configSections = opts.getConfigSections();
+		maxJobs = opts.getJobs();
+		maxJobsPerDisk = opts.getJobsPerDisk();
+		if ( opts.isMax() )
 		{
 			setExtendedState (Frame.MAXIMIZED_BOTH);
 		}
 		else
 		{
 			setExtendedState (getExtendedState () & ~ Frame.MAXIMIZED_BOTH);
-			if ( CommandLineParser.getX () > 0 && CommandLineParser.getY () > 0 )
+			if ( opts.getX () > 0 && opts.getY () > 0 )
 			{
-				setLocation (Math.max(0, CommandLineParser.getX ()),
-					Math.max(0, CommandLineParser.getY ()));
+				setLocation (Math.max(0, opts.getX ()),
+					Math.max(0, opts.getY ()));
 			}
-			if ( CommandLineParser.getWidth () > 0 && CommandLineParser.getHeight () > 0 )
+			if ( opts.getWidth () > 0 && opts.getHeight () > 0 )
 			{
-				setSize (Math.max(0, CommandLineParser.getWidth ()),
-					Math.max(0, CommandLineParser.getHeight ()));
+				setSize (Math.max(0, opts.getWidth ()),
+					Math.max(0, opts.getHeight ()));
 			}
 		}
 		UiUtils.changeSizeToScreen(this);
+		File cfgFile = opts.getConfigFile ();
+		if ( opts.isWatchConfig () && cfgFile != null )
+		{
+			try
+			{
+				// the command line overrides the file until the file changes
+				loadedConfig = ConfigFileCache.INSTANCE.read (cfgFile);
+				watchConfig (cfgFile);
+			}
+			catch (Exception ex)
+			{
+				Utils.handleException (ex, "readConfig: " + cfgFile.getAbsolutePath ());	// NOI18N
+			}
+		}
 	}
 
 	/**
@@ -827,6 +896,7 @@ public class WfsMainWindow extends javax.swing.JFrame
 		{
 			return;
 		}
+		stopConfigWatcher ();
 		dispose ();
 		Starter.closeProgram (0);
         }//GEN-LAST:event_exitButtonActionPerformed
@@ -1000,181 +1070,83 @@ public class WfsMainWindow extends javax.swing.JFrame
 
         private void startButtonActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_startButtonActionPerformed
         {//GEN-HEADEREND:event_startButtonActionPerformed
-		if ( optNoPartCheckBox.isSelected ()
-			&& optNoUnrmCheckBox.isSelected ()
-			&& optNoWfsCheckBox.isSelected () )
-		{
-			UiUtils.showErrorMessage(this, NOTHING_TO_WIPE);
-			return;
-		}
 		ListModel model = fsList.getModel ();
-		if ( model != null )
+		if ( model == null )
 		{
-			if ( model.getSize () == 0 )
-			{
-				UiUtils.showErrorMessage(this, NO_FILESYSTEMS);
-				return;
-			}
+			return;
 		}
-		else
+		// the sections of the configuration file are run, too
+		if ( model.getSize () == 0
+			&& WipeJob.createJobs (configSections, 0, false).isEmpty () )
 		{
+			UiUtils.showErrorMessage(this, NO_FILESYSTEMS);
 			return;
 		}
-		Runtime run = Runtime.getRuntime ();
-		if ( run == null )
+		if ( model.getSize () > 0
+			&& optNoPartCheckBox.isSelected ()
+			&& optNoUnrmCheckBox.isSelected ()
+			&& optNoWfsCheckBox.isSelected () )
 		{
-			UiUtils.showErrorMessage(this, CANNOT_EXECUTE);
+			UiUtils.showErrorMessage(this, NOTHING_TO_WIPE);
 			return;
 		}
 
-		// read the checkboxes and add parameters
-		List<String> params = new ArrayList<> (20); // 15 is the minimum.
-		String pathToProg = "wipefreespace";		// NOI18N
-		String pathText = pathToWfsTextField.getText ();
-		if ( pathText != null && ! pathText.isEmpty() )
-		{
-			pathToProg = pathText;
-		}
-		params.add (pathToProg);
-		if ( optBlocksizeCheckBox.isSelected () )
-		{
-			try
-			{
-				// check if blocksize is an integer:
-				Integer.parseInt (blocksizeTextField.getText ());
-				// if we got here, it is ok
-				params.add ("-B");	// NOI18N
-				params.add (blocksizeTextField.getText ());
-			}
-			catch (Exception ex)
-			{
-				Utils.handleException (ex,
-					"startButActionPerformed: " + blocksizeTextField.getText ());		// NOI18N
-			}
-		}
-		if ( optForceCheckBox.isSelected () )
-		{
-			params.add ("--force");		// NOI18N
-		}
-		if ( optIoctlCheckBox.isSelected () )
-		{
-			params.add ("--use-ioctl");	// NOI18N
-		}
-		if ( optIterCheckBox.isSelected () )
-		{
-			try
-			{
-				// check if the number of iterations is an integer:
-				Integer.parseInt (iterationsTextField.getText ());
-				// if we got here, it is ok
-				params.add ("-n");	// NOI18N
-				params.add (iterationsTextField.getText ());
-			}
-			catch (Exception ex)
-			{
-				Utils.handleException (ex,
-					"startButActionPerformed: " + iterationsTextField.getText ());		// NOI18N
-			}
-		}
-		if ( optLastZeroCheckBox.isSelected () )
-		{
-			params.add ("--last-zero");	// NOI18N
-		}
-		if ( optNoPartCheckBox.isSelected () )
-		{
-			params.add ("--nopart");	// NOI18N
-		}
-		if ( optNoUnrmCheckBox.isSelected () )
-		{
-			params.add ("--nounrm");	// NOI18N
-		}
-		if ( optNoWfsCheckBox.isSelected () )
-		{
-			params.add ("--nowfs");		// NOI18N
-		}
-		if ( optAllZerosCheckBox.isSelected () )
-		{
-			params.add ("--all-zeros");	// NOI18N
-		}
-		if ( optSuperblockCheckBox.isSelected () )
+		// the command is made from the options, so it's checked only once
+		WipeOptions opts = getWindowOptions ();
+		List<String> params = opts.getCommand ();
+		List<String> filesystems = opts.getFsList ();
+		int nStages = opts.getNumberOfStages ();
+		// start the Processes
+		try
 		{
-			try
+			// with one job, all the filesystems are wiped by one process
+			List<WipeJob> jobs = new ArrayList<WipeJob> ();
+			if ( ! filesystems.isEmpty () )
 			{
-				// check if the superblock offset is an integer:
-				Integer.parseInt (superblockTextField.getText ());
-				// if we got here, it is ok
-				params.add ("-b");	// NOI18N
-				params.add (superblockTextField.getText ());
+				jobs.addAll (WipeJob.createJobs (params,
+					filesystems, nStages, maxJobs > 1));
 			}
-			catch (Exception ex)
+			jobs.addAll (WipeJob.createJobs (configSections,
+				jobs.size (), maxJobs > 1));
+			StringBuilder cmdLines = new StringBuilder ();
+			for ( WipeJob job : jobs )
 			{
-				Utils.handleException (ex,
-					"startButActionPerformed: " + superblockTextField.getText ());		// NOI18N
+				if ( job.getName () != null )
+				{
+					cmdLines.append ('[').append (job.getName ()).append ("] ");	// NOI18N
+				}
+				cmdLines.append (job.getCommand ().toString ()
+					.replaceAll (Utils.COMMA, Utils.EMPTY_STR)).append ('\n');
 			}
-		}
-		if ( optMethodCheckBox.isSelected () )
-		{
-			params.add ("--method");	// NOI18N
-			params.add (wipingMethodComboBox.getSelectedItem ().toString ());
-		}
-		if ( optNoWipeZeroBlkCheckBox.isSelected () )
-		{
-			params.add ("--no-wipe-zero-blocks");	// NOI18N
-		}
-		if ( optUseDedicatedCheckBox.isSelected () )
-		{
-			params.add ("--use-dedicated");	// NOI18N
-		}
-		if ( optOrderCheckBox.isSelected() )
-		{
-			params.add ("--order");	// NOI18N
-			params.add (wipingOrderComboBox.getSelectedItem ().toString ());
-		}
-		params.add ("--verbose");	// always use verbose output	// NOI18N
-		for ( int i = 0; i < model.getSize (); i++ )
-		{
-			params.add (model.getElementAt (i).toString ());
-		}
-		// start the Process
-		try
-		{
-			wfsOutputTextArea.setText (params.toString ()
-				.replaceAll (Utils.COMMA, Utils.EMPTY_STR) + "\n");	// NOI18N
-			wfsErrorsTextArea.setText (Utils.EMPTY_STR);
+			outputConsole.reset (cmdLines.toString (), true);
+			errorsConsole.reset (Utils.EMPTY_STR, true);
 			stageProgressBar.setValue (0);
 			fsProgressBar.setValue (0);
 			totalProgressBar.setValue (0);
-			int nStages = 3;
-			if ( optNoPartCheckBox.isSelected () )
-			{
-				nStages--;
-			}
-			if ( optNoUnrmCheckBox.isSelected () )
-			{
-				nStages--;
-			}
-			if ( optNoWfsCheckBox.isSelected () )
-			{
-				nStages--;
-			}
+			// the default texts, without the speed from the previous run
+			fsProgressBar.setString (null);
+			totalProgressBar.setString (null);
 			synchronized (WFS_SYNC)
 			{
-				wfs = run.exec (params.toArray (/* just a type marker: */ new String[] {""}));	// NOI18N
-				// start Threads that read the program's stdout and stderr and put
-				// it in the text areas and update the progress bars accordingly.
-				stdoutUpdater = new ProgressUpdater (wfs.getInputStream (),
-					wfsOutputTextArea, stageProgressBar,
-					fsProgressBar, totalProgressBar,
-					nowWipingNameLabel, model.getSize (),  nStages);
-				stdoutUpdater.startProcessing ();
-				stderrUpdater = new ProgressUpdater (wfs.getErrorStream (),
-					wfsErrorsTextArea, null, null, null,
-					nowWipingNameLabel, model.getSize (),  nStages);
-				stderrUpdater.startProcessing ();
-
-				// a thread that waits for the program to finish and sets the GUI back:
-				wfsMonitor = new WfsMonitor(wfs);
-				wfsMonitor.execute ();
+				updaters.clear ();
+				// the scheduler's threads wait for the programs to finish
+				// and set the GUI back:
+				// one set of progress bars for all the jobs:
+				ProgressEventDispatcher events = new ProgressEventDispatcher ();
+				ProgressAggregator aggregator = new ProgressAggregator (jobs);
+				events.addListener (new SwingProgressListener
+					(stageProgressBar, fsProgressBar, totalProgressBar,
+					nowWipingNameLabel, aggregator,
+					new ProgressRateEstimator (aggregator)));
+				events.addListener (WipeStats.getInstance ()
+					.newRunListener (aggregator));
+				WfsLauncher launcher = WfsLauncher.fromOptions (options);
+				ReaderExecutor.setMaxProcesses (maxJobs);
+				scheduler = new WipeScheduler (maxJobs,
+					maxJobsPerDisk, deviceResolver,
+					new JobListener (events, launcher.hasErrorStream ()));
+				scheduler.setLauncher (launcher);
+				scheduler.start (jobs);
 			}
 		}
 		catch (FileNotFoundException ex)
@@ -1308,90 +1280,14 @@ public class WfsMainWindow extends javax.swing.JFrame
 
 			try
 			{
-				ConfigFile cfg = new ConfigFile (f);
-				cfg.read ();
-				optAllZerosCheckBox.setSelected(cfg.getAllZeros());
-				optBlocksizeCheckBox.setSelected(cfg.getBlockSize () > 0);
-				if ( cfg.getBlockSize () > 0 )
-				{
-					blocksizeTextField.setText(String.valueOf (cfg.getBlockSize ()));
-				}
-				else
-				{
-					blocksizeTextField.setText("");
-				}
-				optForceCheckBox.setSelected(cfg.getForce ());
-				optIoctlCheckBox.setSelected(cfg.getIoctl ());
-				optIterCheckBox.setSelected(cfg.getIterations () > 0);
-				if ( cfg.getIterations () > 0 )
-				{
-					iterationsTextField.setText(String.valueOf (cfg.getIterations ()));
-				}
-				else
-				{
-					iterationsTextField.setText("");
-				}
-				optLastZeroCheckBox.setSelected(cfg.getLastZero ());
-				optMethodCheckBox.setSelected(cfg.getIsMethod ());
-				optNoPartCheckBox.setSelected(cfg.getNoWipePart ());
-				optNoUnrmCheckBox.setSelected(cfg.getNoWipeUndel ());
-				optNoWfsCheckBox.setSelected(cfg.getNoWipeFreeSpace ());
-				optNoWipeZeroBlkCheckBox.setSelected(cfg.getIsNoWipeZeroBlocks ());
-				optSuperblockCheckBox.setSelected(cfg.getSuperOffset () >= 0);
-				if ( cfg.getSuperOffset () >= 0 )
-				{
-					superblockTextField.setText(String.valueOf (cfg.getSuperOffset ()));
-				}
-				else
-				{
-					superblockTextField.setText("");
-				}
-				optUseDedicatedCheckBox.setSelected(cfg.getIsUseDedicated ());
-				if (  cfg.getMethodName () != null && ! cfg.getMethodName ().isEmpty() )
-				{
-					wipingMethodComboBox.setSelectedItem (cfg.getMethodName ());
-				}
-				else
+				// unchanged files aren't parsed again
+				ConfigFile cfg = ConfigFileCache.INSTANCE.read (f);
+				applyConfig (cfg, null);
+				loadedConfig = cfg;
+				if ( options.isWatchConfig () )
 				{
-					wipingMethodComboBox.setSelectedIndex(0);
+					watchConfig (f);
 				}
-				optOrderCheckBox.setSelected(cfg.getIsOrder());
-				if (  cfg.getWipingOrder () != null && ! cfg.getWipingOrder ().isEmpty() )
-				{
-					wipingOrderComboBox.setSelectedItem (cfg.getWipingOrder ());
-				}
-				else
-				{
-					wipingOrderComboBox.setSelectedIndex(0);
-				}
-				// filesystem list
-				List<String> fslist = cfg.getFSList();
-				if ( fslist != null && !fslist.isEmpty() )
-				{
-					fsList.setListData(new Vector<String>(fslist));
-				}
-				if (cfg.getFontSizeValue () > 0)
-				{
-					fontSizeSpinner.setValue ((float)cfg.getFontSizeValue ());
-				}
-				else
-				{
-					fontSizeSpinner.setValue (fontSizeSpinner.getValue ());	// refresh the font in the window
-				}
-				pathToWfsTextField.setText(cfg.getWfsPath ());
-				if ( cfg.getIsMax () )
-				{
-					setExtendedState (Frame.MAXIMIZED_BOTH);
-				}
-				else
-				{
-					setExtendedState (getExtendedState () & ~ Frame.MAXIMIZED_BOTH);
-					setLocation (Math.max(0, cfg.getX ()),
-						Math.max(0, cfg.getY ()));
-					setSize (Math.max(0, cfg.getWidth ()),
-						Math.max(0, cfg.getHeight ()));
-				}
-				UiUtils.changeSizeToScreen(this);
 			}
 			catch (Exception ex)
 			{
@@ -1539,6 +1435,10 @@ public class WfsMainWindow extends javax.swing.JFrame
 				}
 				cfg.setUseDedicated(optUseDedicatedCheckBox.isSelected());
 				cfg.setNoWipeZeroBlocks(optNoWipeZeroBlkCheckBox.isSelected());
+				cfg.setJobs(maxJobs);
+				cfg.setJobsPerDisk(maxJobsPerDisk);
+				// the sections can't be changed in the window, so keep them
+				cfg.setSections(configSections);
 				cfg.write ();
 			}
 			catch (Exception ex)
@@ -1649,6 +1549,7 @@ public class WfsMainWindow extends javax.swing.JFrame
 		{
 			return;
 		}
+		stopConfigWatcher ();
 		dispose ();
 		Starter.closeProgram (0);
         }//GEN-LAST:event_formWindowClosing
@@ -1708,6 +1609,305 @@ public class WfsMainWindow extends javax.swing.JFrame
 		wipingOrderComboBox.setEnabled(optOrderCheckBox.isSelected());
         }//GEN-LAST:event_optOrderCheckBoxStateChanged
 
+	/**
+	 * Sets the window's options from the given configuration. Only the
+	 * options which differ from the previous configuration are set, so
+	 * that reloading a file doesn't undo the user's other changes.
+	 * @param cfg The configuration to apply.
+	 * @param previous The previously applied configuration or null to
+	 *	set all the options.
+	 */
+	private void applyConfig (ConfigFile cfg, ConfigFile previous)
+	{
+		boolean all = previous == null;
+		if ( all || cfg.getAllZeros () != previous.getAllZeros () )
+		{
+			optAllZerosCheckBox.setSelected(cfg.getAllZeros());
+		}
+		if ( all || cfg.getBlockSize () != previous.getBlockSize () )
+		{
+			optBlocksizeCheckBox.setSelected(cfg.getBlockSize () > 0);
+			if ( cfg.getBlockSize () > 0 )
+			{
+				blocksizeTextField.setText(String.valueOf (cfg.getBlockSize ()));
+			}
+			else
+			{
+				blocksizeTextField.setText("");
+			}
+		}
+		if ( all || cfg.getForce () != previous.getForce () )
+		{
+			optForceCheckBox.setSelected(cfg.getForce ());
+		}
+		if ( all || cfg.getIoctl () != previous.getIoctl () )
+		{
+			optIoctlCheckBox.setSelected(cfg.getIoctl ());
+		}
+		if ( all || cfg.getIterations () != previous.getIterations () )
+		{
+			optIterCheckBox.setSelected(cfg.getIterations () > 0);
+			if ( cfg.getIterations () > 0 )
+			{
+				iterationsTextField.setText(String.valueOf (cfg.getIterations ()));
+			}
+			else
+			{
+				iterationsTextField.setText("");
+			}
+		}
+		if ( all || cfg.getLastZero () != previous.getLastZero () )
+		{
+			optLastZeroCheckBox.setSelected(cfg.getLastZero ());
+		}
+		if ( all || cfg.getIsMethod () != previous.getIsMethod () )
+		{
+			optMethodCheckBox.setSelected(cfg.getIsMethod ());
+		}
+		if ( all || cfg.getNoWipePart () != previous.getNoWipePart () )
+		{
+			optNoPartCheckBox.setSelected(cfg.getNoWipePart ());
+		}
+		if ( all || cfg.getNoWipeUndel () != previous.getNoWipeUndel () )
+		{
+			optNoUnrmCheckBox.setSelected(cfg.getNoWipeUndel ());
+		}
+		if ( all || cfg.getNoWipeFreeSpace () != previous.getNoWipeFreeSpace () )
+		{
+			optNoWfsCheckBox.setSelected(cfg.getNoWipeFreeSpace ());
+		}
+		if ( all || cfg.getIsNoWipeZeroBlocks () != previous.getIsNoWipeZeroBlocks () )
+		{
+			optNoWipeZeroBlkCheckBox.setSelected(cfg.getIsNoWipeZeroBlocks ());
+		}
+		if ( all || cfg.getSuperOffset () != previous.getSuperOffset () )
+		{
+			optSuperblockCheckBox.setSelected(cfg.getSuperOffset () >= 0);
+			if ( cfg.getSuperOffset () >= 0 )
+			{
+				superblockTextField.setText(String.valueOf (cfg.getSuperOffset ()));
+			}
+			else
+			{
+				superblockTextField.setText("");
+			}
+		}
+		if ( all || cfg.getIsUseDedicated () != previous.getIsUseDedicated () )
+		{
+			optUseDedicatedCheckBox.setSelected(cfg.getIsUseDedicated ());
+		}
+		if ( all || isChanged (cfg.getMethodName (), previous.getMethodName ()) )
+		{
+			if (  cfg.getMethodName () != null && ! cfg.getMethodName ().isEmpty() )
+			{
+				wipingMethodComboBox.setSelectedItem (cfg.getMethodName ());
+			}
+			else
+			{
+				wipingMethodComboBox.setSelectedIndex(0);
+			}
+		}
+		if ( all || cfg.getIsOrder () != previous.getIsOrder () )
+		{
+			optOrderCheckBox.setSelected(cfg.getIsOrder());
+		}
+		maxJobs = cfg.getJobs();
+		maxJobsPerDisk = cfg.getJobsPerDisk();
+		configSections = cfg.getSections();
+		if ( all || isChanged (cfg.getWipingOrder (), previous.getWipingOrder ()) )
+		{
+			if (  cfg.getWipingOrder () != null && ! cfg.getWipingOrder ().isEmpty() )
+			{
+				wipingOrderComboBox.setSelectedItem (cfg.getWipingOrder ());
+			}
+			else
+			{
+				wipingOrderComboBox.setSelectedIndex(0);
+			}
+		}
+		// filesystem list
+		List<String> fslist = cfg.getFSList();
+		if ( (all || isChanged (fslist, previous.getFSList ()))
+			&& fslist != null && !fslist.isEmpty() )
+		{
+			fsList.setListData(new Vector<String>(fslist));
+		}
+		if ( all || cfg.getFontSizeValue () != previous.getFontSizeValue () )
+		{
+			if (cfg.getFontSizeValue () > 0)
+			{
+				fontSizeSpinner.setValue ((float)cfg.getFontSizeValue ());
+			}
+			else
+			{
+				fontSizeSpinner.setValue (fontSizeSpinner.getValue ());	// refresh the font in the window
+			}
+		}
+		if ( all || isChanged (cfg.getWfsPath (), previous.getWfsPath ()) )
+		{
+			pathToWfsTextField.setText(cfg.getWfsPath ());
+		}
+		if ( all || cfg.getIsMax () != previous.getIsMax ()
+			|| cfg.getX () != previous.getX ()
+			|| cfg.getY () != previous.getY ()
+			|| cfg.getWidth () != previous.getWidth ()
+			|| cfg.getHeight () != previous.getHeight () )
+		{
+			if ( cfg.getIsMax () )
+			{
+				setExtendedState (Frame.MAXIMIZED_BOTH);
+			}
+			else
+			{
+				setExtendedState (getExtendedState () & ~ Frame.MAXIMIZED_BOTH);
+				setLocation (Math.max(0, cfg.getX ()),
+					Math.max(0, cfg.getY ()));
+				setSize (Math.max(0, cfg.getWidth ()),
+					Math.max(0, cfg.getHeight ()));
+			}
+			UiUtils.changeSizeToScreen(this);
+		}
+	}
+
+	/**
+	 * Reads the wiping options and the filesystems from the window.
+	 * Must be called on the EDT, but the result can be used on any thread.
+	 * @return the options selected in the window.
+	 */
+	private WipeOptions getWindowOptions ()
+	{
+		WipeOptions.Builder b = new WipeOptions.Builder ();
+		b.setWfsPath (pathToWfsTextField.getText ());
+		b.setBlkSize (optBlocksizeCheckBox.isSelected ());
+		b.setBlkSizeValue (blocksizeTextField.getText ());
+		b.setForce (optForceCheckBox.isSelected ());
+		b.setIoctl (optIoctlCheckBox.isSelected ());
+		b.setIter (optIterCheckBox.isSelected ());
+		b.setIterationsValue (iterationsTextField.getText ());
+		b.setLastZero (optLastZeroCheckBox.isSelected ());
+		b.setNopart (optNoPartCheckBox.isSelected ());
+		b.setNounrm (optNoUnrmCheckBox.isSelected ());
+		b.setNowfs (optNoWfsCheckBox.isSelected ());
+		b.setOnlyZeros (optAllZerosCheckBox.isSelected ());
+		b.setSuperOff (optSuperblockCheckBox.isSelected ());
+		b.setSuperOffValue (superblockTextField.getText ());
+		Object wipingMethod = wipingMethodComboBox.getSelectedItem ();
+		b.setMethod (optMethodCheckBox.isSelected () && wipingMethod != null);
+		if ( wipingMethod != null )
+		{
+			b.setMethodName (wipingMethod.toString ());
+		}
+		b.setNoWipeZeroBlocks (optNoWipeZeroBlkCheckBox.isSelected ());
+		b.setUseDedicated (optUseDedicatedCheckBox.isSelected ());
+		Object wipingOrder = wipingOrderComboBox.getSelectedItem ();
+		b.setOrder (optOrderCheckBox.isSelected () && wipingOrder != null);
+		if ( wipingOrder != null )
+		{
+			b.setWipingOrder (wipingOrder.toString ());
+		}
+		b.setJobs (maxJobs);
+		b.setJobsPerDisk (maxJobsPerDisk);
+		List<String> filesystems = new ArrayList<String> ();
+		ListModel<?> model = fsList.getModel ();
+		for ( int i = 0; model != null && i < model.getSize (); i++ )
+		{
+			filesystems.add (model.getElementAt (i).toString ());
+		}
+		b.setFsList (filesystems);
+		return b.build ();
+	}
+
+	private static boolean isChanged (Object newValue, Object oldValue)
+	{
+		return (newValue == null)? oldValue != null : ! newValue.equals (oldValue);
+	}
+
+	/**
+	 * Starts watching the given configuration file and applying its
+	 * changes, instead of the previously watched file.
+	 * @param f The file to watch.
+	 */
+	private void watchConfig (File f)
+	{
+		stopConfigWatcher ();
+		ConfigFileWatcher w = new ConfigFileWatcher (f,
+			ConfigFileWatcher.DEFAULT_DEBOUNCE_MILLIS, new ConfigReloader ());
+		try
+		{
+			w.start ();
+			configWatcher = w;
+		}
+		catch (Exception ex)
+		{
+			Utils.handleException (ex, "watchConfig: " + f.getAbsolutePath ());	// NOI18N
+		}
+	}
+
+	/**
+	 * Stops watching the configuration file, if any.
+	 */
+	private void stopConfigWatcher ()
+	{
+		if ( configWatcher != null )
+		{
+			configWatcher.stop ();
+			configWatcher = null;
+		}
+	}
+
+	/**
+	 * Adds a popup menu for opening the whole transcript of the program's
+	 * output to the given text area.
+	 * @param area The text area to add the menu to.
+	 * @param console The console displaying the output in the text area.
+	 */
+	private void addFullOutputMenu (JTextArea area, final OutputConsole console)
+	{
+		JPopupMenu menu = new JPopupMenu ();
+		JMenuItem openItem = new JMenuItem (OPEN_FULL_OUTPUT);
+		openItem.addActionListener (new ActionListener ()
+		{
+			@Override
+			public void actionPerformed (ActionEvent e)
+			{
+				openFullOutput (console);
+			}
+
+			@Override
+			public String toString ()
+			{
+				return "WfsMainWindow.addFullOutputMenu.ActionListener";	// NOI18N
+			}
+		});
+		menu.add (openItem);
+		area.setComponentPopupMenu (menu);
+	}
+
+	/**
+	 * Opens the whole transcript of the program's output in the default
+	 * application.
+	 * @param console The console displaying the output.
+	 */
+	private void openFullOutput (OutputConsole console)
+	{
+		File spool = console.getSpoolFile ();
+		if ( spool == null || ! spool.exists () )
+		{
+			UiUtils.showErrorMessage (this, NO_FULL_OUTPUT);
+			return;
+		}
+		try
+		{
+			Desktop.getDesktop ().open (spool);
+		}
+		catch (Exception ex)
+		{
+			Utils.handleException (ex, "openFullOutput: " + spool.getAbsolutePath ());	// NOI18N
+			UiUtils.showErrorMessage (this, CANNOT_OPEN_FULL_OUTPUT
+				+ Utils.COLON + Utils.SPACE + spool.getAbsolutePath ());
+		}
+	}
+
 	/**
 	 * Asks the user to force stop wiping.
 	 * @return true, if the user confirmed.
@@ -1716,9 +1916,7 @@ public class WfsMainWindow extends javax.swing.JFrame
 	{
 		synchronized (WFS_SYNC)
 		{
-			if ( wfsMonitor != null
-				&& wfsMonitor.getState() != SwingWorker.StateValue.PENDING
-				&& !wfsMonitor.isDone() )
+			if ( scheduler != null && scheduler.isRunning () )
 			{
 				// ask the user and kill the process.
 				try
@@ -1730,23 +1928,15 @@ public class WfsMainWindow extends javax.swing.JFrame
 					{
 						return false;
 					}
+					// stop the processes, so that no new job is started:
+					scheduler.cancel ();
+					scheduler = null;
 					// stop the Threads reading stdout and stderr
-					if ( stdoutUpdater != null )
+					for ( ProgressUpdater updater : updaters )
 					{
-						stdoutUpdater.stop ();
-					}
-					if ( stderrUpdater != null )
-					{
-						stderrUpdater.stop ();
-					}
-					// stop the process:
-					wfs.destroy ();
-					wfs = null;
-					if ( wfsMonitor != null )
-					{
-						wfsMonitor.cancel (true);//.interrupt ();
-						wfsMonitor = null;
+						updater.stop ();
 					}
+					updaters.clear ();
 				}
 				catch (Exception ex)
 				{
@@ -1760,13 +1950,10 @@ public class WfsMainWindow extends javax.swing.JFrame
 
 	/**
 	 * Real program starting point.
-	 * @param args the command line arguments.
+	 * @param opts the options from the command line.
 	 */
-	public static void start(String[] args)
+	public static void start(final WipeOptions opts)
 	{
-		// parse the command line:
-		CommandLineParser.parse (args);
-
 		/* Set the Nimbus look and feel */
 		//<editor-fold defaultstate="collapsed" desc=" Look and feel setting code (optional) ">
 		/* If Nimbus (introduced in Java SE 6) is not available, stay with the default look and feel.
@@ -1814,7 +2001,7 @@ public class WfsMainWindow extends javax.swing.JFrame
 			@Override
 			public synchronized void run ()
 			{
-				new WfsMainWindow ().setVisible (true);
+				new WfsMainWindow (opts).setVisible (true);
 			}
 
 			@Override
@@ -1825,35 +2012,104 @@ public class WfsMainWindow extends javax.swing.JFrame
 		});
 	}
 
-	private class WfsMonitor extends SwingWorker<Void, Void>
+	/**
+	 * Connects the started jobs to the GUI and sets the GUI back when
+	 * all of them finish.
+	 */
+	private class JobListener implements WipeScheduler.Listener
 	{
-		private final Process wfsProcess;
+		private final ProgressEventDispatcher events;
+		private final boolean readErrors;
 
-		private WfsMonitor(Process p)
+		private JobListener (ProgressEventDispatcher ev, boolean readErrorsParam)
 		{
-			wfsProcess = p;
+			events = ev;
+			readErrors = readErrorsParam;
 		}
 
 		@Override
-		protected Void doInBackground ()
-		{
-			try
+		public void jobStarted (WipeJob job, Process process)
+		{
+			int nFS = job.getFilesystems ().size ();
+			// start Threads that read the program's stdout and stderr and put
+			// it in the text areas and update the progress bars accordingly.
+			ProgressUpdater stdoutUpdater = new ProgressUpdater
+				(process.getInputStream (), outputConsole, events,
+				job.getId (), nFS, job.getNumberOfStages (), false);
+			updaters.add (stdoutUpdater);
+			stdoutUpdater.startProcessing ();
+			// the errors may be in the output or in a file
+			if ( readErrors )
 			{
-				wfsProcess.waitFor();
+				ProgressUpdater stderrUpdater = new ProgressUpdater
+					(process.getErrorStream (), errorsConsole, events,
+					job.getId (), nFS, job.getNumberOfStages (), true);
+				updaters.add (stderrUpdater);
+				stderrUpdater.startProcessing ();
 			}
-			catch (Exception ex)
+		}
+
+		@Override
+		public void jobFinished (WipeJob job, int exitCode)
+		{
+			events.processExited (job.getId (), exitCode);
+		}
+
+		@Override
+		public void allJobsFinished ()
+		{
+			SwingUtilities.invokeLater (new Runnable ()
 			{
-				Utils.handleException (ex,
-					"WfsMonitor: waitFor()");		// NOI18N
-				Thread.currentThread().interrupt();
-			}
-			return null;
+				@Override
+				public void run ()
+				{
+					stopButtonActionPerformed(null);
+				}
+
+				@Override
+				public String toString ()
+				{
+					return "WfsMainWindow.JobListener.allJobsFinished.Runnable";	// NOI18N
+				}
+			});
+		}
+
+		@Override
+		public String toString ()
+		{
+			return "WfsMainWindow.JobListener";	// NOI18N
+		}
+	}
+
+	/**
+	 * Applies the changes of the watched configuration file to the window.
+	 */
+	private class ConfigReloader implements ConfigFileWatcher.Listener
+	{
+		@Override
+		public void configChanged (final ConfigFile cfg)
+		{
+			UiUtils.changeGUILater (new Runnable ()
+			{
+				@Override
+				public void run ()
+				{
+					applyConfig (cfg, loadedConfig);
+					loadedConfig = cfg;
+				}
+
+				@Override
+				public String toString ()
+				{
+					return "WfsMainWindow.ConfigReloader.configChanged.Runnable";	// NOI18N
+				}
+			});
 		}
 
 		@Override
-		protected void done ()
+		public String toString ()
 		{
-			stopButtonActionPerformed(null);
+			return "WfsMainWindow.ConfigReloader";	// NOI18N
 		}
 	}
 
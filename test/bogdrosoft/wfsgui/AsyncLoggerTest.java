@@ -0,0 +1,176 @@
+/*
+ * AsyncLoggerTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * AsyncLoggerTest - a test for the AsyncLogger class.
+ * @author Bogdan Drozdowski
+ */
+public class AsyncLoggerTest
+{
+	private static int count(String s, String what)
+	{
+		int n = 0;
+		int i = 0;
+		while ( (i = s.indexOf(what, i)) >= 0 )
+		{
+			n++;
+			i += what.length();
+		}
+		return n;
+	}
+
+	/**
+	 * Test of log and flush methods, of class AsyncLogger.
+	 */
+	@Test
+	public void testLog()
+	{
+		System.out.println("log");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		AsyncLogger instance = new AsyncLogger(new PrintStream(out, true),
+			new PrintStream(err, true), 100);
+		instance.log(null, "nothing", true);
+		instance.log(new IOException("test1", new IllegalStateException("cause")),
+			"data1", true);
+		instance.log(new Exception("test2"), null, false);
+		assertTrue(instance.flush(10000));
+		String errors = err.toString();
+		assertTrue(errors, errors.contains(
+			"java.io.IOException: test1, Message='test1', Data='data1'\n"));
+		assertTrue(errors, errors.contains(
+			"java.lang.IllegalStateException: cause, Message='cause'\n"));
+		assertTrue(errors, errors.contains(
+			"\tat\tbogdrosoft.wfsgui.AsyncLoggerTest.testLog (AsyncLoggerTest.java:"));
+		assertTrue(errors, errors.contains("java.lang.Exception: test2"));
+		assertFalse(errors, errors.contains("nothing"));
+		// the time, like "2025-01-31 12:34:56: "
+		assertTrue(errors, errors.matches(
+			"(?s)\\d{4}-\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d: java.io.IOException.*"));
+		String output = out.toString();
+		assertTrue(output, output.contains("java.io.IOException: test1"));
+		assertFalse(output, output.contains("test2"));
+		assertEquals(0, instance.getDropped());
+	}
+
+	/**
+	 * Test of log method, of class AsyncLogger, from many threads.
+	 * @throws Exception on test failure.
+	 */
+	@Test
+	public void testLogConcurrent() throws Exception
+	{
+		System.out.println("log - concurrent");
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		final AsyncLogger instance = new AsyncLogger(null,
+			new PrintStream(err, true), 1000000);
+		final Exception ex = new Exception("concurrent");
+		List<Thread> threads = new ArrayList<Thread>();
+		for ( int i = 0; i < 4; i++ )
+		{
+			threads.add(new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					for ( int j = 0; j < 500; j++ )
+					{
+						instance.log(ex, "data", false);
+					}
+				}
+			}));
+		}
+		for ( Thread t : threads )
+		{
+			t.start();
+		}
+		for ( Thread t : threads )
+		{
+			t.join();
+		}
+		assertTrue(instance.flush(10000));
+		assertEquals(2000, count(err.toString(), "Data='data'"));
+	}
+
+	/**
+	 * Test of log method, of class AsyncLogger, with too many exceptions waiting.
+	 */
+	@Test
+	public void testLogDropped()
+	{
+		System.out.println("log - dropped");
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		AsyncLogger instance = new AsyncLogger(null, new PrintStream(err, true), 1);
+		Exception ex = new Exception("dropped");
+		for ( int i = 0; i < 100; i++ )
+		{
+			instance.log(ex, null, false);
+		}
+		assertTrue(instance.flush(10000));
+		String errors = err.toString();
+		// every exception is either shown or counted
+		assertEquals(100, count(errors, "Message='dropped'") + instance.getDropped());
+		long shownDropped = 0;
+		Matcher m = Pattern.compile("(\\d+) more exceptions not shown").matcher(errors);
+		while ( m.find() )
+		{
+			shownDropped += Long.parseLong(m.group(1));
+		}
+		assertEquals(instance.getDropped(), shownDropped);
+	}
+
+	/**
+	 * Test of log method, of class AsyncLogger, with repeated exceptions.
+	 */
+	@Test
+	public void testLogRepeated()
+	{
+		System.out.println("log - repeated");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		AsyncLogger instance = new AsyncLogger(new PrintStream(out, true),
+			new PrintStream(err, true), 1000,
+			new ExceptionDeduplicator(60000, 10));
+		Exception ex = new IOException("Broken pipe");
+		for ( int i = 0; i < 100; i++ )
+		{
+			instance.log(ex, "ProgressUpdater.call", true);
+		}
+		// the summary is shown on flush
+		assertTrue(instance.flush(10000));
+		String errors = err.toString();
+		assertEquals(1, count(errors, "\tat\t"
+			+ "bogdrosoft.wfsgui.AsyncLoggerTest.testLogRepeated"));
+		assertTrue(errors, errors.contains("java.io.IOException: Broken pipe, "
+			+ "Data='ProgressUpdater.call': repeated 99 times\n"));
+		assertEquals(1, count(out.toString(), "Message='Broken pipe'"));
+	}
+}
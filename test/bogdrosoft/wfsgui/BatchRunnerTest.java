@@ -0,0 +1,163 @@
+/*
+ * BatchRunnerTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * BatchRunnerTest - a test for the BatchRunner class.
+ * @author Bogdan Drozdowski
+ */
+public class BatchRunnerTest
+{
+	// prints the output of "wipefreespace" for the filesystem in $0:
+	private static final String SCRIPT =
+		"printf 'wipefreespace:%s: Wiping\\n**********\\n----------\\n' \"$0\"; "
+		+ "echo 'something went wrong' >&2; exit ";
+
+	private static List<String> shell (int exitCode)
+	{
+		return Arrays.asList("/bin/sh", "-c", SCRIPT + exitCode);
+	}
+
+	/**
+	 * Test of run method, of class BatchRunner.
+	 */
+	@Test
+	public void testRun()
+	{
+		System.out.println("run");
+		Assume.assumeTrue(new File("/bin/sh").canExecute());
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		BatchRunner instance = new BatchRunner(new PrintStream(bos, true));
+		int result = instance.run(shell(0), Arrays.asList("fs1", "fs2"), 2, 2, 0);
+		assertEquals(BatchRunner.EXIT_OK, result);
+		String output = bos.toString();
+		assertTrue(output, output.contains("start\tjob=0\tfs=fs1\n"));
+		assertTrue(output, output.contains("start\tjob=1\tfs=fs2\n"));
+		assertTrue(output, output.contains("fs_start\tjob=1\tfs=fs2\n"));
+		assertTrue(output, output.contains("fs_done\tjob=0\tfs=fs1\n"));
+		assertTrue(output, output.contains("progress\tjob=1\tfs=fs2\tstage=10\tfs_pct=10\t"));
+		assertTrue(output, output.contains("error\tjob=0\tmsg=something went wrong\n"));
+		assertTrue(output, output.contains("exit\tjob=1\tcode=0\n"));
+		// the rest of a job's output is reported before its exit
+		assertTrue(output, output.indexOf("fs_done\tjob=0\t")
+			< output.indexOf("exit\tjob=0\t"));
+		assertTrue(output, output.indexOf("fs_done\tjob=1\t")
+			< output.indexOf("exit\tjob=1\t"));
+		assertTrue(output, output.endsWith("done\tcode=0\n"));
+	}
+
+	/**
+	 * Test of run method, of class BatchRunner, with named jobs.
+	 */
+	@Test
+	public void testRunJobs()
+	{
+		System.out.println("run - jobs");
+		Assume.assumeTrue(new File("/bin/sh").canExecute());
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		BatchRunner instance = new BatchRunner(new PrintStream(bos, true));
+		List<WipeJob> jobs = new ArrayList<WipeJob>();
+		jobs.add(new WipeJob(0, shell(0), Arrays.asList("fs1"), 2));
+		jobs.add(new WipeJob(1, "home", shell(0), Arrays.asList("fs2"), 1));
+		int result = instance.run(jobs, 2, 0);
+		assertEquals(BatchRunner.EXIT_OK, result);
+		String output = bos.toString();
+		assertTrue(output, output.contains("start\tjob=0\tfs=fs1\n"));
+		assertTrue(output, output.contains("start\tjob=1\tfs=fs2\tname=home\n"));
+		assertTrue(output, output.contains("exit\tjob=1\tcode=0\n"));
+		assertTrue(output, output.endsWith("done\tcode=0\n"));
+	}
+
+	/**
+	 * Test of run method, of class BatchRunner, with the error output merged.
+	 */
+	@Test
+	public void testRunMerged()
+	{
+		System.out.println("run - merged");
+		Assume.assumeTrue(new File("/bin/sh").canExecute());
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		BatchRunner instance = new BatchRunner(new PrintStream(bos, true));
+		WfsLauncher launcher = new WfsLauncher();
+		launcher.setMergeErrors(true);
+		launcher.setMinimalEnvironment(true);
+		instance.setLauncher(launcher);
+		int result = instance.run(shell(0), Arrays.asList("fs1"), 2, 1, 0);
+		assertEquals(BatchRunner.EXIT_OK, result);
+		String output = bos.toString();
+		assertTrue(output, output.contains("fs_done\tjob=0\tfs=fs1\n"));
+		assertFalse(output, output.contains("error\t"));
+		assertTrue(output, output.endsWith("done\tcode=0\n"));
+	}
+
+	/**
+	 * Test of run method, of class BatchRunner, when the program fails.
+	 */
+	@Test
+	public void testRunFailed()
+	{
+		System.out.println("run - failed");
+		Assume.assumeTrue(new File("/bin/sh").canExecute());
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		BatchRunner instance = new BatchRunner(new PrintStream(bos, true));
+		int result = instance.run(shell(3), Arrays.asList("fs1"), 3, 1, 1);
+		assertEquals(3, result);
+		assertTrue(bos.toString().endsWith("done\tcode=3\n"));
+	}
+
+	/**
+	 * Test of run method, of class BatchRunner, when the program can't be started.
+	 */
+	@Test
+	public void testRunCannotStart()
+	{
+		System.out.println("run - cannot start");
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		BatchRunner instance = new BatchRunner(new PrintStream(bos, true));
+		int result = instance.run(Arrays.asList("/nonexistent/wipefreespace"),
+			Arrays.asList("fs1"), 3, 1, 0);
+		assertEquals(BatchRunner.EXIT_CANNOT_START, result);
+		result = new BatchRunner(new PrintStream(bos, true)).run(
+			Arrays.asList("wipefreespace"), Arrays.<String>asList(), 3, 1, 0);
+		assertEquals(BatchRunner.EXIT_NO_FILESYSTEMS, result);
+	}
+
+	/**
+	 * Test of isBatchRequested method, of class BatchRunner.
+	 */
+	@Test
+	public void testIsBatchRequested()
+	{
+		System.out.println("isBatchRequested");
+		assertTrue(BatchRunner.isBatchRequested(new String[] {"-f", "--BATCH"}));
+		assertFalse(BatchRunner.isBatchRequested(new String[] {"-f"}));
+		assertFalse(BatchRunner.isBatchRequested(null));
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * CliProgressReporterTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * CliProgressReporterTest - a test for the CliProgressReporter class.
+ * @author Bogdan Drozdowski
+ */
+public class CliProgressReporterTest
+{
+	/**
+	 * Test of printing the events, of class CliProgressReporter.
+	 */
+	@Test
+	public void testEvents()
+	{
+		System.out.println("events");
+		List<String> opts = Arrays.asList ("wipefreespace");
+		List<WipeJob> jobs = WipeJob.createJobs (opts,
+			Arrays.asList ("/dev/sda1", "/dev/sdb1"), 3, true);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream ();
+		CliProgressReporter instance = new CliProgressReporter
+			(new PrintStream (bos, true), new ProgressAggregator (jobs));
+		instance.fsStarted (1, "/dev/sdb1");
+		instance.stageProgress (1, "/dev/sdb1", 60, 20, 20);
+		instance.errorLine (1, new StringBuilder ("bad"));
+		instance.fsFinished (1, "/dev/sdb1");
+		instance.processExited (1, 2);
+		String nl = System.getProperty ("line.separator");
+		assertEquals ("fs_start\tjob=1\tfs=/dev/sdb1" + nl
+			+ "progress\tjob=1\tfs=/dev/sdb1\tstage=60\tfs_pct=20\ttotal=10" + nl
+			+ "error\tjob=1\tmsg=bad" + nl
+			+ "fs_done\tjob=1\tfs=/dev/sdb1" + nl
+			+ "exit\tjob=1\tcode=2" + nl, bos.toString ());
+	}
+
+	/**
+	 * Test of printing the speed and the time left, of class CliProgressReporter.
+	 */
+	@Test
+	public void testEventsEstimate()
+	{
+		System.out.println("events - estimate");
+		List<String> opts = Arrays.asList ("wipefreespace");
+		List<WipeJob> jobs = WipeJob.createJobs (opts,
+			Arrays.asList ("/dev/sda1", "/dev/sdb1"), 3, true);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream ();
+		ProgressAggregator aggregator = new ProgressAggregator (jobs);
+		final long[] time = {0};
+		ProgressRateEstimator estimator = new ProgressRateEstimator
+			(aggregator, 1.0, 1000)
+		{
+			@Override
+			long now ()
+			{
+				return time[0];
+			}
+		};
+		CliProgressReporter instance = new CliProgressReporter
+			(new PrintStream (bos, true), aggregator, estimator);
+		instance.fsStarted (1, "/dev/sdb1");
+		instance.stageProgress (1, "/dev/sdb1", 60, 20, 20);
+		time[0] = 1000;
+		instance.stageProgress (1, "/dev/sdb1", 90, 40, 40);
+		String nl = System.getProperty ("line.separator");
+		// 40% per second for the filesystem (since its start), 10% in total
+		assertEquals ("fs_start\tjob=1\tfs=/dev/sdb1" + nl
+			+ "progress\tjob=1\tfs=/dev/sdb1\tstage=60\tfs_pct=20\ttotal=10" + nl
+			+ "progress\tjob=1\tfs=/dev/sdb1\tstage=90\tfs_pct=40\ttotal=20"
+			+ "\teta=2\ttotal_eta=8" + nl, bos.toString ());
+	}
+
+	/**
+	 * Test of the constructor, of class CliProgressReporter.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorNull()
+	{
+		System.out.println("CliProgressReporter - null");
+		new CliProgressReporter (null, null);
+	}
+}
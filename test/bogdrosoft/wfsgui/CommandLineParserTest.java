@@ -19,6 +19,9 @@
  */
 package bogdrosoft.wfsgui;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
 import static org.junit.Assert.*;
 import org.junit.FixMethodOrder;
@@ -38,11 +41,11 @@ public class CommandLineParserTest
 	public void testIsOnlyZeros()
 	{
 		System.out.println("isOnlyZeros");
-		assertEquals(false, CommandLineParser.isOnlyZeros());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isOnlyZeros());
 		boolean expResult = true;
 		String[] params = {"--all-zeros"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isOnlyZeros();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isOnlyZeros();
 		assertEquals(expResult, result);
 	}
 
@@ -53,11 +56,11 @@ public class CommandLineParserTest
 	public void testAIsSuperOff()
 	{
 		System.out.println("isSuperOff");
-		assertEquals(false, CommandLineParser.isSuperOff());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isSuperOff());
 		boolean expResult = true;
 		String[] params = {"--superblock", "1"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isSuperOff();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isSuperOff();
 		assertEquals(expResult, result);
 	}
 
@@ -70,8 +73,8 @@ public class CommandLineParserTest
 		System.out.println("getSuperOffValue");
 		String expResult = "1";
 		String[] params = {"--superblock", "1"};
-		CommandLineParser.parse (params);
-		String result = CommandLineParser.getSuperOffValue();
+		WipeOptions options = CommandLineParser.parse (params);
+		String result = options.getSuperOffValue();
 		assertEquals(expResult, result);
 	}
 
@@ -82,11 +85,11 @@ public class CommandLineParserTest
 	public void testAIsBlkSize()
 	{
 		System.out.println("isBlkSize");
-		assertEquals(false, CommandLineParser.isBlkSize());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isBlkSize());
 		boolean expResult = true;
 		String[] params = {"--blocksize", "1"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isBlkSize();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isBlkSize();
 		assertEquals(expResult, result);
 	}
 
@@ -99,8 +102,8 @@ public class CommandLineParserTest
 		System.out.println("getBlkSizeValue");
 		String expResult = "2";
 		String[] params = {"--blocksize", "2"};
-		CommandLineParser.parse (params);
-		String result = CommandLineParser.getBlkSizeValue();
+		WipeOptions options = CommandLineParser.parse (params);
+		String result = options.getBlkSizeValue();
 		assertEquals(expResult, result);
 	}
 
@@ -111,11 +114,11 @@ public class CommandLineParserTest
 	public void testIsForce()
 	{
 		System.out.println("isForce");
-		assertEquals(false, CommandLineParser.isForce());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isForce());
 		boolean expResult = true;
 		String[] params = {"--force"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isForce();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isForce();
 		assertEquals(expResult, result);
 	}
 
@@ -126,11 +129,11 @@ public class CommandLineParserTest
 	public void testIslastZero()
 	{
 		System.out.println("islastZero");
-		assertEquals(false, CommandLineParser.islastZero());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isLastZero());
 		boolean expResult = true;
 		String[] params = {"--last-zero"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.islastZero();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isLastZero();
 		assertEquals(expResult, result);
 	}
 
@@ -141,11 +144,11 @@ public class CommandLineParserTest
 	public void testAIsMethod()
 	{
 		System.out.println("isMethod");
-		assertEquals(false, CommandLineParser.isMethod());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isMethod());
 		boolean expResult = true;
 		String[] params = {"--method", "3"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isMethod();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isMethod();
 		assertEquals(expResult, result);
 	}
 
@@ -158,11 +161,98 @@ public class CommandLineParserTest
 		System.out.println("getMethodName");
 		String expResult = "3";
 		String[] params = {"--method", "3"};
-		CommandLineParser.parse (params);
-		String result = CommandLineParser.getMethodName();
+		WipeOptions options = CommandLineParser.parse (params);
+		String result = options.getMethodName();
 		assertEquals(expResult, result);
 	}
 
+	/**
+	 * Test of getJobs method, of class CommandLineParser.
+	 */
+	@Test
+	public void testGetJobs()
+	{
+		System.out.println("getJobs");
+		int expResult = 3;
+		String[] params = {"-j", "3"};
+		WipeOptions options = CommandLineParser.parse (params);
+		int result = options.getJobs();
+		assertEquals(expResult, result);
+	}
+
+	/**
+	 * Test of getJobsPerDisk method, of class CommandLineParser.
+	 */
+	@Test
+	public void testGetJobsPerDisk()
+	{
+		System.out.println("getJobsPerDisk");
+		int expResult = 0;
+		String[] params = {"--jobs-per-disk", "0"};
+		WipeOptions options = CommandLineParser.parse (params);
+		int result = options.getJobsPerDisk();
+		assertEquals(expResult, result);
+	}
+
+	/**
+	 * Test of isBatch method, of class CommandLineParser.
+	 */
+	@Test
+	public void testAIsBatch()
+	{
+		System.out.println("isBatch");
+		assertEquals(false, CommandLineParser.parse (new String[0]).isBatch());
+		String[] params = {"--batch"};
+		WipeOptions options = CommandLineParser.parse (params);
+		assertEquals(true, options.isBatch());
+	}
+
+	/**
+	 * Test of isWatchConfig method, of class CommandLineParser.
+	 */
+	@Test
+	public void testAIsWatchConfig()
+	{
+		System.out.println("isWatchConfig");
+		assertEquals(false, CommandLineParser.parse (new String[0]).isWatchConfig());
+		String[] params = {"--watch-config"};
+		WipeOptions options = CommandLineParser.parse (params);
+		assertEquals(true, options.isWatchConfig());
+	}
+
+	/**
+	 * Test of isMergeErrors, getErrorFile and isMinimalEnv methods, of class CommandLineParser.
+	 */
+	@Test
+	public void testALauncherOptions()
+	{
+		System.out.println("isMergeErrors, getErrorFile, isMinimalEnv");
+		WipeOptions options = CommandLineParser.parse (new String[0]);
+		assertEquals(false, options.isMergeErrors());
+		assertNull(options.getErrorFile());
+		assertEquals(false, options.isMinimalEnv());
+		String[] params = {"--merge-errors", "--error-file", "errors.log", "--minimal-env"};
+		options = CommandLineParser.parse (params);
+		assertEquals(true, options.isMergeErrors());
+		assertEquals(new File("errors.log"), options.getErrorFile());
+		assertEquals(true, options.isMinimalEnv());
+	}
+
+	/**
+	 * Test of getFsList method, of class CommandLineParser.
+	 */
+	@Test
+	public void testGetFsList()
+	{
+		System.out.println("getFsList");
+		String[] params = {"/dev/sda1", "-j", "3", "/dev/sdb1"};
+		WipeOptions options = CommandLineParser.parse (params);
+		List<String> result = options.getFsList();
+		assertTrue(result.contains("/dev/sda1"));
+		assertTrue(result.contains("/dev/sdb1"));
+		assertFalse(result.contains("3"));
+	}
+
 	/**
 	 * Test of isIter method, of class CommandLineParser.
 	 */
@@ -170,11 +260,11 @@ public class CommandLineParserTest
 	public void testAIsIter()
 	{
 		System.out.println("isIter");
-		assertEquals(false, CommandLineParser.isIter());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isIter());
 		boolean expResult = true;
 		String[] params = {"--iterations", "4"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isIter();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isIter();
 		assertEquals(expResult, result);
 	}
 
@@ -187,8 +277,8 @@ public class CommandLineParserTest
 		System.out.println("getIterationsValue");
 		String expResult = "4";
 		String[] params = {"--iterations", "4"};
-		CommandLineParser.parse (params);
-		String result = CommandLineParser.getIterationsValue();
+		WipeOptions options = CommandLineParser.parse (params);
+		String result = options.getIterationsValue();
 		assertEquals(expResult, result);
 	}
 
@@ -199,11 +289,11 @@ public class CommandLineParserTest
 	public void testIsNopart()
 	{
 		System.out.println("isNopart");
-		assertEquals(false, CommandLineParser.isNopart());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isNopart());
 		boolean expResult = true;
 		String[] params = {"--nopart"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isNopart();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isNopart();
 		assertEquals(expResult, result);
 	}
 
@@ -214,11 +304,11 @@ public class CommandLineParserTest
 	public void testIsNounrm()
 	{
 		System.out.println("isNounrm");
-		assertEquals(false, CommandLineParser.isNounrm());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isNounrm());
 		boolean expResult = true;
 		String[] params = {"--nounrm"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isNounrm();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isNounrm();
 		assertEquals(expResult, result);
 	}
 
@@ -229,11 +319,11 @@ public class CommandLineParserTest
 	public void testIsNowfs()
 	{
 		System.out.println("isNowfs");
-		assertEquals(false, CommandLineParser.isNowfs());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isNowfs());
 		boolean expResult = true;
 		String[] params = {"--nowfs"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isNowfs();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isNowfs();
 		assertEquals(expResult, result);
 	}
 
@@ -244,11 +334,11 @@ public class CommandLineParserTest
 	public void testIsIoctl()
 	{
 		System.out.println("isIoctl");
-		assertEquals(false, CommandLineParser.isIoctl());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isIoctl());
 		boolean expResult = true;
 		String[] params = {"--use-ioctl"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isIoctl();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isIoctl();
 		assertEquals(expResult, result);
 	}
 
@@ -259,11 +349,11 @@ public class CommandLineParserTest
 	public void testIsNoWipeZeroBlocks()
 	{
 		System.out.println("isNoWipeZeroBlocks");
-		assertEquals(false, CommandLineParser.isNoWipeZeroBlocks());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isNoWipeZeroBlocks());
 		boolean expResult = true;
 		String[] params = {"--no-wipe-zero-blocks"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isNoWipeZeroBlocks();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isNoWipeZeroBlocks();
 		assertEquals(expResult, result);
 	}
 
@@ -274,11 +364,11 @@ public class CommandLineParserTest
 	public void testIsUseDedicated()
 	{
 		System.out.println("isUseDedicated");
-		assertEquals(false, CommandLineParser.isUseDedicated());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isUseDedicated());
 		boolean expResult = true;
 		String[] params = {"--use-dedicated"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isUseDedicated();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isUseDedicated();
 		assertEquals(expResult, result);
 	}
 
@@ -289,11 +379,11 @@ public class CommandLineParserTest
 	public void testAIsOrder()
 	{
 		System.out.println("isOrder");
-		assertEquals(false, CommandLineParser.isOrder());
+		assertEquals(false, CommandLineParser.parse (new String[0]).isOrder());
 		boolean expResult = true;
 		String[] params = {"--order", "5"};
-		CommandLineParser.parse (params);
-		boolean result = CommandLineParser.isOrder();
+		WipeOptions options = CommandLineParser.parse (params);
+		boolean result = options.isOrder();
 		assertEquals(expResult, result);
 	}
 
@@ -306,8 +396,8 @@ public class CommandLineParserTest
 		System.out.println("getWipingOrder");
 		String expResult = "5";
 		String[] params = {"--order", "5"};
-		CommandLineParser.parse (params);
-		String result = CommandLineParser.getWipingOrder();
+		WipeOptions options = CommandLineParser.parse (params);
+		String result = options.getWipingOrder();
 		assertEquals(expResult, result);
 	}
 
@@ -327,6 +417,8 @@ public class CommandLineParserTest
 			//"-?",
 			//"/?",
 			//"--help",
+			"--jobs", "2",
+			"--jobs-per-disk", "2",
 			"--lang", "de_DE",
 			"--last-zero",
 			//"--licence",
@@ -346,4 +438,37 @@ public class CommandLineParserTest
 		};
 		CommandLineParser.parse(args);
 	}
+
+	/**
+	 * Test of parse method, of class CommandLineParser, without a command line.
+	 */
+	@Test
+	public void testParseNull()
+	{
+		System.out.println("parse - null");
+		assertSame(WipeOptions.DEFAULT, CommandLineParser.parse(null));
+	}
+
+	/**
+	 * Test of parse method, of class CommandLineParser, parsing again.
+	 */
+	@Test
+	public void testParseIndependent()
+	{
+		System.out.println("parse - independent");
+		String[] first = {"--force", "-j", "2", "/dev/sda1"};
+		String[] second = {"--nopart", "/dev/sdb1"};
+		WipeOptions a = CommandLineParser.parse(first);
+		WipeOptions b = CommandLineParser.parse(second);
+		assertTrue(a.isForce());
+		assertEquals(2, a.getJobs());
+		assertEquals(Arrays.asList("/dev/sda1"), a.getFsList());
+		// nothing left from the first parsing
+		assertFalse(b.isForce());
+		assertEquals(1, b.getJobs());
+		assertTrue(b.isNopart());
+		assertEquals(Arrays.asList("/dev/sdb1"), b.getFsList());
+		// nothing changed in the first options
+		assertTrue(a.isForce());
+	}
 }
@@ -0,0 +1,173 @@
+/*
+ * ConfigFileCacheTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ConfigFileCacheTest - a test for the ConfigFileCache class.
+ * @author Bogdan Drozdowski
+ */
+public class ConfigFileCacheTest
+{
+	private File dir;
+	private File f;
+
+	@Before
+	public void setUp () throws Exception
+	{
+		dir = Files.createTempDirectory("wfsgui2").toFile();
+		f = new File(dir, "a.cfg");
+		writeRaw(f, "x = 1\n");
+	}
+
+	@After
+	public void tearDown ()
+	{
+		File[] files = dir.listFiles();
+		if ( files != null )
+		{
+			for ( File file : files )
+			{
+				file.delete();
+			}
+		}
+		dir.delete();
+	}
+
+	private static void writeRaw (File file, String contents) throws Exception
+	{
+		Files.write(file.toPath(), contents.getBytes("US-ASCII"));
+	}
+
+	/**
+	 * Test of read method, of class ConfigFileCache.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testRead() throws Exception
+	{
+		System.out.println("read");
+		ConfigFileCache instance = new ConfigFileCache(4);
+		ConfigFile c1 = instance.read(f);
+		assertEquals(1, c1.getX());
+		assertEquals(1, instance.size());
+		// the copies are separate
+		c1.setX(5);
+		ConfigFile c2 = instance.read(f);
+		assertNotSame(c1, c2);
+		assertEquals(1, c2.getX());
+		// a different size
+		writeRaw(f, "x = 22\n");
+		assertEquals(22, instance.read(f).getX());
+	}
+
+	/**
+	 * Test of read method, of class ConfigFileCache, with a file replaced
+	 * by another one with the same size and time.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testReadReplaced() throws Exception
+	{
+		System.out.println("read - replaced");
+		Object key = Files.readAttributes(f.toPath(),
+			BasicFileAttributes.class).fileKey();
+		Assume.assumeNotNull(key);
+		ConfigFileCache instance = new ConfigFileCache(4);
+		assertEquals(1, instance.read(f).getX());
+		FileTime time = Files.getLastModifiedTime(f.toPath());
+		File other = new File(dir, "b.cfg");
+		writeRaw(other, "x = 2\n");
+		Files.setLastModifiedTime(other.toPath(), time);
+		Files.move(other.toPath(), f.toPath(),
+			StandardCopyOption.REPLACE_EXISTING);
+		assertEquals(2, instance.read(f).getX());
+	}
+
+	/**
+	 * Test of invalidate method, of class ConfigFileCache.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testInvalidate() throws Exception
+	{
+		System.out.println("invalidate");
+		ConfigFileCache instance = new ConfigFileCache(4);
+		instance.read(f);
+		assertEquals(1, instance.size());
+		instance.invalidate(new File(dir, "../" + dir.getName() + "/a.cfg"));
+		assertEquals(0, instance.size());
+		instance.invalidate(null);
+		// writing removes the file from the shared cache
+		ConfigFileCache.INSTANCE.read(f);
+		int size = ConfigFileCache.INSTANCE.size();
+		ConfigFile cfg = new ConfigFile(f);
+		cfg.setX(3);
+		cfg.write();
+		assertEquals(size - 1, ConfigFileCache.INSTANCE.size());
+		assertEquals(3, ConfigFileCache.INSTANCE.read(f).getX());
+	}
+
+	/**
+	 * Test of removing the least recently used entries, of class ConfigFileCache.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testEviction() throws Exception
+	{
+		System.out.println("eviction");
+		File g = new File(dir, "c.cfg");
+		writeRaw(g, "y = 1\n");
+		File h = new File(dir, "d.cfg");
+		writeRaw(h, "y = 2\n");
+		ConfigFileCache instance = new ConfigFileCache(2);
+		instance.read(f);
+		instance.read(g);
+		// f is now the most recently used
+		instance.read(f);
+		instance.read(h);
+		assertEquals(2, instance.size());
+		instance.invalidate(f);
+		assertEquals(1, instance.size());
+		instance.invalidate(h);
+		assertEquals(0, instance.size());
+		instance.clear();
+	}
+
+	/**
+	 * Test of the constructor, of class ConfigFileCache.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorInvalid()
+	{
+		System.out.println("ConfigFileCache - invalid");
+		new ConfigFileCache(0);
+	}
+}
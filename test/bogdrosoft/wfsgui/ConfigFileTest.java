@@ -20,7 +20,10 @@
 package bogdrosoft.wfsgui;
 
 import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -62,6 +65,8 @@ public class ConfigFileTest
 		instance.setIsMethodSelected(true);
 		instance.setIsOrderSelected(true);
 		instance.setIterations(3456);
+		instance.setJobs(4);
+		instance.setJobsPerDisk(2);
 		instance.setLastZero(true);
 		instance.setMethodName("bbb");
 		instance.setNoWipeZeroBlocks(true);
@@ -89,6 +94,8 @@ public class ConfigFileTest
 		assertEquals(instance.getIsMethod(), true);
 		assertEquals(instance.getIsOrder(), true);
 		assertEquals(instance.getIterations(), 3456);
+		assertEquals(instance.getJobs(), 4);
+		assertEquals(instance.getJobsPerDisk(), 2);
 		assertEquals(instance.getLastZero(), true);
 		assertEquals(instance.getMethodName(), "bbb");
 		assertEquals(instance.getIsNoWipeZeroBlocks(), true);
@@ -104,6 +111,171 @@ public class ConfigFileTest
 		assertEquals(instance.getY(), 22);
 	}
 
+	/**
+	 * Test of read method, of class ConfigFile, with unusual syntax.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testReadSyntax() throws Exception
+	{
+		System.out.println("read - syntax");
+		PrintWriter pw = new PrintWriter(f);
+		pw.print("# x = 5\n"
+			+ "X\t=  7\r\n"
+			+ "  y = 8\r"
+			+ "width=\n"
+			+ "height = 300 \n"
+			+ "font_size = 99999999999\n"
+			+ "Jobs_Per_Disk = 3\n"
+			+ "jobs = 2\n"
+			+ "iterations = 0012\n"
+			+ "force = abc\n"
+			+ "no_wipe_zero_blocks = abc\n"
+			+ "unknown = 1\n"
+			+ "\n"
+			+ "filesystems = \u0000/dev/sda1\u0000\u0000/dev/sdb1\u0000\n"
+			+ "method=  gutmann \n"
+			+ "wfs_path =\n"
+			+ "is_order 1\n"
+			+ "order = random");
+		pw.close();
+		ConfigFile instance = new ConfigFile(f);
+		instance.read();
+		assertEquals(7, instance.getX());
+		// not at the beginning of the line
+		assertEquals(0, instance.getY());
+		// invalid numbers - the defaults
+		assertEquals(800, instance.getWidth());
+		assertEquals(600, instance.getHeight());
+		assertEquals(false, instance.getForce());
+		// too big - an error
+		assertEquals(16, instance.getFontSizeValue());
+		assertEquals(3, instance.getJobsPerDisk());
+		assertEquals(2, instance.getJobs());
+		assertEquals(12, instance.getIterations());
+		assertEquals(true, instance.getIsNoWipeZeroBlocks());
+		List<String> fsList = new ArrayList<String>(2);
+		fsList.add("/dev/sda1");
+		fsList.add("/dev/sdb1");
+		assertEquals(fsList, instance.getFSList());
+		assertEquals("gutmann ", instance.getMethodName());
+		assertEquals("", instance.getWfsPath());
+		assertEquals(false, instance.getIsOrder());
+		assertEquals("random", instance.getWipingOrder());
+	}
+
+	/**
+	 * Test of read method, of class ConfigFile, with sections.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testReadSections() throws Exception
+	{
+		System.out.println("read - sections");
+		PrintWriter pw = new PrintWriter(f);
+		pw.print("iterations = 2\n"
+			+ "force = 1\n"
+			+ "filesystems = /dev/sda1\u0000\n"
+			+ "[home]\n"
+			+ "iterations = 5\n"
+			+ "filesystems = /dev/sdb1\u0000/dev/sdb2\u0000\n"
+			+ "x = 99\n"
+			+ "[ invalid\n"
+			+ "[a]b]\n"
+			+ "[]\n"
+			+ "[ data ] \t\n"
+			+ "force = 0\n");
+		pw.close();
+		ConfigFile instance = new ConfigFile(f);
+		instance.read();
+		assertNull(instance.getName());
+		assertEquals(2, instance.getIterations());
+		assertEquals(Arrays.asList("/dev/sda1"), instance.getFSList());
+		// the window's parameters only from the main part
+		assertEquals(0, instance.getX());
+		List<ConfigFile> sections = instance.getSections();
+		assertEquals(2, sections.size());
+		ConfigFile home = sections.get(0);
+		assertEquals("home", home.getName());
+		assertEquals(5, home.getIterations());
+		assertEquals(true, home.getForce());
+		assertEquals(Arrays.asList("/dev/sdb1", "/dev/sdb2"), home.getFSList());
+		// the invalid headers are ignored, the lines belong to "home"
+		ConfigFile data = sections.get(1);
+		assertEquals("data", data.getName());
+		assertEquals(2, data.getIterations());
+		assertEquals(false, data.getForce());
+		assertTrue(data.getFSList().isEmpty());
+		assertTrue(data.getSections().isEmpty());
+	}
+
+	/**
+	 * Test of write method, of class ConfigFile, with sections.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testWriteSections() throws Exception
+	{
+		System.out.println("write - sections");
+		ConfigFile instance = new ConfigFile(f);
+		instance.setIterations(3);
+		instance.setFSList(Arrays.asList("/dev/sda1"));
+		ConfigFile home = instance.addSection(" home ");
+		home.setMethodName("gutmann");
+		home.setIsMethodSelected(true);
+		home.setFSList(Arrays.asList("/dev/sdb1", "/dev/sdb2"));
+		instance.addSection("empty");
+		instance.write();
+
+		ConfigFile read = new ConfigFile(f);
+		read.read();
+		assertEquals(3, read.getIterations());
+		assertEquals(Arrays.asList("/dev/sda1"), read.getFSList());
+		assertEquals(2, read.getSections().size());
+		ConfigFile readHome = read.getSections().get(0);
+		assertEquals("home", readHome.getName());
+		assertEquals(3, readHome.getIterations());
+		assertEquals("gutmann", readHome.getMethodName());
+		assertEquals(Arrays.asList("/dev/sdb1", "/dev/sdb2"), readHome.getFSList());
+		assertEquals("empty", read.getSections().get(1).getName());
+		assertTrue(read.getSections().get(1).getFSList().isEmpty());
+
+		// kept when saving a new file
+		ConfigFile copy = new ConfigFile(f);
+		copy.setSections(read.getSections());
+		copy.write();
+		read.read();
+		assertEquals(2, read.getSections().size());
+		copy.setSections(null);
+		copy.write();
+		read.read();
+		assertTrue(read.getSections().isEmpty());
+	}
+
+	/**
+	 * Test of addSection method, of class ConfigFile, with invalid names.
+	 */
+	@Test
+	public void testAddSectionInvalid()
+	{
+		System.out.println("addSection - invalid");
+		ConfigFile instance = new ConfigFile(f);
+		String[] names = {null, "", " ", "a]b", "a\nb"};
+		for ( String name : names )
+		{
+			try
+			{
+				instance.addSection(name);
+				fail(name);
+			}
+			catch (IllegalArgumentException ex)
+			{
+				// expected
+			}
+		}
+		assertTrue(instance.getSections().isEmpty());
+	}
+
 	/**
 	 * Test of write method, of class ConfigFile.
 	 * @throws java.lang.Exception
@@ -117,6 +289,83 @@ public class ConfigFileTest
 		assertTrue(f.length() > 0);
 	}
 
+	/**
+	 * Test of write method, of class ConfigFile, replacing a file.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testWriteReplace() throws Exception
+	{
+		System.out.println("write - replace");
+		File dir = Files.createTempDirectory("wfsgui2").toFile();
+		File cfg = new File(dir, "wfsgui.cfg");
+		File link = new File(dir, "link.cfg");
+		try
+		{
+			ConfigFile instance = new ConfigFile(cfg);
+			instance.setX(5);
+			instance.write();
+			instance.setX(6);
+			instance.write();
+			// no temporary files left
+			assertEquals(Arrays.asList("wfsgui.cfg"),
+				Arrays.asList(dir.list()));
+			ConfigFile read = new ConfigFile(cfg);
+			read.read();
+			assertEquals(6, read.getX());
+
+			// the link stays a link
+			Files.createSymbolicLink(link.toPath(), cfg.toPath());
+			instance = new ConfigFile(link);
+			instance.setX(7);
+			instance.write();
+			assertTrue(Files.isSymbolicLink(link.toPath()));
+			read.read();
+			assertEquals(7, read.getX());
+		}
+		catch (UnsupportedOperationException ex)
+		{
+			// no symbolic links
+		}
+		finally
+		{
+			link.delete();
+			cfg.delete();
+			dir.delete();
+		}
+	}
+
+	/**
+	 * Test of write method, of class ConfigFile, the permissions of a new file.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testWriteNewPermissions() throws Exception
+	{
+		System.out.println("write - new file permissions");
+		File dir = Files.createTempDirectory("wfsgui2").toFile();
+		File cfg = new File(dir, "wfsgui.cfg");
+		File plain = new File(dir, "plain.cfg");
+		try
+		{
+			new ConfigFile(cfg).write();
+			// the default permissions, from the umask
+			Files.createFile(plain.toPath());
+			assertEquals(Files.getPosixFilePermissions(plain.toPath()),
+				Files.getPosixFilePermissions(cfg.toPath()));
+		}
+		catch (UnsupportedOperationException ex)
+		{
+			// not a POSIX system
+		}
+		finally
+		{
+			plain.delete();
+			cfg.delete();
+			dir.delete();
+		}
+	}
+
 	/**
 	 * Test of setX method, of class ConfigFile.
 	 */
@@ -429,4 +678,30 @@ public class ConfigFileTest
 		instance.setWipingOrder(v);
 		assertEquals(v, instance.getWipingOrder());
 	}
+
+	/**
+	 * Test of setJobs method, of class ConfigFile.
+	 */
+	@Test
+	public void testSetJobs()
+	{
+		System.out.println("setJobs");
+		int v = 5;
+		ConfigFile instance = new ConfigFile(f);
+		instance.setJobs(v);
+		assertEquals(v, instance.getJobs());
+	}
+
+	/**
+	 * Test of setJobsPerDisk method, of class ConfigFile.
+	 */
+	@Test
+	public void testSetJobsPerDisk()
+	{
+		System.out.println("setJobsPerDisk");
+		int v = 3;
+		ConfigFile instance = new ConfigFile(f);
+		instance.setJobsPerDisk(v);
+		assertEquals(v, instance.getJobsPerDisk());
+	}
 }
@@ -0,0 +1,204 @@
+/*
+ * ConfigFileWatcherTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ConfigFileWatcherTest - a test for the ConfigFileWatcher class.
+ * @author Bogdan Drozdowski
+ */
+public class ConfigFileWatcherTest
+{
+	private static final long DEBOUNCE = 300;
+	// some systems poll for the changes instead of being notified:
+	private static final long TIMEOUT_SEC = 15;
+
+	private File dir;
+	private File f;
+	private final BlockingQueue<ConfigFile> changes =
+		new LinkedBlockingQueue<ConfigFile> ();
+	private ConfigFileWatcher instance;
+
+	@Before
+	public void setUp () throws Exception
+	{
+		dir = Files.createTempDirectory("wfsgui2").toFile();
+		f = new File(dir, "a.cfg");
+		writeRaw(f, "x = 1\n");
+		instance = new ConfigFileWatcher(f, DEBOUNCE,
+			new ConfigFileWatcher.Listener()
+			{
+				@Override
+				public void configChanged(ConfigFile cfg)
+				{
+					changes.add(cfg);
+				}
+			});
+	}
+
+	@After
+	public void tearDown ()
+	{
+		instance.stop();
+		File[] files = dir.listFiles();
+		if ( files != null )
+		{
+			for ( File file : files )
+			{
+				file.delete();
+			}
+		}
+		dir.delete();
+	}
+
+	private static void writeRaw (File file, String contents) throws Exception
+	{
+		Files.write(file.toPath(), contents.getBytes("US-ASCII"));
+	}
+
+	/**
+	 * Test of start method, of class ConfigFileWatcher.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStart() throws Exception
+	{
+		System.out.println("start");
+		instance.start();
+		assertTrue(instance.isRunning());
+		writeRaw(f, "x = 2\n");
+		ConfigFile cfg = changes.poll(TIMEOUT_SEC, TimeUnit.SECONDS);
+		assertNotNull(cfg);
+		assertEquals(2, cfg.getX());
+	}
+
+	/**
+	 * Test of start method, of class ConfigFileWatcher, many changes.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStartBurst() throws Exception
+	{
+		System.out.println("start - burst");
+		instance.start();
+		for ( int i = 2; i <= 6; i++ )
+		{
+			writeRaw(f, "x = " + i + "\n");
+		}
+		ConfigFile cfg = changes.poll(TIMEOUT_SEC, TimeUnit.SECONDS);
+		assertNotNull(cfg);
+		assertEquals(6, cfg.getX());
+		assertNull(changes.poll(3 * DEBOUNCE, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Test of start method, of class ConfigFileWatcher, other files.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStartOtherFile() throws Exception
+	{
+		System.out.println("start - other file");
+		instance.start();
+		writeRaw(new File(dir, "b.cfg"), "x = 2\n");
+		assertNull(changes.poll(3 * DEBOUNCE, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Test of start method, of class ConfigFileWatcher, other file
+	 * changed all the time.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStartBusyOtherFile() throws Exception
+	{
+		System.out.println("start - busy other file");
+		instance.start();
+		writeRaw(f, "x = 2\n");
+		File log = new File(dir, "wfsgui2.log");
+		// more often than the debounce time, for much longer than it
+		for ( int i = 0; i < 100 && changes.isEmpty(); i++ )
+		{
+			writeRaw(log, "line " + i + "\n");
+			Thread.sleep(DEBOUNCE / 3);
+		}
+		ConfigFile cfg = changes.poll(0, TimeUnit.MILLISECONDS);
+		assertNotNull(cfg);
+		assertEquals(2, cfg.getX());
+	}
+
+	/**
+	 * Test of start method, of class ConfigFileWatcher, file replaced.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStartReplace() throws Exception
+	{
+		System.out.println("start - replace");
+		instance.start();
+		ConfigFile c = new ConfigFile(f);
+		c.read();
+		c.setX(7);
+		c.write();
+		ConfigFile cfg = changes.poll(TIMEOUT_SEC, TimeUnit.SECONDS);
+		assertNotNull(cfg);
+		assertEquals(7, cfg.getX());
+	}
+
+	/**
+	 * Test of stop method, of class ConfigFileWatcher.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStop() throws Exception
+	{
+		System.out.println("stop");
+		instance.start();
+		instance.stop();
+		assertFalse(instance.isRunning());
+		writeRaw(f, "x = 2\n");
+		assertNull(changes.poll(3 * DEBOUNCE, TimeUnit.MILLISECONDS));
+		// can be started again
+		instance.start();
+		writeRaw(f, "x = 3\n");
+		ConfigFile cfg = changes.poll(TIMEOUT_SEC, TimeUnit.SECONDS);
+		assertNotNull(cfg);
+		assertEquals(3, cfg.getX());
+	}
+
+	/**
+	 * Test of the constructor of class ConfigFileWatcher.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorNull()
+	{
+		System.out.println("ConfigFileWatcher(null)");
+		new ConfigFileWatcher(null, DEBOUNCE, null);
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * DeviceResolverTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * DeviceResolverTest - a test for the DeviceResolver class, using
+ * a fake sysfs tree.
+ * @author Bogdan Drozdowski
+ */
+public class DeviceResolverTest
+{
+	private File root;
+	private DeviceResolver instance;
+
+	@Before
+	public void setUp() throws IOException
+	{
+		root = Files.createTempDirectory("wfsgui2-sysfs").toFile().getCanonicalFile();
+		// the disks and their partitions:
+		mkdirs("sys/devices/pci0/block/sda/sda1");
+		mkdirs("sys/devices/pci0/block/sda/sda2");
+		mkdirs("sys/devices/pci0/block/sdb/sdb1");
+		touch("sys/devices/pci0/block/sda/sda1/partition");
+		touch("sys/devices/pci0/block/sda/sda2/partition");
+		touch("sys/devices/pci0/block/sdb/sdb1/partition");
+		// a device-mapper device on sdb1:
+		mkdirs("sys/devices/virtual/block/dm-0/slaves/sdb1");
+		mkdirs("sys/class/block");
+		link("sys/class/block/sda", "../../devices/pci0/block/sda");
+		link("sys/class/block/sda1", "../../devices/pci0/block/sda/sda1");
+		link("sys/class/block/sda2", "../../devices/pci0/block/sda/sda2");
+		link("sys/class/block/sdb", "../../devices/pci0/block/sdb");
+		link("sys/class/block/sdb1", "../../devices/pci0/block/sdb/sdb1");
+		link("sys/class/block/dm-0", "../../devices/virtual/block/dm-0");
+		mkdirs("sys/dev/block");
+		link("sys/dev/block/8:1", "../../devices/pci0/block/sda/sda1");
+		link("sys/dev/block/8:2", "../../devices/pci0/block/sda/sda2");
+		// the device files:
+		mkdirs("dev/disk/by-uuid");
+		mkdirs("dev/mapper");
+		touch("dev/sda1");
+		touch("dev/sda2");
+		touch("dev/sdb1");
+		touch("dev/dm-0");
+		link("dev/disk/by-uuid/1234", "../../sdb1");
+		link("dev/mapper/vg-lv", "../dm-0");
+		// the mounts:
+		mkdirs("mnt/data/subdir");
+		mkdirs("mnt/my disk");
+		mkdirs("mnt/other");
+		FileWriter fw = new FileWriter(new File(root, "mountinfo"));
+		try
+		{
+			fw.write("1 0 8:3 / / rw - ext4 /dev/root rw\n");
+			fw.write("36 1 8:1 / " + root + "/mnt/data rw,noatime shared:1 - ext4 "
+				+ root + "/dev/sda1 rw\n");
+			fw.write("37 1 8:2 / " + root + "/mnt/my\\040disk rw - ext4 "
+				+ root + "/dev/sda2 rw\n");
+			fw.write("38 1 0:99 / " + root + "/mnt/other rw - ext4 "
+				+ root + "/dev/mapper/vg-lv rw\n");
+		}
+		finally
+		{
+			fw.close();
+		}
+		instance = new DeviceResolver(new File(root, "sys"),
+			new File(root, "mountinfo"), new File(root, "dev"));
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		delete(root);
+	}
+
+	private void mkdirs(String path)
+	{
+		assertTrue(new File(root, path).mkdirs());
+	}
+
+	private void touch(String path) throws IOException
+	{
+		assertTrue(new File(root, path).createNewFile());
+	}
+
+	private void link(String path, String target) throws IOException
+	{
+		Files.createSymbolicLink(new File(root, path).toPath(), Paths.get(target));
+	}
+
+	private static void delete(File f) throws IOException
+	{
+		Path p = f.toPath();
+		if ( Files.isDirectory(p, java.nio.file.LinkOption.NOFOLLOW_LINKS) )
+		{
+			File[] children = f.listFiles();
+			if ( children != null )
+			{
+				for ( File c : children )
+				{
+					delete(c);
+				}
+			}
+		}
+		Files.deleteIfExists(p);
+	}
+
+	/**
+	 * Test of getDevice method, of class DeviceResolver, for device files.
+	 */
+	@Test
+	public void testGetDeviceForDevices()
+	{
+		System.out.println("getDevice - devices");
+		assertEquals("sda", instance.getDevice(root + "/dev/sda1"));
+		assertEquals("sda", instance.getDevice(root + "/dev/sda2"));
+		assertEquals("sdb", instance.getDevice(root + "/dev/sdb1"));
+		assertEquals("sdb", instance.getDevice(root + "/dev/disk/by-uuid/1234"));
+		assertEquals("sdb", instance.getDevice(root + "/dev/mapper/vg-lv"));
+	}
+
+	/**
+	 * Test of getDevice method, of class DeviceResolver, for mount points.
+	 */
+	@Test
+	public void testGetDeviceForMountPoints()
+	{
+		System.out.println("getDevice - mount points");
+		assertEquals("sda", instance.getDevice(root + "/mnt/data"));
+		assertEquals("sda", instance.getDevice(root + "/mnt/data/subdir"));
+		assertEquals("sda", instance.getDevice(root + "/mnt/my disk"));
+		// no major:minor link, the source is used
+		assertEquals("sdb", instance.getDevice(root + "/mnt/other"));
+	}
+
+	/**
+	 * Test of getDevice method, of class DeviceResolver, for unknown filesystems.
+	 */
+	@Test
+	public void testGetDeviceUnknown()
+	{
+		System.out.println("getDevice - unknown");
+		assertEquals("sdz9", instance.getDevice(root + "/dev/sdz9"));
+		// on the root filesystem, whose device isn't known
+		String unknown = root + "/elsewhere";
+		assertEquals(unknown, instance.getDevice(unknown));
+		assertEquals("", instance.getDevice(null));
+	}
+
+	/**
+	 * Test of getDevice method, of class DeviceResolver - caching.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testGetDeviceCached() throws Exception
+	{
+		System.out.println("getDevice - cached");
+		String fs = root + "/dev/sda1";
+		assertEquals("sda", instance.getDevice(fs));
+		delete(new File(root, "sys"));
+		assertEquals("sda", instance.getDevice(fs));
+		instance.clearCache();
+		assertEquals("sda1", instance.getDevice(fs));
+	}
+
+	/**
+	 * Test of parseMountInfoLine method, of class DeviceResolver.
+	 */
+	@Test
+	public void testParseMountInfoLine()
+	{
+		System.out.println("parseMountInfoLine");
+		assertArrayEquals(new String[] {"98:0", "/mnt/parent", "/dev/root"},
+			DeviceResolver.parseMountInfoLine(
+				"36 35 98:0 /mnt1 /mnt/parent rw,noatime master:1 - ext3 /dev/root rw,errors=continue"));
+		assertNull(DeviceResolver.parseMountInfoLine("garbage"));
+	}
+}
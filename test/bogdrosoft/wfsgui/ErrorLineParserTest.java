@@ -0,0 +1,63 @@
+/*
+ * ErrorLineParserTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ErrorLineParserTest - a test for the ErrorLineParser class.
+ * @author Bogdan Drozdowski
+ */
+public class ErrorLineParserTest
+{
+	/**
+	 * Test of consume method, of class ErrorLineParser.
+	 */
+	@Test
+	public void testConsume()
+	{
+		System.out.println("consume");
+		RecordingProgressListener l = new RecordingProgressListener ();
+		ErrorLineParser instance = new ErrorLineParser (l, 3);
+		char[] data = "xxfirst\r\n\nsec".toCharArray ();
+		instance.consume (data, 2, data.length - 2);
+		instance.consume (null, 0, 1);
+		char[] rest = "ond\nthird".toCharArray ();
+		instance.consume (rest, 0, rest.length);
+		assertEquals (Arrays.asList ("errorLine 3 first",
+			"errorLine 3 second"), l.getEvents ());
+		instance.endOfInput ();
+		instance.endOfInput ();
+		assertEquals (Arrays.asList ("errorLine 3 first",
+			"errorLine 3 second", "errorLine 3 third"), l.getEvents ());
+	}
+
+	/**
+	 * Test of the constructor, of class ErrorLineParser.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorNull()
+	{
+		System.out.println("ErrorLineParser - null");
+		new ErrorLineParser (null, 0);
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * ExceptionDeduplicatorTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ExceptionDeduplicatorTest - a test for the ExceptionDeduplicator class.
+ * @author Bogdan Drozdowski
+ */
+public class ExceptionDeduplicatorTest
+{
+	private static IOException thrownHere(String msg)
+	{
+		return new IOException(msg);
+	}
+
+	/**
+	 * Test of accept and getSummaries methods, of class ExceptionDeduplicator.
+	 */
+	@Test
+	public void testAccept()
+	{
+		System.out.println("accept");
+		ExceptionDeduplicator instance = new ExceptionDeduplicator(1000, 10);
+		IOException ex = thrownHere("Broken pipe");
+		assertFalse(instance.accept(null, null, 0));
+		assertTrue(instance.accept(ex, "read", 0));
+		assertFalse(instance.hasPending());
+		assertFalse(instance.accept(ex, "read", 100));
+		// the same place, but different data:
+		assertTrue(instance.accept(ex, "write", 100));
+		// a new exception of the same class, thrown in the same place:
+		assertFalse(instance.accept(thrownHere("Broken pipe"), "read", 200));
+		assertTrue(instance.hasPending());
+		// not yet
+		assertEquals(Collections.<String>emptyList(), instance.getSummaries(500, false));
+		assertEquals(Arrays.asList("java.io.IOException: Broken pipe, Data='read': repeated 2 times"),
+			instance.getSummaries(1000, false));
+		assertFalse(instance.hasPending());
+		assertFalse(instance.accept(ex, "read", 1500));
+		assertEquals(Arrays.asList("java.io.IOException: Broken pipe, Data='read': repeated 1 times"),
+			instance.getSummaries(1600, true));
+		// quiet for the whole interval, so shown in full again
+		assertTrue(instance.accept(ex, "read", 2600));
+		assertFalse(instance.hasPending());
+	}
+
+	/**
+	 * Test of accept method, of class ExceptionDeduplicator, with too many exceptions.
+	 */
+	@Test
+	public void testAcceptEvicted()
+	{
+		System.out.println("accept - evicted");
+		ExceptionDeduplicator instance = new ExceptionDeduplicator(1000, 2);
+		IOException ex = new IOException("Broken pipe");
+		assertTrue(instance.accept(ex, "1", 0));
+		assertFalse(instance.accept(ex, "1", 1));
+		assertTrue(instance.accept(ex, "2", 2));
+		// forgets "1", but not the number of its repeats
+		assertTrue(instance.accept(ex, "3", 3));
+		assertTrue(instance.hasPending());
+		assertEquals(Arrays.asList("java.io.IOException: Broken pipe, Data='1': repeated 1 times"),
+			instance.getSummaries(4, false));
+		assertFalse(instance.hasPending());
+		assertTrue(instance.accept(ex, "1", 5));
+	}
+
+	/**
+	 * Test of getKey method, of class ExceptionDeduplicator.
+	 */
+	@Test
+	public void testGetKey()
+	{
+		System.out.println("getKey");
+		IOException ex1 = thrownHere("a");
+		IOException ex2 = new IOException("a");
+		// the message isn't a part of the key, the place is
+		assertEquals(ExceptionDeduplicator.getKey(ex1, null),
+			ExceptionDeduplicator.getKey(thrownHere("b"), null));
+		assertNotEquals(ExceptionDeduplicator.getKey(ex1, null),
+			ExceptionDeduplicator.getKey(ex2, null));
+		assertNotEquals(ExceptionDeduplicator.getKey(ex1, "x"),
+			ExceptionDeduplicator.getKey(ex1, "y"));
+		assertNotEquals(ExceptionDeduplicator.getKey(ex2, null),
+			ExceptionDeduplicator.getKey(new IllegalStateException("a"), null));
+	}
+}
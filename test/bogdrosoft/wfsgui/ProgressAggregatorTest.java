@@ -0,0 +1,60 @@
+/*
+ * ProgressAggregatorTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ProgressAggregatorTest - a test for the ProgressAggregator class.
+ * @author Bogdan Drozdowski
+ */
+public class ProgressAggregatorTest
+{
+	/**
+	 * Test of update method, of class ProgressAggregator.
+	 */
+	@Test
+	public void testUpdate()
+	{
+		System.out.println("update");
+		List<String> options = Arrays.asList("wipefreespace");
+		// weights: 1 and 3 filesystems
+		List<WipeJob> jobs = Arrays.asList(
+			new WipeJob(0, options, Arrays.asList("a"), 3),
+			new WipeJob(1, options, Arrays.asList("b", "c", "d"), 3));
+		ProgressAggregator instance = new ProgressAggregator(jobs);
+		assertEquals(0, instance.getTotalPercent());
+		assertEquals(25, instance.update(0, 100));
+		assertEquals(25, instance.update(1, 0));
+		assertEquals(62, instance.update(1, 50));
+		assertEquals(100, instance.update(1, 100));
+		// the values are capped
+		assertEquals(100, instance.update(1, 1000));
+		// a job's progress never goes back
+		assertEquals(100, instance.update(0, -5));
+		assertEquals(100, instance.update(1, 50));
+		// unknown jobs are ignored
+		assertEquals(100, instance.update(7, 0));
+		assertEquals(100, instance.getTotalPercent());
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * ProgressEventDispatcherTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ProgressEventDispatcherTest - a test for the ProgressEventDispatcher class.
+ * @author Bogdan Drozdowski
+ */
+public class ProgressEventDispatcherTest
+{
+	/**
+	 * Test of passing the events, of class ProgressEventDispatcher.
+	 */
+	@Test
+	public void testEvents()
+	{
+		System.out.println("events");
+		ProgressEventDispatcher instance = new ProgressEventDispatcher ();
+		// no listeners - nothing happens
+		instance.fsStarted (0, "/dev/sda1");
+		RecordingProgressListener l1 = new RecordingProgressListener ();
+		RecordingProgressListener l2 = new RecordingProgressListener ();
+		instance.addListener (l1);
+		instance.addListener (l2);
+		instance.fsStarted (1, "/dev/sda1");
+		instance.stageProgress (1, "/dev/sda1", 50, 25, 12);
+		instance.errorLine (1, new StringBuilder ("error"));
+		instance.fsFinished (1, "/dev/sda1");
+		instance.removeListener (l1);
+		instance.processExited (1, 0);
+		assertEquals (Arrays.asList ("fsStarted 1 /dev/sda1",
+			"stageProgress 1 /dev/sda1 50 25 12",
+			"errorLine 1 error", "fsFinished 1 /dev/sda1"),
+			l1.getEvents ());
+		assertEquals (5, l2.getEvents ().size ());
+		assertEquals ("processExited 1 0", l2.getEvents ().get (4));
+		instance.removeListener (l2);
+		instance.removeListener (l2);
+		instance.processExited (2, 0);
+		assertEquals (5, l2.getEvents ().size ());
+	}
+
+	/**
+	 * Test of addListener method, of class ProgressEventDispatcher.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddListenerNull()
+	{
+		System.out.println("addListener - null");
+		new ProgressEventDispatcher ().addListener (null);
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * ProgressRateEstimatorTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ProgressRateEstimatorTest - a test for the ProgressRateEstimator class.
+ * @author Bogdan Drozdowski
+ */
+public class ProgressRateEstimatorTest
+{
+	/**
+	 * Test of estimating the speed and the time left, of class ProgressRateEstimator.
+	 */
+	@Test
+	public void testUpdate()
+	{
+		System.out.println("update");
+		List<WipeJob> jobs = WipeJob.createJobs (Arrays.asList ("wipefreespace"),
+			Arrays.asList ("/mnt/a"), 3, true);
+		ProgressRateEstimator instance = new ProgressRateEstimator
+			(new ProgressAggregator (jobs), 0.5, 1000);
+		assertEquals(-1, instance.getFsEstimate (0).getSecondsLeft ());
+		instance.fsStarted (0, 100000000L, 0);
+		// too short to measure
+		instance.update (0, 10, 10, 500);
+		assertEquals(-1, instance.getFsEstimate (0).getSecondsLeft ());
+		// 10% per second
+		instance.update (0, 10, 10, 1000);
+		ProgressRateEstimator.Estimate e = instance.getFsEstimate (0);
+		assertEquals(10.0, e.getPercentPerSecond (), 0.001);
+		assertEquals(9, e.getSecondsLeft ());
+		assertEquals(10000000.0, e.getBytesPerSecond (), 1.0);
+		assertEquals(-1, instance.getTotalEstimate ().getSecondsLeft ());
+		assertEquals(10000000.0, instance.getTotalEstimate ().getBytesPerSecond (), 1.0);
+		// 20% per second, smoothed to 15% per second
+		instance.update (0, 30, 30, 2000);
+		e = instance.getFsEstimate (0);
+		assertEquals(15.0, e.getPercentPerSecond (), 0.001);
+		assertEquals(5, e.getSecondsLeft ());
+		assertEquals(15000000.0, e.getBytesPerSecond (), 1.0);
+		// 20% in 1.5 seconds for the whole run
+		e = instance.getTotalEstimate ();
+		assertEquals(13.333, e.getPercentPerSecond (), 0.001);
+		assertEquals(6, e.getSecondsLeft ());
+		instance.update (0, 100, 100, 3000);
+		assertEquals(0, instance.getFsEstimate (0).getSecondsLeft ());
+		instance.processExited (0, 0);
+		assertEquals(-1, instance.getFsEstimate (0).getSecondsLeft ());
+		assertEquals(-1, instance.getFsEstimate (0).getBytesPerSecond ());
+	}
+
+	/**
+	 * Test of ignoring the late events, of class ProgressRateEstimator.
+	 */
+	@Test
+	public void testUpdateAfterExit()
+	{
+		System.out.println("update - after exit");
+		ProgressRateEstimator instance = new ProgressRateEstimator (null, 1.0, 1000);
+		ProgressRateEstimator.Estimate e = new ProgressRateEstimator.Estimate ();
+		instance.update (2, 10, 10, 0);
+		instance.update (2, 20, 20, 1000);
+		assertSame(e, instance.getFsEstimate (2, e));
+		assertEquals(8, e.getSecondsLeft ());
+		instance.processExited (2, 0);
+		instance.fsStarted (2, 1000L, 1500);
+		instance.update (2, 30, 30, 2000);
+		instance.update (2, 40, 40, 3000);
+		assertSame(e, instance.getFsEstimate (2, e));
+		assertEquals(-1, e.getSecondsLeft ());
+		assertEquals(-1, e.getBytesPerSecond ());
+	}
+
+	/**
+	 * Test of estimating after the progress starts again, of class ProgressRateEstimator.
+	 */
+	@Test
+	public void testUpdateRestart()
+	{
+		System.out.println("update - restart");
+		ProgressRateEstimator instance = new ProgressRateEstimator (null, 1.0, 1000);
+		// no fs_start, so the size is unknown
+		instance.update (3, 50, 50, 0);
+		instance.update (3, 60, 60, 1000);
+		ProgressRateEstimator.Estimate e = instance.getFsEstimate (3);
+		assertEquals(-1, e.getBytesPerSecond ());
+		assertEquals(4, e.getSecondsLeft ());
+		assertEquals(4, instance.getTotalEstimate ().getSecondsLeft ());
+		// the next filesystem - the old speed is kept until measured again
+		instance.update (3, 0, 0, 1500);
+		instance.update (3, 50, 50, 2500);
+		assertEquals(50.0, instance.getFsEstimate (3).getPercentPerSecond (), 0.001);
+		assertEquals(1, instance.getFsEstimate (3).getSecondsLeft ());
+	}
+
+	/**
+	 * Test of the constructor, of class ProgressRateEstimator.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorSmoothing()
+	{
+		System.out.println("ProgressRateEstimator - smoothing");
+		new ProgressRateEstimator (null, 0.0, 1000);
+	}
+
+	/**
+	 * Test of formatting the estimates, of class ProgressRateEstimator.
+	 */
+	@Test
+	public void testFormat()
+	{
+		System.out.println("format");
+		assertEquals("0.0 B/s", ProgressRateEstimator.formatRate (0));
+		assertEquals("1.5 kB/s", ProgressRateEstimator.formatRate (1536));
+		assertEquals("12.3 MB/s", ProgressRateEstimator.formatRate (12897484));
+		assertEquals("0:00:59", ProgressRateEstimator.formatTime (59));
+		assertEquals("1:02:03", ProgressRateEstimator.formatTime (3723));
+		assertEquals("1.5 kB/s, 1:02:03",
+			new ProgressRateEstimator.Estimate (1.0, 1536, 3723).getDescription ());
+		assertEquals("0:00:10",
+			new ProgressRateEstimator.Estimate (1.0, -1, 10).getDescription ());
+		assertEquals("", new ProgressRateEstimator.Estimate ().getDescription ());
+	}
+
+	/**
+	 * Test of getFreeSpace method, of class ProgressRateEstimator.
+	 */
+	@Test
+	public void testGetFreeSpace()
+	{
+		System.out.println("getFreeSpace");
+		assertEquals(-1, ProgressRateEstimator.getFreeSpace (null));
+		assertEquals(-1, ProgressRateEstimator.getFreeSpace ("/nonexistent/dev/wfsgui"));
+		assertTrue(ProgressRateEstimator.getFreeSpace
+			(System.getProperty ("java.io.tmpdir")) >= 0);
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * ReaderExecutorTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ReaderExecutorTest - a test for the ReaderExecutor class.
+ * @author Bogdan Drozdowski
+ */
+public class ReaderExecutorTest
+{
+	/**
+	 * Test of setMaxProcesses method, of class ReaderExecutor.
+	 */
+	@Test
+	public void testSetMaxProcesses()
+	{
+		System.out.println("setMaxProcesses");
+		ReaderExecutor.setMaxProcesses(5);
+		assertEquals(5 * ReaderExecutor.READERS_PER_PROCESS,
+			ReaderExecutor.getCoreThreads());
+		ReaderExecutor.setMaxProcesses(2);
+		assertEquals(2 * ReaderExecutor.READERS_PER_PROCESS,
+			ReaderExecutor.getCoreThreads());
+		ReaderExecutor.setMaxProcesses(0);
+		assertEquals(ReaderExecutor.READERS_PER_PROCESS,
+			ReaderExecutor.getCoreThreads());
+	}
+
+	/**
+	 * Test of submit method, of class ReaderExecutor.
+	 * @throws Exception on test failure.
+	 */
+	@Test
+	public void testSubmit() throws Exception
+	{
+		System.out.println("submit");
+		ReaderExecutor.setMaxProcesses(1);
+		Future<Thread> f = ReaderExecutor.submit(new Callable<Thread>()
+		{
+			@Override
+			public Thread call()
+			{
+				return Thread.currentThread();
+			}
+		});
+		Thread t = f.get(10, TimeUnit.SECONDS);
+		assertTrue(t.isDaemon());
+		assertTrue(t.getName(), t.getName().startsWith("wfsgui-reader-"));
+	}
+
+	/**
+	 * Test of submit method, of class ReaderExecutor, with more programs
+	 * than the limit, each reader blocking until all of them are read.
+	 * @throws Exception on test failure.
+	 */
+	@Test
+	public void testSubmitMany() throws Exception
+	{
+		System.out.println("submit - many");
+		ReaderExecutor.setMaxProcesses(1);
+		final int readers = 10 * ReaderExecutor.READERS_PER_PROCESS;
+		final CountDownLatch running = new CountDownLatch(readers);
+		List<Future<Boolean>> tasks = new ArrayList<Future<Boolean>>();
+		for ( int i = 0; i < readers; i++ )
+		{
+			tasks.add(ReaderExecutor.submit(new Callable<Boolean>()
+			{
+				@Override
+				public Boolean call() throws InterruptedException
+				{
+					// like a reader of a program which waits for
+					// the other programs
+					running.countDown();
+					return running.await(10, TimeUnit.SECONDS);
+				}
+			}));
+		}
+		// no reader waits for a free thread
+		for ( Future<Boolean> f : tasks )
+		{
+			assertTrue(f.get(20, TimeUnit.SECONDS));
+		}
+		assertEquals(ReaderExecutor.READERS_PER_PROCESS,
+			ReaderExecutor.getCoreThreads());
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * RecordingProgressListener.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RecordingProgressListener - a ProgressListener for the tests, which
+ * records the received events as Strings.
+ * @author Bogdan Drozdowski
+ */
+public class RecordingProgressListener implements ProgressListener
+{
+	private final List<String> events = new ArrayList<String> ();
+
+	@Override
+	public synchronized void fsStarted (int jobId, String fsName)
+	{
+		events.add ("fsStarted " + jobId + " " + fsName);
+	}
+
+	@Override
+	public synchronized void stageProgress (int jobId, String fsName,
+		int stagePercent, int fsPercent, int totalPercent)
+	{
+		events.add ("stageProgress " + jobId + " " + fsName + " "
+			+ stagePercent + " " + fsPercent + " " + totalPercent);
+	}
+
+	@Override
+	public synchronized void fsFinished (int jobId, String fsName)
+	{
+		events.add ("fsFinished " + jobId + " " + fsName);
+	}
+
+	@Override
+	public synchronized void errorLine (int jobId, CharSequence line)
+	{
+		events.add ("errorLine " + jobId + " " + line);
+	}
+
+	@Override
+	public synchronized void processExited (int jobId, int exitCode)
+	{
+		events.add ("processExited " + jobId + " " + exitCode);
+	}
+
+	/**
+	 * Gets the recorded events.
+	 * @return the recorded events.
+	 */
+	public synchronized List<String> getEvents ()
+	{
+		return new ArrayList<String> (events);
+	}
+}
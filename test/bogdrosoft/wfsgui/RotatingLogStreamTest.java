@@ -0,0 +1,181 @@
+/*
+ * RotatingLogStreamTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * RotatingLogStreamTest - a test for the RotatingLogStream class.
+ * @author Bogdan Drozdowski
+ */
+public class RotatingLogStreamTest
+{
+	private File dir;
+	private File log;
+
+	/**
+	 * Creates the directory for the log files.
+	 * @throws IOException on test failure.
+	 */
+	@Before
+	public void setUp() throws IOException
+	{
+		dir = Files.createTempDirectory("wfsgui-log").toFile();
+		log = new File(dir, "wfsgui2.log");
+	}
+
+	/**
+	 * Removes the log files.
+	 */
+	@After
+	public void tearDown()
+	{
+		File[] files = dir.listFiles();
+		if ( files != null )
+		{
+			for ( File f : files )
+			{
+				f.delete();
+			}
+		}
+		dir.delete();
+	}
+
+	private static String read(InputStream is) throws IOException
+	{
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		byte[] buf = new byte[1024];
+		int n;
+		while ( (n = is.read(buf)) >= 0 )
+		{
+			bos.write(buf, 0, n);
+		}
+		is.close();
+		return bos.toString("UTF-8");
+	}
+
+	/**
+	 * Test of write method, of class RotatingLogStream, with the size limit.
+	 * @throws IOException on test failure.
+	 */
+	@Test
+	public void testWriteSize() throws IOException
+	{
+		System.out.println("write - size");
+		RotatingLogStream instance = new RotatingLogStream(log, 10, 0, 2, false);
+		for ( int i = 0; i < 5; i++ )
+		{
+			instance.write(("line " + i + "...\n").getBytes("UTF-8"));
+		}
+		instance.write("last".getBytes("UTF-8"));
+		instance.close();
+		assertEquals("last", new String(Files.readAllBytes(log.toPath()), "UTF-8"));
+		// only the 2 newest rotated files are kept
+		List<File> rotated = RotatingLogStream.getRotatedFiles(log);
+		assertEquals(2, rotated.size());
+		assertEquals("line 3...\n", new String(Files.readAllBytes(rotated.get(0).toPath()), "UTF-8"));
+		assertEquals("line 4...\n", new String(Files.readAllBytes(rotated.get(1).toPath()), "UTF-8"));
+	}
+
+	/**
+	 * Test of write method, of class RotatingLogStream, with compression.
+	 * @throws IOException on test failure.
+	 */
+	@Test
+	public void testWriteCompressed() throws IOException
+	{
+		System.out.println("write - compressed");
+		RotatingLogStream instance = new RotatingLogStream(log, 0, 0, 5, true);
+		instance.write("first\n".getBytes("UTF-8"));
+		instance.rotate();
+		instance.write("second\n".getBytes("UTF-8"));
+		// waits for the compression
+		instance.close();
+		List<File> rotated = RotatingLogStream.getRotatedFiles(log);
+		assertEquals(1, rotated.size());
+		assertTrue(rotated.get(0).getName(),
+			rotated.get(0).getName().endsWith(RotatingLogStream.GZIP_EXT));
+		assertEquals("first\n", read(new GZIPInputStream(
+			new FileInputStream(rotated.get(0)))));
+		assertEquals("second\n", new String(Files.readAllBytes(log.toPath()), "UTF-8"));
+	}
+
+	/**
+	 * Test of write method, of class RotatingLogStream, with the age limit.
+	 * @throws Exception on test failure.
+	 */
+	@Test
+	public void testWriteAge() throws Exception
+	{
+		System.out.println("write - age");
+		RotatingLogStream instance = new RotatingLogStream(log, 0, 50, 5, false);
+		instance.write("old\n".getBytes("UTF-8"));
+		assertTrue(RotatingLogStream.getRotatedFiles(log).isEmpty());
+		Thread.sleep(100);
+		instance.write("new\n".getBytes("UTF-8"));
+		instance.close();
+		List<File> rotated = RotatingLogStream.getRotatedFiles(log);
+		assertEquals(1, rotated.size());
+		assertEquals("old\nnew\n", new String(Files.readAllBytes(rotated.get(0).toPath()), "UTF-8"));
+		assertEquals(0, log.length());
+	}
+
+	/**
+	 * Test of the constructor of class RotatingLogStream, with an existing log.
+	 * @throws IOException on test failure.
+	 */
+	@Test
+	public void testOpenExisting() throws IOException
+	{
+		System.out.println("RotatingLogStream - existing log");
+		Files.write(log.toPath(), "previous run\n".getBytes("UTF-8"));
+		RotatingLogStream instance = new RotatingLogStream(log, 0, 0, 5, false);
+		instance.close();
+		// nothing written, so the log can be removed like before
+		assertEquals(0, log.length());
+		List<File> rotated = RotatingLogStream.getRotatedFiles(log);
+		assertEquals(1, rotated.size());
+		assertEquals("previous run\n", new String(Files.readAllBytes(rotated.get(0).toPath()), "UTF-8"));
+	}
+
+	/**
+	 * Test of write method, of class RotatingLogStream, after closing.
+	 * @throws IOException on test failure.
+	 */
+	@Test(expected = IOException.class)
+	public void testWriteClosed() throws IOException
+	{
+		System.out.println("write - closed");
+		RotatingLogStream instance = new RotatingLogStream(log, 0, 0, 5, false);
+		instance.close();
+		instance.write('a');
+	}
+}
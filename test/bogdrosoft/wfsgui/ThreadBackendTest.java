@@ -0,0 +1,115 @@
+/*
+ * ThreadBackendTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.util.concurrent.ThreadFactory;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ThreadBackendTest - a test for the ThreadBackend class.
+ * @author Bogdan Drozdowski
+ */
+public class ThreadBackendTest
+{
+	private static final Runnable NOTHING = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			// nothing to do
+		}
+	};
+
+	private static boolean hasVirtualThreads()
+	{
+		try
+		{
+			Thread.class.getMethod("ofVirtual");
+			return Integer.parseInt(System.getProperty("java.specification.version")
+					.replaceFirst("^1\\.", "")) >= 21;
+		}
+		catch (NoSuchMethodException ex)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Test of isVirtual method, of class ThreadBackend.
+	 */
+	@Test
+	public void testIsVirtual()
+	{
+		System.out.println("isVirtual");
+		boolean disabled = "false".equalsIgnoreCase(
+			System.getProperty(ThreadBackend.VIRTUAL_THREADS_PROPERTY));
+		assertEquals(hasVirtualThreads() && ! disabled, ThreadBackend.isVirtual());
+	}
+
+	/**
+	 * Test of newThreadFactory method, of class ThreadBackend.
+	 */
+	@Test
+	public void testNewThreadFactory()
+	{
+		System.out.println("newThreadFactory");
+		ThreadFactory f = ThreadBackend.newThreadFactory("wfsgui-test");
+		Thread t = f.newThread(NOTHING);
+		assertEquals("wfsgui-test-1", t.getName());
+		assertTrue(t.isDaemon());
+		assertEquals("wfsgui-test-2", f.newThread(NOTHING).getName());
+		if ( ! ThreadBackend.isVirtual() )
+		{
+			assertTrue(f instanceof DaemonThreadFactory);
+		}
+	}
+
+	/**
+	 * Test of createVirtualThreadFactory method, of class ThreadBackend.
+	 * @throws Exception on test failure.
+	 */
+	@Test
+	public void testCreateVirtualThreadFactory() throws Exception
+	{
+		System.out.println("createVirtualThreadFactory");
+		ThreadFactory f = ThreadBackend.createVirtualThreadFactory("wfsgui-test");
+		if ( ! hasVirtualThreads() )
+		{
+			assertNull(f);
+			return;
+		}
+		assertNotNull(f);
+		Thread t = f.newThread(NOTHING);
+		assertEquals("wfsgui-test-1", t.getName());
+		assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(t));
+		assertSame(Utils.HANDLER, t.getUncaughtExceptionHandler());
+	}
+
+	/**
+	 * Test of newThreadFactory method, of class ThreadBackend, with a null name.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNewThreadFactoryNull()
+	{
+		System.out.println("newThreadFactory - null");
+		ThreadBackend.newThreadFactory(null);
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * WfsLauncherTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * WfsLauncherTest - a test for the WfsLauncher class.
+ * @author Bogdan Drozdowski
+ */
+public class WfsLauncherTest
+{
+	private static final List<String> SCRIPT = Arrays.asList("/bin/sh", "-c",
+		"echo \"out $LC_ALL\"; echo 'err' >&2");
+
+	private static String readAll(InputStream is) throws IOException
+	{
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		byte[] buf = new byte[1024];
+		int n;
+		while ( (n = is.read(buf)) >= 0 )
+		{
+			bos.write(buf, 0, n);
+		}
+		is.close();
+		return bos.toString();
+	}
+
+	/**
+	 * Test of createProcessBuilder method, of class WfsLauncher.
+	 */
+	@Test
+	public void testCreateProcessBuilder()
+	{
+		System.out.println("createProcessBuilder");
+		WfsLauncher instance = new WfsLauncher();
+		ProcessBuilder pb = instance.createProcessBuilder(SCRIPT);
+		assertEquals(SCRIPT, pb.command());
+		assertFalse(pb.redirectErrorStream());
+		assertEquals(ProcessBuilder.Redirect.PIPE, pb.redirectError());
+		assertNull(pb.directory());
+		assertEquals(System.getenv(), pb.environment());
+		assertTrue(instance.hasErrorStream());
+
+		instance.setMinimalEnvironment(true);
+		instance.setEnvironment("WFS_TEST", "1");
+		instance.setMergeErrors(true);
+		pb = instance.createProcessBuilder(SCRIPT);
+		assertTrue(pb.redirectErrorStream());
+		assertNull(pb.directory());
+		Map<String, String> env = pb.environment();
+		assertEquals(4, env.size());
+		assertEquals("C", env.get("LC_ALL"));
+		assertEquals("C", env.get("LANG"));
+		assertEquals("1", env.get("WFS_TEST"));
+		assertNotNull(env.get("PATH"));
+		assertFalse(instance.hasErrorStream());
+	}
+
+	/**
+	 * Test of createProcessBuilder method, of class WfsLauncher, with an empty command.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testCreateProcessBuilderEmpty()
+	{
+		System.out.println("createProcessBuilder - empty");
+		new WfsLauncher().createProcessBuilder(Arrays.<String>asList());
+	}
+
+	/**
+	 * Test of fromOptions method, of class WfsLauncher.
+	 */
+	@Test
+	public void testFromOptions()
+	{
+		System.out.println("fromOptions");
+		assertTrue(WfsLauncher.fromOptions(WipeOptions.DEFAULT).hasErrorStream());
+		WipeOptions.Builder b = new WipeOptions.Builder();
+		b.setErrorFile(new File("errors.log"));
+		WfsLauncher instance = WfsLauncher.fromOptions(b.build());
+		assertFalse(instance.hasErrorStream());
+		assertEquals(ProcessBuilder.Redirect.appendTo(new File("errors.log")),
+			instance.createProcessBuilder(SCRIPT).redirectError());
+	}
+
+	/**
+	 * Test of start method, of class WfsLauncher, with the error output merged.
+	 * @throws Exception on test failure.
+	 */
+	@Test
+	public void testStartMerged() throws Exception
+	{
+		System.out.println("start - merged");
+		Assume.assumeTrue(new File("/bin/sh").canExecute());
+		WfsLauncher instance = new WfsLauncher();
+		instance.setMergeErrors(true);
+		instance.setMinimalEnvironment(true);
+		Process p = instance.start(SCRIPT);
+		String output = readAll(p.getInputStream());
+		assertEquals(0, p.waitFor());
+		assertEquals("out C\nerr\n", output);
+	}
+
+	/**
+	 * Test of start method, of class WfsLauncher, with the error output in a file.
+	 * @throws Exception on test failure.
+	 */
+	@Test
+	public void testStartErrorFile() throws Exception
+	{
+		System.out.println("start - error file");
+		Assume.assumeTrue(new File("/bin/sh").canExecute());
+		File errors = File.createTempFile("wfslauncher", ".log");
+		try
+		{
+			WfsLauncher instance = new WfsLauncher();
+			instance.setErrorFile(errors);
+			for ( int i = 0; i < 2; i++ )
+			{
+				Process p = instance.start(SCRIPT);
+				assertTrue(readAll(p.getInputStream()).startsWith("out "));
+				assertEquals(0, p.waitFor());
+			}
+			// appended, not overwritten
+			assertEquals("err\nerr\n", new String(Files.readAllBytes(errors.toPath())));
+		}
+		finally
+		{
+			errors.delete();
+		}
+	}
+}
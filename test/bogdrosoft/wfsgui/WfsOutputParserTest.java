@@ -0,0 +1,158 @@
+/*
+ * WfsOutputParserTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * WfsOutputParserTest - a test for the WfsOutputParser class.
+ * @author Bogdan Drozdowski
+ */
+public class WfsOutputParserTest
+{
+	private static String stars (char c, int n)
+	{
+		StringBuilder sb = new StringBuilder (n);
+		for ( int i = 0; i < n; i++ )
+		{
+			sb.append (c);
+		}
+		return sb.toString ();
+	}
+
+	/**
+	 * Test of consume method, of class WfsOutputParser.
+	 */
+	@Test
+	public void testConsumeFilesystems()
+	{
+		System.out.println("consume - filesystems");
+		WfsOutputParser instance = new WfsOutputParser (2, 3);
+		assertEquals ("", instance.getCurrentFS ());
+		instance.consume ("wipefreespace:/dev/sda1: Wiping free space\n");
+		assertEquals ("/dev/sda1", instance.getCurrentFS ());
+		assertEquals (0, instance.getFSDone ());
+		instance.consume ("wipefreespace:/dev/sda1: Error: something\n");
+		assertEquals ("/dev/sda1", instance.getCurrentFS ());
+		assertEquals (0, instance.getFSDone ());
+		instance.consume ("wipefreespace:/dev/sdb1: Wiping free space\n");
+		assertEquals ("/dev/sdb1", instance.getCurrentFS ());
+		assertEquals (1, instance.getFSDone ());
+		instance.consume ("wipefreespace::bad\nnot wipefreespace:/dev/sdc1: x\n");
+		assertEquals ("/dev/sdb1", instance.getCurrentFS ());
+	}
+
+	/**
+	 * Test of consume method, of class WfsOutputParser, with data split
+	 * in the middle of lines.
+	 */
+	@Test
+	public void testConsumeSplit()
+	{
+		System.out.println("consume - split");
+		WfsOutputParser instance = new WfsOutputParser (1, 2);
+		instance.consume ("wipefree");
+		instance.consume ("space:/dev/sd");
+		assertEquals ("", instance.getCurrentFS ());
+		instance.consume ("a1:");
+		assertEquals ("", instance.getCurrentFS ());
+		instance.consume ("\r\n" + stars ('*', 30));
+		assertEquals ("/dev/sda1", instance.getCurrentFS ());
+		assertEquals (30, instance.getStagePercent ());
+		assertEquals (15, instance.getFSPercent ());
+		instance.consume (stars ('*', 70).toCharArray (), 0, 70);
+		assertEquals (100, instance.getStagePercent ());
+		instance.consume ("\n" + stars ('-', 50) + "  ");
+		assertEquals (50, instance.getStagePercent ());
+		assertEquals (75, instance.getFSPercent ());
+		assertEquals (75, instance.getTotalPercent ());
+	}
+
+	/**
+	 * Test of getTotalPercent method, of class WfsOutputParser.
+	 */
+	@Test
+	public void testGetTotalPercent()
+	{
+		System.out.println("getTotalPercent");
+		WfsOutputParser instance = new WfsOutputParser (2, 1);
+		// progress before the first filesystem is ignored
+		instance.consume (stars ('*', 100) + "\n");
+		assertEquals (0, instance.getTotalPercent ());
+		instance.consume ("wipefreespace:/dev/sda1: Wiping\n");
+		instance.consume (stars ('*', 100) + "\n");
+		assertEquals (100, instance.getFSPercent ());
+		assertEquals (50, instance.getTotalPercent ());
+		instance.consume ("wipefreespace:/dev/sdb1: Wiping\n");
+		assertEquals (0, instance.getStagePercent ());
+		assertEquals (50, instance.getTotalPercent ());
+		instance.consume (stars ('*', 50));
+		assertEquals (75, instance.getTotalPercent ());
+	}
+
+	/**
+	 * Test of setProgressListener method, of class WfsOutputParser.
+	 */
+	@Test
+	public void testSetProgressListener()
+	{
+		System.out.println("setProgressListener");
+		RecordingProgressListener l = new RecordingProgressListener ();
+		WfsOutputParser instance = new WfsOutputParser (2, 1);
+		instance.setProgressListener (l, 4);
+		instance.consume (stars ('*', 10) + "\n");
+		instance.consume ("wipefreespace:/dev/sda1: Wiping\n");
+		instance.consume (stars ('*', 50));
+		// no change - no event
+		instance.consume ("");
+		instance.consume ((stars ('*', 50) + "\n").toCharArray (), 0, 51);
+		instance.consume ("wipefreespace:/dev/sdb1: Wiping\n");
+		instance.endOfInput ();
+		assertEquals (Arrays.asList (
+			"fsStarted 4 /dev/sda1",
+			"stageProgress 4 /dev/sda1 0 0 0",
+			"stageProgress 4 /dev/sda1 50 50 25",
+			"stageProgress 4 /dev/sda1 100 100 50",
+			"fsFinished 4 /dev/sda1",
+			"fsStarted 4 /dev/sdb1",
+			"stageProgress 4 /dev/sdb1 0 0 50",
+			"fsFinished 4 /dev/sdb1"), l.getEvents ());
+	}
+
+	/**
+	 * Test of setCharCounter method, of class WfsOutputParser.
+	 */
+	@Test
+	public void testSetCharCounter()
+	{
+		System.out.println("setCharCounter");
+		WfsOutputParser instance = new WfsOutputParser (1, 3);
+		// not counted without a counter
+		instance.consume ("wipefreespace:/dev/sda1: ");
+		AtomicLong counter = new AtomicLong (0);
+		instance.setCharCounter (counter);
+		instance.consume ("****");
+		instance.consume ("---\n".toCharArray (), 0, 4);
+		assertEquals(8, counter.get ());
+	}
+}
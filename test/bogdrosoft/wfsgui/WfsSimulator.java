@@ -0,0 +1,249 @@
+/*
+ * WfsSimulator.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * WfsSimulator - a stand-in for the "wipefreespace" program, for testing.
+ * Prints the same verbose output the program prints, with the given speed,
+ * without touching any disk. The options of "wipefreespace" are accepted
+ * and only change the number of stages. The simulation is controlled by
+ * these options or the environment variables (the options win):
+ * <pre>
+ * --sim-filesystems N	WFS_SIM_FILESYSTEMS	the number of filesystems, if none are given
+ * --sim-stages N	WFS_SIM_STAGES		the number of stages (1-3)
+ * --sim-rate N		WFS_SIM_RATE		progress characters per second, 0 - no limit
+ * --sim-burst N		WFS_SIM_BURST		progress characters written at once
+ * --sim-stderr-every N	WFS_SIM_STDERR_EVERY	an error line every N progress characters, 0 - none
+ * --sim-exit N		WFS_SIM_EXIT		the exit code
+ * </pre>
+ * The "wipefreespace-sim.sh" script runs it and can be given as the
+ * path to "wipefreespace" in the GUI or in the configuration file.
+ * @author Bogdan Drozdowski
+ */
+public class WfsSimulator
+{
+	private static final String PREFIX = "wipefreespace:";	// NOI18N
+	private static final char[] STAGE_CHARS = {'*', '-', '='};
+	private static final String[] STAGE_NAMES = {
+		"Wiping unused space in used blocks",	// NOI18N
+		"Wiping undelete data",	// NOI18N
+		"Wiping free space"};	// NOI18N
+
+	private int nFilesystems = 1;
+	private int nStages = -1;
+	private long rate;
+	private int burst = 1;
+	private int stderrEvery;
+	private int exitCode;
+	private final boolean[] stages = {true, true, true};
+	private final List<String> filesystems = new ArrayList<String> ();
+
+	/**
+	 * The starting point.
+	 * @param args The command line.
+	 */
+	public static void main (String[] args)
+	{
+		System.exit (run (args, System.getenv (), System.out, System.err));
+	}
+
+	/**
+	 * Runs the simulation.
+	 * @param args The command line.
+	 * @param env The environment variables.
+	 * @param out The standard output.
+	 * @param err The error output.
+	 * @return the exit code.
+	 */
+	public static int run (String[] args, Map<String, String> env,
+		PrintStream out, PrintStream err)
+	{
+		WfsSimulator sim = new WfsSimulator ();
+		try
+		{
+			sim.configure (args, (env != null)? env
+				: Collections.<String, String>emptyMap ());
+			return sim.simulate (out, err);
+		}
+		catch (NumberFormatException ex)
+		{
+			err.println (PREFIX + " invalid number: " + ex.getMessage ());	// NOI18N
+			return 1;
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread ().interrupt ();
+			return 1;
+		}
+	}
+
+	private void configure (String[] args, Map<String, String> env)
+	{
+		nFilesystems = getInt (env, "WFS_SIM_FILESYSTEMS", nFilesystems);	// NOI18N
+		nStages = getInt (env, "WFS_SIM_STAGES", nStages);	// NOI18N
+		rate = getInt (env, "WFS_SIM_RATE", 0);	// NOI18N
+		burst = getInt (env, "WFS_SIM_BURST", burst);	// NOI18N
+		stderrEvery = getInt (env, "WFS_SIM_STDERR_EVERY", 0);	// NOI18N
+		exitCode = getInt (env, "WFS_SIM_EXIT", 0);	// NOI18N
+		for ( int i = 0; i < args.length; i++ )
+		{
+			String arg = args[i].toLowerCase (Locale.ENGLISH);
+			boolean hasNext = i + 1 < args.length;
+			if ( "--sim-filesystems".equals (arg) && hasNext )	// NOI18N
+			{
+				nFilesystems = Integer.parseInt (args[++i]);
+			}
+			else if ( "--sim-stages".equals (arg) && hasNext )	// NOI18N
+			{
+				nStages = Integer.parseInt (args[++i]);
+			}
+			else if ( "--sim-rate".equals (arg) && hasNext )	// NOI18N
+			{
+				rate = Long.parseLong (args[++i]);
+			}
+			else if ( "--sim-burst".equals (arg) && hasNext )	// NOI18N
+			{
+				burst = Integer.parseInt (args[++i]);
+			}
+			else if ( "--sim-stderr-every".equals (arg) && hasNext )	// NOI18N
+			{
+				stderrEvery = Integer.parseInt (args[++i]);
+			}
+			else if ( "--sim-exit".equals (arg) && hasNext )	// NOI18N
+			{
+				exitCode = Integer.parseInt (args[++i]);
+			}
+			else if ( "--nopart".equals (arg) )	// NOI18N
+			{
+				stages[0] = false;
+			}
+			else if ( "--nounrm".equals (arg) )	// NOI18N
+			{
+				stages[1] = false;
+			}
+			else if ( "--nowfs".equals (arg) )	// NOI18N
+			{
+				stages[2] = false;
+			}
+			else if ( ("-b".equals (arg)
+				|| "-n".equals (arg) || "--method".equals (arg)
+				|| "--order".equals (arg)) && hasNext )	// NOI18N
+			{
+				// the value of the option
+				i++;
+			}
+			else if ( ! arg.startsWith (Utils.DASH) )
+			{
+				filesystems.add (args[i]);
+			}
+		}
+		if ( nStages > 0 )
+		{
+			for ( int i = 0; i < stages.length; i++ )
+			{
+				stages[i] = i < nStages;
+			}
+		}
+		if ( filesystems.isEmpty () )
+		{
+			for ( int i = 1; i <= nFilesystems; i++ )
+			{
+				filesystems.add ("/dev/sim" + i);	// NOI18N
+			}
+		}
+		burst = Math.max (1, burst);
+	}
+
+	private static int getInt (Map<String, String> env, String name, int def)
+	{
+		String v = env.get (name);
+		if ( v == null || v.trim ().isEmpty () )
+		{
+			return def;
+		}
+		return Integer.parseInt (v.trim ());
+	}
+
+	private int simulate (PrintStream out, PrintStream err)
+		throws InterruptedException
+	{
+		long written = 0;
+		final long start = System.nanoTime ();
+		for ( String fs : filesystems )
+		{
+			out.println (PREFIX + fs + ": Starting");	// NOI18N
+			for ( int stage = 0; stage < stages.length; stage++ )
+			{
+				if ( ! stages[stage] )
+				{
+					continue;
+				}
+				out.println (PREFIX + fs + ": " + STAGE_NAMES[stage]);	// NOI18N
+				out.flush ();
+				for ( int p = 0; p < 100; p++ )
+				{
+					out.print (STAGE_CHARS[stage]);
+					written++;
+					if ( stderrEvery > 0 && written % stderrEvery == 0 )
+					{
+						err.println (PREFIX + fs + ": simulated warning " + written);	// NOI18N
+						err.flush ();
+					}
+					if ( written % burst == 0 || p == 99 )
+					{
+						out.flush ();
+						pace (start, written);
+					}
+				}
+				out.println ();
+			}
+		}
+		out.flush ();
+		return exitCode;
+	}
+
+	private void pace (long start, long written) throws InterruptedException
+	{
+		if ( rate <= 0 )
+		{
+			return;
+		}
+		// sleep until the time the written characters are due
+		long dueNanos = written * 1000000000L / rate;
+		long sleepNanos = dueNanos - (System.nanoTime () - start);
+		if ( sleepNanos > 0 )
+		{
+			Thread.sleep (sleepNanos / 1000000L, (int) (sleepNanos % 1000000L));
+		}
+	}
+
+	@Override
+	public String toString ()
+	{
+		return "WfsSimulator" + filesystems;	// NOI18N
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * WfsSimulatorTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * WfsSimulatorTest - a test for the WfsSimulator class.
+ * @author Bogdan Drozdowski
+ */
+public class WfsSimulatorTest
+{
+	/**
+	 * Test of run method, of class WfsSimulator.
+	 */
+	@Test
+	public void testRun()
+	{
+		System.out.println("run");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		Map<String, String> env = new HashMap<String, String>();
+		env.put("WFS_SIM_STDERR_EVERY", "50");
+		env.put("WFS_SIM_EXIT", "3");
+		int result = WfsSimulator.run(new String[] {"-n", "2", "--nopart",
+			"--verbose", "/dev/sda1", "/dev/sdb1", "--sim-exit", "4"},
+			env, new PrintStream(out, true), new PrintStream(err, true));
+		assertEquals(4, result);
+		WfsOutputParser parser = new WfsOutputParser(2, 2);
+		parser.consume(out.toString());
+		assertEquals("/dev/sdb1", parser.getCurrentFS());
+		assertEquals(1, parser.getFSDone());
+		assertEquals(100, parser.getFSPercent());
+		assertEquals(100, parser.getTotalPercent());
+		// 2 filesystems * 2 stages * 100 characters:
+		assertEquals(8, err.toString().split("\n").length);
+	}
+
+	/**
+	 * Test of run method, of class WfsSimulator, with generated filesystems
+	 * and a limited rate.
+	 */
+	@Test
+	public void testRunRate()
+	{
+		System.out.println("run - rate");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long start = System.nanoTime();
+		int result = WfsSimulator.run(new String[] {"--sim-filesystems", "3",
+			"--sim-stages", "1", "--sim-rate", "1000", "--sim-burst", "10"},
+			null, new PrintStream(out, true), System.err);
+		long millis = (System.nanoTime() - start) / 1000000L;
+		assertEquals(0, result);
+		// 300 characters at 1000 per second
+		assertTrue(String.valueOf(millis), millis >= 250);
+		WfsOutputParser parser = new WfsOutputParser(3, 1);
+		parser.consume(out.toString());
+		assertEquals("/dev/sim3", parser.getCurrentFS());
+		assertEquals(100, parser.getTotalPercent());
+	}
+
+	/**
+	 * Test of running the batch mode with the simulator as the program.
+	 */
+	@Test
+	public void testBatchRun()
+	{
+		System.out.println("run - batch");
+		File java = new File(System.getProperty("java.home"),
+			"bin" + File.separator + "java");
+		Assume.assumeTrue(java.canExecute());
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		BatchRunner instance = new BatchRunner(new PrintStream(bos, true));
+		int result = instance.run(Arrays.asList(java.getAbsolutePath(),
+			"-cp", System.getProperty("java.class.path"),
+			WfsSimulator.class.getName(), "--sim-stderr-every", "150"),
+			Arrays.asList("/dev/sda1", "/dev/sdb1"), 3, 2, 0);
+		String output = bos.toString();
+		assertEquals(output, BatchRunner.EXIT_OK, result);
+		assertTrue(output, output.contains("fs_done\tjob=1\tfs=/dev/sdb1\n"));
+		assertTrue(output, output.contains("error\tjob=0\tmsg=wipefreespace:/dev/sda1: simulated warning 150\n"));
+		assertTrue(output, output.contains("\ttotal=100\n"));
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * WipeCommandBuilderTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * WipeCommandBuilderTest - a test for the WipeCommandBuilder class.
+ * @author Bogdan Drozdowski
+ */
+public class WipeCommandBuilderTest
+{
+	/**
+	 * Test of build method, of class WipeCommandBuilder.
+	 */
+	@Test
+	public void testBuild()
+	{
+		System.out.println("build");
+		WipeCommandBuilder instance = new WipeCommandBuilder();
+		assertEquals(Arrays.asList("wipefreespace", "--verbose"), instance.build());
+		assertEquals(3, instance.getNumberOfStages());
+		instance.setProgram("/sbin/wfs");
+		instance.setBlockSize("4096");
+		instance.setForce(true);
+		instance.setIoctl(true);
+		instance.setIterations("x");
+		instance.setLastZero(true);
+		instance.setNoPart(true);
+		instance.setNoUnrm(true);
+		instance.setNoWfs(true);
+		instance.setAllZeros(true);
+		instance.setSuperblockOffset("2");
+		instance.setMethod("gutmann");
+		instance.setNoWipeZeroBlocks(true);
+		instance.setUseDedicated(true);
+		instance.setOrder("block");
+		// invalid numbers are skipped
+		assertEquals(Arrays.asList("/sbin/wfs", "-B", "4096", "--force",
+			"--use-ioctl", "--last-zero", "--nopart", "--nounrm", "--nowfs",
+			"--all-zeros", "-b", "2", "--method", "gutmann",
+			"--no-wipe-zero-blocks", "--use-dedicated", "--order", "block",
+			"--verbose"), instance.build());
+		assertEquals(0, instance.getNumberOfStages());
+	}
+
+	/**
+	 * Test of fromConfig method, of class WipeCommandBuilder.
+	 */
+	@Test
+	public void testFromConfig()
+	{
+		System.out.println("fromConfig");
+		ConfigFile cfg = new ConfigFile(new File("test.cfg"));
+		assertEquals(Arrays.asList("wipefreespace", "--verbose"),
+			WipeCommandBuilder.fromConfig(cfg).build());
+		cfg.setWfsPath("/sbin/wfs");
+		cfg.setBlockSize(4096);
+		cfg.setIterations(2);
+		cfg.setSuperOffset(0);
+		cfg.setWipeUndel(true);
+		cfg.setMethodName("gutmann");
+		cfg.setWipingOrder("block");
+		cfg.setIsOrderSelected(true);
+		// the method isn't selected
+		WipeCommandBuilder instance = WipeCommandBuilder.fromConfig(cfg);
+		assertEquals(Arrays.asList("/sbin/wfs", "-B", "4096", "-n", "2",
+			"--nounrm", "-b", "0", "--order", "block", "--verbose"),
+			instance.build());
+		assertEquals(2, instance.getNumberOfStages());
+	}
+
+	/**
+	 * Test of fromOptions method, of class WipeCommandBuilder.
+	 */
+	@Test
+	public void testFromOptions()
+	{
+		System.out.println("fromOptions");
+		WipeOptions.Builder b = new WipeOptions.Builder();
+		b.setIter(true);
+		b.setIterationsValue("3");
+		// not selected
+		b.setMethodName("gutmann");
+		b.setNowfs(true);
+		WipeCommandBuilder instance = WipeCommandBuilder.fromOptions(b.build());
+		assertEquals(Arrays.asList("wipefreespace", "-n", "3", "--nowfs",
+			"--verbose"), instance.build());
+		assertEquals(2, instance.getNumberOfStages());
+	}
+}
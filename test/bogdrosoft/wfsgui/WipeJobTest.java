@@ -0,0 +1,127 @@
+/*
+ * WipeJobTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * WipeJobTest - a test for the WipeJob class.
+ * @author Bogdan Drozdowski
+ */
+public class WipeJobTest
+{
+	private static final List<String> OPTIONS = Arrays.asList("wipefreespace", "--verbose");
+	private static final List<String> FS = Arrays.asList("/dev/sda1", "/dev/sdb1", "/dev/sdc1");
+
+	/**
+	 * Test of createJobs method, of class WipeJob - one job.
+	 */
+	@Test
+	public void testCreateJobsSingle()
+	{
+		System.out.println("createJobs - single");
+		List<WipeJob> jobs = WipeJob.createJobs(OPTIONS, FS, 3, false);
+		assertEquals(1, jobs.size());
+		assertEquals(0, jobs.get(0).getId());
+		assertEquals(FS, jobs.get(0).getFilesystems());
+		assertEquals(Arrays.asList("wipefreespace", "--verbose",
+			"/dev/sda1", "/dev/sdb1", "/dev/sdc1"), jobs.get(0).getCommand());
+		assertEquals(3, jobs.get(0).getNumberOfStages());
+	}
+
+	/**
+	 * Test of createJobs method, of class WipeJob - a job per filesystem.
+	 */
+	@Test
+	public void testCreateJobsPerFS()
+	{
+		System.out.println("createJobs - per filesystem");
+		List<WipeJob> jobs = WipeJob.createJobs(OPTIONS, FS, 2, true);
+		assertEquals(3, jobs.size());
+		for ( int i = 0; i < jobs.size(); i++ )
+		{
+			assertEquals(i, jobs.get(i).getId());
+			assertEquals(Arrays.asList(FS.get(i)), jobs.get(i).getFilesystems());
+			assertEquals(Arrays.asList("wipefreespace", "--verbose", FS.get(i)),
+				jobs.get(i).getCommand());
+		}
+	}
+
+	/**
+	 * Test of createJobs method, of class WipeJob - configuration sections.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testCreateJobsSections() throws Exception
+	{
+		System.out.println("createJobs - sections");
+		ConfigFile cfg = new ConfigFile(new File("test.cfg"));
+		ConfigFile a = cfg.addSection("a");
+		a.setFSList(FS.subList(0, 2));
+		a.setWipePart(true);
+		// nothing to wipe
+		ConfigFile b = cfg.addSection("b");
+		b.setFSList(FS);
+		b.setWipePart(true);
+		b.setWipeUndel(true);
+		b.setWipeFreeSpace(true);
+		// no filesystems
+		cfg.addSection("c");
+		ConfigFile d = cfg.addSection("d");
+		d.setFSList(FS.subList(2, 3));
+		d.setIterations(2);
+
+		List<WipeJob> jobs = WipeJob.createJobs(cfg.getSections(), 5, true);
+		assertEquals(3, jobs.size());
+		for ( int i = 0; i < jobs.size(); i++ )
+		{
+			assertEquals(5 + i, jobs.get(i).getId());
+			assertEquals(Arrays.asList(FS.get(i)), jobs.get(i).getFilesystems());
+		}
+		assertEquals("a", jobs.get(0).getName());
+		assertEquals(2, jobs.get(0).getNumberOfStages());
+		assertEquals(Arrays.asList("wipefreespace", "--nopart", "--verbose",
+			FS.get(0)), jobs.get(0).getCommand());
+		assertEquals("d", jobs.get(2).getName());
+		assertEquals(3, jobs.get(2).getNumberOfStages());
+		assertEquals(Arrays.asList("wipefreespace", "-n", "2", "--verbose",
+			FS.get(2)), jobs.get(2).getCommand());
+
+		jobs = WipeJob.createJobs(cfg.getSections(), 0, false);
+		assertEquals(2, jobs.size());
+		assertEquals(1, jobs.get(1).getId());
+		assertEquals(FS.subList(0, 2), jobs.get(0).getFilesystems());
+		assertTrue(WipeJob.createJobs(null, 0, true).isEmpty());
+	}
+
+	/**
+	 * Test of the WipeJob constructor with no filesystems.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoFilesystems()
+	{
+		System.out.println("WipeJob - no filesystems");
+		new WipeJob(0, OPTIONS, Arrays.<String>asList(), 3);
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * WipeOptionsTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * WipeOptionsTest - a test for the WipeOptions class.
+ * @author Bogdan Drozdowski
+ */
+public class WipeOptionsTest
+{
+	/**
+	 * Test of the default values of class WipeOptions.
+	 */
+	@Test
+	public void testDefault()
+	{
+		System.out.println("DEFAULT");
+		WipeOptions instance = WipeOptions.DEFAULT;
+		assertEquals(1, instance.getJobs());
+		assertEquals(1, instance.getJobsPerDisk());
+		assertFalse(instance.isForce());
+		assertFalse(instance.isBatch());
+		assertNull(instance.getFsList());
+		assertNull(instance.getMethodName());
+		assertNull(instance.getConfigFile());
+	}
+
+	/**
+	 * Test of build method, of class WipeOptions.Builder.
+	 */
+	@Test
+	public void testBuild()
+	{
+		System.out.println("Builder.build");
+		WipeOptions.Builder b = new WipeOptions.Builder();
+		List<String> fs = new ArrayList<String>(Arrays.asList("/dev/sda1"));
+		b.setFsList(fs);
+		b.addFilesystem("/dev/sdb1");
+		b.setForce(true);
+		b.setJobs(3);
+		b.setMethodName("gutmann");
+		WipeOptions first = b.build();
+		// the options don't change with the builder or the given list
+		fs.clear();
+		b.setForce(false);
+		b.addFilesystem("/dev/sdc1");
+		WipeOptions second = b.build();
+		assertTrue(first.isForce());
+		assertEquals(3, first.getJobs());
+		assertEquals("gutmann", first.getMethodName());
+		assertEquals(Arrays.asList("/dev/sda1", "/dev/sdb1"), first.getFsList());
+		assertFalse(second.isForce());
+		assertEquals(Arrays.asList("/dev/sda1", "/dev/sdb1", "/dev/sdc1"),
+			second.getFsList());
+	}
+
+	/**
+	 * Test of getFsList method, of class WipeOptions.
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetFsListUnmodifiable()
+	{
+		System.out.println("getFsList - unmodifiable");
+		WipeOptions.Builder b = new WipeOptions.Builder();
+		b.addFilesystem("/dev/sda1");
+		b.build().getFsList().add("/dev/sdb1");
+	}
+
+	/**
+	 * Test of getCommand method, of class WipeOptions.
+	 */
+	@Test
+	public void testGetCommand()
+	{
+		System.out.println("getCommand");
+		WipeOptions.Builder b = new WipeOptions.Builder();
+		b.setWfsPath("/usr/bin/wipefreespace");
+		b.setForce(true);
+		b.setIter(true);
+		b.setIterationsValue("x");
+		b.setBlkSize(true);
+		b.setBlkSizeValue("512");
+		b.setNopart(true);
+		b.addFilesystem("/dev/sda1");
+		WipeOptions instance = b.build();
+		List<String> cmd = instance.getCommand();
+		// the invalid number of iterations is skipped
+		assertEquals(Arrays.asList("/usr/bin/wipefreespace", "-B", "512",
+			"--force", "--nopart", "--verbose"), cmd);
+		// made only once
+		assertSame(cmd, instance.getCommand());
+		assertEquals(2, instance.getNumberOfStages());
+		assertEquals(3, WipeOptions.DEFAULT.getNumberOfStages());
+		assertEquals(Arrays.asList(WipeCommandBuilder.DEFAULT_PROGRAM, "--verbose"),
+			WipeOptions.DEFAULT.getCommand());
+	}
+
+	/**
+	 * Test of getCommand method, of class WipeOptions.
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetCommandUnmodifiable()
+	{
+		System.out.println("getCommand - unmodifiable");
+		new WipeOptions.Builder().build().getCommand().add("--force");
+	}
+
+	/**
+	 * Test of getCommand method, of class WipeOptions, from many threads.
+	 * @throws Exception on test failure.
+	 */
+	@Test
+	public void testGetCommandConcurrent() throws Exception
+	{
+		System.out.println("getCommand - concurrent");
+		WipeOptions.Builder b = new WipeOptions.Builder();
+		b.setMethod(true);
+		b.setMethodName("gutmann");
+		final WipeOptions instance = b.build();
+		ExecutorService exec = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<List<String>>> results =
+				new ArrayList<Future<List<String>>>();
+			for ( int i = 0; i < 16; i++ )
+			{
+				results.add(exec.submit(new Callable<List<String>>()
+				{
+					@Override
+					public List<String> call()
+					{
+						return instance.getCommand();
+					}
+				}));
+			}
+			for ( Future<List<String>> f : results )
+			{
+				assertEquals(instance.getCommand(), f.get());
+			}
+			assertEquals(Arrays.asList(WipeCommandBuilder.DEFAULT_PROGRAM,
+				"--method", "gutmann", "--verbose"), instance.getCommand());
+		}
+		finally
+		{
+			exec.shutdown();
+		}
+	}
+}
@@ -0,0 +1,270 @@
+/*
+ * WipeSchedulerTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * WipeSchedulerTest - a test for the WipeScheduler class.
+ * @author Bogdan Drozdowski
+ */
+public class WipeSchedulerTest
+{
+	/**
+	 * A process that finishes when told to.
+	 */
+	private static class FakeProcess extends Process
+	{
+		private final CountDownLatch end = new CountDownLatch (1);
+		private volatile int exitCode;
+
+		void finish (int code)
+		{
+			exitCode = code;
+			end.countDown ();
+		}
+
+		@Override
+		public OutputStream getOutputStream ()
+		{
+			return new ByteArrayOutputStream ();
+		}
+
+		@Override
+		public InputStream getInputStream ()
+		{
+			return new ByteArrayInputStream (new byte[0]);
+		}
+
+		@Override
+		public InputStream getErrorStream ()
+		{
+			return new ByteArrayInputStream (new byte[0]);
+		}
+
+		@Override
+		public int waitFor () throws InterruptedException
+		{
+			end.await ();
+			return exitCode;
+		}
+
+		@Override
+		public int exitValue ()
+		{
+			if ( end.getCount () > 0 )
+			{
+				throw new IllegalThreadStateException ();
+			}
+			return exitCode;
+		}
+
+		@Override
+		public void destroy ()
+		{
+			finish (143);
+		}
+	}
+
+	private static class TestListener implements WipeScheduler.Listener
+	{
+		final AtomicInteger running = new AtomicInteger (0);
+		final AtomicInteger maxRunning = new AtomicInteger (0);
+		final List<Integer> exitCodes = Collections.synchronizedList (new ArrayList<Integer> ());
+		final CountDownLatch allDone = new CountDownLatch (1);
+
+		@Override
+		public void jobStarted (WipeJob job, Process process)
+		{
+			int now = running.incrementAndGet ();
+			if ( now > maxRunning.get () )
+			{
+				maxRunning.set (now);
+			}
+		}
+
+		@Override
+		public void jobFinished (WipeJob job, int exitCode)
+		{
+			running.decrementAndGet ();
+			exitCodes.add (exitCode);
+		}
+
+		@Override
+		public void allJobsFinished ()
+		{
+			allDone.countDown ();
+		}
+	}
+
+	private static class TestScheduler extends WipeScheduler
+	{
+		final List<FakeProcess> processes = Collections.synchronizedList (new ArrayList<FakeProcess> ());
+		final List<WipeJob> started = Collections.synchronizedList (new ArrayList<WipeJob> ());
+
+		TestScheduler (int maxJobs, Listener l)
+		{
+			super (maxJobs, l);
+		}
+
+		TestScheduler (int maxJobs, int maxJobsPerDevice, Listener l)
+		{
+			// the disk is the name without the partition number
+			super (maxJobs, maxJobsPerDevice, new DeviceResolver ()
+			{
+				@Override
+				public String getDevice (String fs)
+				{
+					return fs.replaceAll ("[0-9]+$", "");
+				}
+			}, l);
+		}
+
+		@Override
+		protected Process startProcess (WipeJob job) throws IOException
+		{
+			if ( job.getFilesystems ().contains ("bad") )
+			{
+				throw new IOException ("bad");
+			}
+			FakeProcess p = new FakeProcess ();
+			processes.add (p);
+			started.add (job);
+			return p;
+		}
+	}
+
+	private static List<WipeJob> createJobs (String... fs)
+	{
+		return WipeJob.createJobs (Arrays.asList ("wipefreespace"),
+			Arrays.asList (fs), 3, true);
+	}
+
+	/**
+	 * Test of start method, of class WipeScheduler.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStart() throws Exception
+	{
+		System.out.println("start");
+		TestListener listener = new TestListener ();
+		TestScheduler instance = new TestScheduler (2, listener);
+		instance.start (createJobs ("a", "b", "c", "d", "bad"));
+		assertTrue (instance.isRunning ());
+		assertEquals (2, instance.getRunningJobs ().size ());
+		// finish the jobs one by one, new ones get started
+		for ( int i = 0; i < 4; i++ )
+		{
+			long deadline = System.currentTimeMillis () + 5000;
+			while ( instance.processes.size () <= i
+				&& System.currentTimeMillis () < deadline )
+			{
+				Thread.sleep (10);
+			}
+			instance.processes.get (i).finish (i);
+		}
+		assertTrue (listener.allDone.await (5, TimeUnit.SECONDS));
+		assertFalse (instance.isRunning ());
+		assertEquals (2, listener.maxRunning.get ());
+		assertEquals (5, listener.exitCodes.size ());
+		assertTrue (listener.exitCodes.contains (WipeScheduler.EXIT_NOT_STARTED));
+	}
+
+	/**
+	 * Test of start method, of class WipeScheduler, with a limit of jobs per disk.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStartPerDevice() throws Exception
+	{
+		System.out.println("start - per device");
+		TestListener listener = new TestListener ();
+		TestScheduler instance = new TestScheduler (4, 1, listener);
+		instance.start (createJobs ("sda1", "sda2", "sdb1", "sdb2", "sdc1"));
+		// one job on each disk
+		assertEquals (3, instance.getRunningJobs ().size ());
+		assertEquals (Arrays.asList ("sda1", "sdb1", "sdc1"), Arrays.asList (
+			instance.started.get (0).getFilesystems ().get (0),
+			instance.started.get (1).getFilesystems ().get (0),
+			instance.started.get (2).getFilesystems ().get (0)));
+		// the next partition of sdb is started when sdb1 finishes
+		instance.processes.get (1).finish (0);
+		long deadline = System.currentTimeMillis () + 5000;
+		while ( instance.started.size () < 4
+			&& System.currentTimeMillis () < deadline )
+		{
+			Thread.sleep (10);
+		}
+		assertEquals ("sdb2", instance.started.get (3).getFilesystems ().get (0));
+		assertEquals (3, instance.getRunningJobs ().size ());
+		instance.cancel ();
+	}
+
+	/**
+	 * Test of cancel method, of class WipeScheduler.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testCancel() throws Exception
+	{
+		System.out.println("cancel");
+		TestListener listener = new TestListener ();
+		TestScheduler instance = new TestScheduler (1, listener);
+		instance.start (createJobs ("a", "b"));
+		instance.cancel ();
+		assertFalse (instance.isRunning ());
+		assertEquals (1, instance.processes.size ());
+		assertEquals (143, instance.processes.get (0).waitFor ());
+		assertFalse (listener.allDone.await (200, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Test of start method, of class WipeScheduler, when the first job fails.
+	 * @throws java.lang.Exception
+	 */
+	@Test(expected = IOException.class)
+	public void testStartFailed() throws Exception
+	{
+		System.out.println("start - failed");
+		TestScheduler instance = new TestScheduler (1, new TestListener ());
+		try
+		{
+			instance.start (createJobs ("bad", "a"));
+		}
+		finally
+		{
+			assertFalse (instance.isRunning ());
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * WipeStatsTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * WipeStatsTest - a test for the WipeStats class.
+ * @author Bogdan Drozdowski
+ */
+public class WipeStatsTest
+{
+	/**
+	 * Test of newRunListener method, of class WipeStats.
+	 */
+	@Test
+	public void testNewRunListener()
+	{
+		System.out.println("newRunListener");
+		WipeStats instance = new WipeStats ();
+		assertEquals(-1, instance.getCurrentJob ());
+		assertEquals("", instance.getCurrentFilesystem ());
+		List<WipeJob> jobs = WipeJob.createJobs (Arrays.asList ("wipefreespace"),
+			Arrays.asList ("/dev/sda1", "/dev/sdb1"), 3, true);
+		ProgressListener l = instance.newRunListener (new ProgressAggregator (jobs));
+		l.fsStarted (1, "/dev/sdb1");
+		l.stageProgress (1, "/dev/sdb1", 90, 80, 80);
+		l.fsStarted (0, "/dev/sda1");
+		l.stageProgress (0, "/dev/sda1", 40, 20, 20);
+		l.errorLine (0, "bad");
+		assertEquals(0, instance.getCurrentJob ());
+		assertEquals("/dev/sda1", instance.getCurrentFilesystem ());
+		assertEquals(40, instance.getStagePercent ());
+		assertEquals(20, instance.getFilesystemPercent ());
+		// the progress of the whole run, not of the last job
+		assertEquals(50, instance.getTotalPercent ());
+		assertEquals(1, instance.getErrorLines ());
+		l.processExited (1, 0);
+		assertEquals(60, instance.getTotalPercent ());
+	}
+
+	/**
+	 * Test of the counters, of class WipeStats.
+	 */
+	@Test
+	public void testCounters()
+	{
+		System.out.println("counters");
+		WipeStats instance = new WipeStats ();
+		instance.addOutputChars (100);
+		instance.addOutputChars (28);
+		instance.addUiUpdate (false);
+		instance.addUiUpdate (true);
+		instance.addUiUpdate (true);
+		assertEquals(128, instance.getOutputCharsParsed ());
+		assertEquals(3, instance.getUiUpdatesDispatched ());
+		assertEquals(2, instance.getUiUpdatesDropped ());
+		instance.resetCounters ();
+		assertEquals(0, instance.getOutputCharsParsed ());
+		assertEquals(0, instance.getUiUpdatesDispatched ());
+		assertEquals(0, instance.getUiUpdatesDropped ());
+	}
+
+	/**
+	 * Test of the running programs, of class WipeStats.
+	 */
+	@Test
+	public void testProcesses()
+	{
+		System.out.println("processes");
+		WipeStats instance = new WipeStats ();
+		assertEquals(0, instance.getRunningProcesses ());
+		assertEquals(-1, instance.getProcessId ());
+		assertEquals(-1, instance.getProcessUptimeMillis ());
+		instance.processStarted (0, mock (Process.class));
+		assertEquals(1, instance.getRunningProcesses ());
+		// a mock's pid () returns 0
+		assertEquals(0, instance.getProcessId ());
+		assertTrue(instance.getProcessUptimeMillis () >= 0);
+		instance.processEnded (0);
+		assertEquals(0, instance.getRunningProcesses ());
+		assertEquals(-1, WipeStats.getPid (null));
+	}
+
+	/**
+	 * Test of register method, of class WipeStats.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testRegister() throws Exception
+	{
+		System.out.println("register");
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer ();
+		ObjectName name = new ObjectName (WipeStats.OBJECT_NAME);
+		assertTrue(WipeStats.register ());
+		// registering again does nothing
+		assertTrue(WipeStats.register ());
+		try
+		{
+			assertTrue(server.isRegistered (name));
+			WipeStats.getInstance ().addOutputChars (5);
+			assertTrue(((Long) server.getAttribute (name, "OutputCharsParsed")) >= 5);
+			assertNotNull(server.getAttribute (name, "CurrentFilesystem"));
+			assertNotNull(server.getAttribute (name, "ActiveReaders"));
+		}
+		finally
+		{
+			WipeStats.unregister ();
+		}
+		assertFalse(server.isRegistered (name));
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * OutputConsoleTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui.gui;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import javax.swing.JTextArea;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * OutputConsoleTest - a test for the OutputConsole class.
+ * @author Bogdan Drozdowski
+ */
+public class OutputConsoleTest
+{
+	/**
+	 * Test of write and flush methods, of class OutputConsole.
+	 */
+	@Test
+	public void testWriteFlush()
+	{
+		System.out.println("write/flush");
+		JTextArea area = new JTextArea();
+		OutputConsole instance = new OutputConsole(area, 4);
+		instance.reset("start\n", false);
+		assertEquals("start\n", area.getText());
+		instance.write("line1\nline2\n");
+		// not displayed until flushed
+		assertEquals("start\n", area.getText());
+		instance.flush();
+		assertEquals("start\nline1\nline2\n", area.getText());
+		instance.write("line3\nli".toCharArray(), 0, 8);
+		instance.write("ne4");
+		instance.flush();
+		// only the last 4 lines are kept
+		assertEquals("line1\nline2\nline3\nline4", area.getText());
+		assertNull(instance.getSpoolFile());
+	}
+
+	/**
+	 * Test of getSpoolFile method, of class OutputConsole.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testGetSpoolFile() throws Exception
+	{
+		System.out.println("getSpoolFile");
+		JTextArea area = new JTextArea();
+		OutputConsole instance = new OutputConsole(area, 1);
+		instance.reset("start\n", true);
+		for ( int i = 0; i < 100; i++ )
+		{
+			instance.write("line" + i + "\n");
+		}
+		instance.flush();
+		assertEquals("", area.getText());
+		File spool = instance.getSpoolFile();
+		assertNotNull(spool);
+		BufferedReader br = new BufferedReader(new FileReader(spool));
+		try
+		{
+			assertEquals("start", br.readLine());
+			for ( int i = 0; i < 100; i++ )
+			{
+				assertEquals("line" + i, br.readLine());
+			}
+			assertNull(br.readLine());
+		}
+		finally
+		{
+			br.close();
+		}
+		instance.closeSpool();
+		assertTrue(spool.delete());
+	}
+
+	/**
+	 * Test of write method, of class OutputConsole, with too much text waiting.
+	 */
+	@Test
+	public void testWriteOverflow()
+	{
+		System.out.println("write - overflow");
+		JTextArea area = new JTextArea();
+		OutputConsole instance = new OutputConsole(area, 10);
+		instance.reset(null, false);
+		char[] part = new char[600 * 1024];
+		for ( char c = 'a'; c <= 'c'; c++ )
+		{
+			Arrays.fill(part, c);
+			instance.write(part, 0, part.length);
+		}
+		instance.flush();
+		// the oldest parts are dropped whole
+		String text = area.getText();
+		assertEquals(part.length, text.length());
+		assertEquals('c', text.charAt(0));
+		// only the end of a too big part is kept
+		char[] big = new char[1536 * 1024];
+		Arrays.fill(big, 0, 512 * 1024, 'y');
+		Arrays.fill(big, 512 * 1024, big.length, 'z');
+		instance.reset(null, false);
+		instance.write(big, 0, big.length);
+		instance.flush();
+		text = area.getText();
+		assertEquals(1024 * 1024, text.length());
+		assertEquals(-1, text.indexOf('y'));
+	}
+
+	/**
+	 * Test of reset method, of class OutputConsole, removing the spool files.
+	 */
+	@Test
+	public void testResetSpool()
+	{
+		System.out.println("reset - spool");
+		OutputConsole instance = new OutputConsole(new JTextArea(), 1);
+		instance.reset("first\n", true);
+		File first = instance.getSpoolFile();
+		assertNotNull(first);
+		assertTrue(first.exists());
+		instance.reset("second\n", true);
+		File second = instance.getSpoolFile();
+		assertNotNull(second);
+		// the previous run's transcript is removed
+		assertFalse(first.exists());
+		assertTrue(second.exists());
+		instance.reset(null, false);
+		assertFalse(second.exists());
+		assertNull(instance.getSpoolFile());
+	}
+
+	/**
+	 * Test of reset method, of class OutputConsole, the spool file's permissions.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testResetSpoolPermissions() throws Exception
+	{
+		System.out.println("reset - spool permissions");
+		OutputConsole instance = new OutputConsole(new JTextArea(), 1);
+		instance.reset("text\n", true);
+		File spool = instance.getSpoolFile();
+		assertNotNull(spool);
+		try
+		{
+			assertEquals(PosixFilePermissions.fromString("rw-------"),
+				Files.getPosixFilePermissions(spool.toPath()));
+		}
+		catch (UnsupportedOperationException ex)
+		{
+			// not a POSIX system
+		}
+		finally
+		{
+			instance.reset(null, false);
+		}
+		assertFalse(spool.exists());
+	}
+}
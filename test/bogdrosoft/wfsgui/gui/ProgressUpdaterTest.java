@@ -25,9 +25,8 @@ import javax.swing.JProgressBar;
 import javax.swing.JTextArea;
 import javax.swing.text.JTextComponent;
 import org.junit.Test;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -42,8 +41,7 @@ public class ProgressUpdaterTest
 	@Test
 	public void testCall()
 	{
-		JTextComponent textComponentMock = mock(JTextArea.class);
-		when(textComponentMock.getText()).thenReturn("");
+		JTextComponent textComponent = new JTextArea();
 
 		JProgressBar stageBarParam = mock(JProgressBar.class);
 		when(stageBarParam.getMaximum()).thenReturn(100);
@@ -59,8 +57,8 @@ public class ProgressUpdaterTest
 
 		JLabel currentFSLabel = mock(JLabel.class);
 		ProgressUpdater instance = new ProgressUpdater(
-			new ByteArrayInputStream(new byte[] {1}),
-			textComponentMock,
+			new ByteArrayInputStream(new byte[] {'a'}),
+			textComponent,
 			stageBarParam,
 			fsBarParam,
 			totalBarParam,
@@ -73,6 +71,6 @@ public class ProgressUpdaterTest
 			Thread.sleep (1000);
 		} catch (InterruptedException intex) {}
 		instance.stop();
-		verify(textComponentMock).setText(anyString());
+		assertEquals("a", textComponent.getText());
 	}
 }
@@ -0,0 +1,152 @@
+/*
+ * SwingProgressListenerTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui.gui;
+
+import bogdrosoft.wfsgui.ProgressAggregator;
+import bogdrosoft.wfsgui.ProgressRateEstimator;
+import bogdrosoft.wfsgui.WipeJob;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.JLabel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SwingProgressListenerTest - a test for the SwingProgressListener class.
+ * @author Bogdan Drozdowski
+ */
+public class SwingProgressListenerTest
+{
+	private static void waitForUi () throws Exception
+	{
+		// the updates are merged and run later on the EDT
+		Thread.sleep (500);
+		SwingUtilities.invokeAndWait (new Runnable ()
+		{
+			@Override
+			public void run ()
+			{
+				// nothing, just wait for the pending updates
+			}
+		});
+	}
+
+	/**
+	 * Test of displaying the progress, of class SwingProgressListener.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStageProgress() throws Exception
+	{
+		System.out.println("stageProgress");
+		List<WipeJob> jobs = WipeJob.createJobs (Arrays.asList ("wfs"),
+			Arrays.asList ("/dev/sda1", "/dev/sdb1"), 3, true);
+		JProgressBar stageBar = new JProgressBar (0, 100);
+		JProgressBar fsBar = new JProgressBar (0, 100);
+		JProgressBar totalBar = new JProgressBar (0, 100);
+		JLabel label = new JLabel ();
+		SwingProgressListener instance = new SwingProgressListener
+			(stageBar, fsBar, totalBar, label,
+			new ProgressAggregator (jobs));
+		instance.fsStarted (0, "/dev/sda1");
+		instance.stageProgress (0, "/dev/sda1", 40, 20, 20);
+		waitForUi ();
+		assertEquals ("/dev/sda1", label.getText ());
+		assertEquals (40, stageBar.getValue ());
+		assertEquals (20, fsBar.getValue ());
+		assertEquals (10, totalBar.getValue ());
+		instance.processExited (1, 0);
+		waitForUi ();
+		assertEquals (60, totalBar.getValue ());
+	}
+
+	/**
+	 * Test of displaying the progress of parallel jobs, of class SwingProgressListener.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStageProgressParallel() throws Exception
+	{
+		System.out.println("stageProgress - parallel");
+		List<WipeJob> jobs = WipeJob.createJobs (Arrays.asList ("wfs"),
+			Arrays.asList ("/dev/sda1", "/dev/sdb1"), 3, true);
+		JProgressBar stageBar = new JProgressBar (0, 100);
+		JProgressBar fsBar = new JProgressBar (0, 100);
+		JProgressBar totalBar = new JProgressBar (0, 100);
+		JLabel label = new JLabel ();
+		SwingProgressListener instance = new SwingProgressListener
+			(stageBar, fsBar, totalBar, label,
+			new ProgressAggregator (jobs));
+		instance.fsStarted (0, "/dev/sda1");
+		instance.fsStarted (1, "/dev/sdb1");
+		instance.stageProgress (0, "/dev/sda1", 40, 20, 20);
+		instance.stageProgress (1, "/dev/sdb1", 90, 60, 60);
+		waitForUi ();
+		// only the first job in the stage and filesystem bars
+		assertEquals ("/dev/sda1", label.getText ());
+		assertEquals (40, stageBar.getValue ());
+		assertEquals (20, fsBar.getValue ());
+		// both jobs in the total
+		assertEquals (40, totalBar.getValue ());
+		// a late, lower total doesn't go back
+		instance.stageProgress (0, "/dev/sda1", 50, 10, 10);
+		waitForUi ();
+		assertEquals (40, totalBar.getValue ());
+		instance.processExited (0, 0);
+		instance.stageProgress (1, "/dev/sdb1", 30, 70, 70);
+		waitForUi ();
+		assertEquals ("/dev/sdb1", label.getText ());
+		assertEquals (30, stageBar.getValue ());
+		assertEquals (70, fsBar.getValue ());
+		assertEquals (85, totalBar.getValue ());
+	}
+
+	/**
+	 * Test of displaying the time left, of class SwingProgressListener.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testStageProgressEstimate() throws Exception
+	{
+		System.out.println("stageProgress - estimate");
+		List<WipeJob> jobs = WipeJob.createJobs (Arrays.asList ("wfs"),
+			Arrays.asList ("/dev/sda1", "/dev/sdb1"), 3, true);
+		JProgressBar stageBar = new JProgressBar (0, 100);
+		JProgressBar fsBar = new JProgressBar (0, 100);
+		JProgressBar totalBar = new JProgressBar (0, 100);
+		ProgressAggregator aggregator = new ProgressAggregator (jobs);
+		SwingProgressListener instance = new SwingProgressListener
+			(stageBar, fsBar, totalBar, new JLabel (), aggregator,
+			new ProgressRateEstimator (aggregator, 1.0, 1));
+		instance.fsStarted (0, "/dev/sda1");
+		instance.stageProgress (0, "/dev/sda1", 40, 20, 20);
+		Thread.sleep (20);
+		instance.stageProgress (0, "/dev/sda1", 80, 40, 40);
+		waitForUi ();
+		assertEquals (40, fsBar.getValue ());
+		assertTrue (fsBar.getString (),
+			fsBar.getString ().matches ("40% \\(\\d+:\\d\\d:\\d\\d\\)"));
+		assertTrue (totalBar.getString (),
+			totalBar.getString ().matches ("20% \\(\\d+:\\d\\d:\\d\\d\\)"));
+	}
+}
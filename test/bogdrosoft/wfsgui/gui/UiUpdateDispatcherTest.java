@@ -0,0 +1,71 @@
+/*
+ * UiUpdateDispatcherTest.java, part of the WipeFreeSpaceGUI2 package.
+ *
+ * Copyright (C) 2025 Bogdan Drozdowski, bogdro (at) users . sourceforge . net
+ * License: GNU General Public License, v3+
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package bogdrosoft.wfsgui.gui;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * UiUpdateDispatcherTest - a test for the UiUpdateDispatcher class.
+ * @author Bogdan Drozdowski
+ */
+public class UiUpdateDispatcherTest
+{
+	/**
+	 * Test of dispatch method, of class UiUpdateDispatcher.
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testDispatch() throws Exception
+	{
+		System.out.println("dispatch");
+		final AtomicInteger runs = new AtomicInteger (0);
+		final AtomicInteger runsOutsideEdt = new AtomicInteger (0);
+		final CountDownLatch firstRun = new CountDownLatch (1);
+		Runnable r = new Runnable ()
+		{
+			@Override
+			public void run ()
+			{
+				if ( ! SwingUtilities.isEventDispatchThread () )
+				{
+					runsOutsideEdt.incrementAndGet ();
+				}
+				runs.incrementAndGet ();
+				firstRun.countDown ();
+			}
+		};
+		UiUpdateDispatcher instance = new UiUpdateDispatcher (1000);
+		for ( int i = 0; i < 10000; i++ )
+		{
+			instance.dispatch (r);
+		}
+		assertTrue (firstRun.await (5, TimeUnit.SECONDS));
+		Thread.sleep (100);
+		// all the dispatches were merged into one update
+		assertEquals (1, runs.get ());
+		assertEquals (0, runsOutsideEdt.get ());
+		instance.dispatch (null);
+	}
+}
@@ -0,0 +1,30 @@
+#!/bin/sh
+#
+# A stand-in for the "wipefreespace" program, for testing WipeFreeSpaceGUI2
+# without touching any disk. Give the path to this script as the path to
+# "wipefreespace" in the GUI or as "wfs_path" in the configuration file.
+# The simulation is controlled by the WFS_SIM_* environment variables,
+# see test/bogdrosoft/wfsgui/WfsSimulator.java. Needs the compiled tests
+# ("mvn test-compile" or "ant compile-test").
+#
+# Copyright (C) 2025 Bogdan 'bogdro' Drozdowski, bogdro (at) users . sourceforge . net
+#
+# This program is free software: you can redistribute it and/or modify
+# it under the terms of the GNU General Public License as published by
+# the Free Software Foundation, either version 3 of the License, or
+# (at your option) any later version.
+#
+# This program is distributed in the hope that it will be useful,
+# but WITHOUT ANY WARRANTY; without even the implied warranty of
+# MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+# GNU General Public License for more details.
+#
+# You should have received a copy of the GNU General Public License
+# along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+TOP=`dirname "$0"`/..
+
+# Maven and Ant output directories:
+CP="$TOP/target/test-classes:$TOP/target/classes:$TOP/build/test/classes:$TOP/build/classes"
+
+exec java -cp "$CP" bogdrosoft.wfsgui.WfsSimulator "$@"